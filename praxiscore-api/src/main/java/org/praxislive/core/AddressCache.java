@@ -0,0 +1,130 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.core;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.praxislive.core.types.PMap;
+
+/**
+ * Bounded caches of parsed addresses and address IDs, shared by
+ * {@link ComponentAddress}, {@link ControlAddress} and {@link PortAddress}.
+ * <p>
+ * Each cache is a fixed size, direct mapped table keyed by address text. A new
+ * entry replaces any existing entry in the same slot, so the most recently
+ * used addresses are retained without any locking. Lookups that race with
+ * replacement simply miss.
+ */
+public final class AddressCache {
+
+    static final Table<String> IDS = new Table<>(4096);
+    static final Table<ComponentAddress> COMPONENTS = new Table<>(2048);
+    static final Table<ControlAddress> CONTROLS = new Table<>(4096);
+    static final Table<PortAddress> PORTS = new Table<>(1024);
+
+    private AddressCache() {
+    }
+
+    /**
+     * Statistics for the address caches. The returned map contains a map for
+     * each cache with {@code hits}, {@code misses} and {@code hit-rate} keys.
+     *
+     * @return cache statistics
+     */
+    public static PMap statistics() {
+        return PMap.of(
+                "ids", IDS.statistics(),
+                "components", COMPONENTS.statistics(),
+                "controls", CONTROLS.statistics(),
+                "ports", PORTS.statistics()
+        );
+    }
+
+    static final class Table<T> {
+
+        private final Entry<?>[] entries;
+        private final int mask;
+        private final LongAdder hits;
+        private final LongAdder misses;
+
+        private Table(int size) {
+            if (Integer.bitCount(size) != 1) {
+                throw new IllegalArgumentException();
+            }
+            entries = new Entry<?>[size];
+            mask = size - 1;
+            hits = new LongAdder();
+            misses = new LongAdder();
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(String key) {
+            Entry<?> entry = entries[index(key)];
+            if (entry != null && entry.key.equals(key)) {
+                hits.increment();
+                return (T) entry.value;
+            }
+            misses.increment();
+            return null;
+        }
+
+        T put(String key, T value) {
+            entries[index(key)] = new Entry<>(key, value);
+            return value;
+        }
+
+        long hits() {
+            return hits.sum();
+        }
+
+        long misses() {
+            return misses.sum();
+        }
+
+        PMap statistics() {
+            long h = hits.sum();
+            long m = misses.sum();
+            long total = h + m;
+            return PMap.of("hits", h,
+                    "misses", m,
+                    "hit-rate", total == 0 ? 0 : (double) h / total);
+        }
+
+        private int index(String key) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+    }
+
+    private static final class Entry<T> {
+
+        private final String key;
+        private final T value;
+
+        private Entry(String key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -21,11 +21,8 @@
  */
 package org.praxislive.core;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.praxislive.core.types.PMap;
 
 /**
@@ -40,11 +37,6 @@ public final class ComponentAddress extends Value {
      */
     public static final String TYPE_NAME = "ComponentAddress";
 
-    private static final String ADDRESS_REGEX = "\\G/([_\\-\\p{javaLetter}][_\\-\\p{javaLetterOrDigit}]*)";
-    private static final String ID_REGEX = "[_\\-\\p{javaLetter}][_\\-\\p{javaLetterOrDigit}]*";
-    private static final Pattern ID_PATTERN = Pattern.compile(ID_REGEX);
-    private static final Pattern ADDRESS_PATTERN = Pattern.compile(ADDRESS_REGEX);
-
     private final String[] address;
     private final String addressString;
 
@@ -101,9 +93,12 @@ public final class ComponentAddress extends Value {
         } else {
             String s = addressString;
             s = s.substring(0, s.lastIndexOf('/'));
-            s = cache(s);
+            ComponentAddress cached = AddressCache.COMPONENTS.get(s);
+            if (cached != null) {
+                return cached;
+            }
             String[] a = Arrays.copyOfRange(address, 0, address.length - 1);
-            return new ComponentAddress(a, s);
+            return AddressCache.COMPONENTS.put(s, new ComponentAddress(a, s));
         }
     }
 
@@ -159,17 +154,21 @@ public final class ComponentAddress extends Value {
     }
 
     /**
-     * Create an address from the supplied String
+     * Create an address from the supplied String. Parsed addresses are cached,
+     * so the returned address may be a previously created instance.
      *
      * @param addressString
      * @return ComponentAddress
      * @throws org.praxislive.core.ValueFormatException
      */
     public static ComponentAddress parse(String addressString) throws ValueFormatException {
-
+        ComponentAddress cached = AddressCache.COMPONENTS.get(addressString);
+        if (cached != null) {
+            return cached;
+        }
         String[] address = parseAddress(addressString);
-        return new ComponentAddress(address, cache(addressString));
-
+        return AddressCache.COMPONENTS.put(addressString,
+                new ComponentAddress(address, addressString));
     }
 
     /**
@@ -227,23 +226,60 @@ public final class ComponentAddress extends Value {
      * @return
      */
     public static boolean isValidID(String id) {
-        return ID_PATTERN.matcher(id).matches();
+        return isValidID(id, 0, id.length());
     }
 
-    private static String[] parseAddress(String addressString) throws ValueFormatException {
-        Matcher match = ADDRESS_PATTERN.matcher(addressString);
-        ArrayList<String> addressList = new ArrayList<String>();
-        int end = 0;
-        while (match.find()) {
-            String id = match.group(1);
-            addressList.add(cache(id));
-            end = match.end();
+    /**
+     * Check whether the region of the provided String is a valid ID. A valid
+     * ID starts with a letter, underscore or hyphen, followed by any number of
+     * letters, digits, underscores or hyphens.
+     *
+     * @param text text containing ID
+     * @param start start index (inclusive)
+     * @param end end index (exclusive)
+     * @return true if valid
+     */
+    static boolean isValidID(String text, int start, int end) {
+        if (start >= end) {
+            return false;
         }
-        if (addressList.size() < 1 || end < addressString.length()) {
-            throw new ValueFormatException();
+        int cp = text.codePointAt(start);
+        if (!(cp == '_' || cp == '-' || Character.isLetter(cp))) {
+            return false;
+        }
+        for (int i = start + Character.charCount(cp); i < end; i += Character.charCount(cp)) {
+            cp = text.codePointAt(i);
+            if (!(cp == '_' || cp == '-' || Character.isLetterOrDigit(cp))) {
+                return false;
+            }
         }
-        return addressList.toArray(new String[addressList.size()]);
+        return true;
+    }
 
+    private static String[] parseAddress(String addressString) throws ValueFormatException {
+        int length = addressString.length();
+        if (length < 2 || addressString.charAt(0) != '/') {
+            throw new ValueFormatException();
+        }
+        int depth = 1;
+        for (int i = 1; i < length; i++) {
+            if (addressString.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        String[] address = new String[depth];
+        int start = 1;
+        int part = 0;
+        for (int i = 1; i <= length; i++) {
+            if (i == length || addressString.charAt(i) == '/') {
+                if (!isValidID(addressString, start, i)) {
+                    throw new ValueFormatException();
+                }
+                address[part++] = cache(addressString.substring(start, i));
+                start = i + 1;
+            }
+        }
+        return address;
     }
 
     public static ArgumentInfo info() {
@@ -251,6 +287,7 @@ public final class ComponentAddress extends Value {
     }
 
     static String cache(String string) {
-        return string;
+        String cached = AddressCache.IDS.get(string);
+        return cached != null ? cached : AddressCache.IDS.put(string, string);
     }
 }
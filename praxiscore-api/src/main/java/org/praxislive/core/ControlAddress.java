@@ -22,7 +22,6 @@
 package org.praxislive.core;
 
 import java.util.Optional;
-import java.util.regex.Pattern;
 import static org.praxislive.core.ComponentAddress.cache;
 
 /**
@@ -36,10 +35,6 @@ public class ControlAddress extends Value {
     public static final String TYPE_NAME = "ControlAddress";
 
     public static final String SEPARATOR = ".";
-    private static final String SEP_REGEX = "\\.";
-    private static final String ID_REGEX = "[_\\-\\p{javaLetter}][_\\-\\p{javaLetterOrDigit}]*";
-    private static final Pattern ID_PATTERN = Pattern.compile(ID_REGEX);
-    private static final Pattern SEP_PATTERN = Pattern.compile(SEP_REGEX);
 
     private final ComponentAddress component;
     private final String controlID;
@@ -79,17 +74,18 @@ public class ControlAddress extends Value {
     }
 
     public static ControlAddress parse(String address) throws ValueFormatException {
-        String[] parts = SEP_PATTERN.split(address);
-        if (parts.length != 2) {
-            throw new ValueFormatException();
+        ControlAddress cached = AddressCache.CONTROLS.get(address);
+        if (cached != null) {
+            return cached;
         }
-        if (!(isValidID(parts[1]))) {
+        int sep = address.indexOf('.');
+        if (sep < 0 || address.indexOf('.', sep + 1) >= 0
+                || !ComponentAddress.isValidID(address, sep + 1, address.length())) {
             throw new ValueFormatException();
         }
-        String id = cache(parts[1]);
-        ComponentAddress comp = ComponentAddress.parse(parts[0]);
-        address = cache(address);
-        return new ControlAddress(comp, id, address);
+        String id = cache(address.substring(sep + 1));
+        ComponentAddress comp = ComponentAddress.parse(address.substring(0, sep));
+        return AddressCache.CONTROLS.put(address, new ControlAddress(comp, id, address));
     }
 
     public static ControlAddress of(String address) {
@@ -104,11 +100,13 @@ public class ControlAddress extends Value {
         if (!(isValidID(id))) {
             throw new IllegalArgumentException();
         }
-        id = cache(id);
         String address = component.toString() + SEPARATOR + id;
-        address = cache(address);
-        return new ControlAddress(component, id, address);
-
+        ControlAddress cached = AddressCache.CONTROLS.get(address);
+        if (cached != null) {
+            return cached;
+        }
+        id = cache(id);
+        return AddressCache.CONTROLS.put(address, new ControlAddress(component, id, address));
     }
 
     private static ControlAddress coerce(Value arg) throws ValueFormatException {
@@ -128,6 +126,6 @@ public class ControlAddress extends Value {
     }
 
     public static boolean isValidID(String id) {
-        return ID_PATTERN.matcher(id).matches();
+        return ComponentAddress.isValidID(id);
     }
 }
@@ -24,7 +24,6 @@ package org.praxislive.core;
 import java.util.List;
 import java.util.Map;
 import java.util.SequencedMap;
-import java.util.stream.Stream;
 
 /**
  * A {@link Map} with consistent order of entries. All static factory methods
@@ -74,7 +73,7 @@ public sealed interface OrderedMap<K, V> extends SequencedMap<K, V> permits Orde
      * @return empty map
      */
     public static <K, V> OrderedMap<K, V> of() {
-        return new OrderedMapImpl<>(List.of(), Map.of());
+        return OrderedMapImpl.empty();
     }
 
     /**
@@ -88,7 +87,7 @@ public sealed interface OrderedMap<K, V> extends SequencedMap<K, V> permits Orde
      * @throws NullPointerException if key or value are null
      */
     public static <K, V> OrderedMap<K, V> of(K k1, V v1) {
-        return new OrderedMapImpl<>(List.of(k1), Map.of(k1, v1));
+        return OrderedMapImpl.ofTable(new Object[]{k1, v1});
     }
 
     /**
@@ -105,7 +104,7 @@ public sealed interface OrderedMap<K, V> extends SequencedMap<K, V> permits Orde
      * @throws IllegalArgumentException if any keys are duplicated
      */
     public static <K, V> OrderedMap<K, V> of(K k1, V v1, K k2, V v2) {
-        return new OrderedMapImpl<>(List.of(k1, k2), Map.of(k1, v1, k2, v2));
+        return OrderedMapImpl.ofTable(new Object[]{k1, v1, k2, v2});
     }
 
     /**
@@ -124,7 +123,7 @@ public sealed interface OrderedMap<K, V> extends SequencedMap<K, V> permits Orde
      * @throws IllegalArgumentException if any keys are duplicated
      */
     public static <K, V> OrderedMap<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3) {
-        return new OrderedMapImpl<>(List.of(k1, k2, k3), Map.of(k1, v1, k2, v2, k3, v3));
+        return OrderedMapImpl.ofTable(new Object[]{k1, v1, k2, v2, k3, v3});
     }
 
     /**
@@ -145,7 +144,7 @@ public sealed interface OrderedMap<K, V> extends SequencedMap<K, V> permits Orde
      * @throws IllegalArgumentException if any keys are duplicated
      */
     public static <K, V> OrderedMap<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4) {
-        return new OrderedMapImpl<>(List.of(k1, k2, k3, k4), Map.of(k1, v1, k2, v2, k3, v3, k4, v4));
+        return OrderedMapImpl.ofTable(new Object[]{k1, v1, k2, v2, k3, v3, k4, v4});
     }
 
     /**
@@ -169,8 +168,7 @@ public sealed interface OrderedMap<K, V> extends SequencedMap<K, V> permits Orde
      */
     public static <K, V> OrderedMap<K, V> of(K k1, V v1, K k2, V v2, K k3, V v3,
             K k4, V v4, K k5, V v5) {
-        return new OrderedMapImpl<>(List.of(k1, k2, k3, k4, k5),
-                Map.of(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5));
+        return OrderedMapImpl.ofTable(new Object[]{k1, v1, k2, v2, k3, v3, k4, v4, k5, v5});
     }
 
     /**
@@ -186,13 +184,13 @@ public sealed interface OrderedMap<K, V> extends SequencedMap<K, V> permits Orde
      * @throws IllegalArgumentException if any keys are duplicated
      */
     @SafeVarargs
-    @SuppressWarnings("unchecked")
     public static <K, V> OrderedMap<K, V> ofEntries(Map.Entry<? extends K, ? extends V>... entries) {
-        var map = Map.ofEntries(entries);
-        var list = (List<K>) Stream.of(entries)
-                .map(Map.Entry::getKey)
-                .toList();
-        return new OrderedMapImpl<>(list, map);
+        Object[] table = new Object[entries.length * 2];
+        for (int i = 0; i < entries.length; i++) {
+            table[i * 2] = entries[i].getKey();
+            table[i * 2 + 1] = entries[i].getValue();
+        }
+        return OrderedMapImpl.ofTable(table);
     }
 
     /**
@@ -212,7 +210,7 @@ public sealed interface OrderedMap<K, V> extends SequencedMap<K, V> permits Orde
         if (map instanceof OrderedMapImpl) {
             return (OrderedMap<K, V>) map;
         } else {
-            return ofEntries(map.entrySet().toArray(Map.Entry[]::new));
+            return OrderedMapImpl.copyOf(map);
         }
     }
 
@@ -22,40 +22,79 @@
 package org.praxislive.core;
 
 import java.util.AbstractCollection;
+import java.util.AbstractList;
 import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 /**
- *
+ * Immutable OrderedMap implementation storing alternating keys and values in a
+ * single array. Lookup is by linear scan for small maps, with an additional
+ * open-addressed hash index built for maps above {@link #HASH_THRESHOLD}.
+ * Iterating {@link #entrySet()} creates an entry per element - use
+ * {@link #forEach(java.util.function.BiConsumer)} on hot paths.
  */
 final class OrderedMapImpl<K, V> implements OrderedMap<K, V> {
 
-    private final Map<K, V> map;
-    private final List<K> keys;
+    static final int HASH_THRESHOLD = 16;
 
-    OrderedMapImpl(List<K> keys, Map<K, V> map) {
-        this.keys = keys;
-        this.map = map;
+    private static final OrderedMapImpl<?, ?> EMPTY = new OrderedMapImpl<>(new Object[0]);
+
+    private final Object[] table;
+    private final int[] index;
+
+    private List<K> keys;
+
+    private OrderedMapImpl(Object[] table) {
+        this.table = table;
+        int size = table.length >> 1;
+        this.index = size > HASH_THRESHOLD ? buildIndex(table, size) : null;
     }
 
     @Override
     public List<K> keys() {
-        return keys;
+        List<K> k = keys;
+        if (k == null) {
+            k = new AbstractList<K>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public K get(int idx) {
+                    Objects.checkIndex(idx, size());
+                    return (K) table[idx << 1];
+                }
+
+                @Override
+                public int size() {
+                    return table.length >> 1;
+                }
+            };
+            keys = k;
+        }
+        return k;
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return map.containsKey(key);
+        return indexOf(key) >= 0;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return map.containsValue(value);
+        if (value == null) {
+            return false;
+        }
+        for (int i = 1; i < table.length; i += 2) {
+            if (value.equals(table[i])) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -63,36 +102,48 @@ final class OrderedMapImpl<K, V> implements OrderedMap<K, V> {
         return new AbstractSet<Entry<K, V>>() {
             @Override
             public Iterator<Entry<K, V>> iterator() {
-                var keyItr = keys.iterator();
-                return new Iterator<Entry<K, V>>() {
-                    @Override
-                    public boolean hasNext() {
-                        return keyItr.hasNext();
-                    }
-
+                return new TableIterator<Entry<K, V>>() {
                     @Override
-                    public Entry<K, V> next() {
-                        var key = keyItr.next();
-                        return Map.entry(key, map.get(key));
+                    @SuppressWarnings("unchecked")
+                    Entry<K, V> get(int idx) {
+                        return Map.entry((K) table[idx], (V) table[idx + 1]);
                     }
                 };
             }
 
             @Override
             public int size() {
-                return keys.size();
+                return table.length >> 1;
             }
         };
     }
 
     @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < table.length; i += 2) {
+            action.accept((K) table[i], (V) table[i + 1]);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
     public V get(Object key) {
-        return map.get(key);
+        int idx = indexOf(key);
+        return idx < 0 ? null : (V) table[idx + 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int idx = indexOf(key);
+        return idx < 0 ? defaultValue : (V) table[idx + 1];
     }
 
     @Override
     public boolean isEmpty() {
-        return map.isEmpty();
+        return table.length == 0;
     }
 
     @Override
@@ -100,24 +151,43 @@ final class OrderedMapImpl<K, V> implements OrderedMap<K, V> {
         return new AbstractSet<K>() {
             @Override
             public Iterator<K> iterator() {
-                return keys.iterator();
+                return new TableIterator<K>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    K get(int idx) {
+                        return (K) table[idx];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
             }
 
             @Override
             public int size() {
-                return keys.size();
+                return table.length >> 1;
             }
         };
     }
 
     @Override
     public OrderedMap<K, V> reversed() {
-        return new OrderedMapImpl<>(List.copyOf(keys.reversed()), map);
+        if (table.length <= 2) {
+            return this;
+        }
+        Object[] reversed = new Object[table.length];
+        for (int i = 0, j = table.length - 2; i < table.length; i += 2, j -= 2) {
+            reversed[j] = table[i];
+            reversed[j + 1] = table[i + 1];
+        }
+        return new OrderedMapImpl<>(reversed);
     }
 
     @Override
     public int size() {
-        return map.size();
+        return table.length >> 1;
     }
 
     @Override
@@ -125,42 +195,67 @@ final class OrderedMapImpl<K, V> implements OrderedMap<K, V> {
         return new AbstractCollection<V>() {
             @Override
             public Iterator<V> iterator() {
-                var keyItr = keys.iterator();
-                return new Iterator<V>() {
+                return new TableIterator<V>() {
                     @Override
-                    public boolean hasNext() {
-                        return keyItr.hasNext();
-                    }
-
-                    @Override
-                    public V next() {
-                        return map.get(keyItr.next());
+                    @SuppressWarnings("unchecked")
+                    V get(int idx) {
+                        return (V) table[idx + 1];
                     }
                 };
             }
 
             @Override
             public int size() {
-                return keys.size();
+                return table.length >> 1;
             }
         };
     }
 
     @Override
     public int hashCode() {
-        return map.hashCode();
+        int hash = 0;
+        for (int i = 0; i < table.length; i += 2) {
+            hash += table[i].hashCode() ^ table[i + 1].hashCode();
+        }
+        return hash;
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj == this || map.equals(obj);
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof Map<?, ?> other) {
+            if (other.size() != size()) {
+                return false;
+            }
+            try {
+                for (int i = 0; i < table.length; i += 2) {
+                    if (!table[i + 1].equals(other.get(table[i]))) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (ClassCastException | NullPointerException ex) {
+                return false;
+            }
+        }
+        return false;
     }
 
     @Override
     public String toString() {
-        return entrySet().stream()
-                .map(e -> e.getKey() + "=" + e.getValue())
-                .collect(Collectors.joining(", ", "{", "}"));
+        if (table.length == 0) {
+            return "{}";
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < table.length; i += 2) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(table[i]).append('=').append(table[i + 1]);
+        }
+        return sb.append('}').toString();
     }
 
     @Override
@@ -183,4 +278,139 @@ final class OrderedMapImpl<K, V> implements OrderedMap<K, V> {
         throw new UnsupportedOperationException();
     }
 
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int hash = key.hashCode();
+        if (index == null) {
+            for (int i = 0; i < table.length; i += 2) {
+                Object k = table[i];
+                if (k == key || (k.hashCode() == hash && k.equals(key))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        int slot = spread(hash) & mask;
+        while (true) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int idx = (entry - 1) << 1;
+            Object k = table[idx];
+            if (k == key || k.equals(key)) {
+                return idx;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int[] buildIndex(Object[] table, int size) {
+        int[] index = new int[Integer.highestOneBit(size * 2 - 1) << 1];
+        int mask = index.length - 1;
+        for (int i = 0; i < size; i++) {
+            Object key = table[i << 1];
+            int slot = spread(key.hashCode()) & mask;
+            while (index[slot] != 0) {
+                if (table[(index[slot] - 1) << 1].equals(key)) {
+                    throw new IllegalArgumentException("Duplicate key : " + key);
+                }
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return index;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> OrderedMapImpl<K, V> empty() {
+        return (OrderedMapImpl<K, V>) EMPTY;
+    }
+
+    /**
+     * Create a map from the provided array of alternating keys and values. The
+     * array is used directly and must not be modified after this call. Keys and
+     * values must not be null, and keys must be unique.
+     *
+     * @param <K> key type
+     * @param <V> value type
+     * @param table alternating keys and values
+     * @return map
+     * @throws NullPointerException if any key or value is null
+     * @throws IllegalArgumentException if any key is duplicated
+     */
+    static <K, V> OrderedMapImpl<K, V> ofTable(Object[] table) {
+        if (table.length == 0) {
+            return empty();
+        }
+        for (Object o : table) {
+            Objects.requireNonNull(o);
+        }
+        if (table.length <= HASH_THRESHOLD * 2) {
+            for (int i = 2; i < table.length; i += 2) {
+                for (int j = 0; j < i; j += 2) {
+                    if (table[i].equals(table[j])) {
+                        throw new IllegalArgumentException("Duplicate key : " + table[i]);
+                    }
+                }
+            }
+        }
+        return new OrderedMapImpl<>(table);
+    }
+
+    /**
+     * Create a map from the provided map, retaining iteration order.
+     *
+     * @param <K> key type
+     * @param <V> value type
+     * @param map map to copy
+     * @return map
+     */
+    static <K, V> OrderedMapImpl<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        int size = map.size();
+        if (size == 0) {
+            return empty();
+        }
+        Object[] table = new Object[size * 2];
+        int i = 0;
+        for (var entry : map.entrySet()) {
+            table[i++] = Objects.requireNonNull(entry.getKey());
+            table[i++] = Objects.requireNonNull(entry.getValue());
+        }
+        if (i != table.length) {
+            throw new IllegalStateException();
+        }
+        return new OrderedMapImpl<>(table);
+    }
+
+    private abstract class TableIterator<T> implements Iterator<T> {
+
+        private int idx;
+
+        @Override
+        public boolean hasNext() {
+            return idx < table.length;
+        }
+
+        @Override
+        public T next() {
+            if (idx >= table.length) {
+                throw new NoSuchElementException();
+            }
+            T next = get(idx);
+            idx += 2;
+            return next;
+        }
+
+        abstract T get(int idx);
+
+    }
+
 }
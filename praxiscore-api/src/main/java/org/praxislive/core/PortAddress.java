@@ -22,7 +22,6 @@
 package org.praxislive.core;
 
 import java.util.Optional;
-import java.util.regex.Pattern;
 import static org.praxislive.core.ComponentAddress.cache;
 
 /**
@@ -36,10 +35,6 @@ public class PortAddress extends Value {
     public static final String TYPE_NAME = "PortAddress";
 
     public static final String SEPERATOR = "!";
-    private static final String SEP_REGEX = "\\!";
-    private static final String ID_REGEX = "[_\\-\\p{javaLetter}][_\\-\\p{javaLetterOrDigit}]*";
-    private static final Pattern SEP_PATTERN = Pattern.compile(SEP_REGEX);
-    private static final Pattern ID_PATTERN = Pattern.compile(ID_REGEX);
 
     private final ComponentAddress component;
     private final String portID;
@@ -79,17 +74,18 @@ public class PortAddress extends Value {
     }
 
     public static PortAddress parse(String address) throws ValueFormatException {
-        String[] parts = SEP_PATTERN.split(address);
-        if (parts.length != 2) {
-            throw new ValueFormatException();
+        PortAddress cached = AddressCache.PORTS.get(address);
+        if (cached != null) {
+            return cached;
         }
-        if (!(isValidID(parts[1]))) {
+        int sep = address.indexOf('!');
+        if (sep < 0 || address.indexOf('!', sep + 1) >= 0
+                || !ComponentAddress.isValidID(address, sep + 1, address.length())) {
             throw new ValueFormatException();
         }
-        String id = cache(parts[1]);
-        ComponentAddress comp = ComponentAddress.parse(parts[0]);
-        address = cache(address);
-        return new PortAddress(comp, id, address);
+        String id = cache(address.substring(sep + 1));
+        ComponentAddress comp = ComponentAddress.parse(address.substring(0, sep));
+        return AddressCache.PORTS.put(address, new PortAddress(comp, id, address));
     }
 
     public static PortAddress of(String address) {
@@ -104,10 +100,13 @@ public class PortAddress extends Value {
         if (!(isValidID(id))) {
             throw new IllegalArgumentException();
         }
-        id = cache(id);
         String address = component.toString() + SEPERATOR + id;
-        address = cache(address);
-        return new PortAddress(component, id, address);
+        PortAddress cached = AddressCache.PORTS.get(address);
+        if (cached != null) {
+            return cached;
+        }
+        id = cache(id);
+        return AddressCache.PORTS.put(address, new PortAddress(component, id, address));
     }
 
     private static PortAddress coerce(Value arg) throws ValueFormatException {
@@ -127,7 +126,7 @@ public class PortAddress extends Value {
     }
 
     public static boolean isValidID(String id) {
-        return ID_PATTERN.matcher(id).matches();
+        return ComponentAddress.isValidID(id);
     }
 
     public static ArgumentInfo info() {
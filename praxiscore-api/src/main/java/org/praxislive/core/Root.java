@@ -128,6 +128,18 @@ public interface Root extends Lookup.Provider {
         public void awaitTermination(long timeout, TimeUnit unit)
                 throws InterruptedException, TimeoutException, ExecutionException;
 
+        /**
+         * Query the number of packets that have been submitted to the Root and
+         * are waiting to be handled, if supported. This value is only an
+         * estimate and is intended for monitoring. The default implementation
+         * returns -1.
+         *
+         * @return number of waiting packets, or -1 if not supported
+         */
+        public default int queueDepth() {
+            return -1;
+        }
+
     }
 
 }
@@ -21,6 +21,7 @@
  */
 package org.praxislive.core.types;
 
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -222,13 +223,13 @@ public final class PMap extends Value {
             throw new IllegalArgumentException("No mapper found for type : " + type);
         }
         var lhm = new LinkedHashMap<String, T>(map.size());
-        for (var entry : map.entrySet()) {
-            var value = mapper.fromValue(entry.getValue());
+        map.forEach((key, val) -> {
+            var value = mapper.fromValue(val);
             if (value == null) {
                 throw new IllegalArgumentException();
             }
-            lhm.put(entry.getKey(), value);
-        }
+            lhm.put(key, value);
+        });
         return OrderedMap.copyOf(lhm);
     }
 
@@ -237,13 +238,12 @@ public final class PMap extends Value {
         if (str == null) {
             if (!map.isEmpty()) {
                 StringBuilder sb = new StringBuilder();
-                for (String key : map.keys()) {
+                map.forEach((key, value) -> {
                     if (sb.length() > 0) {
                         sb.append(' ');
                     }
                     sb.append(Utils.escape(key));
                     sb.append(" ");
-                    Value value = map.get(key);
                     if (value instanceof PArray || value instanceof PMap
                             || value instanceof MapBasedValue
                             || value instanceof PArray.ArrayBasedValue) {
@@ -253,7 +253,7 @@ public final class PMap extends Value {
                     } else {
                         sb.append(Utils.escape(String.valueOf(value)));
                     }
-                }
+                });
                 str = sb.toString();
             } else {
                 str = "";
@@ -277,8 +277,10 @@ public final class PMap extends Value {
             if (!map.keys().equals(other.map.keys())) {
                 return false;
             }
-            for (String key : map.keys()) {
-                if (!Utils.equivalent(map.get(key), other.map.get(key))) {
+            Iterator<Value> values = map.values().iterator();
+            Iterator<Value> otherValues = other.map.values().iterator();
+            while (values.hasNext()) {
+                if (!Utils.equivalent(values.next(), otherValues.next())) {
                     return false;
                 }
             }
@@ -139,7 +139,17 @@ public final class PNumber extends Value implements Comparable<PNumber> {
         return new PNumber(val, str);
     }
 
+    /**
+     * Obtain a PNumber of the provided integer value. Instances for commonly
+     * used small integers are cached.
+     *
+     * @param val int value
+     * @return PNumber
+     */
     public static PNumber of(int val) {
+        if (val >= IntCache.LOW && val <= IntCache.HIGH) {
+            return IntCache.CACHE[val - IntCache.LOW];
+        }
         return new PNumber(val, null);
     }
 
@@ -209,4 +219,19 @@ public final class PNumber extends Value implements Comparable<PNumber> {
         return ArgumentInfo.of(PNumber.class, map);
     }
 
+    private static final class IntCache {
+
+        private static final int LOW = -128;
+        private static final int HIGH = 1023;
+        private static final PNumber[] CACHE;
+
+        static {
+            CACHE = new PNumber[HIGH - LOW + 1];
+            for (int i = 0; i < CACHE.length; i++) {
+                CACHE[i] = new PNumber(LOW + i, null);
+            }
+        }
+
+    }
+
 }
@@ -99,9 +99,14 @@ class Utils {
         if (map.isEmpty()) {
             return "";
         }
-        return map.asMap().entrySet().stream()
-                .map(e -> escape(e.getKey()) + " " + printValue(e.getValue(), options))
-                .collect(Collectors.joining("\n"));
+        StringBuilder sb = new StringBuilder();
+        map.asMap().forEach((key, value) -> {
+            if (!sb.isEmpty()) {
+                sb.append('\n');
+            }
+            sb.append(escape(key)).append(' ').append(printValue(value, options));
+        });
+        return sb.toString();
     }
 
     static String checkStripIndent(String text) {
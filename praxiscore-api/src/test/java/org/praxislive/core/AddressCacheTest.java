@@ -0,0 +1,86 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.core;
+
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.types.PMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class AddressCacheTest {
+
+    @Test
+    public void testComponentAddressParse() throws Exception {
+        ComponentAddress address = ComponentAddress.parse("/root/parent/child-1");
+        assertEquals(3, address.depth());
+        assertEquals("root", address.rootID());
+        assertEquals("parent", address.componentID(1));
+        assertEquals("child-1", address.componentID());
+        assertEquals("/root/parent", address.parent().toString());
+        assertEquals(ComponentAddress.parse("/_rés-中1"),
+                ComponentAddress.of("/_rés-中1"));
+        for (String invalid : new String[]{"", "/", "root", "//root", "/root/",
+            "/root//child", "/1root", "/root/1child", "/root.ctl", "/ro ot"}) {
+            assertThrows(ValueFormatException.class, () -> ComponentAddress.parse(invalid), invalid);
+        }
+    }
+
+    @Test
+    public void testControlAddressParse() throws Exception {
+        ControlAddress address = ControlAddress.parse("/root/child.value");
+        assertEquals("value", address.controlID());
+        assertEquals(ComponentAddress.of("/root/child"), address.component());
+        assertEquals(address, ControlAddress.of(ComponentAddress.of("/root/child"), "value"));
+        for (String invalid : new String[]{"", "/root", "/root.", ".value",
+            "/root.value.", "/root.val.ue", "/root.1value", "/root/.value"}) {
+            assertThrows(ValueFormatException.class, () -> ControlAddress.parse(invalid), invalid);
+        }
+    }
+
+    @Test
+    public void testPortAddressParse() throws Exception {
+        PortAddress address = PortAddress.parse("/root/child!out");
+        assertEquals("out", address.portID());
+        assertEquals(ComponentAddress.of("/root/child"), address.component());
+        assertEquals(address, PortAddress.of(ComponentAddress.of("/root/child"), "out"));
+        for (String invalid : new String[]{"", "/root", "/root!", "/root!out!", "/root!o.ut"}) {
+            assertThrows(ValueFormatException.class, () -> PortAddress.parse(invalid), invalid);
+        }
+    }
+
+    @Test
+    public void testCachedInstances() throws Exception {
+        long hits = AddressCache.CONTROLS.hits();
+        ControlAddress first = ControlAddress.parse("/cache-test/cmp.control");
+        ControlAddress second = ControlAddress.parse(new String("/cache-test/cmp.control"));
+        assertSame(first, second);
+        assertSame(first.component(), ComponentAddress.parse("/cache-test/cmp"));
+        assertSame(first.controlID(), ControlAddress.parse("/cache-test/other.control").controlID());
+        assertTrue(AddressCache.CONTROLS.hits() > hits);
+        PMap stats = AddressCache.statistics();
+        assertTrue(PMap.from(stats.get("controls")).orElseThrow().getDouble("hit-rate", -1) > 0);
+    }
+
+}
@@ -116,6 +116,35 @@ public class OrderedMapTest {
         });
     }
 
+    @Test
+    public void testLargeMap() {
+        int size = OrderedMapImpl.HASH_THRESHOLD * 4;
+        LinkedHashMap<String, Integer> lhm = new LinkedHashMap<>();
+        for (int i = size; i > 0; i--) {
+            lhm.put("KEY " + i, i);
+        }
+        var map = OrderedMap.copyOf(lhm);
+        assertEquals(lhm, map);
+        assertEquals(map, lhm);
+        assertEquals(lhm.hashCode(), map.hashCode());
+        assertEquals(List.copyOf(lhm.keySet()), map.keys());
+        assertEquals(List.copyOf(lhm.values()), List.copyOf(map.values()));
+        for (int i = 1; i <= size; i++) {
+            assertEquals(i, map.get("KEY " + i));
+            assertTrue(map.containsKey("KEY " + i));
+        }
+        assertNull(map.get("KEY 0"));
+        assertFalse(map.containsKey(null));
+        assertEquals(map, map.reversed());
+        assertEquals(List.copyOf(lhm.keySet()).reversed(), map.reversed().keys());
+
+        @SuppressWarnings("unchecked")
+        Map.Entry<String, Integer>[] entries = lhm.entrySet().toArray(Map.Entry[]::new);
+        entries[size - 1] = Map.entry("KEY 1", 42);
+        entries[size - 2] = Map.entry("KEY 1", 42);
+        assertThrows(IllegalArgumentException.class, () -> OrderedMap.ofEntries(entries));
+    }
+
     @Test
     public void testImmutability() {
         var map = OrderedMap.of(k1, v1, k2, v2, k3, v3);
@@ -0,0 +1,62 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.core.types;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class PNumberTest {
+
+    public PNumberTest() {
+    }
+
+    @Test
+    public void testOfInt() {
+        for (int i = -200; i < 1200; i++) {
+            PNumber n = PNumber.of(i);
+            assertEquals(i, n.toIntValue());
+            assertEquals((double) i, n.value());
+            assertTrue(n.isInteger());
+            assertEquals(Integer.toString(i), n.toString());
+            assertEquals(n, PNumber.of(i));
+        }
+        assertSame(PNumber.of(42), PNumber.of(42));
+        assertSame(PNumber.ZERO, PNumber.of(0));
+        assertSame(PNumber.ONE, PNumber.of(1));
+        assertEquals(PNumber.of(100_000), PNumber.of(100_000));
+    }
+
+    @Test
+    public void testOfDouble() {
+        PNumber n = PNumber.of(1.0);
+        assertFalse(n.isInteger());
+        assertEquals(PNumber.ONE, n);
+        assertEquals("1.0", n.toString());
+        assertEquals(PNumber.MAX_VALUE, PNumber.of(Double.MAX_VALUE).value());
+        assertEquals(0, PNumber.of(Double.NaN).value());
+    }
+
+}
@@ -21,24 +21,60 @@
  */
 package org.praxislive.base;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import org.praxislive.core.Call;
 import org.praxislive.core.Control;
+import org.praxislive.core.ControlAddress;
 import org.praxislive.core.PacketRouter;
 import org.praxislive.core.types.PError;
 
 /**
- *
+ * Base class for controls that respond to a request by making a call to
+ * another control (eg. a service), and replying when the response is received.
+ * <p>
+ * By default only one incoming call is processed at a time, and further calls
+ * are queued until a reply to the active call has been sent. Subclasses may
+ * pass a maximum number of in-flight calls to the constructor to allow
+ * multiple incoming calls to be processed concurrently. Such subclasses must
+ * not keep per-call state in fields - use {@link #setActiveState(java.lang.Object)}
+ * and {@link #getActiveState()} instead. Calls from the same caller address are
+ * always processed one at a time and in order, so a caller never receives
+ * replies out of order.
  */
 public abstract class AbstractAsyncControl implements Control {
 
     private final static System.Logger LOG = System.getLogger(AbstractAsyncControl.class.getName());
+    private final int maxInFlight;
     private final Queue<Call> callQueue;
-    private Call pending;
+    private final Map<Integer, InFlight> inFlight;
+    private final Set<ControlAddress> activeCallers;
+
+    private InFlight active;
 
     protected AbstractAsyncControl() {
+        this(1);
+    }
+
+    /**
+     * Create an AbstractAsyncControl that allows up to the given number of
+     * incoming calls to be processed concurrently.
+     *
+     * @param maxInFlight maximum number of calls in flight
+     */
+    protected AbstractAsyncControl(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxInFlight = maxInFlight;
         callQueue = new LinkedList<>();
+        inFlight = new HashMap<>();
+        activeCallers = new HashSet<>();
     }
 
     @Override
@@ -50,8 +86,40 @@ public abstract class AbstractAsyncControl implements Control {
         }
     }
 
+    /**
+     * Get the incoming call currently being processed. Only valid during
+     * calls to {@link #processInvoke(org.praxislive.core.Call)},
+     * {@link #processResponse(org.praxislive.core.Call)} and
+     * {@link #processError(org.praxislive.core.Call)}.
+     *
+     * @return active call
+     */
     protected Call getActiveCall() {
-        return callQueue.peek();
+        return active == null ? null : active.call;
+    }
+
+    /**
+     * Attach state to the incoming call currently being processed. The state
+     * will be available from {@link #getActiveState()} when the response for
+     * this call is processed.
+     *
+     * @param state per-call state
+     */
+    protected void setActiveState(Object state) {
+        if (active == null) {
+            throw new IllegalStateException();
+        }
+        active.state = state;
+    }
+
+    /**
+     * Get the state attached to the incoming call currently being processed,
+     * or null.
+     *
+     * @return per-call state, or null
+     */
+    protected Object getActiveState() {
+        return active == null ? null : active.state;
     }
 
     protected abstract Call processInvoke(Call call) throws Exception;
@@ -63,21 +131,17 @@ public abstract class AbstractAsyncControl implements Control {
     }
 
     private void processInvoke(Call call, PacketRouter router) {
-        if (callQueue.isEmpty()) {
-            callQueue.add(call);
-            doInvokeLoop(router);
-        } else {
-            callQueue.add(call);
-        }
-
+        callQueue.add(call);
+        doInvokeLoop(router);
     }
 
     private void processResponse(Call call, PacketRouter router) {
-        if (pending == null || pending.matchID() != call.matchID()) {
-            LOG.log(System.Logger.Level.WARNING ,"Unexpected call received by processResponse(call, router)");
+        InFlight entry = inFlight.remove(call.matchID());
+        if (entry == null) {
+            LOG.log(System.Logger.Level.WARNING, "Unexpected call received by processResponse(call, router)");
             return;
         }
-        pending = null;
+        active = entry;
         try {
             Call ret;
             if (call.isError()) {
@@ -86,53 +150,71 @@ public abstract class AbstractAsyncControl implements Control {
                 ret = processResponse(call);
             }
             if (ret.isRequest()) {
-                pending = ret;
+                inFlight.put(ret.matchID(), entry);
                 router.route(ret);
-                return;
             } else {
-                Call active = callQueue.peek();
-                if (active.matchID() != ret.matchID()) {
+                activeCallers.remove(entry.call.from());
+                if (entry.call.matchID() != ret.matchID()) {
                     throw new IllegalStateException();
                 }
-                callQueue.poll();
                 router.route(ret);
             }
         } catch (Exception ex) {
-            Call active = callQueue.poll();
-            if (active != null) {
-                router.route(active.error(PError.of(ex)));
-            }
+            activeCallers.remove(entry.call.from());
+            router.route(entry.call.error(PError.of(ex)));
+        } finally {
+            active = null;
         }
         doInvokeLoop(router);
     }
 
     private void doInvokeLoop(PacketRouter router) {
 
-        while (!callQueue.isEmpty()) {
-            Call call = callQueue.peek();
+        Iterator<Call> itr = callQueue.iterator();
+        while (itr.hasNext() && inFlight.size() < maxInFlight) {
+            Call call = itr.next();
+            if (activeCallers.contains(call.from())) {
+                // keep calls from the same caller in order
+                continue;
+            }
+            itr.remove();
+            InFlight entry = new InFlight(call);
+            active = entry;
             try {
                 Call ret = processInvoke(call);
                 if (ret.isRequest()) {
                     if (!ret.isReplyRequired()) {
                         throw new IllegalStateException("processInvoke(call) returned illegal quiet call");
                     }
-                    pending = ret;
+                    inFlight.put(ret.matchID(), entry);
+                    activeCallers.add(call.from());
                     router.route(ret);
-                    return;
                 } else {
                     if (ret.matchID() != call.matchID()) {
                         throw new IllegalStateException("processInvoke(call) returned non-matching response call");
                     }
-                    callQueue.poll();
                     router.route(ret);
                 }
             } catch (Exception ex) {
                 LOG.log(System.Logger.Level.DEBUG, "Exception thrown processing call", ex);
-                callQueue.poll();
                 router.route(call.error(PError.of(ex)));
+            } finally {
+                active = null;
             }
         }
 
     }
 
+    private static class InFlight {
+
+        private final Call call;
+
+        private Object state;
+
+        private InFlight(Call call) {
+            this.call = call;
+        }
+
+    }
+
 }
@@ -68,6 +68,9 @@ public abstract class AbstractContainer extends AbstractComponent implements Con
     private final Map<Component, ComponentType> childTypeMap;
     private final Set<Connection> connections;
 
+    private int structureVersion;
+    private Map<String, String> subgraphs;
+
     protected AbstractContainer() {
         childMap = new LinkedHashMap<>();
         childTypeMap = new HashMap<>();
@@ -164,6 +167,7 @@ public abstract class AbstractContainer extends AbstractComponent implements Con
             childMap.remove(id);
             throw new VetoException();
         }
+        structureChanged();
         child.hierarchyChanged();
     }
 
@@ -209,6 +213,7 @@ public abstract class AbstractContainer extends AbstractComponent implements Con
             }
             child.hierarchyChanged();
             childTypeMap.remove(child);
+            structureChanged();
         }
         return child;
     }
@@ -298,12 +303,14 @@ public abstract class AbstractContainer extends AbstractComponent implements Con
             if (connect) {
                 p1.connect(p2);
                 connections.add(connection);
+                structureChanged();
                 PortListener listener = new ConnectionListener(p1, p2, connection);
                 p1.addListener(listener);
                 p2.addListener(listener);
             } else {
                 p1.disconnect(p2);
                 connections.remove(connection);
+                structureChanged();
             }
         } catch (Exception ex) {
             LOG.log(System.Logger.Level.DEBUG, "Can't connect ports.", ex);
@@ -312,6 +319,66 @@ public abstract class AbstractContainer extends AbstractComponent implements Con
         }
     }
 
+    /**
+     * Find the connected subgraph of children that the child with the given ID
+     * belongs to. Children are in the same subgraph if there is a path of port
+     * connections between them. The returned value is the ID of one child in
+     * the subgraph, and is the same for all children in the subgraph until the
+     * children or connections of this container next change.
+     *
+     * @param childID ID of child
+     * @return subgraph ID, or null if no child with the given ID
+     */
+    protected final String subgraphOf(String childID) {
+        if (subgraphs == null) {
+            subgraphs = computeSubgraphs();
+        }
+        return subgraphs.get(childID);
+    }
+
+    /**
+     * Create a {@link DefaultExecutionContext.Partitioner} that partitions
+     * components by the connected subgraph of their ancestor that is a child
+     * of this container. Only valid for use by a root container, or the
+     * delegate of a root container.
+     *
+     * @return partitioner
+     */
+    protected final DefaultExecutionContext.Partitioner createPartitioner() {
+        return new SubgraphPartitioner();
+    }
+
+    private void structureChanged() {
+        structureVersion++;
+        subgraphs = null;
+    }
+
+    private Map<String, String> computeSubgraphs() {
+        Map<String, String> parents = new HashMap<>();
+        childMap.keySet().forEach(id -> parents.put(id, id));
+        for (Connection connection : connections) {
+            String root1 = findSubgraph(parents, connection.sourceComponent());
+            String root2 = findSubgraph(parents, connection.targetComponent());
+            if (root1 != null && root2 != null && !root1.equals(root2)) {
+                parents.put(root2, root1);
+            }
+        }
+        Map<String, String> result = new HashMap<>();
+        childMap.keySet().forEach(id -> result.put(id, findSubgraph(parents, id)));
+        return result;
+    }
+
+    private static String findSubgraph(Map<String, String> parents, String id) {
+        String parent = parents.get(id);
+        while (parent != null && !parent.equals(id)) {
+            String grandparent = parents.get(parent);
+            parents.put(id, grandparent);
+            id = parent;
+            parent = grandparent;
+        }
+        return parent;
+    }
+
     /**
      * Control that implements {@link ContainerProtocol#ADD_CHILD}.
      */
@@ -442,12 +509,37 @@ public abstract class AbstractContainer extends AbstractComponent implements Con
             } else {
                 LOG.log(System.Logger.Level.TRACE, "Removing connection\n{0}", connection);
                 connections.remove(connection);
+                structureChanged();
                 p1.removeListener(this);
                 p2.removeListener(this);
             }
         }
     }
 
+    private class SubgraphPartitioner implements DefaultExecutionContext.Partitioner {
+
+        @Override
+        public Object partition(Component owner) {
+            Component child = owner;
+            Container parent = child.getParent();
+            while (parent != null && parent.getParent() != null) {
+                child = parent;
+                parent = child.getParent();
+            }
+            if (parent == null) {
+                return null;
+            }
+            String id = getChildID(child);
+            return id == null ? null : subgraphOf(id);
+        }
+
+        @Override
+        public int version() {
+            return structureVersion;
+        }
+
+    }
+
     /**
      * Delegate base class to be used inside a wrapper class implementing
      * {@link Container}. The abstract methods must be implemented to return the
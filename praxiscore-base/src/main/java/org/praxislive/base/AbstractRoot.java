@@ -23,6 +23,7 @@ package org.praxislive.base;
 
 import java.util.ArrayDeque;
 import java.util.List;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
@@ -37,6 +38,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import org.praxislive.core.Call;
 import org.praxislive.core.ComponentAddress;
@@ -117,16 +119,70 @@ public abstract class AbstractRoot implements Root {
 
     }
 
+    /**
+     * The policy applied to incoming packets when the root mailbox has a
+     * capacity set and is full. Tasks submitted via
+     * {@link #invokeLater(java.lang.Runnable)} are always accepted and do not
+     * count towards the capacity.
+     *
+     * @see DelegateConfiguration#mailboxCapacity(int,
+     * org.praxislive.base.AbstractRoot.OverflowPolicy)
+     */
+    protected static enum OverflowPolicy {
+
+        /**
+         * Block the submitting thread until space is available. Packets
+         * submitted from the root thread itself are never blocked.
+         */
+        BLOCK,
+        /**
+         * Accept the packet, and discard the oldest packets in the mailbox on
+         * the next poll. Discarded calls that require a reply will receive an
+         * error.
+         */
+        DROP_OLDEST,
+        /**
+         * Reject the packet, returning false from
+         * {@link Root.Controller#submitPacket(org.praxislive.core.Packet)}.
+         * Rejected calls that require a reply will receive an error, dispatched
+         * via the hub.
+         */
+        REJECT
+
+    }
+
+    /**
+     * The structure used to hold packets received ahead of their timecode
+     * until they are due. See {@link #packetScheduling()}.
+     */
+    protected static enum PacketScheduling {
+
+        /**
+         * Hold future packets in a priority queue. Suitable for most roots.
+         */
+        PRIORITY_QUEUE,
+        /**
+         * Hold future packets in a hierarchical timing wheel with constant
+         * time insertion. Suitable for roots that receive large numbers of
+         * packets scheduled ahead of time. Ordering of packets is the same as
+         * {@link #PRIORITY_QUEUE}.
+         */
+        TIMING_WHEEL
+
+    }
+
     private static final System.Logger LOG = System.getLogger(AbstractRoot.class.getName());
 
     private final AtomicReference<State> state;
     private final AtomicReference<Delegate> delegate;
-    private final Queue<Object> queue;
-    private final Queue<Object> pending;
+    private final RootMailbox queue;
+    private final Queue<Thread> blockedProducers;
     private final ReentrantLock lock;
     private final ThreadContext threadContext;
 
     private volatile long time;
+    private volatile int mailboxCapacity;
+    private volatile OverflowPolicy overflowPolicy;
 
     private Lookup lookup;
     private ComponentAddress address;
@@ -135,6 +191,7 @@ public abstract class AbstractRoot implements Root {
     private Controller controller;
     private PacketRouter router;
     private PacketQueue pendingPackets;
+    private PacketQueue pendingHubPackets;
     private State cachedState;
     private boolean interrupted;
 
@@ -144,8 +201,9 @@ public abstract class AbstractRoot implements Root {
     protected AbstractRoot() {
         state = new AtomicReference<>(State.NEW);
         delegate = new AtomicReference<>();
-        queue = new ConcurrentLinkedQueue<>();
-        pending = new ArrayDeque<>();
+        queue = new RootMailbox();
+        blockedProducers = new ConcurrentLinkedQueue<>();
+        overflowPolicy = OverflowPolicy.REJECT;
         lock = new ReentrantLock();
         lookup = Lookup.EMPTY;
         threadContext = new ThreadContextImpl();
@@ -160,7 +218,10 @@ public abstract class AbstractRoot implements Root {
             this.address = ComponentAddress.of("/" + id);
             this.hub = hub;
             this.time = hub.getClock().getTime();
-            this.pendingPackets = new PacketQueue(time);
+            this.pendingPackets = packetScheduling() == PacketScheduling.TIMING_WHEEL
+                    ? new TimingWheelPacketQueue(time)
+                    : new PacketQueue(time);
+            this.pendingHubPackets = new PacketQueue(time);
             this.context = createContext(time);
             this.router = createRouter();
             this.lookup = Lookup.of(hub.getLookup(), router, context, threadContext);
@@ -261,6 +322,18 @@ public abstract class AbstractRoot implements Root {
         return new DefaultExecutionContext(initialTime);
     }
 
+    /**
+     * Method used to choose how packets received ahead of their timecode are
+     * held during initialization. The default implementation returns
+     * {@link PacketScheduling#PRIORITY_QUEUE}. Subclasses may override to
+     * choose an alternative.
+     *
+     * @return packet scheduling
+     */
+    protected PacketScheduling packetScheduling() {
+        return PacketScheduling.PRIORITY_QUEUE;
+    }
+
     /**
      * Method used to create the {@link PacketRouter} during initialization. The
      * default implementation directly calls
@@ -354,6 +427,7 @@ public abstract class AbstractRoot implements Root {
 
     /**
      * Attach a {@link Delegate} to this Root. Also calls {@link #interrupt()}.
+     * Any mailbox capacity in the delegate configuration is applied.
      *
      * @param delegate
      * @throws IllegalStateException if a delegate is already attached
@@ -363,17 +437,22 @@ public abstract class AbstractRoot implements Root {
         if (!ok) {
             throw new IllegalStateException("Delegate already attached");
         }
+        overflowPolicy = delegate.overflowPolicy;
+        mailboxCapacity = delegate.mailboxCapacity;
         interrupt();
     }
 
     /**
      * Detach the provide delegate (if it is attached). Also calls
-     * {@link #interrupt()}.
+     * {@link #interrupt()}. The mailbox is returned to being unbounded.
      *
      * @param delegate
      */
     protected final void detachDelegate(Delegate delegate) {
-        this.delegate.compareAndSet(delegate, null);
+        if (this.delegate.compareAndSet(delegate, null)) {
+            mailboxCapacity = 0;
+            signalBlockedProducers();
+        }
         interrupt();
     }
 
@@ -405,7 +484,7 @@ public abstract class AbstractRoot implements Root {
         if (state.get().isOneOf(State.TERMINATING, State.TERMINATED)) {
             return false;
         }
-        boolean ok = queue.add(task);
+        boolean ok = queue.offer(task);
         if (state.get().isOneOf(State.ACTIVE_RUNNING, State.ACTIVE_IDLE) && ok) {
             controller.onQueueReceipt();
         }
@@ -448,21 +527,33 @@ public abstract class AbstractRoot implements Root {
             this.time = time;
         }
 
+        Delegate del = delegate.get();
+        long offset = del != null && del.maxDriftNS == Long.MAX_VALUE
+                ? time - hub.getClock().getTime() : 0;
+        context.setClockOffset(offset);
         context.updateClock(time);
         pendingPackets.setTime(time);
+        pendingHubPackets.setTime(time - offset);
 
         update();
 
-        Packet pkt = pendingPackets.poll();
+        processPending(pendingPackets);
+        if (!interrupted) {
+            processPending(pendingHubPackets);
+        }
+
+        return true;
+    }
+
+    private void processPending(PacketQueue pending) {
+        Packet pkt = pending.poll();
         while (pkt != null) {
             processPacket(pkt);
             if (interrupted) {
                 break;
             }
-            pkt = pendingPackets.poll();
+            pkt = pending.poll();
         }
-
-        return true;
     }
 
     private void pollQueue() {
@@ -476,15 +567,29 @@ public abstract class AbstractRoot implements Root {
         }
 
         long now = context.time;
-
-        for (Object obj = queue.poll(); obj != null; obj = queue.poll()) {
-            pending.add(obj);
-        }
-
-        for (Object obj = pending.poll(); obj != null; obj = pending.poll()) {
+        long offset = context.getClockOffset();
+        int capacity = mailboxCapacity;
+        int excess = capacity > 0 && overflowPolicy == OverflowPolicy.DROP_OLDEST
+                ? queue.packetCount() - capacity : 0;
+        // only process elements already in the mailbox - anything added while
+        // processing is left for the next poll
+        long mark = queue.mark();
+
+        for (Object obj = queue.poll(mark); obj != null; obj = queue.poll(mark)) {
             if (obj instanceof Packet) {
                 Packet pkt = (Packet) obj;
-                if ((pkt.time() - now) > 0) {
+                if (excess > 0) {
+                    excess--;
+                    replyError(pkt, "Root mailbox overflow");
+                } else if (offset != 0 && isFromOtherRoot(pkt)) {
+                    // calls from other roots are stamped with hub time, which
+                    // differs from root time while the clock is drifting
+                    if ((pkt.time() - (now - offset)) > 0) {
+                        pendingHubPackets.add(pkt);
+                    } else {
+                        processPacket(pkt);
+                    }
+                } else if ((pkt.time() - now) > 0) {
                     pendingPackets.add(pkt);
                 } else {
                     processPacket(pkt);
@@ -505,14 +610,25 @@ public abstract class AbstractRoot implements Root {
 
         }
 
+        signalBlockedProducers();
+
+    }
+
+    private void signalBlockedProducers() {
+        for (Thread producer : blockedProducers) {
+            LockSupport.unpark(producer);
+        }
     }
 
     private void shutdownQueues() {
+        Queue<Object> pending = new ArrayDeque<>();
         for (Object obj = queue.poll(); obj != null; obj = queue.poll()) {
             pending.add(obj);
         }
 
         pendingPackets.drainTo(pending);
+        pendingHubPackets.drainTo(pending);
+        signalBlockedProducers();
 
         for (Object obj = pending.poll(); obj != null; obj = pending.poll()) {
             if (obj instanceof Call) {
@@ -528,6 +644,17 @@ public abstract class AbstractRoot implements Root {
 
     }
 
+    private boolean isFromOtherRoot(Packet packet) {
+        return packet instanceof Call call
+                && !call.from().component().rootID().equals(packet.rootID());
+    }
+
+    private void replyError(Packet packet, String message) {
+        if (packet instanceof Call call && call.isReplyRequired()) {
+            router.route(call.error(PError.of(message)));
+        }
+    }
+
     private void processPacket(Packet packet) {
         if (packet instanceof Call call) {
             try {
@@ -641,6 +768,24 @@ public abstract class AbstractRoot implements Root {
 
         @Override
         public boolean submitPacket(Packet packet) {
+            int capacity = mailboxCapacity;
+            if (capacity > 0 && queue.packetCount() >= capacity) {
+                switch (overflowPolicy) {
+                    case REJECT -> {
+                        // called on the sender's thread - dispatch the error
+                        // through the hub rather than the root router
+                        if (packet instanceof Call call && call.isReplyRequired()) {
+                            hub.dispatch(call.error(PError.of("Root mailbox full")));
+                        }
+                        return false;
+                    }
+                    case BLOCK ->
+                        awaitCapacity();
+                    default -> {
+                        // DROP_OLDEST handled in poll
+                    }
+                }
+            }
             boolean ok = queue.offer(packet);
             if (ok) {
                 onQueueReceipt();
@@ -670,6 +815,7 @@ public abstract class AbstractRoot implements Root {
         public void shutdown() {
             state.updateAndGet(s -> s == State.TERMINATED
                     ? State.TERMINATED : State.TERMINATING);
+            signalBlockedProducers();
         }
 
         @Override
@@ -684,6 +830,11 @@ public abstract class AbstractRoot implements Root {
             activeFuture.get(timeout, unit);
         }
 
+        @Override
+        public int queueDepth() {
+            return queue.packetCount();
+        }
+
         /**
          * Called on receipt of a {@link Packet} (Call) or a Runnable task. The
          * default implementation will call {@link Delegate#onQueueReceipt()} if
@@ -701,6 +852,29 @@ public abstract class AbstractRoot implements Root {
             }
         }
 
+        private void awaitCapacity() {
+            if (threadContext.isRootThread()) {
+                return;
+            }
+            // register before checking capacity so that a signal from the
+            // consumer between the check and parking is not lost
+            Thread producer = Thread.currentThread();
+            blockedProducers.add(producer);
+            try {
+                int capacity = mailboxCapacity;
+                while (capacity > 0 && queue.packetCount() >= capacity) {
+                    if (!isAlive() || producer.isInterrupted()) {
+                        return;
+                    }
+                    onQueueReceipt();
+                    LockSupport.park(this);
+                    capacity = mailboxCapacity;
+                }
+            } finally {
+                blockedProducers.remove(producer);
+            }
+        }
+
         private void doActivate() {
             try {
                 activating();
@@ -800,6 +974,8 @@ public abstract class AbstractRoot implements Root {
         private final boolean backgroundPoll;
         private final long forceUpdateAfterNS;
         private final long maxDriftNS;
+        private final int mailboxCapacity;
+        private final OverflowPolicy overflowPolicy;
 
         private Thread delegateThread;
 
@@ -821,7 +997,11 @@ public abstract class AbstractRoot implements Root {
             this.pollCondition = pollLock.newCondition();
             this.backgroundPoll = config == null ? false : config.backgroundPoll;
             this.forceUpdateAfterNS = config == null ? 0 : config.forceUpdateNanos;
-            this.maxDriftNS = TimeUnit.SECONDS.toNanos(1);
+            this.maxDriftNS = config != null && config.allowClockDrift
+                    ? Long.MAX_VALUE : TimeUnit.SECONDS.toNanos(1);
+            this.mailboxCapacity = config == null ? 0 : config.mailboxCapacity;
+            this.overflowPolicy = config == null
+                    ? OverflowPolicy.REJECT : config.overflowPolicy;
         }
 
         /**
@@ -981,7 +1161,7 @@ public abstract class AbstractRoot implements Root {
             if (forceUpdateAfterNS > 0 && delta > forceUpdateAfterNS) {
                 return true;
             }
-            if (Math.abs(delta) > 10_000_000_000L) {
+            if (Math.abs(delta) > 10_000_000_000L && maxDriftNS != Long.MAX_VALUE) {
                 LOG.log(System.Logger.Level.ERROR, "Delegate not updating time");
             }
             return false;
@@ -1015,10 +1195,15 @@ public abstract class AbstractRoot implements Root {
 
         private boolean backgroundPoll;
         private long forceUpdateNanos;
+        private int mailboxCapacity;
+        private OverflowPolicy overflowPolicy;
+        private boolean allowClockDrift;
 
         private DelegateConfiguration() {
             this.backgroundPoll = false;
             this.forceUpdateNanos = 0;
+            this.mailboxCapacity = 0;
+            this.overflowPolicy = OverflowPolicy.REJECT;
         }
 
         /**
@@ -1053,6 +1238,41 @@ public abstract class AbstractRoot implements Root {
             return this;
         }
 
+        /**
+         * Limit the number of incoming packets that may be waiting in the root
+         * mailbox while the delegate is attached, applying the given policy
+         * when the limit is reached. Default is unbounded.
+         * <p>
+         * Tasks submitted via {@link #invokeLater(java.lang.Runnable)} do not
+         * count towards the capacity and are always accepted.
+         *
+         * @param capacity maximum number of waiting packets
+         * @param policy overflow policy
+         * @return this for chaining
+         */
+        public DelegateConfiguration mailboxCapacity(int capacity, OverflowPolicy policy) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException();
+            }
+            mailboxCapacity = capacity;
+            overflowPolicy = Objects.requireNonNull(policy);
+            return this;
+        }
+
+        /**
+         * Whether to allow the update time passed in by the delegate to drift
+         * away from the hub clock. By default, update time is kept within one
+         * second of the hub clock. Allowing drift is useful for delegates
+         * driven by a virtual clock, such as offline rendering faster than
+         * real time. Update time is always kept monotonic.
+         *
+         * @return this for chaining
+         */
+        public DelegateConfiguration allowClockDrift() {
+            allowClockDrift = true;
+            return this;
+        }
+
     }
 
 }
@@ -34,6 +34,7 @@ import org.praxislive.core.Lookup;
 import org.praxislive.core.PacketRouter;
 import org.praxislive.core.Port;
 import org.praxislive.core.PortConnectionException;
+import org.praxislive.core.Settings;
 import org.praxislive.core.TreeWriter;
 import org.praxislive.core.VetoException;
 import org.praxislive.core.protocols.SerializableProtocol;
@@ -80,6 +81,38 @@ public abstract class AbstractRootContainer extends AbstractRoot implements Cont
         });
     }
 
+    /**
+     * Creates the execution context. If this root type supports parallel
+     * update, and it is opted in via
+     * {@link DefaultExecutionContext#KEY_PARALLEL_TICK}, a partitioner is set
+     * on the context so that independent subgraphs of children may be updated
+     * in parallel.
+     *
+     * @param initialTime the current clock time of the hub
+     * @return execution context
+     */
+    @Override
+    protected DefaultExecutionContext createContext(long initialTime) {
+        DefaultExecutionContext context = super.createContext(initialTime);
+        if (isParallelTickSupported()
+                && Settings.getBoolean(DefaultExecutionContext.KEY_PARALLEL_TICK, false)) {
+            context.setPartitioner(delegate.createPartitioner());
+        }
+        return context;
+    }
+
+    /**
+     * Whether this root type supports parallel update of independent subgraphs
+     * of children. Subclasses may override to return true if their children
+     * share no state, other than through port connections, that is accessed
+     * during a clock update. The default implementation returns false.
+     *
+     * @return true if parallel update is supported
+     */
+    protected boolean isParallelTickSupported() {
+        return false;
+    }
+
     @Override
     public Component getChild(String id) {
         return delegate.getChild(id);
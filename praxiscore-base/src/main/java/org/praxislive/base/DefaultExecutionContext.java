@@ -21,23 +21,54 @@
  */
 package org.praxislive.base;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinTask;
+import org.praxislive.core.Component;
 import org.praxislive.core.ExecutionContext;
+import org.praxislive.core.Settings;
 
 /**
  * Default implementation of {@link ExecutionContext} for use with
  * {@link AbstractRoot}
+ * <p>
+ * Clock listeners are called in order on the root thread by default. If a
+ * {@link Partitioner} is set, clock listeners added with an owning component
+ * are grouped by the partition of their owner, and partitions are called
+ * concurrently on the common fork-join pool. Listeners within a partition are
+ * called in order on a single thread. Listeners without an owner, or whose
+ * owner is not in a partition, are called on the root thread in their original
+ * order, after all listeners added before them and before all listeners added
+ * after them. All listeners have completed before {@link #updateClock(long)}
+ * returns.
  */
 public class DefaultExecutionContext implements ExecutionContext {
 
+    /**
+     * {@link Settings} key to opt in to parallel update of independent
+     * subgraphs of components, in roots whose type supports it. Default false.
+     * Roots that do not support parallel update ignore this setting.
+     */
+    public static final String KEY_PARALLEL_TICK = "root.paralleltick";
+
     private final List<ExecutionContext.StateListener> stateListeners;
     private final List<ExecutionContext.ClockListener> clockListeners;
-    
+    private final Map<ExecutionContext.ClockListener, Component> listenerOwners;
+
     private ExecutionContext.State state;
     long time;
     private long startTime;
+    private long clockOffset;
+
+    private Partitioner partitioner;
+    private boolean partitionsValid;
+    private int partitionsVersion;
+    private List<List<List<ExecutionContext.ClockListener>>> stages;
 
     /**
      * Create a DefaultExecutionContext
@@ -47,6 +78,7 @@ public class DefaultExecutionContext implements ExecutionContext {
     public DefaultExecutionContext(long time) {
         this.stateListeners = new CopyOnWriteArrayList<>();
         this.clockListeners = new CopyOnWriteArrayList<>();
+        this.listenerOwners = new ConcurrentHashMap<>();
         this.state = ExecutionContext.State.NEW;
         this.time = this.startTime = time;
     }
@@ -64,11 +96,40 @@ public class DefaultExecutionContext implements ExecutionContext {
     @Override
     public void addClockListener(ExecutionContext.ClockListener listener) {
         clockListeners.add(Objects.requireNonNull(listener));
+        partitionsValid = false;
+    }
+
+    /**
+     * Add a clock listener that updates the provided component. The owner is
+     * used to find the partition the listener belongs to if a
+     * {@link Partitioner} is set.
+     *
+     * @param listener clock listener
+     * @param owner component updated by the listener
+     */
+    public void addClockListener(ExecutionContext.ClockListener listener, Component owner) {
+        listenerOwners.put(Objects.requireNonNull(listener), Objects.requireNonNull(owner));
+        addClockListener(listener);
     }
 
     @Override
     public void removeClockListener(ExecutionContext.ClockListener listener) {
         clockListeners.remove(listener);
+        listenerOwners.remove(listener);
+        partitionsValid = false;
+    }
+
+    /**
+     * Set the partitioner used to group clock listeners for parallel update,
+     * or null to update all clock listeners in order on the root thread. This
+     * method should only be called on the root thread.
+     *
+     * @param partitioner partitioner, or null
+     */
+    public void setPartitioner(Partitioner partitioner) {
+        this.partitioner = partitioner;
+        partitionsValid = false;
+        stages = null;
     }
 
     /**
@@ -137,12 +198,151 @@ public class DefaultExecutionContext implements ExecutionContext {
         return startTime;
     }
 
+    /**
+     * Convert a time on this context's clock to the equivalent time on the hub
+     * clock, for stamping calls to other roots. The clock of a root whose
+     * delegate allows clock drift, such as a video root rendering offline,
+     * may run ahead of or behind the hub clock. Other roots schedule calls
+     * against the hub clock, and would delay calls stamped with the context
+     * time by the amount of drift. If the clock is not drifting the time is
+     * returned unchanged.
+     *
+     * @param time time on this context's clock
+     * @return equivalent time on the hub clock
+     */
+    public long toHubTime(long time) {
+        return time - clockOffset;
+    }
+
+    long getClockOffset() {
+        return clockOffset;
+    }
+
+    void setClockOffset(long clockOffset) {
+        this.clockOffset = clockOffset;
+    }
+
     private void fireStateListeners() {
         stateListeners.forEach(l -> l.stateChanged(this));
     }
 
     private void fireClockListeners() {
-        clockListeners.forEach(l -> l.tick(this));
+        if (partitioner == null) {
+            clockListeners.forEach(l -> l.tick(this));
+            return;
+        }
+        validatePartitions();
+        for (var partitions : stages) {
+            if (partitions.size() == 1) {
+                partitions.get(0).forEach(l -> l.tick(this));
+            } else {
+                firePartitions(partitions);
+            }
+        }
+    }
+
+    private void firePartitions(List<List<ExecutionContext.ClockListener>> partitions) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(partitions.size() - 1);
+        for (int i = 1; i < partitions.size(); i++) {
+            var partition = partitions.get(i);
+            tasks.add(ForkJoinTask.adapt(() -> partition.forEach(l -> l.tick(this))).fork());
+        }
+        RuntimeException exception = null;
+        try {
+            partitions.get(0).forEach(l -> l.tick(this));
+        } catch (RuntimeException ex) {
+            exception = ex;
+        }
+        for (var task : tasks) {
+            try {
+                task.join();
+            } catch (RuntimeException ex) {
+                if (exception == null) {
+                    exception = ex;
+                } else {
+                    exception.addSuppressed(ex);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private void validatePartitions() {
+        int version = partitioner.version();
+        if (partitionsValid && version == partitionsVersion) {
+            return;
+        }
+        // split listeners into stages at each unowned listener, so that
+        // unowned listeners keep their order relative to all others
+        List<List<List<ExecutionContext.ClockListener>>> result = new ArrayList<>();
+        List<ExecutionContext.ClockListener> root = null;
+        Map<Object, List<ExecutionContext.ClockListener>> grouped = null;
+        for (var listener : clockListeners) {
+            Component owner = listenerOwners.get(listener);
+            Object key = owner == null ? null : partitioner.partition(owner);
+            if (key == null) {
+                if (grouped != null) {
+                    result.add(copyGroups(grouped));
+                    grouped = null;
+                }
+                if (root == null) {
+                    root = new ArrayList<>();
+                }
+                root.add(listener);
+            } else {
+                if (root != null) {
+                    result.add(List.of(List.copyOf(root)));
+                    root = null;
+                }
+                if (grouped == null) {
+                    grouped = new LinkedHashMap<>();
+                }
+                grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(listener);
+            }
+        }
+        if (root != null) {
+            result.add(List.of(List.copyOf(root)));
+        } else if (grouped != null) {
+            result.add(copyGroups(grouped));
+        }
+        stages = List.copyOf(result);
+        partitionsVersion = version;
+        partitionsValid = true;
+    }
+
+    private static List<List<ExecutionContext.ClockListener>> copyGroups(
+            Map<Object, List<ExecutionContext.ClockListener>> grouped) {
+        return grouped.values().stream().map(List::copyOf).toList();
+    }
+
+    /**
+     * A function for grouping components into partitions that may be updated
+     * in parallel. Components in different partitions must not share any
+     * state that is accessed during a clock update.
+     */
+    public static interface Partitioner {
+
+        /**
+         * Find the partition of the given component. Components that map to
+         * equal keys are in the same partition. A null key means the component
+         * must be updated on the root thread.
+         *
+         * @param owner component
+         * @return partition key, or null
+         */
+        public Object partition(Component owner);
+
+        /**
+         * A version number that must change whenever the result of
+         * {@link #partition(org.praxislive.core.Component)} might change for
+         * any component.
+         *
+         * @return version
+         */
+        public int version();
+
     }
 
 }
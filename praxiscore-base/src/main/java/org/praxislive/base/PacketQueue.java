@@ -34,11 +34,11 @@ class PacketQueue {
     private long time;
 
     PacketQueue(long time) {
-        q = new PriorityQueue<>(this::compare);
+        q = new PriorityQueue<>(PacketQueue::compare);
         this.time = time;
     }
 
-    private int compare(Packet p1, Packet p2) {
+    static int compare(Packet p1, Packet p2) {
         if (p1 == p2) {
             return 0;
         }
@@ -0,0 +1,185 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.base;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import org.praxislive.core.Packet;
+
+/**
+ * Multiple-producer, single-consumer queue of packets and tasks used by
+ * {@link AbstractRoot}. Elements are stored in linked array chunks rather than
+ * a node per element. Producer slots are claimed by incrementing a shared
+ * index, so ordering across producers is by claim order.
+ * <p>
+ * The consumer methods must only be called while holding the root lock.
+ */
+class RootMailbox {
+
+    static final int CHUNK_SIZE = 256;
+
+    private static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT
+            = AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
+
+    private final AtomicLong producerIndex;
+    private final AtomicInteger packetCount;
+
+    private volatile Chunk producerChunk;
+    private volatile Chunk consumerChunk;
+    private volatile long consumerIndex;
+
+    RootMailbox() {
+        Chunk initial = new Chunk(0);
+        producerIndex = new AtomicLong();
+        packetCount = new AtomicInteger();
+        producerChunk = initial;
+        consumerChunk = initial;
+    }
+
+    /**
+     * Add a packet or task to the mailbox. May be called from any thread.
+     *
+     * @param obj packet or task
+     * @return true (element is always accepted)
+     */
+    boolean offer(Object obj) {
+        if (obj == null) {
+            throw new NullPointerException();
+        }
+        if (obj instanceof Packet) {
+            packetCount.incrementAndGet();
+        }
+        long index = producerIndex.getAndIncrement();
+        Chunk chunk = producerChunk;
+        if (chunk.base > index) {
+            // another producer has moved the hint past our chunk - the
+            // consumer cannot have passed our unwritten slot, so start there
+            chunk = consumerChunk;
+        }
+        while (index - chunk.base >= CHUNK_SIZE) {
+            Chunk next = chunk.next;
+            if (next == null) {
+                next = new Chunk(chunk.base + CHUNK_SIZE);
+                if (!NEXT.compareAndSet(chunk, null, next)) {
+                    next = chunk.next;
+                }
+            }
+            chunk = next;
+        }
+        if (chunk.base > producerChunk.base) {
+            producerChunk = chunk;
+        }
+        chunk.slots.set((int) (index - chunk.base), obj);
+        return true;
+    }
+
+    /**
+     * Get a mark of the current producer position. Passing the mark to
+     * {@link #poll(long)} restricts polling to elements added before the mark
+     * was taken.
+     *
+     * @return mark
+     */
+    long mark() {
+        return producerIndex.get();
+    }
+
+    /**
+     * Poll the next element. Consumer only.
+     *
+     * @return next element or null if empty
+     */
+    Object poll() {
+        return poll(Long.MAX_VALUE);
+    }
+
+    /**
+     * Poll the next element added before the provided mark. Consumer only.
+     *
+     * @param mark producer mark
+     * @return next element or null if empty or mark reached
+     */
+    Object poll(long mark) {
+        long index = consumerIndex;
+        if (index - mark >= 0) {
+            return null;
+        }
+        Chunk chunk = consumerChunk;
+        int offset = (int) (index - chunk.base);
+        if (offset == CHUNK_SIZE) {
+            Chunk next = chunk.next;
+            if (next == null) {
+                return null;
+            }
+            consumerChunk = chunk = next;
+            offset = 0;
+        }
+        Object obj = chunk.slots.get(offset);
+        if (obj == null) {
+            // slot claimed but not yet written - the producer will signal
+            // receipt after writing
+            return null;
+        }
+        chunk.slots.lazySet(offset, null);
+        consumerIndex = index + 1;
+        if (obj instanceof Packet) {
+            packetCount.decrementAndGet();
+        }
+        return obj;
+    }
+
+    /**
+     * Query whether the mailbox is empty. Claimed slots not yet written count
+     * as present.
+     *
+     * @return true if empty
+     */
+    boolean isEmpty() {
+        return producerIndex.get() == consumerIndex;
+    }
+
+    /**
+     * Number of packets (not tasks) in the mailbox.
+     *
+     * @return packet count
+     */
+    int packetCount() {
+        return packetCount.get();
+    }
+
+    private static final class Chunk {
+
+        private final long base;
+        private final AtomicReferenceArray<Object> slots;
+
+        private volatile Chunk next;
+
+        private Chunk(long base) {
+            this.base = base;
+            this.slots = new AtomicReferenceArray<>(CHUNK_SIZE);
+        }
+
+    }
+
+}
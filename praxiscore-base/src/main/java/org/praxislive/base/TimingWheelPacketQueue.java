@@ -0,0 +1,159 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.base;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.PriorityQueue;
+import org.praxislive.core.Packet;
+
+/**
+ * A {@link PacketQueue} that keeps future packets in a hierarchical timing
+ * wheel, giving constant time insertion. Packets are moved into the underlying
+ * priority queue as the tick they fall in is reached, so the priority queue
+ * only holds packets due in the current tick, and the time-then-id ordering of
+ * the superclass is preserved.
+ * <p>
+ * A tick is 2<sup>20</sup>ns (~1ms). Four levels of 64 slots cover ~4.9 hours.
+ * Packets beyond that horizon are kept in an overflow priority queue.
+ */
+class TimingWheelPacketQueue extends PacketQueue {
+
+    static final int TICK_SHIFT = 20;
+    static final int LEVEL_BITS = 6;
+    static final int LEVELS = 4;
+
+    private static final int SLOTS = 1 << LEVEL_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long HORIZON = 1L << (LEVEL_BITS * LEVELS);
+
+    private final long baseTime;
+    private final ArrayList<Packet>[][] wheel;
+    private final PriorityQueue<Packet> overflow;
+
+    private long nextTick;
+    private int wheelCount;
+
+    @SuppressWarnings("unchecked")
+    TimingWheelPacketQueue(long time) {
+        super(time);
+        this.baseTime = time;
+        this.wheel = new ArrayList[LEVELS][SLOTS];
+        this.overflow = new PriorityQueue<>(PacketQueue::compare);
+        this.nextTick = 1;
+    }
+
+    @Override
+    void setTime(long time) {
+        super.setTime(time);
+        long targetTick = tickOf(time);
+        while (nextTick <= targetTick) {
+            if (wheelCount == 0) {
+                // nothing to cascade - jump directly to target
+                nextTick = targetTick + 1;
+                break;
+            }
+            int index = (int) (nextTick & SLOT_MASK);
+            if (index == 0) {
+                cascade(1);
+            }
+            ArrayList<Packet> slot = wheel[0][index];
+            if (slot != null && !slot.isEmpty()) {
+                for (int i = 0, size = slot.size(); i < size; i++) {
+                    super.add(slot.get(i));
+                }
+                wheelCount -= slot.size();
+                slot.clear();
+            }
+            nextTick++;
+        }
+        while (!overflow.isEmpty()
+                && tickOf(overflow.peek().time()) - nextTick < HORIZON) {
+            add(overflow.poll());
+        }
+    }
+
+    @Override
+    void add(Packet packet) {
+        long tick = tickOf(packet.time());
+        long delta = tick - nextTick;
+        if (delta < 0) {
+            super.add(packet);
+        } else if (delta >= HORIZON) {
+            overflow.add(packet);
+        } else {
+            int level = 0;
+            while (delta >= (1L << (LEVEL_BITS * (level + 1)))) {
+                level++;
+            }
+            int index = (int) ((tick >>> (LEVEL_BITS * level)) & SLOT_MASK);
+            ArrayList<Packet> slot = wheel[level][index];
+            if (slot == null) {
+                slot = new ArrayList<>();
+                wheel[level][index] = slot;
+            }
+            slot.add(packet);
+            wheelCount++;
+        }
+    }
+
+    @Override
+    void drainTo(Collection<Object> queue) {
+        super.drainTo(queue);
+        for (ArrayList<Packet>[] level : wheel) {
+            for (ArrayList<Packet> slot : level) {
+                if (slot != null) {
+                    queue.addAll(slot);
+                    slot.clear();
+                }
+            }
+        }
+        wheelCount = 0;
+        queue.addAll(overflow);
+        overflow.clear();
+    }
+
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int index = (int) ((nextTick >>> (LEVEL_BITS * level)) & SLOT_MASK);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+        ArrayList<Packet> slot = wheel[level][index];
+        if (slot != null && !slot.isEmpty()) {
+            wheelCount -= slot.size();
+            // copy out in case re-adding lands back in this slot
+            Packet[] packets = slot.toArray(Packet[]::new);
+            slot.clear();
+            for (Packet packet : packets) {
+                add(packet);
+            }
+        }
+    }
+
+    private long tickOf(long time) {
+        return (time - baseTime) >> TICK_SHIFT;
+    }
+
+}
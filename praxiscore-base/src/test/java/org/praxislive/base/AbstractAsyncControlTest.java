@@ -0,0 +1,169 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.Call;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.Packet;
+import org.praxislive.core.PacketRouter;
+import org.praxislive.core.types.PString;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class AbstractAsyncControlTest {
+
+    private static final ControlAddress CONTROL = ControlAddress.of("/root/async.control");
+    private static final ControlAddress CLIENT = ControlAddress.of("/client.control");
+    private static final ControlAddress SERVICE = ControlAddress.of("/service.control");
+
+    public AbstractAsyncControlTest() {
+    }
+
+    @Test
+    public void testSequential() throws Exception {
+        Router router = new Router();
+        AsyncControl control = new AsyncControl(1);
+        control.call(request("a"), router);
+        control.call(request("b"), router);
+        assertEquals(1, router.calls.size());
+        Call forward = router.calls.remove(0);
+        assertEquals(SERVICE, forward.to());
+        control.call(forward.reply(PString.of("1")), router);
+        assertEquals(2, router.calls.size());
+        Call reply = router.calls.remove(0);
+        assertTrue(reply.isReply());
+        assertEquals("a1", reply.args().get(0).toString());
+        forward = router.calls.remove(0);
+        control.call(forward.reply(PString.of("2")), router);
+        reply = router.calls.remove(0);
+        assertEquals("b2", reply.args().get(0).toString());
+    }
+
+    @Test
+    public void testMultipleInFlight() throws Exception {
+        Router router = new Router();
+        AsyncControl control = new AsyncControl(2);
+        Call a = request("a", ControlAddress.of("/client1.control"));
+        Call b = request("b", ControlAddress.of("/client2.control"));
+        Call c = request("c", ControlAddress.of("/client3.control"));
+        control.call(a, router);
+        control.call(b, router);
+        control.call(c, router);
+        assertEquals(2, router.calls.size());
+        Call forwardA = router.calls.remove(0);
+        Call forwardB = router.calls.remove(0);
+        control.call(forwardB.reply(PString.of("2")), router);
+        assertEquals(2, router.calls.size());
+        Call reply = router.calls.remove(0);
+        assertEquals(b.matchID(), reply.matchID());
+        assertEquals("b2", reply.args().get(0).toString());
+        Call forwardC = router.calls.remove(0);
+        control.call(forwardA.error(List.of(PString.of("failed"))), router);
+        reply = router.calls.remove(0);
+        assertTrue(reply.isError());
+        assertEquals(a.matchID(), reply.matchID());
+        control.call(forwardC.reply(PString.of("3")), router);
+        reply = router.calls.remove(0);
+        assertEquals(c.matchID(), reply.matchID());
+        assertEquals("c3", reply.args().get(0).toString());
+        assertTrue(router.calls.isEmpty());
+        assertNull(control.getActiveCall());
+    }
+
+    @Test
+    public void testSameCallerInOrder() throws Exception {
+        Router router = new Router();
+        AsyncControl control = new AsyncControl(4);
+        ControlAddress other = ControlAddress.of("/other.control");
+        Call a = request("a");
+        Call b = request("b");
+        Call c = request("c", other);
+        control.call(a, router);
+        control.call(b, router);
+        control.call(c, router);
+        assertEquals(2, router.calls.size());
+        Call forwardA = router.calls.remove(0);
+        Call forwardC = router.calls.remove(0);
+        control.call(forwardC.reply(PString.of("3")), router);
+        Call reply = router.calls.remove(0);
+        assertEquals(c.matchID(), reply.matchID());
+        assertTrue(router.calls.isEmpty());
+        control.call(forwardA.error(List.of(PString.of("failed"))), router);
+        assertEquals(2, router.calls.size());
+        reply = router.calls.remove(0);
+        assertTrue(reply.isError());
+        assertEquals(a.matchID(), reply.matchID());
+        Call forwardB = router.calls.remove(0);
+        assertEquals(SERVICE, forwardB.to());
+        control.call(forwardB.reply(PString.of("2")), router);
+        reply = router.calls.remove(0);
+        assertEquals(b.matchID(), reply.matchID());
+        assertEquals("b2", reply.args().get(0).toString());
+        assertTrue(router.calls.isEmpty());
+    }
+
+    private static Call request(String arg) {
+        return request(arg, CLIENT);
+    }
+
+    private static Call request(String arg, ControlAddress from) {
+        return Call.create(CONTROL, from, 0, PString.of(arg));
+    }
+
+    private static class Router implements PacketRouter {
+
+        private final List<Call> calls = new ArrayList<>();
+
+        @Override
+        public void route(Packet packet) {
+            calls.add((Call) packet);
+        }
+
+    }
+
+    private static class AsyncControl extends AbstractAsyncControl {
+
+        private AsyncControl(int maxInFlight) {
+            super(maxInFlight);
+        }
+
+        @Override
+        protected Call processInvoke(Call call) throws Exception {
+            setActiveState(call.args().get(0).toString());
+            return Call.create(SERVICE, call.to(), call.time());
+        }
+
+        @Override
+        protected Call processResponse(Call call) throws Exception {
+            return getActiveCall().reply(
+                    PString.of(getActiveState() + call.args().get(0).toString()));
+        }
+
+    }
+
+}
@@ -21,7 +21,9 @@
  */
 package org.praxislive.base;
 
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -115,6 +117,99 @@ public class AbstractRootTest {
         }
     }
 
+    @Test
+    public void testMailboxReject() throws Exception {
+        MailboxRootImpl root = new MailboxRootImpl();
+        LinkedBlockingQueue<Packet> responseQueue = new LinkedBlockingQueue<>();
+        RootHubImpl hub = new RootHubImpl(root, responseQueue);
+        hub.ctrl.start();
+        assertTrue(root.attached.await(2, TimeUnit.SECONDS));
+        Call first = Call.create(ControlAddress.of("/test.hello"),
+                ControlAddress.of("/hub.world"),
+                hub.getClock().getTime());
+        Call second = Call.create(ControlAddress.of("/test.hello"),
+                ControlAddress.of("/hub.world"),
+                hub.getClock().getTime());
+        assertTrue(hub.ctrl.submitPacket(first));
+        assertFalse(hub.ctrl.submitPacket(second));
+        Call reply = (Call) responseQueue.poll(2, TimeUnit.SECONDS);
+        assertNotNull(reply);
+        assertTrue(reply.isError());
+        assertEquals(second.matchID(), reply.matchID());
+        hub.ctrl.shutdown();
+    }
+
+    @Test
+    public void testMailboxBlock() throws Exception {
+        BlockingMailboxRootImpl root = new BlockingMailboxRootImpl();
+        LinkedBlockingQueue<Packet> responseQueue = new LinkedBlockingQueue<>();
+        RootHubImpl hub = new RootHubImpl(root, responseQueue);
+        hub.ctrl.start();
+        assertTrue(root.attached.await(2, TimeUnit.SECONDS));
+        assertTrue(hub.ctrl.submitPacket(Call.create(ControlAddress.of("/test.hello"),
+                ControlAddress.of("/hub.world"),
+                hub.getClock().getTime())));
+        Thread producer = new Thread(() -> {
+            hub.ctrl.submitPacket(Call.create(ControlAddress.of("/test.hello"),
+                    ControlAddress.of("/hub.world"),
+                    hub.getClock().getTime()));
+        });
+        producer.start();
+        producer.join(100);
+        assertTrue(producer.isAlive());
+        root.del.doUpdate(hub.getClock().getTime());
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+        root.del.doUpdate(hub.getClock().getTime());
+        for (int i = 0; i < 2; i++) {
+            Call reply = (Call) responseQueue.poll(2, TimeUnit.SECONDS);
+            assertNotNull(reply);
+            assertEquals("OK", reply.args().get(0).toString());
+        }
+        hub.ctrl.shutdown();
+    }
+
+    @Test
+    public void testDelegateClockDrift() throws Exception {
+        for (boolean allowDrift : new boolean[]{false, true}) {
+            DriftingRootImpl root = new DriftingRootImpl(allowDrift);
+            RootHubImpl hub = new RootHubImpl(root, new LinkedBlockingQueue<>());
+            hub.ctrl.start();
+            long[] times = root.times.poll(2, TimeUnit.SECONDS);
+            assertNotNull(times);
+            long virtualTime = times[0];
+            long rootTime = times[1];
+            if (allowDrift) {
+                assertEquals(virtualTime, rootTime);
+            } else {
+                assertTrue(rootTime < virtualTime);
+                assertTrue(rootTime - hub.getClock().getTime()
+                        <= TimeUnit.SECONDS.toNanos(1));
+            }
+            hub.ctrl.shutdown();
+        }
+    }
+
+    @Test
+    public void testClockDriftCrossRoot() throws Exception {
+        for (long drift : new long[]{TimeUnit.SECONDS.toNanos(60),
+            -TimeUnit.SECONDS.toNanos(60)}) {
+            MultiRootHubImpl hub = new MultiRootHubImpl();
+            CrossRootDriftingRootImpl driftRoot = new CrossRootDriftingRootImpl(drift);
+            hub.add("drift", driftRoot);
+            hub.add("other", new RootImpl());
+            hub.start();
+            assertTrue(driftRoot.attached.await(2, TimeUnit.SECONDS));
+            hub.dispatch(Call.create(ControlAddress.of("/drift.start"),
+                    ControlAddress.of("/hub.world"),
+                    hub.getClock().getTime()));
+            Call reply = (Call) driftRoot.replies.poll(2, TimeUnit.SECONDS);
+            assertNotNull(reply);
+            assertEquals("OK", reply.args().get(0).toString());
+            hub.shutdown();
+        }
+    }
+
     public class RootImpl extends AbstractRoot {
 
         CountDownLatch latch = new CountDownLatch(1);
@@ -195,6 +290,168 @@ public class AbstractRootTest {
         }
     }
 
+    public class MailboxRootImpl extends AbstractRoot {
+
+        final CountDownLatch attached = new CountDownLatch(1);
+
+        @Override
+        protected void activating() {
+            setRunning();
+            // delegate never updates, so packets stay in the mailbox
+            attachDelegate(new Delegate(delegateConfig()
+                    .mailboxCapacity(1, OverflowPolicy.REJECT)) {
+            });
+            attached.countDown();
+        }
+
+        @Override
+        public void processCall(Call call, PacketRouter router) {
+            router.route(call.reply(PString.of("OK")));
+        }
+
+    }
+
+    public class BlockingMailboxRootImpl extends AbstractRoot {
+
+        final CountDownLatch attached = new CountDownLatch(1);
+        Delegate del;
+
+        @Override
+        protected void activating() {
+            setRunning();
+            // delegate only updates when called by the test
+            del = new Delegate(delegateConfig()
+                    .mailboxCapacity(1, OverflowPolicy.BLOCK)) {
+            };
+            attachDelegate(del);
+            attached.countDown();
+        }
+
+        @Override
+        public void processCall(Call call, PacketRouter router) {
+            router.route(call.reply(PString.of("OK")));
+        }
+
+    }
+
+    public class DriftingRootImpl extends AbstractRoot {
+
+        final LinkedBlockingQueue<long[]> times = new LinkedBlockingQueue<>();
+        final boolean allowDrift;
+
+        DriftingRootImpl(boolean allowDrift) {
+            this.allowDrift = allowDrift;
+        }
+
+        @Override
+        protected void activating() {
+            setRunning();
+            var config = delegateConfig();
+            if (allowDrift) {
+                config.allowClockDrift();
+            }
+            var del = new Delegate(config) {
+            };
+            attachDelegate(del);
+            RootHub hub = getRootHub();
+            del.getThreadFactory().newThread(() -> {
+                long virtualTime = hub.getClock().getTime() + TimeUnit.SECONDS.toNanos(60);
+                del.doUpdate(virtualTime);
+                times.add(new long[]{virtualTime, getExecutionContext().getTime()});
+                detachDelegate(del);
+            }).start();
+        }
+
+        @Override
+        public void processCall(Call call, PacketRouter router) {
+            router.route(call.reply(PString.of("OK")));
+        }
+
+    }
+
+    public class CrossRootDriftingRootImpl extends AbstractRoot {
+
+        final CountDownLatch attached = new CountDownLatch(1);
+        final LinkedBlockingQueue<Packet> replies = new LinkedBlockingQueue<>();
+        final long drift;
+
+        CrossRootDriftingRootImpl(long drift) {
+            this.drift = drift;
+        }
+
+        @Override
+        protected void activating() {
+            setRunning();
+            var del = new Delegate(delegateConfig().allowClockDrift()) {
+            };
+            attachDelegate(del);
+            RootHub hub = getRootHub();
+            del.getThreadFactory().newThread(() -> {
+                while (del.doUpdate(hub.getClock().getTime() + drift)) {
+                    attached.countDown();
+                    try {
+                        del.doTimedPoll(5, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException ex) {
+                        break;
+                    }
+                }
+                detachDelegate(del);
+            }).start();
+        }
+
+        @Override
+        public void processCall(Call call, PacketRouter router) {
+            if (call.isRequest()) {
+                var ctxt = (DefaultExecutionContext) getExecutionContext();
+                router.route(Call.create(ControlAddress.of("/other.hello"),
+                        ControlAddress.of("/drift.reply"),
+                        ctxt.toHubTime(ctxt.getTime())));
+            } else {
+                replies.add(call);
+            }
+        }
+
+    }
+
+    public class MultiRootHubImpl implements RootHub {
+
+        private final Map<String, Root.Controller> controllers = new ConcurrentHashMap<>();
+
+        void add(String id, Root root) {
+            controllers.put(id, root.initialize(id, this));
+        }
+
+        void start() {
+            controllers.values().forEach(Root.Controller::start);
+        }
+
+        void shutdown() {
+            controllers.values().forEach(Root.Controller::shutdown);
+        }
+
+        @Override
+        public boolean dispatch(Packet packet) {
+            Root.Controller ctrl = controllers.get(packet.rootID());
+            if (ctrl != null) {
+                return ctrl.submitPacket(packet);
+            } else {
+                System.out.println(packet);
+            }
+            return true;
+        }
+
+        @Override
+        public Clock getClock() {
+            return System::nanoTime;
+        }
+
+        @Override
+        public Lookup getLookup() {
+            return Lookup.EMPTY;
+        }
+
+    }
+
     public class RootHubImpl implements RootHub {
 
         private final Root root;
@@ -0,0 +1,198 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.Component;
+import org.praxislive.core.ComponentInfo;
+import org.praxislive.core.ExecutionContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class DefaultExecutionContextTest {
+
+    public DefaultExecutionContextTest() {
+    }
+
+    @Test
+    public void testPartitionedTick() {
+        DefaultExecutionContext context = new DefaultExecutionContext(0);
+        TestPartitioner partitioner = new TestPartitioner();
+        Component a1 = new TestComponent();
+        Component a2 = new TestComponent();
+        Component b = new TestComponent();
+        partitioner.keys.put(a1, "A");
+        partitioner.keys.put(a2, "A");
+        partitioner.keys.put(b, "B");
+
+        Map<String, List<Thread>> threads = new ConcurrentHashMap<>();
+        List<String> rootCalls = new ArrayList<>();
+        Thread rootThread = Thread.currentThread();
+        context.addClockListener(src -> {
+            assertSame(rootThread, Thread.currentThread());
+            assertEquals(rootCalls.size(), threads.getOrDefault("a1", List.of()).size());
+            rootCalls.add("root");
+        });
+        context.addClockListener(src -> record(threads, "a1"), a1);
+        context.addClockListener(src -> record(threads, "b"), b);
+        context.addClockListener(src -> record(threads, "a2"), a2);
+        context.setPartitioner(partitioner);
+        context.updateState(0, ExecutionContext.State.ACTIVE);
+
+        for (int i = 1; i <= 10; i++) {
+            context.updateClock(i);
+            assertEquals(i, rootCalls.size());
+            assertEquals(i, threads.get("a1").size());
+            assertEquals(i, threads.get("a2").size());
+            assertEquals(i, threads.get("b").size());
+            assertSame(threads.get("a1").get(i - 1), threads.get("a2").get(i - 1));
+        }
+
+        partitioner.keys.put(b, "A");
+        partitioner.version++;
+        threads.clear();
+        rootCalls.clear();
+        context.updateClock(11);
+        assertSame(threads.get("a1").get(0), threads.get("b").get(0));
+        assertSame(threads.get("a1").get(0), threads.get("a2").get(0));
+
+        context.setPartitioner(null);
+        threads.clear();
+        rootCalls.clear();
+        context.updateClock(12);
+        assertSame(rootThread, threads.get("a1").get(0));
+        assertSame(rootThread, threads.get("b").get(0));
+    }
+
+    @Test
+    public void testPartitionedTickOrder() {
+        DefaultExecutionContext context = new DefaultExecutionContext(0);
+        TestPartitioner partitioner = new TestPartitioner();
+        Component a = new TestComponent();
+        Component b = new TestComponent();
+        partitioner.keys.put(a, "A");
+        partitioner.keys.put(b, "B");
+        Thread rootThread = Thread.currentThread();
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        context.addClockListener(src -> calls.add("a1"), a);
+        context.addClockListener(src -> calls.add("b1"), b);
+        context.addClockListener(src -> {
+            assertSame(rootThread, Thread.currentThread());
+            calls.add("root1");
+        });
+        context.addClockListener(src -> {
+            assertSame(rootThread, Thread.currentThread());
+            calls.add("root2");
+        });
+        context.addClockListener(src -> calls.add("a2"), a);
+        context.addClockListener(src -> calls.add("b2"), b);
+        context.addClockListener(src -> {
+            assertSame(rootThread, Thread.currentThread());
+            calls.add("root3");
+        });
+        context.setPartitioner(partitioner);
+        context.updateState(0, ExecutionContext.State.ACTIVE);
+
+        for (int i = 1; i <= 10; i++) {
+            calls.clear();
+            context.updateClock(i);
+            assertEquals(7, calls.size());
+            assertEquals(Set.of("a1", "b1"), Set.copyOf(calls.subList(0, 2)));
+            assertEquals(List.of("root1", "root2"), calls.subList(2, 4));
+            assertEquals(Set.of("a2", "b2"), Set.copyOf(calls.subList(4, 6)));
+            assertEquals("root3", calls.get(6));
+        }
+    }
+
+    @Test
+    public void testPartitionedTickException() {
+        DefaultExecutionContext context = new DefaultExecutionContext(0);
+        TestPartitioner partitioner = new TestPartitioner();
+        Component a = new TestComponent();
+        Component b = new TestComponent();
+        partitioner.keys.put(a, "A");
+        partitioner.keys.put(b, "B");
+        Map<String, List<Thread>> threads = new ConcurrentHashMap<>();
+        context.addClockListener(src -> {
+            throw new IllegalStateException();
+        }, a);
+        context.addClockListener(src -> record(threads, "b"), b);
+        context.setPartitioner(partitioner);
+        context.updateState(0, ExecutionContext.State.ACTIVE);
+        assertThrows(IllegalStateException.class, () -> context.updateClock(1));
+        assertEquals(1, threads.get("b").size());
+    }
+
+    @Test
+    public void testToHubTime() {
+        DefaultExecutionContext context = new DefaultExecutionContext(0);
+        assertEquals(0, context.getClockOffset());
+        assertEquals(1000, context.toHubTime(1000));
+        context.setClockOffset(250);
+        assertEquals(750, context.toHubTime(1000));
+        context.setClockOffset(-250);
+        assertEquals(1250, context.toHubTime(1000));
+        context.setClockOffset(0);
+        assertEquals(1000, context.toHubTime(1000));
+    }
+
+    private static void record(Map<String, List<Thread>> threads, String id) {
+        threads.computeIfAbsent(id, k -> new ArrayList<>()).add(Thread.currentThread());
+    }
+
+    private static class TestPartitioner implements DefaultExecutionContext.Partitioner {
+
+        private final Map<Component, Object> keys = new HashMap<>();
+        private int version;
+
+        @Override
+        public Object partition(Component owner) {
+            return keys.get(owner);
+        }
+
+        @Override
+        public int version() {
+            return version;
+        }
+
+    }
+
+    private static class TestComponent extends AbstractComponent {
+
+        @Override
+        public ComponentInfo getInfo() {
+            return null;
+        }
+
+    }
+
+}
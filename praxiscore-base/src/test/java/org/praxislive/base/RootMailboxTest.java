@@ -0,0 +1,123 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.Call;
+import org.praxislive.core.ControlAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class RootMailboxTest {
+
+    public RootMailboxTest() {
+    }
+
+    @Test
+    public void testOrderAndCount() {
+        RootMailbox mailbox = new RootMailbox();
+        assertTrue(mailbox.isEmpty());
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < RootMailbox.CHUNK_SIZE * 3 + 7; i++) {
+            Object obj = (i % 3 == 0) ? (Runnable) () -> {
+            } : Call.create(ControlAddress.of("/to.c"), ControlAddress.of("/from.c"), i);
+            expected.add(obj);
+            mailbox.offer(obj);
+        }
+        assertFalse(mailbox.isEmpty());
+        assertEquals(expected.size() - ((expected.size() + 2) / 3), mailbox.packetCount());
+        for (Object obj : expected) {
+            assertSame(obj, mailbox.poll());
+        }
+        assertNull(mailbox.poll());
+        assertTrue(mailbox.isEmpty());
+        assertEquals(0, mailbox.packetCount());
+    }
+
+    @Test
+    public void testMark() {
+        RootMailbox mailbox = new RootMailbox();
+        Runnable r1 = () -> {
+        };
+        Runnable r2 = () -> {
+        };
+        mailbox.offer(r1);
+        long mark = mailbox.mark();
+        mailbox.offer(r2);
+        assertSame(r1, mailbox.poll(mark));
+        assertNull(mailbox.poll(mark));
+        assertSame(r2, mailbox.poll());
+    }
+
+    @Test
+    public void testMultipleProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        RootMailbox mailbox = new RootMailbox();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    mailbox.offer(new int[]{producer, i});
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        int[] next = new int[producers];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (received < producers * perProducer) {
+            Object obj = mailbox.poll();
+            if (obj == null) {
+                assertTrue(System.nanoTime() < deadline, "Timed out");
+                Thread.onSpinWait();
+                continue;
+            }
+            int[] value = (int[]) obj;
+            assertEquals(next[value[0]], value[1]);
+            next[value[0]]++;
+            received++;
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertNull(mailbox.poll());
+        assertTrue(mailbox.isEmpty());
+    }
+
+}
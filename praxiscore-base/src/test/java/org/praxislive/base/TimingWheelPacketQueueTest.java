@@ -0,0 +1,141 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.Call;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.Packet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class TimingWheelPacketQueueTest {
+
+    private static final ControlAddress TO = ControlAddress.of("/to.c");
+    private static final ControlAddress FROM = ControlAddress.of("/from.c");
+
+    public TimingWheelPacketQueueTest() {
+    }
+
+    @Test
+    public void testPoll() {
+        PacketQueue pq = new TimingWheelPacketQueue(0);
+        Call c1 = Call.create(TO, FROM, 1000);
+        Call c2 = Call.create(TO, FROM, 2000);
+        pq.add(c1);
+        pq.add(c2);
+        assertNull(pq.poll());
+        pq.setTime(1000);
+        assertEquals(c1, pq.poll());
+        assertNull(pq.poll());
+
+        pq.add(c1);
+        pq.setTime(2500);
+        assertEquals(c1, pq.poll());
+        assertEquals(c2, pq.poll());
+    }
+
+    @Test
+    public void testWrappingPoll() {
+        PacketQueue pq = new TimingWheelPacketQueue(Long.MAX_VALUE - 5000);
+        Call c1 = Call.create(TO, FROM, Long.MAX_VALUE - 1000);
+        Call c2 = Call.create(TO, FROM, Long.MAX_VALUE + TimeUnit.SECONDS.toNanos(10));
+        pq.add(c1);
+        pq.add(c2);
+        assertNull(pq.poll());
+        pq.setTime(Long.MAX_VALUE - 1000);
+        assertEquals(c1, pq.poll());
+        assertNull(pq.poll());
+        pq.setTime(Long.MAX_VALUE + TimeUnit.SECONDS.toNanos(5));
+        assertNull(pq.poll());
+        pq.setTime(Long.MAX_VALUE + TimeUnit.SECONDS.toNanos(11));
+        assertEquals(c2, pq.poll());
+        assertNull(pq.poll());
+    }
+
+    @Test
+    public void testOrderingMatchesPriorityQueue() {
+        Random random = new Random(42);
+        long start = -TimeUnit.SECONDS.toNanos(3);
+        PacketQueue expected = new PacketQueue(start);
+        PacketQueue actual = new TimingWheelPacketQueue(start);
+        long time = start;
+        long[] ranges = {
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.MINUTES.toNanos(10),
+            TimeUnit.HOURS.toNanos(10)
+        };
+        for (int step = 0; step < 2000; step++) {
+            int adds = random.nextInt(20);
+            for (int i = 0; i < adds; i++) {
+                long range = ranges[random.nextInt(ranges.length)];
+                long packetTime = time + (long) (random.nextDouble() * range)
+                        - TimeUnit.MICROSECONDS.toNanos(100);
+                Call call = Call.create(TO, FROM, packetTime);
+                expected.add(call);
+                actual.add(call);
+            }
+            time += random.nextInt(step % 100 == 0 ? 1_000_000_000 : 5_000_000);
+            expected.setTime(time);
+            actual.setTime(time);
+            assertEquals(poll(expected), poll(actual));
+        }
+        time += TimeUnit.HOURS.toNanos(11);
+        expected.setTime(time);
+        actual.setTime(time);
+        assertEquals(poll(expected), poll(actual));
+        List<Object> remaining = new ArrayList<>();
+        actual.drainTo(remaining);
+        assertTrue(remaining.isEmpty());
+    }
+
+    @Test
+    public void testDrain() {
+        PacketQueue pq = new TimingWheelPacketQueue(0);
+        pq.add(Call.create(TO, FROM, 10));
+        pq.add(Call.create(TO, FROM, TimeUnit.SECONDS.toNanos(2)));
+        pq.add(Call.create(TO, FROM, TimeUnit.HOURS.toNanos(20)));
+        List<Object> drained = new ArrayList<>();
+        pq.drainTo(drained);
+        assertEquals(3, drained.size());
+        pq.setTime(TimeUnit.HOURS.toNanos(21));
+        assertNull(pq.poll());
+    }
+
+    private List<Packet> poll(PacketQueue queue) {
+        List<Packet> list = new ArrayList<>();
+        for (Packet p = queue.poll(); p != null; p = queue.poll()) {
+            list.add(p);
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.base;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.praxislive.core.Call;
+import org.praxislive.core.Clock;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.Lookup;
+import org.praxislive.core.Packet;
+import org.praxislive.core.PacketRouter;
+import org.praxislive.core.Root;
+import org.praxislive.core.RootHub;
+
+/**
+ * Throughput of {@link AbstractRoot} packet submission and processing. Each
+ * invocation submits a batch of calls to the root controller and runs a single
+ * update from an attached delegate on the benchmark thread.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AbstractRootBenchmark {
+
+    @Param({"1", "64", "1024"})
+    public int batch;
+
+    private BenchmarkRoot root;
+    private Root.Controller controller;
+    private Call[] calls;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        root = new BenchmarkRoot();
+        controller = root.initialize("bench", new BenchmarkHub());
+        controller.start(Lookup.EMPTY);
+        if (!root.attached.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Delegate not attached");
+        }
+        ControlAddress to = ControlAddress.of("/bench.input");
+        ControlAddress from = ControlAddress.of("/other.output");
+        calls = new Call[batch];
+        for (int i = 0; i < batch; i++) {
+            calls[i] = Call.createQuiet(to, from, 0, List.of());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        controller.shutdown();
+        root.delegate.update();
+        controller.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public int submitAndUpdate() {
+        for (Call call : calls) {
+            controller.submitPacket(call);
+        }
+        root.delegate.update();
+        return root.processed;
+    }
+
+    private static class BenchmarkRoot extends AbstractRoot {
+
+        private final CountDownLatch attached = new CountDownLatch(1);
+
+        private BenchmarkDelegate delegate;
+        private int processed;
+
+        @Override
+        protected void activating() {
+            setRunning();
+            delegate = new BenchmarkDelegate();
+            attachDelegate(delegate);
+            attached.countDown();
+        }
+
+        @Override
+        protected void processCall(Call call, PacketRouter router) {
+            processed++;
+        }
+
+        private class BenchmarkDelegate extends Delegate {
+
+            private void update() {
+                if (!doUpdate(getRootHub().getClock().getTime())) {
+                    detachDelegate(this);
+                }
+            }
+
+        }
+
+    }
+
+    private static class BenchmarkHub implements RootHub {
+
+        private final long start = System.nanoTime();
+
+        @Override
+        public boolean dispatch(Packet packet) {
+            return true;
+        }
+
+        @Override
+        public Clock getClock() {
+            return () -> System.nanoTime() - start;
+        }
+
+        @Override
+        public Lookup getLookup() {
+            return Lookup.EMPTY;
+        }
+
+    }
+
+}
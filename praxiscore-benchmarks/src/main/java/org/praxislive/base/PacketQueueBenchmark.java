@@ -0,0 +1,96 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.base;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.praxislive.core.Call;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.Packet;
+
+/**
+ * Comparison of the priority queue and timing wheel implementations of
+ * {@link PacketQueue}. Each invocation schedules a number of packets spread
+ * over ten seconds, as a sequencer would, then advances time in 1ms steps
+ * polling all due packets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PacketQueueBenchmark {
+
+    private static final long SPAN = TimeUnit.SECONDS.toNanos(10);
+    private static final long STEP = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"priority-queue", "timing-wheel"})
+    public String scheduling;
+
+    @Param({"1000", "10000", "100000"})
+    public int packets;
+
+    private Call[] calls;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ControlAddress to = ControlAddress.of("/data/sequencer.step");
+        ControlAddress from = ControlAddress.of("/core/controller.step");
+        calls = new Call[packets];
+        for (int i = 0; i < packets; i++) {
+            calls[i] = Call.createQuiet(to, from, (long) (random.nextDouble() * SPAN), List.of());
+        }
+    }
+
+    @Benchmark
+    public int scheduleAndPoll() {
+        PacketQueue queue = "timing-wheel".equals(scheduling)
+                ? new TimingWheelPacketQueue(0)
+                : new PacketQueue(0);
+        for (Call call : calls) {
+            queue.add(call);
+        }
+        int count = 0;
+        for (long time = 0; time <= SPAN; time += STEP) {
+            queue.setTime(time);
+            for (Packet p = queue.poll(); p != null; p = queue.poll()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.core;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.praxislive.core.types.PNumber;
+import org.praxislive.core.types.PString;
+
+/**
+ * Benchmarks of {@link Call} creation and replies.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CallBenchmark {
+
+    private ControlAddress to;
+    private ControlAddress from;
+    private List<Value> args;
+    private Value arg;
+    private Call call;
+    private long time;
+
+    @Setup
+    public void setup() {
+        to = ControlAddress.of("/data/sequencer.step");
+        from = ControlAddress.of("/core/controller.step");
+        arg = PNumber.of(42);
+        args = List.of(PString.of("note"), PNumber.of(60), PNumber.of(0.5));
+        call = Call.create(to, from, 0, args);
+    }
+
+    @Benchmark
+    public Call create() {
+        return Call.create(to, from, time++);
+    }
+
+    @Benchmark
+    public Call createSingleArg() {
+        return Call.create(to, from, time++, arg);
+    }
+
+    @Benchmark
+    public Call createArgs() {
+        return Call.create(to, from, time++, args);
+    }
+
+    @Benchmark
+    public Call createQuiet() {
+        return Call.createQuiet(to, from, time++, args);
+    }
+
+    @Benchmark
+    public Call reply() {
+        return call.reply(arg);
+    }
+
+    @Benchmark
+    public Call replyArgs() {
+        return call.reply(args);
+    }
+
+}
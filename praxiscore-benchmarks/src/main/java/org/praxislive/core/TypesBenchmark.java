@@ -0,0 +1,153 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.core;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.praxislive.core.types.PArray;
+import org.praxislive.core.types.PBoolean;
+import org.praxislive.core.types.PMap;
+import org.praxislive.core.types.PNumber;
+import org.praxislive.core.types.PString;
+
+/**
+ * Benchmarks of {@link PMap} and {@link PArray} parsing and printing. PMap and
+ * PArray cache their text representation, so the print benchmarks build a new
+ * instance from existing values on each invocation. Map benchmarks are run
+ * with a typical small map, and a larger map above the compact lookup
+ * threshold.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypesBenchmark {
+
+    @Param({"7", "32"})
+    public int mapSize;
+
+    private String mapText;
+    private String arrayText;
+    private Value[] values;
+    private Value[] arrayValues;
+    private String[] keys;
+    private String lastKey;
+    private PMap map;
+
+    @Setup
+    public void setup() {
+        String[] commonKeys = {"class", "release", "source", "log-level", "shared", "data", "enabled"};
+        Value[] commonValues = {
+            PString.of("org.praxislive.code.userapi.Data"),
+            PNumber.of(21),
+            PString.of("@Override\npublic void update() {\n    out.send(in * 2);\n}"),
+            PString.of("WARNING"),
+            PMap.of("key", "value", "other", 1),
+            PArray.of(PNumber.of(1), PNumber.of(2.5), PString.of("three")),
+            PBoolean.TRUE
+        };
+        keys = new String[Math.max(mapSize, commonKeys.length)];
+        values = new Value[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i < commonKeys.length ? commonKeys[i] : "key-" + i;
+            values[i] = commonValues[i % commonValues.length];
+        }
+        lastKey = keys[keys.length - 1];
+        mapText = buildMap().toString();
+        arrayValues = commonValues;
+        arrayText = PArray.of(arrayValues).toString();
+        map = buildMap();
+    }
+
+    @Benchmark
+    public PMap parseMap() throws ValueFormatException {
+        return PMap.parse(mapText);
+    }
+
+    @Benchmark
+    public String printMap() {
+        return buildMap().toString();
+    }
+
+    @Benchmark
+    public Value getMap() {
+        return map.get("log-level");
+    }
+
+    @Benchmark
+    public Value getMapLast() {
+        return map.get(lastKey);
+    }
+
+    @Benchmark
+    public int iterateMap() {
+        int count = 0;
+        for (var entry : map.asMap().entrySet()) {
+            if (entry.getValue() instanceof PString) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int forEachMap() {
+        int[] count = new int[1];
+        map.asMap().forEach((key, value) -> {
+            if (value instanceof PString) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    @Benchmark
+    public PArray parseArray() throws ValueFormatException {
+        return PArray.parse(arrayText);
+    }
+
+    @Benchmark
+    public String printArray() {
+        return PArray.of(arrayValues).toString();
+    }
+
+    private PMap buildMap() {
+        PMap.Builder builder = PMap.builder();
+        for (int i = 0; i < keys.length; i++) {
+            builder.put(keys[i], values[i]);
+        }
+        return builder.build();
+    }
+
+}
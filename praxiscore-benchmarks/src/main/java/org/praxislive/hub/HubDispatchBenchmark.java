@@ -0,0 +1,181 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.praxislive.base.AbstractRoot;
+import org.praxislive.core.Call;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.PacketRouter;
+import org.praxislive.core.RootHub;
+
+/**
+ * Throughput of {@link RootHub#dispatch(org.praxislive.core.Packet)} into a
+ * running root. The receiving root is driven by a delegate with a bounded
+ * mailbox that blocks when full, so that producers cannot outrun the root
+ * indefinitely.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HubDispatchBenchmark {
+
+    private Hub hub;
+    private SourceRoot source;
+    private SinkRoot sink;
+    private Call call;
+    private Call unknownRootCall;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        source = new SourceRoot();
+        sink = new SinkRoot();
+        hub = Hub.builder()
+                .addExtension(source)
+                .addExtension(sink)
+                .build();
+        hub.start();
+        if (!source.ready.await(10, TimeUnit.SECONDS)
+                || !sink.ready.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Roots not started");
+        }
+        call = Call.createQuiet(ControlAddress.of("/" + sink.id + ".input"),
+                ControlAddress.of("/" + source.id + ".output"), 0, List.of());
+        unknownRootCall = Call.createQuiet(ControlAddress.of("/unknown.input"),
+                ControlAddress.of("/" + source.id + ".output"), 0, List.of());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        hub.shutdown();
+        hub.await(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean dispatch() {
+        return source.hub.dispatch(call);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean dispatchContended() {
+        return source.hub.dispatch(call);
+    }
+
+    @Benchmark
+    public boolean dispatchUnknownRoot() {
+        return source.hub.dispatch(unknownRootCall);
+    }
+
+    private static class SourceRoot extends AbstractRoot {
+
+        private final CountDownLatch ready = new CountDownLatch(1);
+
+        private volatile RootHub hub;
+        private volatile String id;
+
+        @Override
+        public Controller initialize(String id, RootHub hub) {
+            this.id = id;
+            this.hub = hub;
+            return super.initialize(id, hub);
+        }
+
+        @Override
+        protected void activating() {
+            ready.countDown();
+        }
+
+        @Override
+        protected void processCall(Call call, PacketRouter router) {
+        }
+
+    }
+
+    private static class SinkRoot extends AbstractRoot {
+
+        private final CountDownLatch ready = new CountDownLatch(1);
+
+        private volatile String id;
+
+        @Override
+        public Controller initialize(String id, RootHub hub) {
+            this.id = id;
+            return super.initialize(id, hub);
+        }
+
+        @Override
+        protected void activating() {
+            setRunning();
+            SinkDelegate delegate = new SinkDelegate();
+            attachDelegate(delegate);
+            delegate.start();
+            ready.countDown();
+        }
+
+        @Override
+        protected void processCall(Call call, PacketRouter router) {
+        }
+
+        private class SinkDelegate extends Delegate {
+
+            private SinkDelegate() {
+                super(delegateConfig().mailboxCapacity(1 << 16, OverflowPolicy.BLOCK));
+            }
+
+            private void start() {
+                Thread thread = getThreadFactory().newThread(() -> {
+                    while (doUpdate(getRootHub().getClock().getTime())) {
+                        try {
+                            doTimedPoll(1, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException ex) {
+                            break;
+                        }
+                    }
+                    detachDelegate(this);
+                });
+                thread.start();
+            }
+
+        }
+
+    }
+
+}
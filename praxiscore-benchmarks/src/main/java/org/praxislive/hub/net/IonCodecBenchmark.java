@@ -0,0 +1,135 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.Value;
+import org.praxislive.core.types.PArray;
+import org.praxislive.core.types.PMap;
+import org.praxislive.core.types.PNumber;
+import org.praxislive.core.types.PString;
+
+/**
+ * Benchmarks of {@link IonCodec} encoding and decoding of batches of messages,
+ * as sent between hub processes. The stream benchmarks measure the steady
+ * state of a connection using {@link IonCodec.StreamWriter} and
+ * {@link IonCodec.StreamReader}, where recurring symbols have already been
+ * sent.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IonCodecBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int batch;
+
+    private IonCodec codec;
+    private List<Message> messages;
+    private byte[] encoded;
+    private IonCodec.StreamWriter streamWriter;
+    private IonCodec.StreamReader streamReader;
+    private ByteArrayOutputStream streamOut;
+    private byte[] streamEncoded;
+
+    @Setup
+    public void setup() throws IOException {
+        codec = IonCodec.getDefault();
+        messages = new ArrayList<>(batch);
+        ControlAddress from = ControlAddress.of("/hub/child.output");
+        for (int i = 0; i < batch; i++) {
+            ControlAddress to = ControlAddress.of("/video/layer-" + (i % 8) + "/blur.radius");
+            List<Value> args = switch (i % 3) {
+                case 0 ->
+                    List.of(PNumber.of(i * 0.5));
+                case 1 ->
+                    List.of(PString.of("value " + i), PNumber.of(i));
+                default ->
+                    List.of(PMap.of("x", i, "y", i * 2, "label", "point"),
+                    PArray.of(PNumber.of(1), PNumber.of(2), PNumber.of(3)));
+            };
+            if (i % 4 == 0) {
+                messages.add(new Message.Reply(i, args));
+            } else {
+                messages.add(new Message.Send(i, to, from, args));
+            }
+        }
+        encoded = codec.writeMessages(messages);
+
+        streamWriter = codec.createStreamWriter();
+        streamReader = codec.createStreamReader();
+        streamOut = new ByteArrayOutputStream();
+        streamWriter.writeMessages(messages, streamOut);
+        streamReader.readMessages(new ByteArrayInputStream(streamOut.toByteArray()), m -> {
+        });
+        streamOut.reset();
+        streamWriter.writeMessages(messages, streamOut);
+        streamEncoded = streamOut.toByteArray();
+        streamOut.reset();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return codec.writeMessages(messages);
+    }
+
+    @Benchmark
+    public List<Message> decode() throws IOException {
+        return codec.readMessages(encoded);
+    }
+
+    @Benchmark
+    public int encodeStream() throws IOException {
+        streamWriter.writeMessages(messages, streamOut);
+        int size = streamOut.size();
+        streamOut.reset();
+        return size;
+    }
+
+    @Benchmark
+    public List<Message> decodeStream() throws IOException {
+        List<Message> list = new ArrayList<>(batch);
+        streamReader.readMessages(new ByteArrayInputStream(streamEncoded), list::add);
+        return list;
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.video.render.ops;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link RGBComposite} blend modes, comparing the scalar and
+ * Vector API implementations on a 1080p frame. The benchmark JVM is forked
+ * with the jdk.incubator.vector module added. Before measuring, the setup
+ * verifies that the vector implementation produces bit-identical output to
+ * the scalar implementation for the mode, across a range of opacities and
+ * unaligned lengths, and fails the benchmark if not.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class BlendBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    @Param({"Add", "Normal", "Sub", "Difference", "BitXor", "Screen", "Multiply", "Mask"})
+    public BlendMode mode;
+
+    @Param({"scalar", "vector"})
+    public String impl;
+
+    @Param({"255", "128"})
+    public int alpha;
+
+    private RGBComposite composite;
+    private int[] src;
+    private int[] dest;
+    private int[] frame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (!RGBComposite.isVectorAvailable()) {
+            throw new IllegalStateException("jdk.incubator.vector is not available");
+        }
+        RGBComposite scalar = RGBComposite.scalar(mode);
+        RGBComposite vector = VectorRGBComposite.forMode(mode);
+        verify(scalar, vector);
+        composite = "vector".equals(impl) ? vector : scalar;
+        SplittableRandom random = new SplittableRandom(42);
+        src = premultiplied(random, WIDTH * HEIGHT);
+        frame = premultiplied(random, WIDTH * HEIGHT);
+        dest = frame.clone();
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(frame, 0, dest, 0, dest.length);
+    }
+
+    @Benchmark
+    public int[] rgb() {
+        composite.rgb(src, 0, dest, 0, dest.length, alpha);
+        return dest;
+    }
+
+    @Benchmark
+    public int[] argb() {
+        composite.argb(src, 0, dest, 0, dest.length, alpha);
+        return dest;
+    }
+
+    private void verify(RGBComposite scalar, RGBComposite vector) {
+        SplittableRandom random = new SplittableRandom(1);
+        int length = 4099;
+        int[] s = premultiplied(random, length);
+        int[] d = premultiplied(random, length);
+        for (int a = 0; a <= 255; a++) {
+            for (int offset = 0; offset < 3; offset++) {
+                int[] expected = d.clone();
+                int[] actual = d.clone();
+                scalar.rgb(s, offset, expected, offset, length - offset, a);
+                vector.rgb(s, offset, actual, offset, length - offset, a);
+                check("rgb", a, expected, actual);
+                expected = d.clone();
+                actual = d.clone();
+                scalar.argb(s, offset, expected, 3 - offset, length - 3, a);
+                vector.argb(s, offset, actual, 3 - offset, length - 3, a);
+                check("argb", a, expected, actual);
+            }
+        }
+    }
+
+    private void check(String type, int alpha, int[] expected, int[] actual) {
+        int mismatch = Arrays.mismatch(expected, actual);
+        if (mismatch >= 0) {
+            throw new IllegalStateException(mode + " " + type + " at alpha " + alpha
+                    + " differs at index " + mismatch + " : expected "
+                    + Integer.toHexString(expected[mismatch]) + " but was "
+                    + Integer.toHexString(actual[mismatch]));
+        }
+    }
+
+    private static int[] premultiplied(SplittableRandom random, int length) {
+        int[] data = new int[length];
+        for (int i = 0; i < length; i++) {
+            int a = switch (random.nextInt(4)) {
+                case 0 ->
+                    0;
+                case 1 ->
+                    255;
+                default ->
+                    random.nextInt(256);
+            };
+            int r = random.nextInt(a + 1);
+            int g = random.nextInt(a + 1);
+            int b = random.nextInt(a + 1);
+            data[i] = a << 24 | r << 16 | g << 8 | b;
+        }
+        return data;
+    }
+
+}
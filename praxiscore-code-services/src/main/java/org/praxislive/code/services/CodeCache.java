@@ -0,0 +1,302 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.code.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.praxislive.code.CodeFactory;
+import org.praxislive.core.Settings;
+import org.praxislive.core.Value;
+import org.praxislive.core.services.TaskService;
+import org.praxislive.core.types.PBytes;
+import org.praxislive.core.types.PMap;
+
+import static java.lang.System.Logger.Level;
+
+/**
+ * Cache of compiler results for user code, keyed by a hash of everything that
+ * affects the compiled output. Results are held in memory in a size-limited LRU
+ * map of soft references, and optionally persisted to disk if a cache directory
+ * is configured.
+ * <p>
+ * Cached data is the data map returned by the compiler service, stored along
+ * with the compiler environment (release and extension classpath) it was
+ * compiled in. Persistent entries are also keyed by the PraxisCORE runtime
+ * version. Entries compiled in a different environment to the current one are
+ * ignored. Until the environment is known, after a restart, entries from any
+ * environment are used.
+ * <p>
+ * Methods must be called on a single thread. Persistent entries are read by a
+ * task, and written on a background thread, to keep file IO off the calling
+ * thread.
+ */
+final class CodeCache {
+
+    /**
+     * {@link Settings} key for the maximum number of entries in memory.
+     */
+    static final String KEY_CACHE_SIZE = "code.cache.size";
+
+    /**
+     * {@link Settings} key for the persistent cache directory. No persistent
+     * cache is used if not set.
+     */
+    static final String KEY_CACHE_DIR = "code.cache.dir";
+
+    private static final System.Logger LOG = System.getLogger(CodeCache.class.getName());
+    private static final String FILE_SUFFIX = ".pxc";
+    private static final String ENTRY_ENVIRONMENT = "environment";
+    private static final String ENTRY_DATA = "data";
+    private static final String RUNTIME_VERSION = runtimeVersion();
+
+    private final int maxSize;
+    private final Path directory;
+    private final Map<String, SoftReference<Entry>> memory;
+
+    private String environment;
+
+    CodeCache() {
+        this(Settings.getInt(KEY_CACHE_SIZE, 256), findDirectory());
+    }
+
+    CodeCache(int maxSize, Path directory) {
+        this.maxSize = maxSize;
+        this.directory = directory;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SoftReference<Entry>> eldest) {
+                return size() > CodeCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Create a key for the given compiler inputs.
+     *
+     * @param baseClass base class name
+     * @param imports default imports
+     * @param className full name of the compiled class
+     * @param code user code
+     * @param logLevel compiler log level
+     * @param sharedClasses shared classes map, or empty map
+     * @return key
+     */
+    String key(String baseClass, List<String> imports, String className,
+            String code, String logLevel, PMap sharedClasses) {
+        MessageDigest digest = digest();
+        update(digest, baseClass);
+        for (String imp : imports) {
+            update(digest, imp);
+        }
+        update(digest, className);
+        update(digest, code);
+        update(digest, logLevel);
+        for (String cls : sharedClasses.keys()) {
+            update(digest, cls);
+            PBytes.from(sharedClasses.get(cls))
+                    .ifPresent(bytes -> digest.update(bytes.asByteBuffer()));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Find the cached data for the given key in the memory cache.
+     *
+     * @param key key
+     * @return cached data or null
+     */
+    PMap find(String key) {
+        SoftReference<Entry> ref = memory.get(key);
+        if (ref == null) {
+            return null;
+        }
+        Entry entry = ref.get();
+        if (entry == null) {
+            memory.remove(key);
+            return null;
+        }
+        return accept(entry) ? entry.data() : null;
+    }
+
+    /**
+     * Create a task to read the entry for the given key from the persistent
+     * cache. The task result should be passed to
+     * {@link #readResult(java.lang.String, org.praxislive.core.Value)}.
+     *
+     * @param key key
+     * @return read task, or null if there is no persistent cache
+     */
+    TaskService.Task readTask(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = file(key);
+        return () -> read(file);
+    }
+
+    /**
+     * Process the result of a task created by {@link #readTask(java.lang.String)},
+     * adding the entry to the memory cache.
+     *
+     * @param key key
+     * @param result task result
+     * @return cached data or null
+     */
+    PMap readResult(String key, Value result) {
+        PMap map = result == null ? PMap.EMPTY : PMap.from(result).orElse(PMap.EMPTY);
+        String env = map.getString(ENTRY_ENVIRONMENT, null);
+        Value dataValue = map.get(ENTRY_DATA);
+        PMap data = dataValue == null ? null : PMap.from(dataValue).orElse(null);
+        if (env == null || data == null) {
+            return null;
+        }
+        Entry entry = new Entry(env, data);
+        if (!accept(entry)) {
+            return null;
+        }
+        memory.put(key, new SoftReference<>(entry));
+        return data;
+    }
+
+    /**
+     * Store the data returned by the compiler service for the given key. Data
+     * is not stored if the compiler environment is not yet known. Persistent
+     * entries are written on a background thread.
+     *
+     * @param key key
+     * @param data compiler data
+     */
+    void store(String key, PMap data) {
+        if (environment == null) {
+            return;
+        }
+        Entry entry = new Entry(environment, data);
+        memory.put(key, new SoftReference<>(entry));
+        if (directory != null) {
+            Path file = file(key);
+            Thread.startVirtualThread(() -> write(file, entry));
+        }
+    }
+
+    /**
+     * Update the current compiler environment. If the environment has
+     * changed, all entries in the memory cache are cleared.
+     *
+     * @param environment compiler environment
+     */
+    void updateEnvironment(String environment) {
+        if (this.environment != null && !this.environment.equals(environment)) {
+            memory.clear();
+        }
+        this.environment = environment;
+    }
+
+    private boolean accept(Entry entry) {
+        return environment == null || environment.equals(entry.environment());
+    }
+
+    private Path file(String key) {
+        MessageDigest digest = digest();
+        update(digest, key);
+        update(digest, RUNTIME_VERSION);
+        return directory.resolve(HexFormat.of().formatHex(digest.digest()) + FILE_SUFFIX);
+    }
+
+    private static Value read(Path file) {
+        if (!Files.isReadable(file)) {
+            return PMap.EMPTY;
+        }
+        try {
+            return PMap.parse(Files.readString(file));
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Error reading code cache file " + file, ex);
+            return PMap.EMPTY;
+        }
+    }
+
+    private static void write(Path file, Entry entry) {
+        try {
+            Path dir = file.getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            Files.writeString(tmp, PMap.of(ENTRY_ENVIRONMENT, entry.environment(),
+                    ENTRY_DATA, entry.data()).toString());
+            Files.move(tmp, file,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Error writing code cache file", ex);
+        }
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void update(MessageDigest digest, String text) {
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static Path findDirectory() {
+        String dir = Settings.get(KEY_CACHE_DIR);
+        if (dir == null || dir.isBlank()) {
+            return null;
+        }
+        return Path.of(dir);
+    }
+
+    private static String runtimeVersion() {
+        String version = "DEV";
+        try (InputStream pomProps = CodeFactory.class.getResourceAsStream(
+                "/META-INF/maven/org.praxislive/praxiscore-code/pom.properties")) {
+            if (pomProps != null) {
+                Properties props = new Properties();
+                props.load(pomProps);
+                version = props.getProperty("version", version);
+            }
+        } catch (IOException ex) {
+            // fall through
+        }
+        return version;
+    }
+
+    private static record Entry(String environment, PMap data) {
+
+    }
+
+}
@@ -55,6 +55,8 @@ import org.praxislive.core.Lookup;
 import org.praxislive.core.PacketRouter;
 import org.praxislive.core.RootHub;
 import org.praxislive.core.services.Service;
+import org.praxislive.core.services.ServiceUnavailableException;
+import org.praxislive.core.services.TaskService;
 import org.praxislive.core.types.PArray;
 import org.praxislive.core.types.PError;
 import org.praxislive.core.types.PMap;
@@ -70,12 +72,16 @@ import org.praxislive.core.types.PBytes;
 public class DefaultCodeFactoryService extends AbstractRoot
         implements RootHub.ServiceProvider {
 
+    private final static System.Logger LOG
+            = System.getLogger(DefaultCodeFactoryService.class.getName());
     private final static String SHARED_PREFIX = "SHARED.";
     private final static String WRAPPED_CLASS_NAME = "$";
+    private final static int MAX_IN_FLIGHT = 64;
 
     private final Map<String, Control> controls;
     private final ComponentRegistry registry;
     private final Set<PResource> libs;
+    private final CodeCache codeCache;
 
     private LibraryClassloader libClassloader;
 
@@ -89,6 +95,7 @@ public class DefaultCodeFactoryService extends AbstractRoot
         );
         registry = ComponentRegistry.getInstance();
         libs = new LinkedHashSet<>();
+        codeCache = new CodeCache();
     }
 
     @Override
@@ -188,6 +195,11 @@ public class DefaultCodeFactoryService extends AbstractRoot
         });
     }
 
+    private void updateCodeCacheEnvironment(PMap data) {
+        codeCache.updateEnvironment(data.getString(DefaultCompilerService.RELEASE, "")
+                + " " + data.getString(DefaultCompilerService.EXT_CLASSPATH, ""));
+    }
+
     private void extractCompilerLog(PMap data, LogBuilder logBuilder) throws Exception {
         PArray log = PArray.from(data.get(CodeCompilerService.KEY_LOG)).orElseThrow();
         for (int i = 0; i < log.size(); i += 2) {
@@ -217,6 +229,10 @@ public class DefaultCodeFactoryService extends AbstractRoot
 
     private class NewInstanceControl extends AbstractAsyncControl {
 
+        private NewInstanceControl() {
+            super(MAX_IN_FLIGHT);
+        }
+
         @Override
         protected Call processInvoke(Call call) throws Exception {
             var codeFactory = findCodeFactory();
@@ -270,6 +286,10 @@ public class DefaultCodeFactoryService extends AbstractRoot
 
     private class NewRootInstanceControl extends AbstractAsyncControl {
 
+        private NewRootInstanceControl() {
+            super(MAX_IN_FLIGHT);
+        }
+
         @Override
         protected Call processInvoke(Call call) throws Exception {
             var codeFactory = findCodeFactory();
@@ -323,11 +343,12 @@ public class DefaultCodeFactoryService extends AbstractRoot
 
     private class NewChildInstanceControl extends AbstractAsyncControl {
 
-        CodeFactory<CodeDelegate> activeCodeFactory;
+        private NewChildInstanceControl() {
+            super(MAX_IN_FLIGHT);
+        }
 
         @Override
         protected Call processInvoke(Call call) throws Exception {
-            activeCodeFactory = null;
             CodeChildFactoryService.Task task = findTask();
             Class<? extends CodeDelegate> baseType = task.baseDelegate();
             CodeFactory.Base<CodeDelegate> factoryBase = ComponentRegistry.getInstance().findSuitableBase(baseType);
@@ -341,20 +362,21 @@ public class DefaultCodeFactoryService extends AbstractRoot
                 source += "\n" + task.codeTemplate();
             }
             String fullClassName = genCodePrefix() + ".NEW_INSTANCE." + WRAPPED_CLASS_NAME;
-            activeCodeFactory = factoryBase.create(task.componentType(), source);
+            CodeFactory<CodeDelegate> codeFactory = factoryBase.create(task.componentType(), source);
+            setActiveState(codeFactory);
             return Call.create(
                     findCompilerService(),
                     call.to(),
                     call.time(),
-                    createCompilerTask(activeCodeFactory, task.logLevel(), fullClassName, source, shared)
+                    createCompilerTask(codeFactory, task.logLevel(), fullClassName, source, shared)
             );
         }
 
         @Override
         protected Call processResponse(Call call) throws Exception {
             try {
-                CodeFactory<CodeDelegate> codeFactory = activeCodeFactory;
-                activeCodeFactory = null;
+                @SuppressWarnings("unchecked")
+                CodeFactory<CodeDelegate> codeFactory = (CodeFactory<CodeDelegate>) getActiveState();
                 PMap data = PMap.from(call.args().get(0)).orElseThrow(IllegalArgumentException::new);
                 CodeChildFactoryService.Task task = findTask();
                 Class<? extends CodeDelegate> cls = extractCodeDelegateClass(
@@ -375,12 +397,6 @@ public class DefaultCodeFactoryService extends AbstractRoot
             }
         }
 
-        @Override
-        protected Call processError(Call call) throws Exception {
-            activeCodeFactory = null;
-            return super.processError(call);
-        }
-
         private CodeChildFactoryService.Task findTask() throws Exception {
             return PReference.from(getActiveCall().args().get(0))
                     .flatMap(r -> r.as(CodeChildFactoryService.Task.class))
@@ -400,12 +416,13 @@ public class DefaultCodeFactoryService extends AbstractRoot
 
     private class NewContextControl extends AbstractAsyncControl {
 
-        private boolean usingShared;
+        private NewContextControl() {
+            super(MAX_IN_FLIGHT);
+        }
 
         @Override
         @SuppressWarnings("unchecked")
         protected Call processInvoke(Call call) throws Exception {
-            usingShared = false;
             CodeContextFactoryService.Task<CodeDelegate> task = findTask();
             CodeFactory<CodeDelegate> factory = task.getFactory();
             String src = task.getCode();
@@ -414,7 +431,6 @@ public class DefaultCodeFactoryService extends AbstractRoot
                 src = factory.sourceTemplate();
                 cls = factory.defaultDelegateClass().orElse(null);
             } else {
-                // @TODO weak code cache for user code
                 cls = null;
             }
             if (cls != null) {
@@ -422,34 +438,88 @@ public class DefaultCodeFactoryService extends AbstractRoot
                 CodeDelegate delegate = cls.getDeclaredConstructor().newInstance();
                 return call.reply(PReference.of(createContext(task, log, delegate)));
             } else {
-                usingShared = src.contains(SHARED_PREFIX);
+                boolean usingShared = src.contains(SHARED_PREFIX);
                 String fullClassName = codeAddressToPackage(call.from()) + "." + WRAPPED_CLASS_NAME;
-                return Call.create(
-                        findCompilerService(),
-                        call.to(),
-                        call.time(),
-                        createCompilerTask(task.getFactory(),
-                                task.getLogLevel(),
-                                fullClassName,
-                                src,
-                                usingShared ? task.getSharedClassLoader() : null));
+                String key = cacheKey(task, fullClassName, src, usingShared);
+                PMap cached = codeCache.find(key);
+                if (cached != null) {
+                    return call.reply(PReference.of(createContext(task, cached, usingShared)));
+                }
+                TaskService.Task read = codeCache.readTask(key);
+                if (read != null) {
+                    try {
+                        ControlAddress taskService = ControlAddress.of(
+                                findService(TaskService.class), TaskService.SUBMIT);
+                        setActiveState(new ReadState(usingShared, key, fullClassName, src));
+                        return Call.create(taskService, call.to(), call.time(),
+                                PReference.of(read));
+                    } catch (ServiceUnavailableException ex) {
+                        // compile without persistent cache
+                    }
+                }
+                return compile(task, usingShared, key, fullClassName, src);
+            }
+
+        }
+
+        private Call compile(CodeContextFactoryService.Task<CodeDelegate> task,
+                boolean usingShared, String key, String fullClassName, String src)
+                throws Exception {
+            Call call = getActiveCall();
+            setActiveState(new CompileState(usingShared, key));
+            return Call.create(
+                    findCompilerService(),
+                    call.to(),
+                    call.time(),
+                    createCompilerTask(task.getFactory(),
+                            task.getLogLevel(),
+                            fullClassName,
+                            src,
+                            usingShared ? task.getSharedClassLoader() : null));
+        }
+
+        private Call processRead(Call call, ReadState state) throws Exception {
+            CodeContextFactoryService.Task<CodeDelegate> task = findTask();
+            PMap cached = call.isError() || call.args().isEmpty() ? null
+                    : codeCache.readResult(state.cacheKey(), call.args().get(0));
+            if (cached != null) {
+                try {
+                    return getActiveCall().reply(PReference.of(
+                            createContext(task, cached, state.usingShared())));
+                } catch (Exception ex) {
+                    // eg. library no longer available - compile instead
+                    LOG.log(System.Logger.Level.DEBUG, "Unable to use cached code", ex);
+                }
             }
+            return compile(task, state.usingShared(), state.cacheKey(),
+                    state.fullClassName(), state.source());
+        }
 
+        @Override
+        protected Call processError(Call call) throws Exception {
+            if (getActiveState() instanceof ReadState state) {
+                return processRead(call, state);
+            }
+            return super.processError(call);
         }
 
         @Override
         protected Call processResponse(Call call) throws Exception {
-            boolean shared = usingShared;
-            usingShared = false;
+            if (getActiveState() instanceof ReadState readState) {
+                return processRead(call, readState);
+            }
+            CompileState state = (CompileState) getActiveState();
+            boolean shared = state.usingShared();
+            String key = state.cacheKey();
             try {
                 PMap data = PMap.from(call.args().get(0)).orElseThrow(IllegalArgumentException::new);
                 CodeContextFactoryService.Task<CodeDelegate> task = findTask();
-                Class<? extends CodeDelegate> cls = extractCodeDelegateClass(data,
-                        shared ? task.getSharedClassLoader() : null);
-                CodeDelegate delegate = cls.getDeclaredConstructor().newInstance();
-                LogBuilder log = new LogBuilder(task.getLogLevel());
-                extractCompilerLog(data, log);
-                return getActiveCall().reply(PReference.of(createContext(task, log, delegate)));
+                updateCodeCacheEnvironment(data);
+                var result = createContext(task, data, shared);
+                if (key != null) {
+                    codeCache.store(key, data);
+                }
+                return getActiveCall().reply(PReference.of(result));
             } catch (Throwable throwable) {
                 if (throwable instanceof Exception) {
                     throw (Exception) throwable;
@@ -459,10 +529,30 @@ public class DefaultCodeFactoryService extends AbstractRoot
             }
         }
 
-        @Override
-        protected Call processError(Call call) throws Exception {
-            usingShared = false;
-            return super.processError(call);
+        private String cacheKey(CodeContextFactoryService.Task<CodeDelegate> task,
+                String fullClassName, String src, boolean usingShared) {
+            CodeFactory<CodeDelegate> factory = task.getFactory();
+            PMap sharedClasses = usingShared
+                    && task.getSharedClassLoader() instanceof PMapClassLoader pMapCL
+                    ? pMapCL.getClassesMap() : PMap.EMPTY;
+            return codeCache.key(factory.baseClass().getName(),
+                    factory.baseImports(),
+                    fullClassName,
+                    src,
+                    task.getLogLevel().name(),
+                    sharedClasses);
+        }
+
+        private CodeContextFactoryService.Result<CodeDelegate> createContext(
+                CodeContextFactoryService.Task<CodeDelegate> task,
+                PMap data,
+                boolean shared) throws Exception {
+            Class<? extends CodeDelegate> cls = extractCodeDelegateClass(data,
+                    shared ? task.getSharedClassLoader() : null);
+            CodeDelegate delegate = cls.getDeclaredConstructor().newInstance();
+            LogBuilder log = new LogBuilder(task.getLogLevel());
+            extractCompilerLog(data, log);
+            return createContext(task, log, delegate);
         }
 
         @SuppressWarnings("unchecked")
@@ -633,4 +723,13 @@ public class DefaultCodeFactoryService extends AbstractRoot
         }
     }
 
+    private static record CompileState(boolean usingShared, String cacheKey) {
+
+    }
+
+    private static record ReadState(boolean usingShared, String cacheKey,
+            String fullClassName, String source) {
+
+    }
+
 }
@@ -22,16 +22,31 @@
 package org.praxislive.code.services;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -42,6 +57,8 @@ import javax.tools.JavaCompiler;
 import javax.tools.ToolProvider;
 import org.praxislive.code.CodeCompilerService;
 import org.praxislive.code.LibraryResolver;
+import org.praxislive.code.services.tools.CachingFileManager;
+import org.praxislive.code.services.tools.CompilationException;
 import org.praxislive.code.services.tools.CompilerTask;
 import org.praxislive.code.services.tools.MessageHandler;
 import org.praxislive.core.Call;
@@ -52,6 +69,7 @@ import org.praxislive.core.Info;
 import org.praxislive.core.Lookup;
 import org.praxislive.core.PacketRouter;
 import org.praxislive.core.RootHub;
+import org.praxislive.core.Settings;
 import org.praxislive.core.Value;
 import org.praxislive.core.protocols.ComponentProtocol;
 import org.praxislive.core.services.Service;
@@ -73,7 +91,21 @@ public class DefaultCompilerService extends AbstractRoot
         implements RootHub.ServiceProvider {
 
     static final String EXT_CLASSPATH = "ext-classpath";
+    static final String RELEASE = "release";
 
+    /**
+     * Settings key for the maximum number of compilations to run concurrently.
+     */
+    static final String KEY_THREADS = "compiler.threads";
+
+    /**
+     * Settings key for the maximum number of pending compile requests that may
+     * be combined into a single compiler invocation. A value of 1 disables
+     * batching.
+     */
+    static final String KEY_BATCH = "compiler.batch";
+
+    private static final System.Logger LOG = System.getLogger(DefaultCompilerService.class.getName());
     private static final ComponentInfo INFO;
 
     static {
@@ -95,6 +127,12 @@ public class DefaultCompilerService extends AbstractRoot
     private final List<LibraryResolver> libResolvers;
     private final String defClasspath;
     private final String defModulepath;
+    private final CompileControl compileControl;
+    private final int threads;
+    private final int batchSize;
+    private final Queue<PooledFileManager> fileManagers;
+
+    private volatile int classpathGeneration;
 
     private SourceVersion release;
     private PArray libs;
@@ -104,8 +142,9 @@ public class DefaultCompilerService extends AbstractRoot
 
     public DefaultCompilerService() {
 
+        compileControl = new CompileControl();
         controls = Map.of(
-                CodeCompilerService.COMPILE, new CompileControl(),
+                CodeCompilerService.COMPILE, compileControl,
                 "add-libs", new AddLibsControl(),
                 "release", new JavaReleaseControl(),
                 "libraries", (call, router) -> {
@@ -159,6 +198,11 @@ public class DefaultCompilerService extends AbstractRoot
         libsSys = PArray.of(libSystem);
         this.defClasspath = System.getProperty("java.class.path", "");
         this.defModulepath = System.getProperty("jdk.module.path", "");
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.threads = Math.max(1, Settings.getInt(KEY_THREADS,
+                Math.max(1, Math.min(4, cores / 2))));
+        this.batchSize = Math.max(1, Settings.getInt(KEY_BATCH, 8));
+        this.fileManagers = new ConcurrentLinkedQueue<>();
     }
 
     @Override
@@ -166,6 +210,35 @@ public class DefaultCompilerService extends AbstractRoot
         return List.of(CodeCompilerService.class);
     }
 
+    @Override
+    protected void terminating() {
+        compileControl.shutdown();
+        classpathGeneration++;
+        PooledFileManager pooled;
+        while ((pooled = fileManagers.poll()) != null) {
+            pooled.close();
+        }
+    }
+
+    private PooledFileManager acquireFileManager(int generation) {
+        PooledFileManager pooled;
+        while ((pooled = fileManagers.poll()) != null) {
+            if (pooled.generation() == generation) {
+                return pooled;
+            }
+            pooled.close();
+        }
+        return new PooledFileManager(CachingFileManager.create(compiler), generation);
+    }
+
+    private void releaseFileManager(PooledFileManager pooled) {
+        if (pooled.generation() == classpathGeneration) {
+            fileManagers.offer(pooled);
+        } else {
+            pooled.close();
+        }
+    }
+
     @Override
     protected void processCall(Call call, PacketRouter router) {
         try {
@@ -177,55 +250,251 @@ public class DefaultCompilerService extends AbstractRoot
 
     private class CompileControl implements Control {
 
+        private final Deque<Request> queue;
+        private final Set<List<Request>> inFlight;
+
+        private ExecutorService executor;
+        private int running;
+
+        private CompileControl() {
+            queue = new ArrayDeque<>();
+            inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+
         @Override
         public void call(Call call, PacketRouter router) throws Exception {
             if (call.isRequest()) {
                 PMap map = PMap.from(call.args().get(0)).orElseThrow();
-                PMap ret;
-                ret = process(map);
-                router.route(call.reply(ret));
+                queue.add(new Request(call, map, buildOptions(), libPath,
+                        release.name(), classpathGeneration));
+                dispatch();
             } else {
                 throw new UnsupportedOperationException();
             }
         }
 
-        private PMap process(PMap map) throws Exception {
-            PMap sources = PMap.from(map.get(CodeCompilerService.KEY_SOURCES))
-                    .orElseThrow(IllegalArgumentException::new);
+        private void dispatch() {
+            while (!queue.isEmpty() && running < threads) {
+                List<Request> batch = nextBatch();
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(threads, r -> {
+                        Thread thread = new Thread(r, "PraxisCORE Compiler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                running++;
+                inFlight.add(batch);
+                executor.execute(() -> {
+                    List<Call> replies = List.of();
+                    try {
+                        replies = compile(batch);
+                    } catch (Throwable t) {
+                        replies = batch.stream()
+                                .map(r -> r.call().error(PError.of(t.toString())))
+                                .toList();
+                        throw t;
+                    } finally {
+                        List<Call> result = replies;
+                        invokeLater(() -> {
+                            if (!inFlight.remove(batch)) {
+                                // already replied to on shutdown
+                                return;
+                            }
+                            running--;
+                            PacketRouter router = getRouter();
+                            result.forEach(router::route);
+                            dispatch();
+                        });
+                    }
+                });
+            }
+        }
 
-            Map<String, String> extractedSources
-                    = sources.keys().stream()
-                            .collect(Collectors.toUnmodifiableMap(k -> k,
-                                    k -> sources.get(k).toString()));
+        private void shutdown() {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+            PacketRouter router = getRouter();
+            PError error = PError.of("Compiler service terminated");
+            inFlight.forEach(batch -> batch.forEach(r -> router.route(r.call().error(error))));
+            inFlight.clear();
+            queue.forEach(r -> router.route(r.call().error(error)));
+            queue.clear();
+            running = 0;
+        }
 
-            LogBuilder log = new LogBuilder(getLogLevel(map));
+        private List<Request> nextBatch() {
+            Request first = queue.poll();
+            if (batchSize < 2 || first.packageName() == null) {
+                return List.of(first);
+            }
+            List<Request> batch = new ArrayList<>();
+            Set<String> packages = new HashSet<>();
+            batch.add(first);
+            packages.add(first.packageName());
+            Iterator<Request> itr = queue.iterator();
+            while (itr.hasNext() && batch.size() < batchSize) {
+                Request next = itr.next();
+                if (next.packageName() != null
+                        && first.isCompatible(next)
+                        && packages.add(next.packageName())) {
+                    batch.add(next);
+                    itr.remove();
+                }
+            }
+            return batch;
+        }
+
+        private List<Call> compile(List<Request> batch) {
+            if (batch.size() > 1) {
+                try {
+                    return compileBatch(batch);
+                } catch (Exception ex) {
+                    // fall through and compile individually to report errors
+                    // against the correct call
+                }
+            }
+            List<Call> replies = new ArrayList<>(batch.size());
+            for (Request request : batch) {
+                try {
+                    replies.add(request.call().reply(process(request)));
+                } catch (Exception ex) {
+                    replies.add(request.call().error(PError.of(ex)));
+                }
+            }
+            return replies;
+        }
+
+        private List<Call> compileBatch(List<Request> batch) throws Exception {
+            Map<String, String> sources = new HashMap<>();
+            Map<String, LogBuilder> logs = new HashMap<>();
+            for (Request request : batch) {
+                Map<String, String> requestSources = extractSources(request.map());
+                sources.putAll(requestSources);
+                LogBuilder log = new LogBuilder(getLogLevel(request.map()));
+                requestSources.keySet().forEach(key -> logs.put(key, log));
+            }
+            Map<String, byte[]> classFiles = runCompiler(batch.get(0), sources,
+                    new BatchMessageHandler(logs), Set.copyOf(logs.values()));
+            List<Call> replies = new ArrayList<>(batch.size());
+            for (Request request : batch) {
+                String prefix = request.packageName() + ".";
+                Map<String, byte[]> requestClasses = classFiles.entrySet().stream()
+                        .filter(e -> e.getKey().startsWith(prefix)
+                        && e.getKey().indexOf('.', prefix.length()) < 0)
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                LogBuilder log = logs.get(extractSources(request.map()).keySet().iterator().next());
+                replies.add(request.call().reply(createResponse(request, requestClasses, log)));
+            }
+            return replies;
+        }
 
-            List<String> options = List.of(
+        private PMap process(Request request) throws Exception {
+            LogBuilder log = new LogBuilder(getLogLevel(request.map()));
+
+            Map<String, byte[]> classFiles = runCompiler(request,
+                    extractSources(request.map()),
+                    new LogMessageHandler(log),
+                    Set.of(log));
+
+            return createResponse(request, classFiles, log);
+        }
+
+        private Map<String, byte[]> runCompiler(Request request,
+                Map<String, String> sources,
+                MessageHandler handler,
+                Set<LogBuilder> logs) throws Exception {
+            long start = System.nanoTime();
+            PooledFileManager pooled = acquireFileManager(request.generation());
+            long lookups = pooled.fileManager().lookups();
+            long hits = pooled.fileManager().hits();
+            CompilerTask task = CompilerTask.create(sources)
+                    .existingClasses(extractShared(request.map()))
+                    .options(request.options())
+                    .fileManager(pooled.fileManager())
+                    .messageHandler(handler);
+            Map<String, byte[]> classFiles;
+            boolean reusable = false;
+            try {
+                classFiles = task.compile();
+                reusable = true;
+            } catch (CompilationException | IOException ex) {
+                reusable = true;
+                throw ex;
+            } finally {
+                // file manager state is unknown after any other failure
+                if (reusable) {
+                    releaseFileManager(pooled);
+                } else {
+                    pooled.close();
+                }
+            }
+            String timing = formatTiming(task.getTiming(),
+                    System.nanoTime() - start,
+                    pooled.fileManager().lookups() - lookups,
+                    pooled.fileManager().hits() - hits,
+                    sources.size());
+            logs.forEach(log -> log.log(LogLevel.DEBUG, timing));
+            return classFiles;
+        }
+
+        private String formatTiming(CompilerTask.Timing timing,
+                long total,
+                long lookups,
+                long hits,
+                int sourceCount) {
+            return String.format(Locale.ROOT,
+                    "Compiled %d source(s) in %.1f ms (file manager %.1f ms, setup %.1f ms,"
+                    + " javac %.1f ms, output %.1f ms, classpath index %d/%d hits)",
+                    sourceCount,
+                    toMillis(total),
+                    toMillis(total - timing.total()),
+                    toMillis(timing.setup()),
+                    toMillis(timing.compile()),
+                    toMillis(timing.output()),
+                    hits, lookups);
+        }
+
+        private double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+
+        private PMap createResponse(Request request,
+                Map<String, byte[]> classFiles,
+                LogBuilder log) {
+            PMap classes = convertClasses(classFiles);
+            PMap response = PMap.of(CodeCompilerService.KEY_CLASSES, classes,
+                    CodeCompilerService.KEY_LOG, PArray.of(log.toList()),
+                    EXT_CLASSPATH, request.libPath(),
+                    RELEASE, request.release());
+            return response;
+        }
+
+        private List<String> buildOptions() {
+            return List.of(
                     "-proc:none",
                     "-parameters",
                     "--release", String.valueOf(release.ordinal()),
                     "--add-modules", "ALL-MODULE-PATH",
                     "--module-path", defModulepath,
                     "--class-path", buildClasspath());
+        }
 
-            Map<String, Supplier<InputStream>> shared
-                    = Optional.ofNullable(map.get(CodeCompilerService.KEY_SHARED_CLASSES))
-                            .flatMap(PMap::from)
-                            .map(m -> processExistingClasses(m))
-                            .orElse(Map.of());
-
-            Map<String, byte[]> classFiles
-                    = CompilerTask.create(extractedSources)
-                            .existingClasses(shared)
-                            .options(options)
-                            .messageHandler(new LogMessageHandler(log))
-                            .compile();
+        private Map<String, String> extractSources(PMap map) {
+            PMap sources = PMap.from(map.get(CodeCompilerService.KEY_SOURCES))
+                    .orElseThrow(IllegalArgumentException::new);
+            return sources.keys().stream()
+                    .collect(Collectors.toUnmodifiableMap(k -> k,
+                            k -> sources.get(k).toString()));
+        }
 
-            PMap classes = convertClasses(classFiles);
-            PMap response = PMap.of(CodeCompilerService.KEY_CLASSES, classes,
-                    CodeCompilerService.KEY_LOG, PArray.of(log.toList()),
-                    EXT_CLASSPATH, libPath);
-            return response;
+        private Map<String, Supplier<InputStream>> extractShared(PMap map) {
+            return Optional.ofNullable(map.get(CodeCompilerService.KEY_SHARED_CLASSES))
+                    .flatMap(PMap::from)
+                    .map(m -> processExistingClasses(m))
+                    .orElse(Map.of());
         }
 
         private LogLevel getLogLevel(PMap map) {
@@ -303,6 +572,7 @@ public class DefaultCompilerService extends AbstractRoot
         }
 
         private void process(PArray addLibs) throws Exception {
+            int fileCount = libFiles.size();
             for (Value value : addLibs) {
                 PResource resource = PResource.from(value)
                         .orElseThrow(IllegalArgumentException::new);
@@ -317,6 +587,9 @@ public class DefaultCompilerService extends AbstractRoot
                     processResource(resource);
                 }
             }
+            if (libFiles.size() != fileCount) {
+                classpathGeneration++;
+            }
             libs = PArray.of(libResolved);
             libsAll = PArray.of(libProvided);
             libPath = libFiles.stream()
@@ -447,6 +720,88 @@ public class DefaultCompilerService extends AbstractRoot
 
     }
 
+    private static record PooledFileManager(CachingFileManager fileManager,
+            int generation) {
+
+        private void close() {
+            try {
+                fileManager.close();
+            } catch (IOException ex) {
+                LOG.log(System.Logger.Level.DEBUG, "Error closing file manager", ex);
+            }
+        }
+
+    }
+
+    private static record Request(Call call,
+            PMap map,
+            List<String> options,
+            PArray libPath,
+            String release,
+            int generation) {
+
+        private String packageName() {
+            PMap sources = PMap.from(map.get(CodeCompilerService.KEY_SOURCES)).orElse(null);
+            if (sources == null || sources.size() != 1) {
+                return null;
+            }
+            String key = sources.keys().get(0);
+            int idx = key.lastIndexOf('.');
+            return idx > 0 ? key.substring(0, idx) : null;
+        }
+
+        private boolean isCompatible(Request other) {
+            return Objects.equals(release, other.release)
+                    && generation == other.generation
+                    && options.equals(other.options)
+                    && Objects.equals(map.get(CodeCompilerService.KEY_LOG_LEVEL),
+                            other.map.get(CodeCompilerService.KEY_LOG_LEVEL))
+                    && Objects.equals(map.get(CodeCompilerService.KEY_SHARED_CLASSES),
+                            other.map.get(CodeCompilerService.KEY_SHARED_CLASSES));
+        }
+
+    }
+
+    private static class BatchMessageHandler implements MessageHandler {
+
+        private final Map<String, LogBuilder> logs;
+
+        private BatchMessageHandler(Map<String, LogBuilder> logs) {
+            this.logs = logs;
+        }
+
+        @Override
+        public void handleError(String msg) {
+            logs.values().forEach(log -> log.log(LogLevel.ERROR, msg));
+        }
+
+        @Override
+        public void handleWarning(String msg) {
+            logs.values().forEach(log -> log.log(LogLevel.WARNING, msg));
+        }
+
+        @Override
+        public void handleError(String source, String msg) {
+            LogBuilder log = source == null ? null : logs.get(source);
+            if (log != null) {
+                log.log(LogLevel.ERROR, msg);
+            } else {
+                handleError(msg);
+            }
+        }
+
+        @Override
+        public void handleWarning(String source, String msg) {
+            LogBuilder log = source == null ? null : logs.get(source);
+            if (log != null) {
+                log.log(LogLevel.WARNING, msg);
+            } else {
+                handleWarning(msg);
+            }
+        }
+
+    }
+
     private static class LogMessageHandler implements MessageHandler {
 
         private final LogBuilder log;
@@ -0,0 +1,124 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.code.services.tools;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+/**
+ * A long-lived file manager wrapping the compiler's standard file manager,
+ * that caches the results of listing packages on the class path, module path
+ * and platform locations. Reusing an instance across compilations avoids
+ * reopening and rescanning the JDK module image and library archives.
+ * <p>
+ * Instances are not thread safe and must only be used by one compilation at a
+ * time. An instance must be discarded if the class path or libraries change.
+ */
+public final class CachingFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    private final Map<ListKey, List<JavaFileObject>> index;
+
+    private long lookups;
+    private long hits;
+
+    private CachingFileManager(StandardJavaFileManager delegate) {
+        super(delegate);
+        this.index = new HashMap<>();
+    }
+
+    @Override
+    public Iterable<JavaFileObject> list(Location location,
+            String packageName,
+            Set<JavaFileObject.Kind> kinds,
+            boolean recurse) throws IOException {
+        if (location.isOutputLocation() || location == StandardLocation.SOURCE_PATH) {
+            return super.list(location, packageName, kinds, recurse);
+        }
+        lookups++;
+        ListKey key = new ListKey(location.getName(), packageName, Set.copyOf(kinds), recurse);
+        List<JavaFileObject> files = index.get(key);
+        if (files != null) {
+            hits++;
+            return files;
+        }
+        files = new ArrayList<>();
+        for (JavaFileObject file : super.list(location, packageName, kinds, recurse)) {
+            files.add(file);
+        }
+        files = List.copyOf(files);
+        index.put(key, files);
+        return files;
+    }
+
+    @Override
+    public void close() throws IOException {
+        index.clear();
+        super.close();
+    }
+
+    /**
+     * Number of package listings requested since this file manager was
+     * created, excluding source and output locations.
+     *
+     * @return package lookups
+     */
+    public long lookups() {
+        return lookups;
+    }
+
+    /**
+     * Number of package listings served from the index.
+     *
+     * @return index hits
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Create a caching file manager wrapping a new standard file manager from
+     * the provided compiler.
+     *
+     * @param compiler Java compiler
+     * @return new caching file manager
+     */
+    public static CachingFileManager create(JavaCompiler compiler) {
+        return new CachingFileManager(compiler.getStandardFileManager(null, null, null));
+    }
+
+    private static record ListKey(String location,
+            String packageName,
+            Set<JavaFileObject.Kind> kinds,
+            boolean recurse) {
+
+    }
+
+}
@@ -29,6 +29,7 @@ package org.praxislive.code.services.tools;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -58,8 +59,10 @@ public class CompilerTask {
     private Map<String, Supplier<InputStream>> existingClasses;
     private MessageHandler messageHandler;
     private List<String> options;
+    private JavaFileManager sharedFileManager;
 
     private Map<String, byte[]> classes;
+    private Timing timing;
 
     private CompilerTask(Map<String, String> sources) {
         this.sources = Map.copyOf(sources);
@@ -86,10 +89,27 @@ public class CompilerTask {
         return this;
     }
 
+    /**
+     * Use the provided file manager as the delegate for class lookup, rather
+     * than creating a new standard file manager for this compilation. The
+     * file manager will not be closed after compilation, and must not be used
+     * concurrently by another task.
+     *
+     * @param fileManager shared file manager
+     * @return this
+     */
+    public CompilerTask fileManager(JavaFileManager fileManager) {
+        assertNotCompiled();
+        this.sharedFileManager = Objects.requireNonNull(fileManager);
+        return this;
+    }
+
     public Map<String, byte[]> compile() throws CompilationException, IOException {
 
         assertNotCompiled();
 
+        long start = System.nanoTime();
+
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 
         if (compiler == null) {
@@ -101,7 +121,9 @@ public class CompilerTask {
 
         // Get the original FM, which reads class files through this JVM's BOOTCLASSPATH and
         // CLASSPATH.
-        final JavaFileManager fm = compiler.getStandardFileManager(null, null, null);
+        final JavaFileManager fm = sharedFileManager != null
+                ? sharedFileManager
+                : compiler.getStandardFileManager(null, null, null);
 
         // Wrap it so that the output files (in our case class files) are stored in memory rather
         // than in files.
@@ -109,10 +131,17 @@ public class CompilerTask {
         existingClasses.entrySet().forEach(c
                 -> fileManager.addExistingClass(c.getKey(), c.getValue()));
 
+        Map<JavaFileObject, String> sourceKeys = new IdentityHashMap<>();
         List<JavaFileObject> compilationUnits = sources.entrySet().stream()
-                .map(e -> fileManager.addSource(e.getKey(), e.getValue()))
+                .map(e -> {
+                    JavaFileObject unit = fileManager.addSource(e.getKey(), e.getValue());
+                    sourceKeys.put(unit, e.getKey());
+                    return unit;
+                })
                 .collect(Collectors.toList());
 
+        long setupEnd = System.nanoTime();
+
         // Run the compiler.
         try {
             final CompilationException[] caughtCompilationException = new CompilationException[1];
@@ -126,18 +155,20 @@ public class CompilerTask {
 
                     String message = "[" + diagnostic.getLineNumber() + ":" + diagnostic.getColumnNumber()
                             + "] " + diagnostic.getMessage(null) + " (" + diagnostic.getCode() + ")";
+                    String source = diagnostic.getSource() == null
+                            ? null : sourceKeys.get(diagnostic.getSource());
 
                     try {
                         switch (diagnostic.getKind()) {
                             case ERROR:
                                 if (CompilerTask.this.messageHandler != null) {
-                                    messageHandler.handleError(message);
+                                    messageHandler.handleError(source, message);
                                 }
                                 throw new CompilationException(message);
                             case MANDATORY_WARNING:
                             case WARNING:
                                 if (messageHandler != null) {
-                                    messageHandler.handleWarning(message);
+                                    messageHandler.handleWarning(source, message);
                                 }
                                 break;
                             case NOTE:
@@ -176,8 +207,18 @@ public class CompilerTask {
             throw rte;
         }
 
+        long compileEnd = System.nanoTime();
+
         classes = fileManager.extractClassData();
 
+        if (sharedFileManager == null) {
+            fm.close();
+        }
+
+        timing = new Timing(setupEnd - start,
+                compileEnd - setupEnd,
+                System.nanoTime() - compileEnd);
+
         return classes;
 
     }
@@ -187,6 +228,17 @@ public class CompilerTask {
         return classes;
     }
 
+    /**
+     * Get the timing breakdown of the completed compilation.
+     *
+     * @return timing
+     * @throws IllegalStateException if not yet compiled
+     */
+    public Timing getTiming() {
+        assertCompiled();
+        return timing;
+    }
+
     private void assertNotCompiled() {
         if (classes != null) {
             throw new IllegalStateException("Classes already compiled");
@@ -203,4 +255,24 @@ public class CompilerTask {
         return new CompilerTask(sources);
     }
 
+    /**
+     * Timing breakdown of a compilation, in nanoseconds.
+     *
+     * @param setup time to set up the file manager and sources
+     * @param compile time spent in the compiler
+     * @param output time to extract the compiled classes
+     */
+    public static record Timing(long setup, long compile, long output) {
+
+        /**
+         * Total time of the compilation, in nanoseconds.
+         *
+         * @return total time
+         */
+        public long total() {
+            return setup + compile + output;
+        }
+
+    }
+
 }
@@ -32,5 +32,32 @@ public interface MessageHandler {
     
     public void handleWarning(String msg);
     
+    /**
+     * Handle an error reported against the given source. The source is the
+     * key of the source in the map passed to
+     * {@link CompilerTask#create(java.util.Map)}, or null if the error is not
+     * related to a specific source. The default implementation calls
+     * {@link #handleError(java.lang.String)}.
+     *
+     * @param source source key, or null
+     * @param msg error message
+     */
+    public default void handleError(String source, String msg) {
+        handleError(msg);
+    }
+    
+    /**
+     * Handle a warning reported against the given source. The source is the
+     * key of the source in the map passed to
+     * {@link CompilerTask#create(java.util.Map)}, or null if the warning is not
+     * related to a specific source. The default implementation calls
+     * {@link #handleWarning(java.lang.String)}.
+     *
+     * @param source source key, or null
+     * @param msg warning message
+     */
+    public default void handleWarning(String source, String msg) {
+        handleWarning(msg);
+    }
     
 }
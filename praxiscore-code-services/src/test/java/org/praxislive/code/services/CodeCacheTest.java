@@ -0,0 +1,142 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.code.services;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.praxislive.code.CodeCompilerService;
+import org.praxislive.core.types.PArray;
+import org.praxislive.core.types.PBytes;
+import org.praxislive.core.types.PMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class CodeCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    public CodeCacheTest() {
+    }
+
+    @Test
+    public void testKey() {
+        CodeCache cache = new CodeCache(4, null);
+        String key1 = key(cache, "Base", List.of("import a.*;"), "A.$", "code", "ERROR", PMap.EMPTY);
+        String key2 = key(cache, "Base", List.of("import a.*;"), "A.$", "code", "ERROR", PMap.EMPTY);
+        assertEquals(key1, key2);
+        assertNotEquals(key1, key(cache, "Base", List.of("import a.*;"), "A.$", "code2", "ERROR", PMap.EMPTY));
+        assertNotEquals(key1, key(cache, "Base2", List.of("import a.*;"), "A.$", "code", "ERROR", PMap.EMPTY));
+        assertNotEquals(key1, key(cache, "Base", List.of(), "A.$", "code", "ERROR", PMap.EMPTY));
+        assertNotEquals(key1, key(cache, "Base", List.of("import a.*;"), "B.$", "code", "ERROR", PMap.EMPTY));
+        assertNotEquals(key1, key(cache, "Base", List.of("import a.*;"), "A.$", "code", "WARNING", PMap.EMPTY));
+        assertNotEquals(key1, key(cache, "Base", List.of("import a.*;"), "A.$", "code", "ERROR",
+                PMap.of("SHARED.Test", PBytes.valueOf(new byte[]{1, 2, 3}))));
+    }
+
+    @Test
+    public void testMemoryEviction() {
+        CodeCache cache = new CodeCache(2, null);
+        cache.updateEnvironment("RELEASE_21 ");
+        cache.store("1", data(1));
+        cache.store("2", data(2));
+        assertNotNull(cache.find("1"));
+        cache.store("3", data(3));
+        assertNotNull(cache.find("1"));
+        assertNull(cache.find("2"));
+        assertNotNull(cache.find("3"));
+        assertNull(cache.readTask("1"));
+    }
+
+    @Test
+    public void testPersistentCache() throws Exception {
+        CodeCache cache = new CodeCache(2, tempDir);
+        cache.updateEnvironment("RELEASE_21 ");
+        cache.store("key", data(42));
+        awaitFiles(1);
+
+        // environment unknown after restart - entries from any environment used
+        CodeCache restarted = new CodeCache(2, tempDir);
+        assertNull(restarted.find("key"));
+        PMap found = restarted.readResult("key", restarted.readTask("key").execute());
+        assertNotNull(found);
+        PMap classes = PMap.from(found.get(CodeCompilerService.KEY_CLASSES)).orElseThrow();
+        assertEquals(data(42).get(CodeCompilerService.KEY_CLASSES).toString(), classes.toString());
+        assertArrayEquals(new byte[]{42, 42}, PBytes.from(classes.get("TEST.$")).orElseThrow().copyBytes());
+        assertNotNull(restarted.find("key"));
+        restarted.updateEnvironment("RELEASE_21 ");
+        assertNotNull(restarted.find("key"));
+
+        restarted = new CodeCache(2, tempDir);
+        restarted.updateEnvironment("RELEASE_25 ");
+        assertNull(restarted.readResult("key", restarted.readTask("key").execute()));
+        restarted.updateEnvironment("RELEASE_21 [file:/lib.jar]");
+        assertNull(restarted.readResult("key", restarted.readTask("key").execute()));
+        restarted.updateEnvironment("RELEASE_21 ");
+        assertNotNull(restarted.readResult("key", restarted.readTask("key").execute()));
+        assertNull(restarted.readResult("missing", restarted.readTask("missing").execute()));
+    }
+
+    @Test
+    public void testEnvironmentChange() {
+        CodeCache cache = new CodeCache(2, null);
+        cache.store("key", data(1));
+        assertNull(cache.find("key"));
+        cache.updateEnvironment("RELEASE_21 ");
+        cache.store("key", data(1));
+        assertNotNull(cache.find("key"));
+        cache.updateEnvironment("RELEASE_25 ");
+        assertNull(cache.find("key"));
+    }
+
+    private void awaitFiles(int count) throws Exception {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < end) {
+            try (var files = Files.list(tempDir)) {
+                if (files.filter(f -> f.toString().endsWith(".pxc")).count() == count) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        fail("Cache files not written");
+    }
+
+    private static String key(CodeCache cache, String baseClass, List<String> imports,
+            String className, String code, String logLevel, PMap sharedClasses) {
+        return cache.key(baseClass, imports, className, code, logLevel, sharedClasses);
+    }
+
+    private static PMap data(int value) {
+        return PMap.of(CodeCompilerService.KEY_CLASSES,
+                PMap.of("TEST.$", PBytes.valueOf(new byte[]{(byte) value, (byte) value})),
+                CodeCompilerService.KEY_LOG, PArray.EMPTY);
+    }
+
+}
@@ -3,6 +3,7 @@ package org.praxislive.code.services.tools;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -81,6 +82,68 @@ public class CompilerTaskTest {
         assertEquals(42, val);
     }
 
+    @Test
+    public void testSharedFileManager() throws Exception {
+        CachingFileManager fileManager = CachingFileManager.create(ToolProvider.getSystemJavaCompiler());
+        try {
+            CompilerTask task = CompilerTask.create(Map.of(SHARED_TEST_CLASS, SHARED_TEST_SOURCE))
+                    .options(DEFAULT_COMPILER_OPTIONS)
+                    .fileManager(fileManager);
+            task.compile();
+            assertTrue(task.getTiming().total() > 0);
+            long lookups = fileManager.lookups();
+            long hits = fileManager.hits();
+            assertTrue(lookups > 0);
+            Map<String, byte[]> classes = CompilerTask.create(Map.of(SHARED_TEST_CLASS, SHARED_TEST_SOURCE))
+                    .options(DEFAULT_COMPILER_OPTIONS)
+                    .fileManager(fileManager)
+                    .compile();
+            assertArrayEquals(task.getCompiledClasses().get(SHARED_TEST_CLASS),
+                    classes.get(SHARED_TEST_CLASS));
+            assertEquals(fileManager.lookups() - lookups, fileManager.hits() - hits);
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    @Test
+    public void testMessageSource() throws Exception {
+        String fooCode = "package foo;\n"
+                + "public class Foo {\n"
+                + "  @Deprecated public static int value() {\n"
+                + "    return 42;\n"
+                + "  }\n"
+                + "}\n";
+        String barCode = "package bar;\n"
+                + "public class Bar {\n"
+                + "  public static int value() {\n"
+                + "    return foo.Foo.value();\n"
+                + "  }\n"
+                + "}\n";
+        List<String> warnings = new ArrayList<>();
+        Map<String, byte[]> classes = CompilerTask.create(Map.of("foo.Foo", fooCode, "bar.Bar", barCode))
+                .options(DEFAULT_COMPILER_OPTIONS)
+                .messageHandler(new MessageHandler() {
+                    @Override
+                    public void handleError(String msg) {
+                        fail(msg);
+                    }
+
+                    @Override
+                    public void handleWarning(String msg) {
+                        fail("Warning without source : " + msg);
+                    }
+
+                    @Override
+                    public void handleWarning(String source, String msg) {
+                        warnings.add(source);
+                    }
+                })
+                .compile();
+        assertEquals(2, classes.size());
+        assertEquals(List.of("bar.Bar"), warnings);
+    }
+
     @Test
     public void testCompileLayers() throws Exception {
 
@@ -86,7 +86,7 @@ public abstract class AbstractAsyncProperty<V> implements Control {
             if (task == null) {
                 nullify(time);
             } else {
-                startTask(task, router, time);
+                startTask(task, router);
             }
             // managed to start task ok
             setLatest(time);
@@ -162,7 +162,7 @@ public abstract class AbstractAsyncProperty<V> implements Control {
                     this.key = key;
                     nullify(time);
                 } else {
-                    startTask(task, null, time);
+                    startTask(task, null);
                     portKey = key;
                 }
                 setLatest(time);
@@ -227,14 +227,15 @@ public abstract class AbstractAsyncProperty<V> implements Control {
         valueChanged(time);
     }
 
-    private void startTask(TaskService.Task task, PacketRouter router, long time)
+    private void startTask(TaskService.Task task, PacketRouter router)
             throws ServiceUnavailableException {
         ControlAddress to = getTaskSubmitAddress();
         if (router == null) {
             router = getLookup().find(PacketRouter.class)
                     .orElseThrow(() -> new IllegalStateException("No PacketRouter found"));
         }
-        taskCall = Call.create(to, context.getAddress(this), time, PReference.of(task));
+        taskCall = Call.create(to, context.getAddress(this),
+                context.packetTime(to), PReference.of(task));
         router.route(taskCall);
     }
 
@@ -22,14 +22,18 @@
 package org.praxislive.code;
 
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import org.praxislive.code.userapi.Async;
 import org.praxislive.core.Call;
 import org.praxislive.core.Control;
 import org.praxislive.core.ControlInfo;
+import org.praxislive.core.ExecutionContext;
 import org.praxislive.core.PacketRouter;
+import org.praxislive.core.ThreadContext;
 import org.praxislive.core.Value;
 import org.praxislive.core.services.LogLevel;
 import org.praxislive.core.types.PError;
@@ -41,12 +45,14 @@ class AsyncHandler extends ControlDescriptor<AsyncHandler> implements Control {
     private static final PError UNKNOWN_ERROR = PError.of("Unknown error");
 
     private final Map<Integer, AsyncReference<?>> resultMap;
+    private final Set<LocalTask<?>> localTasks;
 
     private CodeContext<?> context;
 
     AsyncHandler(int index) {
         super(AsyncHandler.class, ID, Category.Internal, index);
         this.resultMap = new HashMap<>();
+        this.localTasks = new LinkedHashSet<>();
     }
 
     @Override
@@ -54,6 +60,9 @@ class AsyncHandler extends ControlDescriptor<AsyncHandler> implements Control {
         if (previous != null) {
             resultMap.putAll(previous.resultMap);
             previous.resultMap.clear();
+            previous.localTasks.forEach(task -> task.handler = this);
+            localTasks.addAll(previous.localTasks);
+            previous.localTasks.clear();
         }
         this.context = context;
     }
@@ -108,6 +117,8 @@ class AsyncHandler extends ControlDescriptor<AsyncHandler> implements Control {
             ref.completeWithError(PError.of("Disposed"));
         });
         resultMap.clear();
+        localTasks.forEach(task -> task.async.fail(PError.of("Disposed")));
+        localTasks.clear();
     }
 
     void register(Call call, Async<Call> async) {
@@ -118,6 +129,30 @@ class AsyncHandler extends ControlDescriptor<AsyncHandler> implements Control {
         resultMap.put(call.matchID(), new AsyncReference(call, async, converter));
     }
 
+    /**
+     * Execute the task on the local executor, completing the async on the root
+     * thread.
+     *
+     * @param <T> input type
+     * @param <R> result type
+     * @param executor local executor
+     * @param threadContext root thread context
+     * @param input task input
+     * @param task task
+     * @param async async to complete
+     * @throws java.util.concurrent.RejectedExecutionException if the task
+     * cannot be executed
+     */
+    <T, R> void executeLocal(LocalTaskExecutor executor,
+            ThreadContext threadContext,
+            T input,
+            Async.Task<T, R> task,
+            Async<R> async) {
+        LocalTask<R> localTask = new LocalTask<>(this, async);
+        executor.execute(threadContext, input, task, localTask::complete);
+        localTasks.add(localTask);
+    }
+
     private PError extractError(List<Value> args) {
         if (args.isEmpty()) {
             return UNKNOWN_ERROR;
@@ -127,6 +162,39 @@ class AsyncHandler extends ControlDescriptor<AsyncHandler> implements Control {
         }
     }
 
+    private static class LocalTask<R> {
+
+        private final Async<R> async;
+
+        private AsyncHandler handler;
+
+        private LocalTask(AsyncHandler handler, Async<R> async) {
+            this.handler = handler;
+            this.async = async;
+        }
+
+        private void complete(R result, Throwable error) {
+            if (!handler.localTasks.remove(this)) {
+                return;
+            }
+            CodeContext<?> context = handler.context;
+            ExecutionContext execCtxt = context.getExecutionContext();
+            long time = execCtxt == null ? context.getTime() : execCtxt.getTime();
+            context.invoke(time, () -> {
+                if (error == null) {
+                    async.complete(result);
+                } else {
+                    PError err = error instanceof Exception ex
+                            ? PError.of(ex) : PError.of(error.toString());
+                    if (!async.fail(err)) {
+                        context.getLog().log(LogLevel.ERROR, err);
+                    }
+                }
+            });
+        }
+
+    }
+
     private static class AsyncReference<T> {
 
         private final Call call;
@@ -758,6 +758,7 @@ public abstract class CodeConnector<D extends CodeDelegate> {
             DataSink.Descriptor dsdsc = DataSink.Descriptor.create(this, field);
             if (dsdsc != null) {
                 addReference(dsdsc);
+                statistics().add("data", dsdsc.id(), ctxt -> dsdsc.statistics());
                 return true;
             } else {
                 return false;
@@ -1002,6 +1003,21 @@ public abstract class CodeConnector<D extends CodeDelegate> {
         return internalIdx++;
     }
 
+    /**
+     * Get the internal statistics control, adding it if not already
+     * registered.
+     *
+     * @return statistics control
+     */
+    StatisticsControl statistics() {
+        StatisticsControl stats = (StatisticsControl) controls.get(StatisticsControl.ID);
+        if (stats == null) {
+            stats = new StatisticsControl(getInternalIndex());
+            addControl(stats);
+        }
+        return stats;
+    }
+
     ArgumentInfo infoFromType(Type typeAnnotation) {
         Class<? extends Value> valueCls = typeAnnotation.value();
         PMap properties = createPropertyMap(typeAnnotation.properties());
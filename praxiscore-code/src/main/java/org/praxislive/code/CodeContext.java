@@ -21,6 +21,7 @@
  */
 package org.praxislive.code;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -31,7 +32,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Stream;
+import org.praxislive.base.DefaultExecutionContext;
 import org.praxislive.code.userapi.Async;
 import org.praxislive.core.Call;
 import org.praxislive.core.Component;
@@ -43,6 +46,7 @@ import org.praxislive.core.Lookup;
 import org.praxislive.core.PacketRouter;
 import org.praxislive.core.Port;
 import org.praxislive.core.ComponentInfo;
+import org.praxislive.core.ThreadContext;
 import org.praxislive.core.TreeWriter;
 import org.praxislive.core.Value;
 import org.praxislive.core.services.Service;
@@ -63,6 +67,8 @@ import org.praxislive.core.types.PReference;
  */
 public abstract class CodeContext<D extends CodeDelegate> {
 
+    private static final Object[] NO_ARGS = new Object[0];
+
     private final Map<String, ControlDescriptor<?>> controls;
     private final Map<String, PortDescriptor<?>> ports;
     private final Map<String, ReferenceDescriptor<?>> refs;
@@ -190,7 +196,11 @@ public abstract class CodeContext<D extends CodeDelegate> {
                 asyncHandlerAddress = ControlAddress.of(cmp.getAddress(), AsyncHandler.ID);
                 ctxt.addStateListener(driver);
                 if (requireClock) {
-                    ctxt.addClockListener(driver);
+                    if (ctxt instanceof DefaultExecutionContext defaultCtxt) {
+                        defaultCtxt.addClockListener(driver, cmp);
+                    } else {
+                        ctxt.addClockListener(driver);
+                    }
                 }
                 handleStateChanged(ctxt.getState(), ctxt.getTime(), false);
             }
@@ -566,6 +576,10 @@ public abstract class CodeContext<D extends CodeDelegate> {
         }
     }
 
+    void invoke(long time, Method method) {
+        invoke(time, method, NO_ARGS);
+    }
+
     void invoke(long time, Method method, Object... params) {
         if (checkActive()) {
             update(time);
@@ -576,23 +590,59 @@ public abstract class CodeContext<D extends CodeDelegate> {
                     Throwable t = ex.getCause();
                     ex = t instanceof Exception ? (Exception) t : ex;
                 }
-                StringBuilder sb = new StringBuilder("Exception thrown from ");
-                sb.append(method.getName());
-                sb.append('(');
-                Class<?>[] types = method.getParameterTypes();
-                for (int i = 0; i < types.length; i++) {
-                    sb.append(types[i].getSimpleName());
-                    if (i < (types.length - 1)) {
-                        sb.append(',');
-                    }
-                }
-                sb.append(')');
-                log.log(LogLevel.ERROR, ex, sb.toString());
+                logInvokeError(method, ex);
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Invoke a method taking a single double argument, without boxing. The
+     * handle must be of type {@code (Object,double)void}.
+     */
+    void invoke(long time, Method method, MethodHandle handle, double value) {
+        if (checkActive()) {
+            update(time);
+            try {
+                handle.invokeExact((Object) getDelegate(), value);
+            } catch (Throwable t) {
+                logInvokeError(method, t instanceof Exception ex ? ex : new Exception(t));
             }
             flush();
         }
     }
 
+    /**
+     * Invoke a method taking a single int argument, without boxing. The handle
+     * must be of type {@code (Object,int)void}.
+     */
+    void invoke(long time, Method method, MethodHandle handle, int value) {
+        if (checkActive()) {
+            update(time);
+            try {
+                handle.invokeExact((Object) getDelegate(), value);
+            } catch (Throwable t) {
+                logInvokeError(method, t instanceof Exception ex ? ex : new Exception(t));
+            }
+            flush();
+        }
+    }
+
+    private void logInvokeError(Method method, Exception ex) {
+        StringBuilder sb = new StringBuilder("Exception thrown from ");
+        sb.append(method.getName());
+        sb.append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            sb.append(types[i].getSimpleName());
+            if (i < (types.length - 1)) {
+                sb.append(',');
+            }
+        }
+        sb.append(')');
+        log.log(LogLevel.ERROR, ex, sb.toString());
+    }
+
     /**
      * Flush the code context. By default this message checks for pending log
      * messages and delivers to the log.
@@ -641,40 +691,89 @@ public abstract class CodeContext<D extends CodeDelegate> {
         if (router == null || to == null) {
             return;
         }
-        router.route(Call.createQuiet(to, from, time, args));
+        router.route(Call.createQuiet(to, from, packetTime(time, to), args));
     }
 
     final void tell(ControlAddress destination, Value value) {
-        Call call = Call.createQuiet(destination, asyncHandlerAddress, getTime(), value);
+        Call call = Call.createQuiet(destination, asyncHandlerAddress,
+                packetTime(getTime(), destination), value);
         getComponent().getPacketRouter().route(call);
     }
 
     final void tellIn(double seconds, ControlAddress destination, Value value) {
         long timeCode = getTime() + ((long) (seconds * 1_000_000_000));
-        Call call = Call.createQuiet(destination, asyncHandlerAddress, timeCode, value);
+        Call call = Call.createQuiet(destination, asyncHandlerAddress,
+                packetTime(timeCode, destination), value);
         getComponent().getPacketRouter().route(call);
     }
 
     final Async<Call> ask(ControlAddress destination, List<Value> args) {
-        Call call = Call.create(destination, asyncHandlerAddress, time, args);
+        Call call = Call.create(destination, asyncHandlerAddress,
+                packetTime(time, destination), args);
         getComponent().getPacketRouter().route(call);
         Async<Call> async = new Async<>();
         asyncHandler.register(call, async);
         return async;
     }
 
+    /**
+     * Time to stamp on a call to the destination, sent now.
+     */
+    final long packetTime(ControlAddress destination) {
+        ExecutionContext ctxt = getExecutionContext();
+        return packetTime(ctxt == null ? time : ctxt.getTime(), destination);
+    }
+
+    /**
+     * Time to stamp on a call to the destination for the given time on this
+     * context's clock.
+     */
+    final long packetTime(long time, ControlAddress destination) {
+        return packetTime(getExecutionContext(),
+                cmp == null ? null : cmp.getAddress(), destination, time);
+    }
+
+    /**
+     * Calls between roots are stamped with hub time, which differs from the
+     * execution context time of a root whose clock is allowed to drift.
+     * Calls within a root are stamped with the execution context time.
+     */
+    static long packetTime(ExecutionContext ctxt, ComponentAddress source,
+            ControlAddress destination, long time) {
+        if (ctxt instanceof DefaultExecutionContext defaultCtxt
+                && source != null
+                && !source.rootID().equals(destination.component().rootID())) {
+            return defaultCtxt.toHubTime(time);
+        }
+        return time;
+    }
+
     final void timeoutAsync(double seconds, Async<?> async) {
         tellIn(seconds, asyncHandlerAddress, PReference.of(async));
     }
 
     final <T, R> Async<R> async(T input, Async.Task<T, R> task) {
         Async<R> async = new Async<>();
+        if (LocalTaskExecutor.ENABLED) {
+            ThreadContext threadContext = getLookup().find(ThreadContext.class).orElse(null);
+            if (threadContext != null) {
+                try {
+                    LocalTaskExecutor executor = getLookup().find(LocalTaskExecutor.class)
+                            .orElse(LocalTaskExecutor.SHARED);
+                    asyncHandler.executeLocal(executor, threadContext, input, task, async);
+                    return async;
+                } catch (RejectedExecutionException ex) {
+                    // fall through to task service
+                }
+            }
+        }
         try {
             ControlAddress to = locateService(TaskService.class)
                     .map(c -> ControlAddress.of(c, TaskService.SUBMIT))
                     .orElseThrow(ServiceUnavailableException::new);
             TaskService.Task wrapper = () -> PReference.of(task.execute(input));
-            Call call = Call.create(to, asyncHandlerAddress, time, PReference.of(wrapper));
+            Call call = Call.create(to, asyncHandlerAddress,
+                    packetTime(time, to), PReference.of(wrapper));
             getComponent().getPacketRouter().route(call);
             asyncHandler.register(call, async, c -> {
                 @SuppressWarnings("unchecked")
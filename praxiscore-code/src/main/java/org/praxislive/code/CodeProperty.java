@@ -98,7 +98,8 @@ class CodeProperty<D extends CodeDelegate>
                                 context.getDelegate().getClass(),
                                 sharedCodeCtxt == null ? null : sharedCodeCtxt.getSharedClassLoader()
                         );
-                taskCall = Call.create(contextFactory, call.to(), time, PReference.of(task));
+                taskCall = Call.create(contextFactory, call.to(),
+                        context.packetTime(contextFactory), PReference.of(task));
                 router.route(taskCall);
                 // managed to start task ok
                 setLatest(time);
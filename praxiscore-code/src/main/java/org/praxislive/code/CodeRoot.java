@@ -31,6 +31,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.praxislive.base.AbstractRoot;
 import org.praxislive.base.BindingContextControl;
+import org.praxislive.base.DefaultExecutionContext;
 import org.praxislive.base.MapTreeWriter;
 import org.praxislive.code.CodeRootDelegate.DriverThreadContext;
 import org.praxislive.core.Call;
@@ -44,6 +45,7 @@ import org.praxislive.core.Lookup;
 import org.praxislive.core.PacketRouter;
 import org.praxislive.core.Root;
 import org.praxislive.core.RootHub;
+import org.praxislive.core.Settings;
 import org.praxislive.core.VetoException;
 import org.praxislive.core.protocols.SerializableProtocol;
 import org.praxislive.core.protocols.StartableProtocol;
@@ -70,12 +72,14 @@ public class CodeRoot<D extends CodeRootDelegate> extends CodeComponent<D> imple
     private final Control serializeControl;
     private final Control bindingsControl;
     private final SharedCodeProperty sharedCode;
+    private final LocalTaskExecutor taskExecutor;
 
     private BindingContextControl bindings;
     private Lookup lookup;
 
     CodeRoot() {
         root = new RootImpl(this);
+        taskExecutor = new LocalTaskExecutor(root::invokeLaterChecked);
         startControl = (call, router) -> {
             if (call.isRequest()) {
                 root.start();
@@ -130,10 +134,10 @@ public class CodeRoot<D extends CodeRootDelegate> extends CodeComponent<D> imple
         if (lookup == null) {
             if (bindings != null) {
                 lookup = Lookup.of(root.getLookup(),
-                        sharedCode.getSharedCodeContext(), bindings);
+                        sharedCode.getSharedCodeContext(), bindings, taskExecutor);
             } else {
                 lookup = Lookup.of(root.getLookup(),
-                        sharedCode.getSharedCodeContext());
+                        sharedCode.getSharedCodeContext(), taskExecutor);
             }
         }
         return lookup;
@@ -216,6 +220,17 @@ public class CodeRoot<D extends CodeRootDelegate> extends CodeComponent<D> imple
         return root;
     }
 
+    /**
+     * Partitioner for parallel update of children, if supported by the root
+     * type. Only used if opted in via
+     * {@link DefaultExecutionContext#KEY_PARALLEL_TICK}.
+     *
+     * @return partitioner or null
+     */
+    DefaultExecutionContext.Partitioner partitioner() {
+        return null;
+    }
+
     /**
      * CodeContext subclass for CodeRoots.
      *
@@ -324,6 +339,8 @@ public class CodeRoot<D extends CodeRootDelegate> extends CodeComponent<D> imple
                     getInternalIndex(),
                     ctxt -> ctxt instanceof Context c ? c.getComponent().bindingsControl : null
             ));
+            statistics().add("async",
+                    ctxt -> ctxt instanceof Context c ? c.getComponent().taskExecutor.statistics() : null);
         }
 
         @Override
@@ -417,10 +434,23 @@ public class CodeRoot<D extends CodeRootDelegate> extends CodeComponent<D> imple
             wrapper.processCall(call, router);
         }
 
+        @Override
+        protected DefaultExecutionContext createContext(long initialTime) {
+            DefaultExecutionContext context = super.createContext(initialTime);
+            if (Settings.getBoolean(DefaultExecutionContext.KEY_PARALLEL_TICK, false)) {
+                context.setPartitioner(wrapper.partitioner());
+            }
+            return context;
+        }
+
         private ComponentAddress address() {
             return getAddress();
         }
 
+        private boolean invokeLaterChecked(Runnable task) {
+            return invokeLater(task);
+        }
+
         private void installDelegate(DriverDescriptor driverDesc) {
             attachDelegate(new RootDelegateImpl(driverDesc.backgroundPoll));
         }
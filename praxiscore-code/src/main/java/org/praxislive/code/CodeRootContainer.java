@@ -27,6 +27,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 import org.praxislive.base.AbstractContainer;
+import org.praxislive.base.DefaultExecutionContext;
 import org.praxislive.base.FilteredTypes;
 import org.praxislive.base.MapTreeWriter;
 import org.praxislive.code.CodeContainerSupport.AddChildControl;
@@ -145,6 +146,11 @@ public class CodeRootContainer<D extends CodeRootContainerDelegate> extends Code
         return container.getControl(id);
     }
 
+    @Override
+    DefaultExecutionContext.Partitioner partitioner() {
+        return getCodeContext().isParallelTickSupported() ? container.partitioner() : null;
+    }
+
     RefBus getRefBus() {
         if (refBus == null) {
             refBus = new RefBus();
@@ -254,6 +260,22 @@ public class CodeRootContainer<D extends CodeRootContainerDelegate> extends Code
 
         }
 
+        /**
+         * Whether this root type supports parallel update of independent
+         * subgraphs of children, if opted in via
+         * {@link DefaultExecutionContext#KEY_PARALLEL_TICK}. Checked when the
+         * root is initialized. The default implementation returns false.
+         * <p>
+         * Children are partitioned by port connections only. Root types that
+         * allow children to share state through refs or shared code must not
+         * return true.
+         *
+         * @return true if parallel update is supported
+         */
+        protected boolean isParallelTickSupported() {
+            return false;
+        }
+
     }
 
     /**
@@ -374,6 +396,10 @@ public class CodeRootContainer<D extends CodeRootContainerDelegate> extends Code
             super.recordChildType(child, type);
         }
 
+        private DefaultExecutionContext.Partitioner partitioner() {
+            return createPartitioner();
+        }
+
         @Override
         public void notifyChildAdded(String id, long time) {
             wrapper.notifyChildrenChanged(time);
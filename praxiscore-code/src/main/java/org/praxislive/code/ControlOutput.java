@@ -105,13 +105,12 @@ public class ControlOutput extends ControlPort.Output {
             return; // @TODO recursion strategy - allow up to maximum count?
         }
         sending = true;
-        for (ControlPort.Input port : connections) {
+        for (int i = 0; i < connections.size(); i++) {
             try {
-                port.receive(time, value);
+                connections.get(i).receive(time, value);
             } catch (Exception ex) {
                 // @TODO log errors
             }
-
         }
         sending = false;
     }
@@ -122,9 +121,9 @@ public class ControlOutput extends ControlPort.Output {
             return;
         }
         sending = true;
-        for (ControlPort.Input port : connections) {
+        for (int i = 0; i < connections.size(); i++) {
             try {
-                port.receive(time, value);
+                connections.get(i).receive(time, value);
             } catch (Exception ex) {
                 // @TODO log errors
             }
@@ -26,6 +26,7 @@ import java.lang.reflect.ParameterizedType;
 import org.praxislive.code.userapi.Data;
 import org.praxislive.core.Lookup;
 import org.praxislive.core.services.LogLevel;
+import org.praxislive.core.types.PMap;
 
 /**
  *
@@ -125,6 +126,10 @@ class DataSink<T> extends Data.Sink<T> {
             onStop();
         }
 
+        PMap statistics() {
+            return sink == null ? PMap.EMPTY : sink.poolStatistics();
+        }
+
         static Descriptor create(CodeConnector<?> connector, Field field) {
             if (Data.Sink.class.equals(field.getType())
                     && field.getGenericType() instanceof ParameterizedType) {
@@ -0,0 +1,225 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.code;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.praxislive.code.userapi.Async;
+import org.praxislive.core.Settings;
+import org.praxislive.core.ThreadContext;
+import org.praxislive.core.types.PMap;
+
+/**
+ * Executor for running {@link Async.Task} directly in process, rather than via
+ * a call to the TaskService. Tasks run on a virtual thread and the result is
+ * passed back to the root thread via {@link ThreadContext#invokeLater(java.lang.Runnable)}.
+ * Also records task count and latency statistics.
+ */
+final class LocalTaskExecutor {
+
+    /**
+     * {@link Settings} key to disable local execution of async tasks. Default
+     * true.
+     */
+    static final String KEY_LOCAL_TASKS = "code.tasks.local";
+
+    static final boolean ENABLED = Settings.getBoolean(KEY_LOCAL_TASKS, true);
+
+    /**
+     * Shared instance for use where the root does not provide its own executor
+     * in its lookup.
+     */
+    static final LocalTaskExecutor SHARED = new LocalTaskExecutor();
+
+    /**
+     * Shared executor for all instances. Virtual threads are always daemon
+     * threads, and a thread only exists while a task is running, so the
+     * executor is never shut down and does not prevent JVM exit.
+     */
+    private static final ExecutorService EXECUTOR
+            = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                    .name("praxis-async-", 0)
+                    .factory());
+
+    private final LongAdder submitted;
+    private final LongAdder completed;
+    private final LongAdder failed;
+    private final LongAdder dropped;
+    private final LongAdder queueTime;
+    private final LongAdder executeTime;
+    private final LongAdder totalTime;
+    private final LongAccumulator maxTime;
+    private final RootInvoker invoker;
+
+    /**
+     * Create an executor that passes results back to the root thread via the
+     * thread context provided to
+     * {@link #execute(org.praxislive.core.ThreadContext, java.lang.Object, org.praxislive.code.userapi.Async.Task, org.praxislive.code.LocalTaskExecutor.Callback)}.
+     */
+    LocalTaskExecutor() {
+        this(null);
+    }
+
+    /**
+     * Create an executor that passes results back to the root thread via the
+     * provided invoker, which reports whether the root accepted the result.
+     * The thread context provided to
+     * {@link #execute(org.praxislive.core.ThreadContext, java.lang.Object, org.praxislive.code.userapi.Async.Task, org.praxislive.code.LocalTaskExecutor.Callback)}
+     * is ignored.
+     *
+     * @param invoker root invoker, or null to use the thread context
+     */
+    LocalTaskExecutor(RootInvoker invoker) {
+        this.invoker = invoker;
+        submitted = new LongAdder();
+        completed = new LongAdder();
+        failed = new LongAdder();
+        dropped = new LongAdder();
+        queueTime = new LongAdder();
+        executeTime = new LongAdder();
+        totalTime = new LongAdder();
+        maxTime = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Execute the task with the given input. The callback will be called on the
+     * root thread via the provided thread context with the result or error.
+     *
+     * @param <T> input type
+     * @param <R> result type
+     * @param threadContext thread context of the root
+     * @param input task input
+     * @param task task
+     * @param callback callback for result
+     * @throws java.util.concurrent.RejectedExecutionException if the task
+     * cannot be executed
+     */
+    <T, R> void execute(ThreadContext threadContext,
+            T input,
+            Async.Task<T, R> task,
+            Callback<R> callback) {
+        long submitTime = System.nanoTime();
+        EXECUTOR.execute(() -> {
+            long startTime = System.nanoTime();
+            R result = null;
+            Throwable error = null;
+            try {
+                result = task.execute(input);
+            } catch (Throwable ex) {
+                error = ex;
+            }
+            long endTime = System.nanoTime();
+            R res = result;
+            Throwable err = error;
+            Runnable completion = () -> {
+                record(submitTime, startTime, endTime, err == null);
+                callback.complete(res, err);
+            };
+            boolean accepted;
+            try {
+                if (invoker != null) {
+                    accepted = invoker.invokeLater(completion);
+                } else {
+                    threadContext.invokeLater(completion);
+                    accepted = true;
+                }
+            } catch (Exception ex) {
+                accepted = false;
+            }
+            if (!accepted) {
+                // root terminated - nothing to complete
+                dropped.increment();
+            }
+        });
+        submitted.increment();
+    }
+
+    /**
+     * Task statistics as a map. Times are in nanoseconds. Latency is the time
+     * from submission to the result being delivered on the root thread.
+     *
+     * @return statistics
+     */
+    PMap statistics() {
+        long done = completed.sum() + failed.sum();
+        return PMap.builder()
+                .put("submitted", (double) submitted.sum())
+                .put("completed", (double) completed.sum())
+                .put("failed", (double) failed.sum())
+                .put("dropped", (double) dropped.sum())
+                .put("mean-queue-time", done == 0 ? 0 : (double) queueTime.sum() / done)
+                .put("mean-execute-time", done == 0 ? 0 : (double) executeTime.sum() / done)
+                .put("mean-latency", done == 0 ? 0 : (double) totalTime.sum() / done)
+                .put("max-latency", (double) maxTime.get())
+                .build();
+    }
+
+    private void record(long submitTime, long startTime, long endTime, boolean success) {
+        long latency = System.nanoTime() - submitTime;
+        queueTime.add(startTime - submitTime);
+        executeTime.add(endTime - startTime);
+        totalTime.add(latency);
+        maxTime.accumulate(latency);
+        if (success) {
+            completed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Callback for task completion.
+     *
+     * @param <R> result type
+     */
+    @FunctionalInterface
+    static interface Callback<R> {
+
+        /**
+         * Called on the root thread when the task has completed.
+         *
+         * @param result result, or null on error
+         * @param error error, or null on success
+         */
+        void complete(R result, Throwable error);
+
+    }
+
+    /**
+     * Invoker for passing tasks to the root thread.
+     */
+    @FunctionalInterface
+    static interface RootInvoker {
+
+        /**
+         * Pass the task to be run on the root thread.
+         *
+         * @param task task
+         * @return false if the task was rejected
+         */
+        boolean invokeLater(Runnable task);
+
+    }
+
+}
@@ -22,6 +22,9 @@
  */
 package org.praxislive.code;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Optional;
 import org.praxislive.code.userapi.AuxIn;
@@ -139,43 +142,69 @@ abstract class MethodInput {
 
     }
 
+    private static MethodHandle primitiveHandle(Method method, Class<?> type) {
+        try {
+            return MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class, type));
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+    }
+
     private static class DoubleInput extends MethodInput {
 
+        private final MethodHandle handle;
+
         private DoubleInput(Method method) {
             super(method);
+            handle = primitiveHandle(method, double.class);
         }
 
         @Override
         public void receive(long time, double value) {
-            invoke(time, value);
+            if (handle != null) {
+                context.invoke(time, method, handle, value);
+            } else {
+                invoke(time, value);
+            }
         }
 
         @Override
         public void receive(long time, Value value) {
-            invoke(time, PNumber.from(value)
-                    .orElse(PNumber.ZERO)
-                    .value());
+            receive(time, value instanceof PNumber n ? n.value()
+                    : PNumber.from(value).orElse(PNumber.ZERO).value());
         }
 
     }
 
     private static class IntInput extends MethodInput {
 
+        private final MethodHandle handle;
+
         private IntInput(Method method) {
             super(method);
+            handle = primitiveHandle(method, int.class);
         }
 
         @Override
         public void receive(long time, double value) {
-            invoke(time, (int) Math.round(value));
+            int i = (int) Math.round(value);
+            if (handle != null) {
+                context.invoke(time, method, handle, i);
+            } else {
+                invoke(time, i);
+            }
         }
 
         @Override
         public void receive(long time, Value value) {
-            invoke(time, PNumber.from(value)
-                    .orElse(PNumber.ZERO)
-                    .toIntValue());
-            
+            int i = value instanceof PNumber n ? n.toIntValue()
+                    : PNumber.from(value).orElse(PNumber.ZERO).toIntValue();
+            if (handle != null) {
+                context.invoke(time, method, handle, i);
+            } else {
+                invoke(time, i);
+            }
         }
 
     }
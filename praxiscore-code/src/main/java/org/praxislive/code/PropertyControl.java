@@ -214,6 +214,8 @@ public class PropertyControl extends Property implements Control {
 
         private Value argValue;
         private double dblValue;
+        private PNumber dblCache;
+        private long dblCacheBits;
 
         private DefaultBinding() {
             this(Value.info(), PString.EMPTY);
@@ -239,7 +241,13 @@ public class PropertyControl extends Property implements Control {
         @Override
         public Value get() {
             if (argValue == null) {
-                return PNumber.of(dblValue);
+                // compare source bits - PNumber may clamp or zero the value
+                long bits = Double.doubleToRawLongBits(dblValue);
+                if (dblCache == null || dblCacheBits != bits) {
+                    dblCache = PNumber.of(dblValue);
+                    dblCacheBits = bits;
+                }
+                return dblCache;
             } else {
                 return argValue;
             }
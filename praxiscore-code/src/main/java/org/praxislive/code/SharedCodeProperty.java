@@ -29,6 +29,7 @@ import org.praxislive.core.Call;
 import org.praxislive.core.Control;
 import org.praxislive.core.ControlAddress;
 import org.praxislive.core.ControlInfo;
+import org.praxislive.core.ExecutionContext;
 import org.praxislive.core.Info;
 import org.praxislive.core.Lookup;
 import org.praxislive.core.PacketRouter;
@@ -129,7 +130,11 @@ public class SharedCodeProperty implements Control {
             ControlAddress service = getServiceAddress(lookupContext.getLookup());
             activeTask = createTask(
                     PMap.from(args.get(0)).orElseThrow(IllegalArgumentException::new));
-            activeTaskCall = Call.create(service, call.to(), time, PReference.of(activeTask));
+            long taskTime = lookupContext.getLookup().find(ExecutionContext.class)
+                    .map(ctxt -> CodeContext.packetTime(ctxt, call.to().component(),
+                    service, ctxt.getTime()))
+                    .orElse(time);
+            activeTaskCall = Call.create(service, call.to(), taskTime, PReference.of(activeTask));
             router.route(activeTaskCall);
             setLatest(time);
             if (activeCall != null) {
@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright 2026 Neil C Smith.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ *
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.code;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.praxislive.core.Call;
+import org.praxislive.core.Control;
+import org.praxislive.core.ControlInfo;
+import org.praxislive.core.PacketRouter;
+import org.praxislive.core.types.PMap;
+
+/**
+ * Internal control replying with runtime statistics of a code component, as a
+ * map of section name to statistics. Sections are registered during code
+ * analysis - eg. async task statistics of code roots, and packet pool
+ * statistics of data sinks as a map of sink ID to statistics.
+ */
+final class StatisticsControl extends ControlDescriptor<StatisticsControl>
+        implements Control {
+
+    static final String ID = "_statistics";
+
+    private final Map<String, Function<CodeContext<?>, PMap>> sections;
+    private final Map<String, Map<String, Function<CodeContext<?>, PMap>>> groups;
+
+    private CodeContext<?> context;
+
+    StatisticsControl(int index) {
+        super(StatisticsControl.class, ID, Category.Internal, index);
+        this.sections = new LinkedHashMap<>();
+        this.groups = new LinkedHashMap<>();
+    }
+
+    /**
+     * Add a section of statistics. The function may return null if no
+     * statistics are available in the attached context.
+     *
+     * @param section section name
+     * @param statistics function to compute statistics
+     */
+    void add(String section, Function<CodeContext<?>, PMap> statistics) {
+        sections.put(section, statistics);
+    }
+
+    /**
+     * Add statistics for an item, eg. a reference field, within a section.
+     *
+     * @param section section name
+     * @param id item ID within section
+     * @param statistics function to compute statistics
+     */
+    void add(String section, String id, Function<CodeContext<?>, PMap> statistics) {
+        groups.computeIfAbsent(section, s -> new LinkedHashMap<>()).put(id, statistics);
+    }
+
+    @Override
+    public void attach(CodeContext<?> context, StatisticsControl previous) {
+        this.context = context;
+    }
+
+    @Override
+    public void call(Call call, PacketRouter router) throws Exception {
+        if (call.isRequest()) {
+            PMap.Builder builder = PMap.builder();
+            sections.forEach((section, statistics) -> {
+                PMap stats = statistics.apply(context);
+                if (stats != null) {
+                    builder.put(section, stats);
+                }
+            });
+            groups.forEach((section, items) -> {
+                PMap.Builder group = PMap.builder();
+                items.forEach((id, statistics) -> {
+                    PMap stats = statistics.apply(context);
+                    if (stats != null) {
+                        group.put(id, stats);
+                    }
+                });
+                builder.put(section, group.build());
+            });
+            router.route(call.reply(builder.build()));
+        }
+    }
+
+    @Override
+    public Control control() {
+        return this;
+    }
+
+    @Override
+    public ControlInfo controlInfo() {
+        return null;
+    }
+
+}
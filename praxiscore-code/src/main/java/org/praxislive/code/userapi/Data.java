@@ -21,9 +21,16 @@
  */
 package org.praxislive.code.userapi;
 
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
@@ -34,6 +41,7 @@ import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import org.praxislive.code.CodeContext;
 import org.praxislive.core.Lookup;
+import org.praxislive.core.types.PMap;
 
 /**
  * Support for creating data pipes to work with data of any type. All data
@@ -218,6 +226,7 @@ public class Data {
         private final Pipe<T> input;
         private final SinkPacket<T> basePacket;
         private final List<SinkPacket<T>> packets;
+        private final PacketPool<T> pool;
 
         private UnaryOperator<T> creator;
         private UnaryOperator<T> clearer;
@@ -226,10 +235,14 @@ public class Data {
         private Consumer<T> disposer;
 
         private long pass;
+        private Plan<T> plan;
+        private int planTopology;
+        private boolean parallel;
 
         public Sink() {
             basePacket = new SinkPacket<>(this, null);
             packets = new ArrayList<>();
+            pool = new PacketPool<>(this);
             defaultFunctions();
             input = new Pipe<T>() {
                 @Override
@@ -273,13 +286,15 @@ public class Data {
          * Reset all functions and disconnect all sources.
          */
         public void reset() {
+            pool.resize(0);
             defaultFunctions();
+            parallel = false;
             input.disconnectSources();
         }
 
         /**
-         * Flush all cached data. Any data cached in packets in the pipeline
-         * will be disposed, using the
+         * Flush all cached data. Any data cached in packets in the pipeline,
+         * or held in the packet pool, will be disposed, using the
          * {@link #onDispose(java.util.function.Consumer)} function if set.
          */
         public void flushCaches() {
@@ -292,6 +307,7 @@ public class Data {
                     log(ex);
                 }
             });
+            pool.clear();
         }
 
         /**
@@ -316,7 +332,14 @@ public class Data {
         public T process(T data) {
             basePacket.data = Objects.requireNonNull(data);
             try {
-                if (input.sources.size() == 1) {
+                int topology = input.topology;
+                if (plan == null || planTopology != topology) {
+                    plan = Plan.compile(input);
+                    planTopology = topology;
+                }
+                if (plan.isCompiled()) {
+                    plan.execute(basePacket, ++pass, parallel);
+                } else if (input.sources.size() == 1) {
                     input.processInPlace(basePacket, true, ++pass);
                 } else {
                     input.processCached(basePacket, true, ++pass);
@@ -328,6 +351,60 @@ public class Data {
             return basePacket.data;
         }
 
+        /**
+         * Enable or disable parallel processing of independent branches of the
+         * data graph. When enabled, the sources of a pipe with multiple
+         * sources are processed concurrently on the common fork-join pool,
+         * and joined before the pipe itself is processed. Only branches that
+         * do not share any pipes with the rest of the graph are processed
+         * concurrently - all other parts of the graph are processed on the
+         * calling thread as usual. The default is disabled.
+         * <p>
+         * Functions used in parallel branches, as well as the onCreate,
+         * onClear, onAccumulate, onValidate and onDispose functions of this
+         * sink, must be safe to call from other threads. Parallel processing
+         * is only worthwhile when the work in each branch outweighs the cost
+         * of dispatching it.
+         *
+         * @param parallel true to process independent branches in parallel
+         * @return this sink for chaining
+         */
+        public Sink<T> parallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of data instances kept for reuse when packets
+         * are disposed, for example when the graph changes or a cached packet
+         * is no longer compatible. When a new packet is required, a pooled
+         * instance that passes the
+         * {@link #onValidate(java.util.function.BiPredicate)} function is
+         * cleared and reused in preference to calling the
+         * {@link #onCreate(java.util.function.UnaryOperator)} function. Pooled
+         * instances are kept in buckets by type and array length. When the
+         * pool is full, instances of the least recently used bucket are
+         * disposed.
+         * <p>
+         * The pool is only useful if the onCreate function returns new
+         * instances of T. The default size is zero, which disables the pool.
+         * Reducing the size disposes of any excess pooled instances.
+         *
+         * @param size maximum number of pooled instances
+         * @return this sink for chaining
+         */
+        public Sink<T> poolSize(int size) {
+            if (size < 0) {
+                throw new IllegalArgumentException();
+            }
+            try {
+                pool.resize(size);
+            } catch (Exception ex) {
+                log(ex);
+            }
+            return this;
+        }
+
         /**
          * Function to get an instance of T when a new data packet is being
          * created. This function is not required to return a new instance. The
@@ -408,6 +485,432 @@ public class Data {
         protected void log(Exception ex) {
         }
 
+        /**
+         * Packet pool statistics. The map contains the configured pool size,
+         * the number of currently pooled instances, the number of instances
+         * created by the onCreate function or reused from the pool, and the
+         * number of instances evicted from the pool or disposed on packet
+         * disposal.
+         *
+         * @return pool statistics
+         */
+        protected final PMap poolStatistics() {
+            return pool.statistics();
+        }
+
+    }
+
+    private static final class PacketPool<T> {
+
+        private final Sink<T> sink;
+        private final LinkedHashMap<Bucket, ArrayDeque<T>> buckets;
+
+        private int maxSize;
+        private int size;
+        private long created;
+        private long reused;
+        private long evicted;
+        private long disposed;
+
+        private PacketPool(Sink<T> sink) {
+            this.sink = sink;
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        private T acquire(T template) {
+            if (size > 0) {
+                ArrayDeque<T> bucket = buckets.get(Bucket.of(template));
+                if (bucket != null) {
+                    for (Iterator<T> itr = bucket.descendingIterator(); itr.hasNext();) {
+                        T candidate = itr.next();
+                        if (sink.validator.test(template, candidate)) {
+                            itr.remove();
+                            size--;
+                            reused++;
+                            T cleared = Objects.requireNonNull(sink.clearer.apply(candidate));
+                            if (cleared != candidate) {
+                                dispose(candidate);
+                            }
+                            return cleared;
+                        }
+                    }
+                }
+            }
+            created++;
+            return sink.creator.apply(template);
+        }
+
+        private void release(T data) {
+            if (maxSize == 0) {
+                dispose(data);
+                return;
+            }
+            buckets.computeIfAbsent(Bucket.of(data), b -> new ArrayDeque<>()).addLast(data);
+            size++;
+            trim();
+        }
+
+        private void resize(int maxSize) {
+            this.maxSize = maxSize;
+            trim();
+        }
+
+        private void clear() {
+            buckets.values().forEach(bucket -> bucket.forEach(this::dispose));
+            buckets.clear();
+            size = 0;
+        }
+
+        private void trim() {
+            Iterator<ArrayDeque<T>> itr = buckets.values().iterator();
+            while (size > maxSize && itr.hasNext()) {
+                ArrayDeque<T> bucket = itr.next();
+                while (size > maxSize && !bucket.isEmpty()) {
+                    dispose(bucket.removeFirst());
+                    size--;
+                    evicted++;
+                }
+                if (bucket.isEmpty()) {
+                    itr.remove();
+                }
+            }
+        }
+
+        private void dispose(T data) {
+            disposed++;
+            try {
+                sink.disposer.accept(data);
+            } catch (Exception ex) {
+                sink.log(ex);
+            }
+        }
+
+        private PMap statistics() {
+            return PMap.builder()
+                    .put("pool-size", maxSize)
+                    .put("pooled", size)
+                    .put("created", (double) created)
+                    .put("reused", (double) reused)
+                    .put("evicted", (double) evicted)
+                    .put("disposed", (double) disposed)
+                    .build();
+        }
+
+    }
+
+    private record Bucket(Class<?> type, int length) {
+
+        private static Bucket of(Object data) {
+            Class<?> type = data.getClass();
+            return new Bucket(type, type.isArray() ? Array.getLength(data) : -1);
+        }
+
+    }
+
+    /**
+     * A compiled execution plan for the pipe graph connected to a sink input.
+     * The plan flattens the recursive processing of the graph into a
+     * depth-first visit order, with sink indexes resolved in advance. Packets
+     * are assigned in pre-order and pipes processed in post-order, matching
+     * the order of recursive processing. The plan is recompiled whenever the
+     * topology of the graph upstream of the sink input changes. Cyclic graphs, and graphs containing
+     * pipes that override {@link Pipe#process(Pipe, Packet, long)}, are not
+     * compiled.
+     * <p>
+     * Pipes with multiple sources, where no pipe upstream is shared with any
+     * other part of the graph, are recorded as fork points. In parallel mode
+     * the post-order blocks of each source branch of a fork point are
+     * processed concurrently.
+     */
+    private static final class Plan<T> {
+
+        private static final Plan<?> NOT_COMPILED = new Plan<>(null, null, null);
+
+        private final Visit<T>[] visits;
+        private final int[] postOrder;
+        private final Fork[][] forks;
+
+        private Plan(Visit<T>[] visits, int[] postOrder, Fork[][] forks) {
+            this.visits = visits;
+            this.postOrder = postOrder;
+            this.forks = forks;
+        }
+
+        private boolean isCompiled() {
+            return visits != null;
+        }
+
+        private void execute(Packet<T> packet, long pass, boolean parallel) {
+            try {
+                prepare(packet, pass);
+                if (parallel && forks != null) {
+                    completeRange(0, postOrder.length);
+                } else {
+                    for (int idx : postOrder) {
+                        complete(visits[idx]);
+                    }
+                }
+            } finally {
+                for (Visit<T> visit : visits) {
+                    visit.packet = null;
+                }
+            }
+        }
+
+        private void prepare(Packet<T> packet, long pass) {
+            Visit<T>[] v = visits;
+            int count = v.length;
+            for (int i = 0; i < count; i++) {
+                Visit<T> visit = v[i];
+                Pipe<T> pipe = visit.pipe;
+                visit.skip = false;
+                visit.repeat = visit.revisit;
+                if (i == 0) {
+                    visit.packet = packet;
+                    visit.inPlace = pipe.sources.size() == 1;
+                    visit.outputRequired = true;
+                } else {
+                    Visit<T> parent = v[visit.parent];
+                    visit.packet = parent.inPlace
+                            ? parent.packet
+                            : parent.pipe.dataPackets.get(visit.slot);
+                    visit.inPlace = pipe.isInPlace();
+                    if (!visit.repeat && pipe.pass == pass) {
+                        visit.repeat = true;
+                        for (int j = i + 1; j < visit.end; j++) {
+                            v[j].skip = true;
+                        }
+                        i = visit.end - 1;
+                    }
+                    if (visit.repeat) {
+                        continue;
+                    }
+                    visit.outputRequired = pipe.isOutputRequired(pass);
+                    pipe.pass = pass;
+                }
+                if (visit.inPlace) {
+                    pipe.prepareInPlace();
+                } else {
+                    pipe.prepareCached(visit.packet, visit.outputRequired);
+                }
+            }
+        }
+
+        private void complete(Visit<T> visit) {
+            if (visit.skip) {
+                return;
+            }
+            Pipe<T> pipe = visit.pipe;
+            if (!visit.repeat) {
+                if (visit.inPlace) {
+                    pipe.completeInPlace(visit.packet, visit.outputRequired);
+                } else {
+                    pipe.completeCached(visit.outputRequired);
+                }
+            }
+            if (!visit.inPlace) {
+                pipe.writeOutput(pipe.dataPackets, visit.packet, visit.sinkIndex);
+            }
+        }
+
+        private void completeRange(int from, int to) {
+            int pos = from;
+            while (pos < to) {
+                Fork fork = findFork(pos, from, to);
+                if (fork != null) {
+                    fork(fork);
+                    pos = fork.end;
+                } else {
+                    complete(visits[postOrder[pos]]);
+                    pos++;
+                }
+            }
+        }
+
+        private Fork findFork(int pos, int from, int to) {
+            Fork[] candidates = forks[pos];
+            if (candidates != null) {
+                for (Fork fork : candidates) {
+                    if (fork.start >= from && fork.end <= to) {
+                        return fork;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void fork(Fork fork) {
+            int count = fork.branchStarts.length;
+            RecursiveAction[] branches = new RecursiveAction[count - 1];
+            for (int i = 1; i < count; i++) {
+                int from = fork.branchStarts[i];
+                int to = fork.branchEnds[i];
+                branches[i - 1] = new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        completeRange(from, to);
+                    }
+                };
+                branches[i - 1].fork();
+            }
+            RuntimeException exception = null;
+            try {
+                completeRange(fork.branchStarts[0], fork.branchEnds[0]);
+            } catch (RuntimeException ex) {
+                exception = ex;
+            }
+            // always wait for forked branches so that no branch is still
+            // writing after return
+            for (RecursiveAction branch : branches) {
+                try {
+                    branch.join();
+                } catch (RuntimeException ex) {
+                    if (exception == null) {
+                        exception = ex;
+                    } else {
+                        exception.addSuppressed(ex);
+                    }
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Plan<T> compile(Pipe<T> input) {
+            List<Visit<T>> visits = new ArrayList<>();
+            List<Integer> postOrder = new ArrayList<>();
+            if (!visit(input, -1, 0, 0, visits, postOrder, new IdentityHashMap<>())) {
+                return (Plan<T>) NOT_COMPILED;
+            }
+            int[] order = postOrder.stream().mapToInt(Integer::intValue).toArray();
+            return new Plan<>(visits.toArray(Visit[]::new), order,
+                    findForks(visits, order));
+        }
+
+        private static <T> Fork[][] findForks(List<Visit<T>> visits, int[] postOrder) {
+            int count = visits.size();
+            int[] postPosition = new int[count];
+            for (int pos = 0; pos < count; pos++) {
+                postPosition[postOrder[pos]] = pos;
+            }
+            Map<Pipe<T>, Integer> occurrences = new IdentityHashMap<>();
+            for (Visit<T> visit : visits) {
+                occurrences.merge(visit.pipe, 1, Integer::sum);
+            }
+            Fork[][] forks = null;
+            for (int i = 0; i < count; i++) {
+                Visit<T> visit = visits.get(i);
+                if (visit.revisit || visit.pipe.sources.size() < 2
+                        || !isIndependent(visits, occurrences, i + 1, visit.end)) {
+                    continue;
+                }
+                int branches = visit.pipe.sources.size();
+                int[] starts = new int[branches];
+                int[] ends = new int[branches];
+                int branch = 0;
+                for (int j = i + 1; j < visit.end; j = visits.get(j).end) {
+                    starts[branch] = postPosition[j] - (visits.get(j).end - j - 1);
+                    ends[branch] = postPosition[j] + 1;
+                    branch++;
+                }
+                Fork fork = new Fork(starts[0], postPosition[i], starts, ends);
+                if (forks == null) {
+                    forks = new Fork[count][];
+                }
+                Fork[] existing = forks[fork.start];
+                if (existing == null) {
+                    forks[fork.start] = new Fork[]{fork};
+                } else {
+                    forks[fork.start] = ArrayUtils.add(existing, fork);
+                }
+            }
+            return forks;
+        }
+
+        private static <T> boolean isIndependent(List<Visit<T>> visits,
+                Map<Pipe<T>, Integer> occurrences, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (occurrences.get(visits.get(i).pipe) != 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static <T> boolean visit(Pipe<T> pipe, int parent, int slot, int sinkIndex,
+                List<Visit<T>> visits, List<Integer> postOrder,
+                Map<Pipe<T>, Boolean> visited) {
+            if (Pipe.CUSTOM_PROCESS.get(pipe.getClass())) {
+                return false;
+            }
+            int index = visits.size();
+            Visit<T> visit = new Visit<>(pipe, parent, slot, sinkIndex);
+            visits.add(visit);
+            Boolean onStack = visited.putIfAbsent(pipe, Boolean.TRUE);
+            if (onStack != null) {
+                if (onStack) {
+                    // cyclic graph - leave to recursive processing
+                    return false;
+                }
+                visit.revisit = true;
+            } else {
+                for (int i = 0; i < pipe.sources.size(); i++) {
+                    Pipe<T> source = pipe.sources.get(i);
+                    if (!visit(source, index, i, source.sinks.indexOf(pipe),
+                            visits, postOrder, visited)) {
+                        return false;
+                    }
+                }
+                visited.put(pipe, Boolean.FALSE);
+            }
+            visit.end = visits.size();
+            postOrder.add(index);
+            return true;
+        }
+
+    }
+
+    private static final class Fork {
+
+        private final int start;
+        private final int end;
+        private final int[] branchStarts;
+        private final int[] branchEnds;
+
+        private Fork(int start, int end, int[] branchStarts, int[] branchEnds) {
+            this.start = start;
+            this.end = end;
+            this.branchStarts = branchStarts;
+            this.branchEnds = branchEnds;
+        }
+
+    }
+
+    private static final class Visit<T> {
+
+        private final Pipe<T> pipe;
+        private final int parent;
+        private final int slot;
+        private final int sinkIndex;
+
+        private boolean revisit;
+        private int end;
+
+        private Packet<T> packet;
+        private boolean inPlace;
+        private boolean outputRequired;
+        private boolean repeat;
+        private boolean skip;
+
+        private Visit(Pipe<T> pipe, int parent, int slot, int sinkIndex) {
+            this.pipe = pipe;
+            this.parent = parent;
+            this.slot = slot;
+            this.sinkIndex = sinkIndex;
+        }
+
     }
 
     private static class SinkPacket<T> implements Packet<T> {
@@ -491,7 +994,7 @@ public class Data {
 
         @Override
         public Packet<T> createPacket() {
-            SinkPacket<T> packet = new SinkPacket<>(this.sink, sink.creator.apply(data));
+            SinkPacket<T> packet = new SinkPacket<>(this.sink, sink.pool.acquire(data));
             sink.packets.add(packet);
             return packet;
         }
@@ -502,7 +1005,7 @@ public class Data {
             if (data != null) {
                 try {
                     Objects.requireNonNull(data);
-                    sink.disposer.accept(data);
+                    sink.pool.release(data);
                 } catch (Exception ex) {
                     sink.log(ex);
                 } finally {
@@ -547,6 +1050,21 @@ public class Data {
      */
     public static abstract class Pipe<T> {
 
+        private static final ClassValue<Boolean> CUSTOM_PROCESS = new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                for (Class<?> cls = type; cls != Pipe.class && cls != null; cls = cls.getSuperclass()) {
+                    try {
+                        cls.getDeclaredMethod("process", Pipe.class, Packet.class, long.class);
+                        return true;
+                    } catch (NoSuchMethodException ex) {
+                        // continue to superclass
+                    }
+                }
+                return false;
+            }
+        };
+
         private final List<Pipe<T>> sources;
         private final List<Pipe<T>> sinks;
         private final List<Packet<T>> dataPackets;
@@ -554,6 +1072,9 @@ public class Data {
         private long renderReqPass;
         private boolean renderReqCache;
         private int renderIdx = 0;
+        private List<Pipe<T>> sourcesSnapshot;
+        private List<Pipe<T>> sinksSnapshot;
+        private int topology;
 
         /**
          * Base constructor for pipes.
@@ -577,6 +1098,8 @@ public class Data {
             } catch (RuntimeException ex) {
                 source.unregisterSink(this);
                 throw ex;
+            } finally {
+                topologyChanged(source);
             }
         }
 
@@ -588,6 +1111,24 @@ public class Data {
         public final void removeSource(Pipe<T> source) {
             source.unregisterSink(this);
             unregisterSource(source);
+            topologyChanged(source);
+        }
+
+        private void topologyChanged(Pipe<T> source) {
+            sourcesSnapshot = null;
+            source.sinksSnapshot = null;
+            // bump the version of this pipe and every pipe downstream, so only
+            // plans of sinks connected to this graph are recompiled
+            Map<Pipe<T>, Boolean> visited = new IdentityHashMap<>();
+            ArrayDeque<Pipe<T>> queue = new ArrayDeque<>();
+            queue.add(this);
+            Pipe<T> pipe;
+            while ((pipe = queue.poll()) != null) {
+                if (visited.put(pipe, Boolean.TRUE) == null) {
+                    pipe.topology++;
+                    queue.addAll(pipe.sinks);
+                }
+            }
         }
 
         /**
@@ -614,7 +1155,12 @@ public class Data {
          * @return current sources
          */
         public final List<Pipe<T>> sources() {
-            return List.copyOf(sources);
+            List<Pipe<T>> snapshot = sourcesSnapshot;
+            if (snapshot == null) {
+                snapshot = List.copyOf(sources);
+                sourcesSnapshot = snapshot;
+            }
+            return snapshot;
         }
 
         /**
@@ -656,7 +1202,12 @@ public class Data {
          * @return current sinks
          */
         public final List<Pipe<T>> sinks() {
-            return List.copyOf(sinks);
+            List<Pipe<T>> snapshot = sinksSnapshot;
+            if (snapshot == null) {
+                snapshot = List.copyOf(sinks);
+                sinksSnapshot = snapshot;
+            }
+            return snapshot;
         }
 
         /**
@@ -686,7 +1237,7 @@ public class Data {
                 // throw exception?
                 return;
             }
-            boolean inPlace = sinks.size() == 1 && sources.size() < 2;
+            boolean inPlace = isInPlace();
 
             if (this.pass != pass) {
                 boolean outputRequired = isOutputRequired(pass);
@@ -704,14 +1255,23 @@ public class Data {
         }
 
         private void processInPlace(Packet<T> packet, boolean outputRequired, long pass) {
+            prepareInPlace();
+            if (!sources.isEmpty()) {
+                sources.get(0).process(this, packet, pass);
+            }
+            completeInPlace(packet, outputRequired);
+        }
+
+        private void prepareInPlace() {
             if (!dataPackets.isEmpty()) {
                 dataPackets.forEach(Packet::dispose);
                 dataPackets.clear();
             }
+        }
+
+        private void completeInPlace(Packet<T> packet, boolean outputRequired) {
             if (sources.isEmpty()) {
                 packet.clear();
-            } else {
-                sources.get(0).process(this, packet, pass);
             }
             if (outputRequired) {
                 dataPackets.add(packet);
@@ -721,6 +1281,14 @@ public class Data {
         }
 
         private void processCached(Packet<T> packet, boolean outputRequired, long pass) {
+            prepareCached(packet, outputRequired);
+            for (int i = 0; i < sources.size(); i++) {
+                sources.get(i).process(this, dataPackets.get(i), pass);
+            }
+            completeCached(outputRequired);
+        }
+
+        private void prepareCached(Packet<T> packet, boolean outputRequired) {
             boolean hasSources = !sources.isEmpty();
             int requiredPackets = hasSources ? sources.size() : 1;
             while (dataPackets.size() > requiredPackets) {
@@ -740,7 +1308,6 @@ public class Data {
                         in = packet.createPacket();
                         dataPackets.add(in);
                     }
-                    sources.get(i).process(this, in, pass);
                 }
             } else {
                 if (dataPackets.isEmpty()) {
@@ -755,11 +1322,18 @@ public class Data {
                     }
                 }
             }
+        }
+
+        private void completeCached(boolean outputRequired) {
             if (outputRequired) {
                 process(dataPackets);
             }
         }
 
+        private boolean isInPlace() {
+            return sinks.size() == 1 && sources.size() < 2;
+        }
+
         /**
          * Process the data.
          * <p>
@@ -156,7 +156,11 @@ public abstract class Input {
 
         @Override
         public void update(Value value) {
-            PNumber.from(value).ifPresent((pn) -> consumer.accept(pn.value()));
+            if (value instanceof PNumber pn) {
+                update(pn.value());
+            } else {
+                PNumber.from(value).ifPresent(pn -> update(pn.value()));
+            }
         }
 
     }
@@ -24,7 +24,6 @@ package org.praxislive.code.userapi;
 
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
 import java.util.function.Function;
@@ -49,7 +48,7 @@ public abstract class Property {
     private final static long TO_NANO = 1000000000;
 
     private final Listener listener;
-    private final CopyOnWriteArrayList<BaseLink> links;
+    private BaseLink[] links;
 
     private CodeContext<?> context;
     private Animator animator;
@@ -57,7 +56,7 @@ public abstract class Property {
 
     protected Property() {
         this.listener = new Listener();
-        this.links = new CopyOnWriteArrayList<>();
+        this.links = new BaseLink[0];
     }
 
     protected void attach(CodeContext<?> context, Property previous) {
@@ -289,7 +288,7 @@ public abstract class Property {
      * @return this
      */
     public Property clearLinks() {
-        links.clear();
+        links = new BaseLink[0];
         if (sync != null) {
             sync.unbind();
             sync = null;
@@ -335,7 +334,7 @@ public abstract class Property {
     public Sync sync() {
         if (sync == null) {
             sync = new Sync(this);
-            links.add(sync.link());
+            links = ArrayUtils.add(links, sync.link());
         }
         return sync;
     }
@@ -356,27 +355,27 @@ public abstract class Property {
     }
 
     protected void updateLinks(double value) {
-        links.forEach(link -> {
+        for (BaseLink link : links) {
             try {
                 link.update(value);
             } catch (Exception ex) {
                 context.getLog().log(LogLevel.ERROR, ex);
             }
-        });
+        }
     }
 
     protected void updateLinks(Value value) {
-        links.forEach(link -> {
+        for (BaseLink link : links) {
             try {
                 link.update(value);
             } catch (Exception ex) {
                 context.getLog().log(LogLevel.ERROR, ex);
             }
-        });
+        }
     }
 
     protected boolean hasLinks() {
-        return !links.isEmpty();
+        return links.length > 0;
     }
 
     protected void reset() {
@@ -425,7 +424,7 @@ public abstract class Property {
             }
             this.consumer = Objects.requireNonNull(consumer);
             update(getDouble());
-            links.add(this);
+            links = ArrayUtils.add(links, this);
         }
 
         @Override
@@ -439,7 +438,11 @@ public abstract class Property {
 
         @Override
         public void update(Value value) {
-            PNumber.from(value).ifPresent((pn) -> consumer.accept(pn.value()));
+            if (value instanceof PNumber pn) {
+                update(pn.value());
+            } else {
+                PNumber.from(value).ifPresent(pn -> update(pn.value()));
+            }
         }
 
     }
@@ -455,7 +458,7 @@ public abstract class Property {
             }
             this.consumer = Objects.requireNonNull(consumer);
             update(get());
-            links.add(this);
+            links = ArrayUtils.add(links, this);
         }
 
         @Override
@@ -668,6 +671,7 @@ public abstract class Property {
                 assert false;
                 return;
             }
+            // all updates go through the primitive setImpl(long, double)
             try {
                 long currentTime = property.context.getTime();
                 double toValue = to[index];
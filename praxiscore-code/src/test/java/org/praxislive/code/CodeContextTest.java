@@ -0,0 +1,65 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.code;
+
+import org.junit.jupiter.api.Test;
+import org.praxislive.base.DefaultExecutionContext;
+import org.praxislive.core.ComponentAddress;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.ExecutionContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class CodeContextTest {
+
+    private static final ComponentAddress SOURCE = ComponentAddress.of("/video/component");
+    private static final ControlAddress SAME_ROOT = ControlAddress.of("/video/other.in");
+    private static final ControlAddress OTHER_ROOT = ControlAddress.of("/log.log");
+
+    public CodeContextTest() {
+    }
+
+    @Test
+    public void testPacketTimeNoDrift() {
+        ExecutionContext ctxt = new DefaultExecutionContext(0);
+        assertEquals(1000, CodeContext.packetTime(ctxt, SOURCE, SAME_ROOT, 1000));
+        assertEquals(1000, CodeContext.packetTime(ctxt, SOURCE, OTHER_ROOT, 1000));
+    }
+
+    @Test
+    public void testPacketTimeDrift() {
+        ExecutionContext ctxt = new DefaultExecutionContext(0) {
+            @Override
+            public long toHubTime(long time) {
+                return time - 250;
+            }
+        };
+        assertEquals(1000, CodeContext.packetTime(ctxt, SOURCE, SAME_ROOT, 1000));
+        assertEquals(750, CodeContext.packetTime(ctxt, SOURCE, OTHER_ROOT, 1000));
+        assertEquals(1000, CodeContext.packetTime(ctxt, null, OTHER_ROOT, 1000));
+        assertEquals(1000, CodeContext.packetTime(null, SOURCE, OTHER_ROOT, 1000));
+    }
+
+}
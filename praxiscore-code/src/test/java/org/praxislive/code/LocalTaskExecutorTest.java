@@ -0,0 +1,129 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.code;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.ThreadContext;
+import org.praxislive.core.types.PMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class LocalTaskExecutorTest {
+
+    public LocalTaskExecutorTest() {
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        LocalTaskExecutor executor = new LocalTaskExecutor();
+        TestThreadContext threadContext = new TestThreadContext();
+        List<Object> results = new ArrayList<>();
+        executor.execute(threadContext, 21, i -> i * 2,
+                (result, error) -> results.add(result));
+        executor.execute(threadContext, "", s -> {
+            throw new IllegalArgumentException();
+        }, (result, error) -> results.add(error));
+
+        for (int i = 0; i < 2; i++) {
+            Runnable task = threadContext.tasks.poll(5, TimeUnit.SECONDS);
+            assertNotNull(task);
+            task.run();
+        }
+        assertEquals(2, results.size());
+        assertTrue(results.contains(42));
+        assertTrue(results.stream().anyMatch(IllegalArgumentException.class::isInstance));
+
+        PMap stats = executor.statistics();
+        assertEquals(2, stats.getInt("submitted", 0));
+        assertEquals(1, stats.getInt("completed", 0));
+        assertEquals(1, stats.getInt("failed", 0));
+        assertTrue(stats.getDouble("max-latency", 0) > 0);
+    }
+
+    @Test
+    public void testExecuteError() throws Exception {
+        LocalTaskExecutor executor = new LocalTaskExecutor();
+        TestThreadContext threadContext = new TestThreadContext();
+        List<Object> results = new ArrayList<>();
+        executor.execute(threadContext, "", s -> {
+            throw new AssertionError();
+        }, (result, error) -> results.add(error));
+        Runnable task = threadContext.tasks.poll(5, TimeUnit.SECONDS);
+        assertNotNull(task);
+        task.run();
+        assertEquals(1, results.size());
+        assertInstanceOf(AssertionError.class, results.get(0));
+        assertEquals(1, executor.statistics().getInt("failed", 0));
+    }
+
+    @Test
+    public void testDropped() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        LocalTaskExecutor executor = new LocalTaskExecutor(task -> {
+            latch.countDown();
+            return false;
+        });
+        executor.execute(null, 21, i -> i * 2,
+                (result, error) -> fail());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50; i++) {
+            if (executor.statistics().getInt("dropped", 0) == 1) {
+                break;
+            }
+            Thread.sleep(10);
+        }
+        PMap stats = executor.statistics();
+        assertEquals(1, stats.getInt("submitted", 0));
+        assertEquals(1, stats.getInt("dropped", 0));
+        assertEquals(0, stats.getInt("completed", 0));
+    }
+
+    private static class TestThreadContext implements ThreadContext {
+
+        private final LinkedBlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+
+        @Override
+        public boolean isInUpdate() {
+            return false;
+        }
+
+        @Override
+        public boolean isRootThread() {
+            return false;
+        }
+
+        @Override
+        public void invokeLater(Runnable task) {
+            tasks.add(task);
+        }
+
+    }
+
+}
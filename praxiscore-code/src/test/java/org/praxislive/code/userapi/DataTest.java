@@ -1,6 +1,11 @@
 package org.praxislive.code.userapi;
 
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import org.praxislive.core.Lookup;
 
@@ -138,6 +143,207 @@ public class DataTest {
         assertEquals(42, result[0]);
     }
 
+    @Test
+    public void testSharedPipeTopology() {
+        IntBufferDataSink sink = new IntBufferDataSink();
+        int[] count = new int[1];
+        int[] result;
+        Data.Pipe<int[]> shared = Data.with(b -> {
+            count[0]++;
+            b[0] = 3;
+        });
+        Data.Pipe<int[]> left = Data.<int[]>with(b -> b[0] *= 2).withSources(shared);
+        Data.Pipe<int[]> right = Data.<int[]>with(b -> b[0] *= 5).withSources(shared);
+        Data.<int[]>identity().withSources(left, right).linkTo(sink.input());
+        result = sink.process(new int[1]);
+        assertEquals(3 * 2 + 3 * 5, result[0]);
+        assertEquals(1, count[0]);
+        result = sink.process(new int[1]);
+        assertEquals(3 * 2 + 3 * 5, result[0]);
+        assertEquals(2, count[0]);
+        // change topology after plan is compiled
+        right.removeSource(shared);
+        result = sink.process(new int[1]);
+        assertEquals(3 * 2, result[0]);
+        assertEquals(3, count[0]);
+        Data.Pipe<int[]> extra = Data.with(b -> b[0] = 7);
+        right.addSource(extra);
+        result = sink.process(new int[1]);
+        assertEquals(3 * 2 + 7 * 5, result[0]);
+        assertEquals(4, count[0]);
+    }
+
+    @Test
+    public void testTopologyPerGraph() {
+        IntBufferDataSink sink1 = new IntBufferDataSink();
+        IntBufferDataSink sink2 = new IntBufferDataSink();
+        IntBufferDataSink sink3 = new IntBufferDataSink();
+        Data.Pipe<int[]> upstream = Data.identity();
+        upstream.addSource(Data.with(b -> b[0] = 2));
+        Data.<int[]>with(b -> b[0] *= 3).withSources(upstream).linkTo(sink1.input());
+        Data.<int[]>with(b -> b[0] *= 5).withSources(upstream).linkTo(sink2.input());
+        Data.<int[]>with(b -> b[0] = 7).linkTo(sink3.input());
+        assertEquals(6, sink1.process(new int[1])[0]);
+        assertEquals(10, sink2.process(new int[1])[0]);
+        assertEquals(7, sink3.process(new int[1])[0]);
+        // change upstream of both sinks, two pipes away from each sink input
+        upstream.addSource(Data.with(b -> b[0] = 4));
+        assertEquals(18, sink1.process(new int[1])[0]);
+        assertEquals(30, sink2.process(new int[1])[0]);
+        assertEquals(7, sink3.process(new int[1])[0]);
+        upstream.disconnectSources();
+        assertEquals(0, sink1.process(new int[1])[0]);
+        assertEquals(0, sink2.process(new int[1])[0]);
+    }
+
+    @Test
+    public void testCyclicPipeline() {
+        IntBufferDataSink sink = new IntBufferDataSink();
+        int[] result;
+        Data.Pipe<int[]> first = Data.with(b -> b[0] += 1);
+        Data.Pipe<int[]> second = Data.with(b -> b[0] += 10);
+        first.linkTo(second, sink.input());
+        second.linkTo(first);
+        result = sink.process(new int[1]);
+        assertEquals(11, result[0]);
+        first.removeSource(second);
+        result = sink.process(new int[1]);
+        assertEquals(11, result[0]);
+        result = sink.process(new int[1]);
+        assertEquals(11, result[0]);
+    }
+
+    @Test
+    public void testParallelBranches() {
+        IntBufferDataSink sink = new IntBufferDataSink();
+        sink.parallel(true);
+        int[] result;
+        Data.Pipe<int[]> shared = Data.with(b -> b[1] = 1);
+        Data.<int[]>identity().withSources(
+                Data.<int[]>with(b -> b[0] *= 2).withSources(
+                        Data.with(b -> b[0] = 1),
+                        Data.with(b -> b[0] = 2)),
+                Data.<int[]>with(b -> b[0] *= 3).withSources(
+                        Data.with(b -> b[0] = 3),
+                        Data.with(b -> b[0] = 4)),
+                Data.<int[]>identity().withSources(
+                        Data.with(b -> b[0] = 100),
+                        shared),
+                Data.<int[]>identity().withSources(shared)
+        ).linkTo(sink.input());
+        for (int i = 0; i < 4; i++) {
+            result = sink.process(new int[2]);
+            assertEquals((1 + 2) * 2 + (3 + 4) * 3 + 100, result[0]);
+            assertEquals(2, result[1]);
+        }
+        sink.parallel(false);
+        result = sink.process(new int[2]);
+        assertEquals((1 + 2) * 2 + (3 + 4) * 3 + 100, result[0]);
+        assertEquals(2, result[1]);
+    }
+
+    @Test
+    public void testParallelBranchesConcurrent() {
+        IntBufferDataSink sink = new IntBufferDataSink();
+        sink.parallel(true);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicInteger met = new AtomicInteger();
+        Data.<int[]>identity().withSources(
+                Data.<int[]>with(b -> {
+                    b[0] = await(barrier) ? 1 : 0;
+                    met.addAndGet(b[0]);
+                }),
+                Data.<int[]>with(b -> {
+                    b[0] = await(barrier) ? 2 : 0;
+                    met.addAndGet(b[0]);
+                })
+        ).linkTo(sink.input());
+        int[] result = sink.process(new int[1]);
+        // both branches only pass the barrier if running at the same time
+        assertEquals(3, met.get());
+        assertEquals(3, result[0]);
+    }
+
+    @Test
+    public void testParallelBranchesJoinOnException() {
+        IntBufferDataSink sink = new IntBufferDataSink();
+        sink.parallel(true);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        Data.<int[]>identity().withSources(
+                Data.<int[]>with(b -> {
+                    try {
+                        started.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException();
+                }),
+                Data.<int[]>with(b -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    finished.set(true);
+                })
+        ).linkTo(sink.input());
+        assertThrows(RuntimeException.class, () -> sink.process(new int[1]));
+        assertTrue(finished.get());
+    }
+
+    private static boolean await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+            return true;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testPacketPool() {
+        IntBufferDataSink sink = new IntBufferDataSink();
+        sink.poolSize(2);
+        int[] result;
+        Data.<int[]>identity().withSources(
+                Data.with(b -> b[0] += 1), Data.with(b -> b[0] += 2))
+                .linkTo(sink.input());
+        result = sink.process(new int[4]);
+        assertEquals(3, result[0]);
+        assertEquals(2, sink.activeBufferCount);
+        // disconnect - buffers should be pooled rather than disposed, and
+        // one reused for the input cache
+        sink.input().disconnectSources();
+        result = sink.process(new int[4]);
+        assertEquals(0, result[0]);
+        assertEquals(2, sink.activeBufferCount);
+        assertEquals(1, sink.poolStatistics().getInt("pooled", -1));
+        assertEquals(1, sink.poolStatistics().getInt("reused", -1));
+        // reconnect - buffers should be reused and cleared
+        Data.<int[]>identity().withSources(
+                Data.with(b -> b[0] += 1), Data.with(b -> b[0] += 5))
+                .linkTo(sink.input());
+        result = sink.process(new int[4]);
+        assertEquals(6, result[0]);
+        assertEquals(2, sink.activeBufferCount);
+        assertEquals(0, sink.poolStatistics().getInt("pooled", -1));
+        assertEquals(3, sink.poolStatistics().getInt("reused", -1));
+        // incompatible size - should not reuse
+        result = sink.process(new int[8]);
+        assertEquals(6, result[0]);
+        assertEquals(4, sink.activeBufferCount);
+        assertEquals(2, sink.poolStatistics().getInt("pooled", -1));
+        assertEquals(3, sink.poolStatistics().getInt("reused", -1));
+        // shrink pool and flush
+        sink.poolSize(0);
+        assertEquals(0, sink.poolStatistics().getInt("pooled", -1));
+        assertEquals(2, sink.activeBufferCount);
+        sink.flushCaches();
+        assertEquals(0, sink.activeBufferCount);
+    }
+
     private static class TestDataSink<T> extends Data.Sink<T> {
 
         @Override
@@ -12,6 +12,7 @@ module org.praxislive.hub.net {
     requires io.netty.codec.http;
     requires io.netty.handler;
     requires io.netty.transport;
+    requires io.netty.transport.classes.epoll;
 
     exports org.praxislive.hub.net;
 
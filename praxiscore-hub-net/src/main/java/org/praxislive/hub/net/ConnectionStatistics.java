@@ -0,0 +1,92 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub.net;
+
+import io.netty.util.AttributeKey;
+import java.util.concurrent.atomic.LongAdder;
+import org.praxislive.core.types.PMap;
+
+/**
+ * Byte, frame and message counts of a network connection. Updated by the
+ * codec on the channel event loop, and readable from any thread.
+ */
+final class ConnectionStatistics {
+
+    static final AttributeKey<ConnectionStatistics> KEY
+            = AttributeKey.valueOf(ConnectionStatistics.class, "statistics");
+
+    private final LongAdder bytesIn;
+    private final LongAdder bytesOut;
+    private final LongAdder framesIn;
+    private final LongAdder framesOut;
+    private final LongAdder messagesIn;
+    private final LongAdder messagesOut;
+
+    ConnectionStatistics() {
+        bytesIn = new LongAdder();
+        bytesOut = new LongAdder();
+        framesIn = new LongAdder();
+        framesOut = new LongAdder();
+        messagesIn = new LongAdder();
+        messagesOut = new LongAdder();
+    }
+
+    void frameIn(int bytes, int messages) {
+        bytesIn.add(bytes);
+        framesIn.increment();
+        messagesIn.add(messages);
+    }
+
+    void frameOut(int bytes, int messages) {
+        bytesOut.add(bytes);
+        framesOut.increment();
+        messagesOut.add(messages);
+    }
+
+    long bytesIn() {
+        return bytesIn.sum();
+    }
+
+    long bytesOut() {
+        return bytesOut.sum();
+    }
+
+    long messagesIn() {
+        return messagesIn.sum();
+    }
+
+    long messagesOut() {
+        return messagesOut.sum();
+    }
+
+    PMap toPMap() {
+        return PMap.builder()
+                .put("bytes-in", (double) bytesIn.sum())
+                .put("bytes-out", (double) bytesOut.sum())
+                .put("frames-in", (double) framesIn.sum())
+                .put("frames-out", (double) framesOut.sum())
+                .put("messages-in", (double) messagesIn.sum())
+                .put("messages-out", (double) messagesOut.sum())
+                .build();
+    }
+
+}
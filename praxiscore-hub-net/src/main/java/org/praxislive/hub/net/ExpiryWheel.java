@@ -0,0 +1,122 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub.net;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Timing wheel of IDs bucketed by the tick in which they were added, so that
+ * entries older than a timeout can be found without scanning all tracked
+ * entries. IDs are not removed from the wheel when their entry completes -
+ * the expiry test is expected to report absent entries as done.
+ */
+final class ExpiryWheel {
+
+    // ~1.07s
+    private static final int TICK_SHIFT = 30;
+
+    private final int[][] slots;
+    private final int[] sizes;
+    private final int mask;
+
+    private long expiredTick;
+
+    /**
+     * Create a wheel able to track entries across the provided timeout without
+     * slot reuse.
+     *
+     * @param timeout timeout in nanoseconds
+     * @param time current time in nanoseconds
+     */
+    ExpiryWheel(long timeout, long time) {
+        long ticks = (Math.max(timeout, 0) >>> TICK_SHIFT) + 2;
+        int count = Integer.highestOneBit((int) Math.min(ticks, 1 << 16) - 1) << 1;
+        slots = new int[count][];
+        sizes = new int[count];
+        mask = count - 1;
+        expiredTick = (time >> TICK_SHIFT) - 1;
+    }
+
+    /**
+     * Add an ID at the provided time.
+     *
+     * @param id ID
+     * @param time time in nanoseconds
+     */
+    void add(int id, long time) {
+        int slot = (int) (time >> TICK_SHIFT) & mask;
+        int[] ids = slots[slot];
+        int size = sizes[slot];
+        if (ids == null) {
+            ids = new int[16];
+            slots[slot] = ids;
+        } else if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            slots[slot] = ids;
+        }
+        ids[size] = id;
+        sizes[slot] = size + 1;
+    }
+
+    /**
+     * Test all IDs added in ticks that ended at or before the cutoff time. IDs
+     * for which the test returns false are retained.
+     *
+     * @param cutoff cutoff time in nanoseconds
+     * @param expiry test of each ID, returning true if the ID is done with
+     */
+    void expire(long cutoff, IntPredicate expiry) {
+        long lastTick = (cutoff >> TICK_SHIFT) - 1;
+        long count = Math.min(lastTick - expiredTick, slots.length);
+        for (long i = 0; i < count; i++) {
+            expireSlot((int) (lastTick - count + 1 + i) & mask, expiry);
+        }
+        if (lastTick > expiredTick) {
+            expiredTick = lastTick;
+        }
+    }
+
+    /**
+     * Remove all IDs.
+     *
+     * @param time current time in nanoseconds
+     */
+    void clear(long time) {
+        Arrays.fill(sizes, 0);
+        expiredTick = (time >> TICK_SHIFT) - 1;
+    }
+
+    private void expireSlot(int slot, IntPredicate expiry) {
+        int[] ids = slots[slot];
+        int size = sizes[slot];
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            int id = ids[i];
+            if (!expiry.test(id)) {
+                ids[retained++] = id;
+            }
+        }
+        sizes[slot] = retained;
+    }
+
+}
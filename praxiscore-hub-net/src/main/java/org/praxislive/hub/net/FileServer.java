@@ -29,7 +29,8 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.nio.NioIoHandler;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.DefaultHttpResponse;
@@ -84,6 +85,7 @@ class FileServer {
 
     private final Path allowedRoot;
     private final int port;
+    private final NetworkTransport transport;
 
     private Channel serverChannel;
     private EventLoopGroup eventLoopGroup;
@@ -93,23 +95,33 @@ class FileServer {
     }
 
     FileServer(Path allowedRoot, int port) {
+        this(allowedRoot, port, null);
+    }
+
+    FileServer(Path allowedRoot, int port, NetworkTransport transport) {
         if (!allowedRoot.isAbsolute() || !Files.isDirectory(allowedRoot)) {
             throw new IllegalArgumentException();
         }
         this.allowedRoot = allowedRoot;
         this.port = port;
+        this.transport = transport;
     }
 
     synchronized Info start() throws IOException {
-        if (eventLoopGroup != null) {
+        if (eventLoopGroup != null || serverChannel != null) {
             throw new IllegalStateException("File server not restartable");
         }
-        eventLoopGroup = new NioEventLoopGroup();
         try {
-            var bootstrap = new ServerBootstrap();
-            bootstrap.group(eventLoopGroup)
-                    .channel(NioServerSocketChannel.class)
-                    .childHandler(new ChannelInitializer() {
+            ServerBootstrap bootstrap;
+            if (transport != null) {
+                bootstrap = transport.serverBootstrap();
+            } else {
+                eventLoopGroup = new MultiThreadIoEventLoopGroup(NioIoHandler.newFactory());
+                bootstrap = new ServerBootstrap()
+                        .group(eventLoopGroup)
+                        .channel(NioServerSocketChannel.class);
+            }
+            bootstrap.childHandler(new ChannelInitializer() {
                         @Override
                         protected void initChannel(Channel ch) throws Exception {
                             ch.pipeline().addLast(new HttpServerCodec(),
@@ -36,13 +36,28 @@ public final class HubConfiguration {
 
     private static final String KEY_FILESERVER = "enable-fileserver";
     private static final String KEY_PROXIES = "proxies";
+    private static final String KEY_NATIVE_TRANSPORT = "native-transport";
+    private static final String KEY_EVENT_LOOP_THREADS = "event-loop-threads";
+    private static final String KEY_TCP_NO_DELAY = "tcp-no-delay";
+    private static final String KEY_SEND_BUFFER_SIZE = "send-buffer-size";
+    private static final String KEY_RECEIVE_BUFFER_SIZE = "receive-buffer-size";
 
     private final boolean fileServer;
     private final List<ProxyInfo> proxies;
+    private final boolean nativeTransport;
+    private final int eventLoopThreads;
+    private final boolean tcpNoDelay;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
 
     private HubConfiguration(Builder builder) {
         this.fileServer = builder.fileServer;
         this.proxies = List.copyOf(builder.proxies);
+        this.nativeTransport = builder.nativeTransport;
+        this.eventLoopThreads = builder.eventLoopThreads;
+        this.tcpNoDelay = builder.tcpNoDelay;
+        this.sendBufferSize = builder.sendBufferSize;
+        this.receiveBufferSize = builder.receiveBufferSize;
     }
 
     public boolean isFileServerEnabled() {
@@ -53,13 +68,66 @@ public final class HubConfiguration {
         return proxies;
     }
 
+    /**
+     * Whether to use a native network transport, if one is available for the
+     * current platform. Currently supports epoll on Linux, if the Netty native
+     * epoll library is available.
+     *
+     * @return native transport enabled
+     */
+    public boolean isNativeTransportEnabled() {
+        return nativeTransport;
+    }
+
+    /**
+     * The number of threads in the event loop group shared by all network
+     * connections of the hub. A value of zero uses the Netty default.
+     *
+     * @return event loop threads
+     */
+    public int eventLoopThreads() {
+        return eventLoopThreads;
+    }
+
+    /**
+     * Whether TCP_NODELAY is set on network connections.
+     *
+     * @return TCP no delay
+     */
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /**
+     * The socket send buffer size of network connections. A value of zero
+     * uses the system default.
+     *
+     * @return send buffer size in bytes
+     */
+    public int sendBufferSize() {
+        return sendBufferSize;
+    }
+
+    /**
+     * The socket receive buffer size of network connections. A value of zero
+     * uses the system default.
+     *
+     * @return receive buffer size in bytes
+     */
+    public int receiveBufferSize() {
+        return receiveBufferSize;
+    }
+
     /**
      * Build a hub configuration from the provided map. This method is used
      * primarily by the hub configuration commands.
      * <p>
      * Currently supported keys are {@code enable-fileserver} which should be a
-     * boolean value, and {@code proxies} which should contain a map of proxy
-     * IDs to proxy map configuration.
+     * boolean value, {@code proxies} which should contain a map of proxy IDs
+     * to proxy map configuration, and the transport options
+     * {@code native-transport}, {@code event-loop-threads},
+     * {@code tcp-no-delay}, {@code send-buffer-size} and
+     * {@code receive-buffer-size}.
      *
      * @param configuration data map
      * @return hub configuration
@@ -68,6 +136,11 @@ public final class HubConfiguration {
     public static HubConfiguration fromMap(PMap configuration) {
         var builder = builder();
         builder.enableFileServer(configuration.getBoolean(KEY_FILESERVER, false));
+        builder.nativeTransport(configuration.getBoolean(KEY_NATIVE_TRANSPORT, false));
+        builder.eventLoopThreads(configuration.getInt(KEY_EVENT_LOOP_THREADS, 0));
+        builder.tcpNoDelay(configuration.getBoolean(KEY_TCP_NO_DELAY, true));
+        builder.socketBufferSizes(configuration.getInt(KEY_SEND_BUFFER_SIZE, 0),
+                configuration.getInt(KEY_RECEIVE_BUFFER_SIZE, 0));
         var value = configuration.get(KEY_PROXIES);
         if (value == null) {
             value = PMap.EMPTY;
@@ -97,9 +170,15 @@ public final class HubConfiguration {
 
         private final List<ProxyInfo> proxies;
         private boolean fileServer;
+        private boolean nativeTransport;
+        private int eventLoopThreads;
+        private boolean tcpNoDelay;
+        private int sendBufferSize;
+        private int receiveBufferSize;
 
         private Builder() {
             proxies = new ArrayList<>();
+            tcpNoDelay = true;
         }
 
         /**
@@ -126,6 +205,66 @@ public final class HubConfiguration {
             return this;
         }
 
+        /**
+         * Whether to use a native network transport if available. The default
+         * is false. If enabled, and a native transport is not available, the
+         * default NIO transport will be used.
+         *
+         * @param enable enable native transport if available
+         * @return this
+         */
+        public Builder nativeTransport(boolean enable) {
+            this.nativeTransport = enable;
+            return this;
+        }
+
+        /**
+         * The number of threads in the event loop group shared by all network
+         * connections. The default of zero uses the Netty default.
+         *
+         * @param threads number of threads, or zero for default
+         * @return this
+         * @throws IllegalArgumentException if threads is negative
+         */
+        public Builder eventLoopThreads(int threads) {
+            if (threads < 0) {
+                throw new IllegalArgumentException();
+            }
+            this.eventLoopThreads = threads;
+            return this;
+        }
+
+        /**
+         * Whether to set TCP_NODELAY on network connections. The default is
+         * true.
+         *
+         * @param tcpNoDelay TCP no delay
+         * @return this
+         */
+        public Builder tcpNoDelay(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+            return this;
+        }
+
+        /**
+         * The socket send and receive buffer sizes of network connections. The
+         * default of zero uses the system default.
+         *
+         * @param sendBufferSize send buffer size in bytes, or zero for default
+         * @param receiveBufferSize receive buffer size in bytes, or zero for
+         * default
+         * @return this
+         * @throws IllegalArgumentException if either size is negative
+         */
+        public Builder socketBufferSizes(int sendBufferSize, int receiveBufferSize) {
+            if (sendBufferSize < 0 || receiveBufferSize < 0) {
+                throw new IllegalArgumentException();
+            }
+            this.sendBufferSize = sendBufferSize;
+            this.receiveBufferSize = receiveBufferSize;
+            return this;
+        }
+
         /**
          * Build the hub configuration.
          *
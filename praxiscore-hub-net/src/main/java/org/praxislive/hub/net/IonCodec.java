@@ -25,6 +25,8 @@ import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
 import com.amazon.ion.system.IonSystemBuilder;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -45,7 +47,13 @@ import org.praxislive.core.types.PNumber;
 import org.praxislive.core.types.PString;
 
 /**
- *
+ * Ion encoding and decoding of messages. Each call to
+ * {@link #writeMessages(java.util.List, java.io.OutputStream)} writes a
+ * self-contained Ion stream, with its own local symbol table. A
+ * {@link StreamWriter} writes successive batches as one continuous stream,
+ * appending to a long-lived symbol table so that recurring addresses, field
+ * names and map keys are written as symbol IDs after first use. A
+ * {@link StreamReader} reads either form.
  */
 class IonCodec {
 
@@ -70,17 +78,32 @@ class IonCodec {
     private static final String FIELD_TYPE = "type";
     private static final String FIELD_DATA = "data";
 
+    static final int BLOB_THRESHOLD = Integer.getInteger("praxis.hub.network.blob.threshold", 65536);
+
+    private static final String BLOB_REF = "BlobRef";
+
+    // user symbols before a stream writer starts a new symbol table
+    private static final int MAX_STREAM_SYMBOLS = 4096;
+
     private final IonSystem system;
+    private final IonBinaryWriterBuilder streamWriterBuilder;
+    private final IonReaderBuilder streamReaderBuilder;
 
     private IonCodec() {
         system = IonSystemBuilder.standard().build();
+        streamWriterBuilder = IonBinaryWriterBuilder.standard()
+                .withLocalSymbolTableAppendEnabled()
+                .immutable();
+        streamReaderBuilder = IonReaderBuilder.standard()
+                .withIncrementalReadingEnabled(true)
+                .immutable();
     }
 
     void readMessages(InputStream in, Consumer<Message> out) throws IOException {
         try (IonReader reader = system.newReader(in)) {
             IonType type;
             while ((type = reader.next()) != null) {
-                out.accept(readMessage(reader));
+                out.accept(readMessage(reader, null));
             }
         }
     }
@@ -95,19 +118,7 @@ class IonCodec {
 
     void writeMessages(List<Message> messages, OutputStream out) throws IOException {
         try (IonWriter writer = system.newBinaryWriter(out)) {
-            for (Message message : messages) {
-                if (message instanceof Message.Send send) {
-                    writeSend(writer, send);
-                } else if (message instanceof Message.Service service) {
-                    writeService(writer, service);
-                } else if (message instanceof Message.Reply reply) {
-                    writeReply(writer, reply);
-                } else if (message instanceof Message.Error error) {
-                    writeError(writer, error);
-                } else if (message instanceof Message.System sys) {
-                    writeSystem(writer, sys);
-                }
-            }
+            writeMessages(writer, null, messages);
         }
     }
 
@@ -117,7 +128,31 @@ class IonCodec {
         return bos.toByteArray();
     }
 
-    private Message readMessage(IonReader reader) throws IOException {
+    StreamWriter createStreamWriter() {
+        return new StreamWriter();
+    }
+
+    StreamReader createStreamReader() {
+        return new StreamReader();
+    }
+
+    private void writeMessages(IonWriter writer, List<PBytes> blobs, List<Message> messages) throws IOException {
+        for (Message message : messages) {
+            if (message instanceof Message.Send send) {
+                writeSend(writer, blobs, send);
+            } else if (message instanceof Message.Service service) {
+                writeService(writer, blobs, service);
+            } else if (message instanceof Message.Reply reply) {
+                writeReply(writer, blobs, reply);
+            } else if (message instanceof Message.Error error) {
+                writeError(writer, blobs, error);
+            } else if (message instanceof Message.System sys) {
+                writeSystem(writer, blobs, sys);
+            }
+        }
+    }
+
+    private Message readMessage(IonReader reader, BlobReader blobs) throws IOException {
         if (reader.getType() != IonType.STRUCT) {
             throw new IOException("Not an Ion Struct");
         }
@@ -128,15 +163,15 @@ class IonCodec {
         try {
             return switch (annotations[0]) {
                 case SEND ->
-                    readSendMessage(reader);
+                    readSendMessage(reader, blobs);
                 case SERVICE ->
-                    readServiceMessage(reader);
+                    readServiceMessage(reader, blobs);
                 case REPLY ->
-                    readReplyMessage(reader);
+                    readReplyMessage(reader, blobs);
                 case ERROR ->
-                    readErrorMessage(reader);
+                    readErrorMessage(reader, blobs);
                 case SYSTEM ->
-                    readSystemMessage(reader);
+                    readSystemMessage(reader, blobs);
                 default ->
                     throw new IOException("Unknown message type");
             };
@@ -148,7 +183,7 @@ class IonCodec {
         }
     }
 
-    private Message.Send readSendMessage(IonReader reader) throws Exception {
+    private Message.Send readSendMessage(IonReader reader, BlobReader blobs) throws Exception {
         Integer matchID = null;
         ControlAddress to = null;
         ControlAddress from = null;
@@ -168,10 +203,10 @@ class IonCodec {
                     from = ControlAddress.of(reader.stringValue());
                 }
                 case FIELD_ARGS -> {
-                    args = readValues(reader);
+                    args = readValues(reader, blobs);
                 }
                 case FIELD_DATA -> {
-                    data = readMap(reader);
+                    data = readMap(reader, blobs);
                 }
             }
         }
@@ -179,7 +214,7 @@ class IonCodec {
         return new Message.Send(matchID, to, from, args, data);
     }
 
-    private Message.Service readServiceMessage(IonReader reader) throws Exception {
+    private Message.Service readServiceMessage(IonReader reader, BlobReader blobs) throws Exception {
         Integer matchID = null;
         String service = null;
         String control = null;
@@ -203,10 +238,10 @@ class IonCodec {
                     from = ControlAddress.of(reader.stringValue());
                 }
                 case FIELD_ARGS -> {
-                    args = readValues(reader);
+                    args = readValues(reader, blobs);
                 }
                 case FIELD_DATA -> {
-                    data = readMap(reader);
+                    data = readMap(reader, blobs);
                 }
             }
         }
@@ -214,7 +249,7 @@ class IonCodec {
         return new Message.Service(matchID, service, control, from, args, data);
     }
 
-    private Message.Reply readReplyMessage(IonReader reader) throws Exception {
+    private Message.Reply readReplyMessage(IonReader reader, BlobReader blobs) throws Exception {
         Integer matchID = null;
         List<Value> args = List.of();
         PMap data = PMap.EMPTY;
@@ -226,10 +261,10 @@ class IonCodec {
                     matchID = reader.intValue();
                 }
                 case FIELD_ARGS -> {
-                    args = readValues(reader);
+                    args = readValues(reader, blobs);
                 }
                 case FIELD_DATA -> {
-                    data = readMap(reader);
+                    data = readMap(reader, blobs);
                 }
             }
         }
@@ -237,7 +272,7 @@ class IonCodec {
         return new Message.Reply(matchID, args, data);
     }
 
-    private Message.Error readErrorMessage(IonReader reader) throws Exception {
+    private Message.Error readErrorMessage(IonReader reader, BlobReader blobs) throws Exception {
         Integer matchID = null;
         List<Value> args = List.of();
         PMap data = PMap.EMPTY;
@@ -249,10 +284,10 @@ class IonCodec {
                     matchID = reader.intValue();
                 }
                 case FIELD_ARGS -> {
-                    args = readValues(reader);
+                    args = readValues(reader, blobs);
                 }
                 case FIELD_DATA -> {
-                    data = readMap(reader);
+                    data = readMap(reader, blobs);
                 }
             }
         }
@@ -260,7 +295,7 @@ class IonCodec {
         return new Message.Error(matchID, args, data);
     }
 
-    private Message.System readSystemMessage(IonReader reader) throws Exception {
+    private Message.System readSystemMessage(IonReader reader, BlobReader blobs) throws Exception {
         Integer matchID = null;
         String msgType = null;
         PMap data = PMap.EMPTY;
@@ -275,7 +310,7 @@ class IonCodec {
                     msgType = reader.stringValue();
                 }
                 case FIELD_DATA -> {
-                    data = readMap(reader);
+                    data = readMap(reader, blobs);
                 }
             }
         }
@@ -283,23 +318,25 @@ class IonCodec {
         return new Message.System(matchID, msgType, data);
     }
 
-    private List<Value> readValues(IonReader reader) throws Exception {
+    private List<Value> readValues(IonReader reader, BlobReader blobs) throws Exception {
         if (reader.getType() != IonType.LIST) {
             throw new IllegalArgumentException("Not a list");
         }
         List<Value> list = new ArrayList<>();
         reader.stepIn();
         while (reader.next() != null) {
-            list.add(readValue(reader));
+            list.add(readValue(reader, blobs));
         }
         reader.stepOut();
         return list;
     }
 
-    private Value readValue(IonReader reader) throws Exception {
+    private Value readValue(IonReader reader, BlobReader blobs) throws Exception {
         return switch (reader.getType()) {
             case BLOB ->
                 PBytes.valueOf(reader.newBytes());
+            case SEXP ->
+                readBlobReference(reader, blobs);
             case BOOL ->
                 PBoolean.of(reader.booleanValue());
             case FLOAT ->
@@ -309,9 +346,9 @@ class IonCodec {
             case LIST -> {
                 String[] annotations = reader.getTypeAnnotations();
                 if (isMap(annotations)) {
-                    yield readMapValue(annotations, reader);
+                    yield readMapValue(annotations, reader, blobs);
                 } else {
-                    yield PArray.of(readValues(reader));
+                    yield PArray.of(readValues(reader, blobs));
                 }
             }
             default ->
@@ -328,7 +365,7 @@ class IonCodec {
         return false;
     }
 
-    private Value readMapValue(String[] annotations, IonReader reader) throws Exception {
+    private Value readMapValue(String[] annotations, IonReader reader, BlobReader blobs) throws Exception {
         Value.Type<?> type = null;
         if (annotations.length > 1) {
             for (String annotation : annotations) {
@@ -343,7 +380,7 @@ class IonCodec {
                 }
             }
         }
-        PMap map = readMap(reader);
+        PMap map = readMap(reader, blobs);
         if (type != null) {
             Value v = type.converter().apply(map).orElse(null);
             return v == null ? map : v;
@@ -352,7 +389,7 @@ class IonCodec {
         }
     }
 
-    private PMap readMap(IonReader reader) throws Exception {
+    private PMap readMap(IonReader reader, BlobReader blobs) throws Exception {
         if (reader.getType() != IonType.LIST) {
             throw new IllegalArgumentException("Not a list");
         }
@@ -361,36 +398,36 @@ class IonCodec {
         while (reader.next() != null) {
             var key = reader.stringValue();
             reader.next();
-            var value = readValue(reader);
+            var value = readValue(reader, blobs);
             b.put(key, value);
         }
         reader.stepOut();
         return b.build();
     }
 
-    private void writeValues(IonWriter writer, List<Value> values) throws IOException {
+    private void writeValues(IonWriter writer, List<PBytes> blobs, List<Value> values) throws IOException {
         writer.stepIn(IonType.LIST);
         for (Value value : values) {
-            writeValue(writer, value);
+            writeValue(writer, blobs, value);
         }
         writer.stepOut();
     }
 
-    private void writeValue(IonWriter writer, Value value) throws IOException {
+    private void writeValue(IonWriter writer, List<PBytes> blobs, Value value) throws IOException {
         if (value instanceof PNumber n) {
             writeNumber(writer, n);
         } else if (value instanceof PArray a) {
-            writeArray(writer, a);
+            writeArray(writer, blobs, a);
         } else if (value instanceof PBytes b) {
-            writeBytes(writer, b);
+            writeBytes(writer, blobs, b);
         } else if (value instanceof PBoolean b) {
             writer.writeBool(b.value());
         } else if (value instanceof PMap m) {
-            writeMap(writer, m, TYPE_MAP);
+            writeMap(writer, blobs, m, TYPE_MAP);
         } else if (value instanceof PError e) {
-            writeMap(writer, e.dataMap(), PError.TYPE_NAME, TYPE_MAP);
+            writeMap(writer, blobs, e.dataMap(), PError.TYPE_NAME, TYPE_MAP);
         } else if (value instanceof PMap.MapBasedValue v) {
-            writeMap(writer, v.dataMap(), v.type().name(), TYPE_MAP);
+            writeMap(writer, blobs, v.dataMap(), v.type().name(), TYPE_MAP);
         } else {
             writer.writeString(value.toString());
         }
@@ -404,76 +441,96 @@ class IonCodec {
         }
     }
 
-    private void writeMap(IonWriter writer, PMap map, String... annotations) throws IOException {
+    private void writeMap(IonWriter writer, List<PBytes> blobs, PMap map, String... annotations) throws IOException {
         writer.setTypeAnnotations(annotations);
         writer.stepIn(IonType.LIST);
         for (var key : map.keys()) {
-            writer.writeString(key);
-            writeValue(writer, map.get(key));
+            writer.writeSymbol(key);
+            writeValue(writer, blobs, map.get(key));
         }
         writer.stepOut();
     }
 
-    private void writeArray(IonWriter writer, PArray array) throws IOException {
+    private void writeArray(IonWriter writer, List<PBytes> blobs, PArray array) throws IOException {
         writer.setTypeAnnotations(TYPE_ARRAY);
         writer.stepIn(IonType.LIST);
         for (var value : array) {
-            writeValue(writer, value);
+            writeValue(writer, blobs, value);
         }
         writer.stepOut();
     }
 
-    private void writeBytes(IonWriter writer, PBytes bytes) throws IOException {
-        writer.writeBlob(bytes.copyBytes());
+    private PBytes readBlobReference(IonReader reader, BlobReader blobs) throws Exception {
+        if (blobs == null) {
+            throw new IOException("Blob reference without blob data");
+        }
+        reader.stepIn();
+        reader.next();
+        int size = reader.intValue();
+        reader.stepOut();
+        return blobs.read(size);
+    }
+
+    private void writeBytes(IonWriter writer, List<PBytes> blobs, PBytes bytes) throws IOException {
+        if (blobs != null && bytes.size() >= BLOB_THRESHOLD) {
+            // data written by the transport after the Ion stream
+            writer.setTypeAnnotations(BLOB_REF);
+            writer.stepIn(IonType.SEXP);
+            writer.writeInt(bytes.size());
+            writer.stepOut();
+            blobs.add(bytes);
+        } else {
+            writer.writeBlob(bytes.copyBytes());
+        }
     }
 
-    private void writeSend(IonWriter writer, Message.Send message) throws IOException {
+    private void writeSend(IonWriter writer, List<PBytes> blobs, Message.Send message) throws IOException {
         writer.addTypeAnnotation(SEND);
         writer.stepIn(IonType.STRUCT);
         writer.setFieldName(FIELD_MATCH_ID);
         writer.writeInt(message.matchID());
         writer.setFieldName(FIELD_TO);
-        writer.writeString(message.to().toString());
+        writer.writeSymbol(message.to().toString());
         writer.setFieldName(FIELD_FROM);
-        writer.writeString(message.from().toString());
+        writer.writeSymbol(message.from().toString());
         var args = message.args();
         if (!args.isEmpty()) {
             writer.setFieldName(FIELD_ARGS);
-            writeValues(writer, message.args());
+            writeValues(writer, blobs, message.args());
         }
         var data = message.data();
         if (!data.isEmpty()) {
             writer.setFieldName(FIELD_DATA);
-            writeMap(writer, message.data());
+            writeMap(writer, blobs, message.data());
         }
         writer.stepOut();
     }
 
-    private void writeService(IonWriter writer, Message.Service message) throws IOException {
+    private void writeService(IonWriter writer, List<PBytes> blobs, Message.Service message) throws IOException {
         writer.addTypeAnnotation(SERVICE);
         writer.stepIn(IonType.STRUCT);
         writer.setFieldName(FIELD_MATCH_ID);
         writer.writeInt(message.matchID());
         writer.setFieldName(FIELD_SERVICE);
-        writer.writeString(message.service());
+        writer.writeSymbol(message.service());
         writer.setFieldName(FIELD_CONTROL);
-        writer.writeString(message.control());
+        writer.writeSymbol(message.control());
         writer.setFieldName(FIELD_FROM);
-        writer.writeString(message.from().toString());
+        writer.writeSymbol(message.from().toString());
         var args = message.args();
         if (!args.isEmpty()) {
             writer.setFieldName(FIELD_ARGS);
-            writeValues(writer, message.args());
+            writeValues(writer, blobs, message.args());
         }
         var data = message.data();
         if (!data.isEmpty()) {
             writer.setFieldName(FIELD_DATA);
-            writeMap(writer, message.data());
+            writeMap(writer, blobs, message.data());
         }
         writer.stepOut();
     }
 
-    private void writeReply(IonWriter writer, Message.Reply message) throws IOException {
+    private void writeReply(IonWriter writer, List<PBytes> blobs, Message.Reply message) throws IOException {
         writer.addTypeAnnotation(REPLY);
         writer.stepIn(IonType.STRUCT);
         writer.setFieldName(FIELD_MATCH_ID);
@@ -481,17 +538,17 @@ class IonCodec {
         var args = message.args();
         if (!args.isEmpty()) {
             writer.setFieldName(FIELD_ARGS);
-            writeValues(writer, message.args());
+            writeValues(writer, blobs, message.args());
         }
         var data = message.data();
         if (!data.isEmpty()) {
             writer.setFieldName(FIELD_DATA);
-            writeMap(writer, message.data());
+            writeMap(writer, blobs, message.data());
         }
         writer.stepOut();
     }
 
-    private void writeError(IonWriter writer, Message.Error message) throws IOException {
+    private void writeError(IonWriter writer, List<PBytes> blobs, Message.Error message) throws IOException {
         writer.addTypeAnnotation(ERROR);
         writer.stepIn(IonType.STRUCT);
         writer.setFieldName(FIELD_MATCH_ID);
@@ -499,27 +556,27 @@ class IonCodec {
         var args = message.args();
         if (!args.isEmpty()) {
             writer.setFieldName(FIELD_ARGS);
-            writeValues(writer, message.args());
+            writeValues(writer, blobs, message.args());
         }
         var data = message.data();
         if (!data.isEmpty()) {
             writer.setFieldName(FIELD_DATA);
-            writeMap(writer, message.data());
+            writeMap(writer, blobs, message.data());
         }
         writer.stepOut();
     }
 
-    private void writeSystem(IonWriter writer, Message.System message) throws IOException {
+    private void writeSystem(IonWriter writer, List<PBytes> blobs, Message.System message) throws IOException {
         writer.addTypeAnnotation(SYSTEM);
         writer.stepIn(IonType.STRUCT);
         writer.setFieldName(FIELD_MATCH_ID);
         writer.writeInt(message.matchID());
         writer.setFieldName(FIELD_TYPE);
-        writer.writeString(message.type());
+        writer.writeSymbol(message.type());
         var data = message.data();
         if (!data.isEmpty()) {
             writer.setFieldName(FIELD_DATA);
-            writeMap(writer, message.data());
+            writeMap(writer, blobs, message.data());
         }
         writer.stepOut();
     }
@@ -528,4 +585,138 @@ class IonCodec {
         return DEFAULT;
     }
 
+    /**
+     * Writes batches of messages as a single continuous Ion stream. The output
+     * of each call is only readable by a {@link StreamReader} that has read
+     * all previous output of this writer. Not thread safe.
+     */
+    final class StreamWriter {
+
+        private final ByteArrayOutputStream buffer;
+
+        private IonWriter writer;
+
+        private StreamWriter() {
+            buffer = new ByteArrayOutputStream();
+        }
+
+        void writeMessages(List<Message> messages, OutputStream out) throws IOException {
+            writeMessages(messages, out, null);
+        }
+
+        /**
+         * Write messages, adding any PBytes at or above the blob threshold to
+         * the provided list rather than writing them inline. The caller must
+         * transmit the data of the blobs, in order, after the written stream
+         * data.
+         *
+         * @param messages messages to write
+         * @param out output for stream data
+         * @param blobs list to add blobs to, or null to write all inline
+         * @throws IOException on write error
+         */
+        void writeMessages(List<Message> messages, OutputStream out,
+                List<PBytes> blobs) throws IOException {
+            if (writer == null) {
+                writer = streamWriterBuilder.build(buffer);
+            }
+            try {
+                IonCodec.this.writeMessages(writer, blobs, messages);
+                if (writer.getSymbolTable().getMaxId() > MAX_STREAM_SYMBOLS) {
+                    // next batch starts a new stream and symbol table
+                    writer.finish();
+                } else {
+                    writer.flush();
+                }
+                buffer.writeTo(out);
+            } catch (IOException | RuntimeException ex) {
+                // partial value - next batch must start a new stream
+                writer = null;
+                throw ex;
+            } finally {
+                buffer.reset();
+            }
+        }
+
+    }
+
+    /**
+     * Reads batches of messages written by a {@link StreamWriter}, or by
+     * {@link #writeMessages(java.util.List, java.io.OutputStream)}. Each
+     * input must contain only complete values. Not thread safe.
+     */
+    final class StreamReader {
+
+        private final BatchInputStream input;
+
+        private IonReader reader;
+
+        private StreamReader() {
+            input = new BatchInputStream();
+        }
+
+        void readMessages(InputStream in, Consumer<Message> out) throws IOException {
+            readMessages(in, null, out);
+        }
+
+        /**
+         * Read messages, obtaining the data of any blob references from the
+         * provided blob reader.
+         *
+         * @param in input of stream data
+         * @param blobs source of blob data, or null if none expected
+         * @param out consumer of read messages
+         * @throws IOException on read error
+         */
+        void readMessages(InputStream in, BlobReader blobs, Consumer<Message> out)
+                throws IOException {
+            if (reader == null) {
+                reader = streamReaderBuilder.build(input);
+            }
+            input.in = in;
+            try {
+                while (reader.next() != null) {
+                    out.accept(readMessage(reader, blobs));
+                }
+            } catch (IOException | RuntimeException ex) {
+                reader = null;
+                throw ex;
+            } finally {
+                input.in = null;
+            }
+        }
+
+    }
+
+    /**
+     * Source of blob data written outside of the Ion stream.
+     */
+    @FunctionalInterface
+    static interface BlobReader {
+
+        PBytes read(int size) throws IOException;
+
+    }
+
+    private static class BatchInputStream extends InputStream {
+
+        private InputStream in;
+
+        @Override
+        public int read() throws IOException {
+            return in == null ? -1 : in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in == null ? -1 : in.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in == null ? 0 : in.available();
+        }
+
+    }
+
 }
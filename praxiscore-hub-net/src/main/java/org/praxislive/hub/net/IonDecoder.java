@@ -25,29 +25,84 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import java.io.IOException;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import org.praxislive.core.types.PBytes;
 
+/**
+ * Decodes frames written by {@link IonEncoder}, including blob frames. Blob
+ * data is copied once, directly from the frame into the backing array of the
+ * PBytes.
+ */
 class IonDecoder extends LengthFieldBasedFrameDecoder {
 
+    private final IonCodec.StreamReader reader;
+
     IonDecoder() {
-        super(10 * 1048576, 0, 4, 0, 4);
+        super(10 * 1048576, 0, 4, 0, 0);
+        reader = IonCodec.getDefault().createStreamReader();
+    }
+
+    @Override
+    protected long getUnadjustedFrameLength(ByteBuf buf, int offset, int length, ByteOrder order) {
+        return super.getUnadjustedFrameLength(buf, offset, length, order)
+                & ~IonEncoder.BLOB_FRAME;
     }
 
     @Override
     protected List<Message> decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
-        ByteBuf bytes = (ByteBuf) super.decode(ctx, in);
+        ByteBuf frame = (ByteBuf) super.decode(ctx, in);
 
-        if (bytes == null) {
+        if (frame == null) {
             return null;
         }
 
+        int frameSize = frame.readableBytes();
         List<Message> messages = new ArrayList<>();
-        try (var stream = new ByteBufInputStream(bytes, true)) {
-            IonCodec.getDefault().readMessages(stream, messages::add);
+        try {
+            int header = frame.readInt();
+            if ((header & IonEncoder.BLOB_FRAME) != 0) {
+                ByteBuf ion = frame.readSlice(frame.readInt());
+                reader.readMessages(new ByteBufInputStream(ion),
+                        size -> readBlob(frame, size),
+                        messages::add);
+            } else {
+                reader.readMessages(new ByteBufInputStream(frame), messages::add);
+            }
+        } finally {
+            frame.release();
+        }
+        var stats = ctx.channel().attr(ConnectionStatistics.KEY).get();
+        if (stats != null) {
+            stats.frameIn(frameSize, messages.size());
         }
         return List.copyOf(messages);
 
     }
 
+    private PBytes readBlob(ByteBuf frame, int size) throws IOException {
+        if (size > frame.readableBytes()) {
+            throw new IOException("Blob data missing from frame");
+        }
+        return new BlobOutputStream(size).readFrom(frame);
+    }
+
+    private static class BlobOutputStream extends PBytes.OutputStream {
+
+        private BlobOutputStream(int size) {
+            super(size);
+        }
+
+        private PBytes readFrom(ByteBuf frame) {
+            // copy straight into the array that will back the PBytes
+            int size = buf.length;
+            frame.readBytes(buf, 0, size);
+            count = size;
+            return toBytes();
+        }
+
+    }
+
 }
@@ -23,25 +23,102 @@ package org.praxislive.hub.net;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import java.util.ArrayList;
 import java.util.List;
+import org.praxislive.core.types.PBytes;
 
-class IonEncoder extends MessageToByteEncoder<List<Message>> {
+/**
+ * Encodes lists of messages into length prefixed frames. Once streaming is
+ * enabled, PBytes values at or above {@link IonCodec#BLOB_THRESHOLD} are
+ * written as blob frames : the length prefix is flagged with
+ * {@link #BLOB_FRAME}, followed by the length of the Ion data, the Ion data,
+ * and the data of each blob in order. Blob data is wrapped rather than copied.
+ */
+class IonEncoder extends MessageToMessageEncoder<List<Message>> {
 
-    @Override
-    protected void encode(ChannelHandlerContext ctx, List<Message> messages, ByteBuf out) throws Exception {
-        int start = out.writerIndex();
+    static final int BLOB_FRAME = 0x80000000;
 
-        try (var stream = new ByteBufOutputStream(out)) {
-            stream.writeInt(0);
-            IonCodec.getDefault().writeMessages(messages, stream);
-        }
+    private final List<PBytes> blobs;
 
-        int end = out.writerIndex();
+    private IonCodec.StreamWriter streamWriter;
+
+    IonEncoder() {
+        blobs = new ArrayList<>();
+    }
+
+    /**
+     * Write all subsequent frames as one continuous Ion stream, with a shared
+     * symbol table, and large PBytes as blob frames. Must only be enabled when
+     * the remote is known to decode with an {@link IonDecoder} that supports
+     * this, and must be called on the channel's event loop, after the last
+     * frame to be written independently.
+     */
+    void enableStreaming() {
+        if (streamWriter == null) {
+            streamWriter = IonCodec.getDefault().createStreamWriter();
+        }
+    }
 
-        out.setInt(start, end - start - 4);
+    @Override
+    protected void encode(ChannelHandlerContext ctx, List<Message> messages, List<Object> out) throws Exception {
+        ByteBuf buf = ctx.alloc().ioBuffer();
+        try {
+            if (streamWriter != null) {
+                encodeStream(ctx, messages, buf, out);
+            } else {
+                try (var stream = new ByteBufOutputStream(buf)) {
+                    stream.writeInt(0);
+                    IonCodec.getDefault().writeMessages(messages, stream);
+                }
+                buf.setInt(0, buf.writerIndex() - 4);
+                out.add(buf);
+            }
+            var stats = ctx.channel().attr(ConnectionStatistics.KEY).get();
+            if (stats != null) {
+                stats.frameOut(((ByteBuf) out.get(out.size() - 1)).readableBytes(),
+                        messages.size());
+            }
+        } catch (Exception ex) {
+            buf.release();
+            throw ex;
+        } finally {
+            blobs.clear();
+        }
+    }
 
+    private void encodeStream(ChannelHandlerContext ctx, List<Message> messages,
+            ByteBuf buf, List<Object> out) throws Exception {
+        // reserve space for blob frame header
+        try (var stream = new ByteBufOutputStream(buf)) {
+            stream.writeInt(0);
+            stream.writeInt(0);
+            streamWriter.writeMessages(messages, stream, blobs);
+        }
+        int ionLength = buf.writerIndex() - 8;
+        if (blobs.isEmpty()) {
+            buf.setInt(4, ionLength);
+            buf.readerIndex(4);
+            out.add(buf);
+        } else {
+            long length = 4L + ionLength;
+            for (PBytes blob : blobs) {
+                length += blob.size();
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Frame too large");
+            }
+            buf.setInt(0, BLOB_FRAME | (int) length);
+            buf.setInt(4, ionLength);
+            var composite = ctx.alloc().compositeBuffer(blobs.size() + 1);
+            composite.addComponent(true, buf);
+            for (PBytes blob : blobs) {
+                composite.addComponent(true, Unpooled.wrappedBuffer(blob.asByteBuffer()));
+            }
+            out.add(composite);
+        }
     }
 
 }
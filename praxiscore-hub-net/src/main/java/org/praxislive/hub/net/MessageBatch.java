@@ -0,0 +1,127 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub.net;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.praxislive.core.ControlAddress;
+
+/**
+ * Pending outbound messages for a single remote, written as one frame when
+ * flushed. Optionally coalesces value sends to the same control address,
+ * keeping only the latest.
+ */
+final class MessageBatch {
+
+    private final List<Message> messages;
+    private final Map<ControlAddress, Integer> coalescable;
+
+    private SocketAddress remote;
+    private int size;
+    private long startTime;
+
+    MessageBatch() {
+        messages = new ArrayList<>();
+        coalescable = new HashMap<>();
+    }
+
+    /**
+     * Add a message to the batch. If coalesce is true and the message is a
+     * send, any earlier coalescable send to the same control address still in
+     * the batch is removed and returned.
+     *
+     * @param remote remote address
+     * @param message message
+     * @param coalesce whether the message may replace an earlier send
+     * @param time current time, used to track the age of the batch
+     * @return replaced message or null
+     * @throws IllegalStateException if the batch is not empty and has a
+     * different remote address
+     */
+    Message add(SocketAddress remote, Message message, boolean coalesce, long time) {
+        if (size == 0) {
+            this.remote = remote;
+            this.startTime = time;
+        } else if (!Objects.equals(this.remote, remote)) {
+            throw new IllegalStateException("Batch remote address mismatch");
+        }
+        Message replaced = null;
+        if (message instanceof Message.Send send) {
+            Integer previous;
+            if (coalesce) {
+                previous = coalescable.put(send.to(), messages.size());
+            } else {
+                // ordering matters for anything else sent to this control
+                previous = null;
+                coalescable.remove(send.to());
+            }
+            if (previous != null) {
+                replaced = messages.set(previous, null);
+                size--;
+            }
+        }
+        messages.add(message);
+        size++;
+        return replaced;
+    }
+
+    /**
+     * Remove and return all pending messages in order. The batch is empty
+     * after this call.
+     *
+     * @return pending messages
+     */
+    List<Message> drain() {
+        List<Message> list = new ArrayList<>(size);
+        for (Message message : messages) {
+            if (message != null) {
+                list.add(message);
+            }
+        }
+        messages.clear();
+        coalescable.clear();
+        remote = null;
+        size = 0;
+        return list;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    SocketAddress remote() {
+        return remote;
+    }
+
+    long startTime() {
+        return startTime;
+    }
+
+}
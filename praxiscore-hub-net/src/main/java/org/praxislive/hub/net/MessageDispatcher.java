@@ -21,20 +21,23 @@
  */
 package org.praxislive.hub.net;
 
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 import java.net.SocketAddress;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import org.praxislive.core.Call;
 import org.praxislive.core.ComponentAddress;
 import org.praxislive.core.ControlAddress;
 import org.praxislive.core.Protocol;
+import org.praxislive.core.Settings;
 import org.praxislive.core.services.Service;
 import org.praxislive.core.services.ServiceUnavailableException;
 import org.praxislive.core.types.PError;
+import org.praxislive.core.types.PMap;
 
 import static java.lang.System.Logger.Level;
 
@@ -50,21 +53,81 @@ abstract class MessageDispatcher {
 
     }
 
-    private static record ReceivedMessageInfo(Message message, SocketAddress sender) {
+    private static record ReceivedMessageInfo(Message message, SocketAddress sender,
+            long receivedTime) {
 
     }
 
     final static String SYS_PREFIX = "/_sys";
 
-    private final Map<Integer, SentCallInfo> sentCalls;
-    private final Map<Integer, ReceivedMessageInfo> receivedMessages;
+    /**
+     * Settings key for the maximum number of messages in an outbound batch.
+     */
+    final static String KEY_BATCH_SIZE = "hub.network.batch.size";
+    /**
+     * Settings key for the maximum time in milliseconds an outbound batch is
+     * held open.
+     */
+    final static String KEY_BATCH_DELAY = "hub.network.batch.delay";
+    /**
+     * Settings key to enable coalescing of quiet calls to the same control
+     * within a batch.
+     */
+    final static String KEY_BATCH_COALESCE = "hub.network.batch.coalesce";
+    /**
+     * Settings key for the maximum number of sent calls awaiting a response.
+     */
+    final static String KEY_LIMIT_SENT = "hub.network.limit.sent";
+    /**
+     * Settings key for the maximum number of received messages awaiting a
+     * response.
+     */
+    final static String KEY_LIMIT_RECEIVED = "hub.network.limit.received";
+
+    final static int BATCH_SIZE = Math.max(1, Settings.getInt(KEY_BATCH_SIZE, 64));
+    final static long BATCH_DELAY = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(0, Settings.getInt(KEY_BATCH_DELAY, 5)));
+    final static boolean BATCH_COALESCE = Settings.getBoolean(KEY_BATCH_COALESCE, false);
+
+    final static int MAX_SENT_CALLS = Math.max(1, Settings.getInt(KEY_LIMIT_SENT, 65536));
+    final static int MAX_RECEIVED_MESSAGES = Math.max(1, Settings.getInt(KEY_LIMIT_RECEIVED, 65536));
+
+    private final IntObjectMap<SentCallInfo> sentCalls;
+    private final IntObjectMap<ReceivedMessageInfo> receivedMessages;
+    private final MessageBatch batch;
+    private final long timeout;
+    private final int maxSentCalls;
+    private final int maxReceivedMessages;
+
+    private ExpiryWheel sentExpiry;
+    private ExpiryWheel receivedExpiry;
+    private long sentTimeouts;
+    private long receivedTimeouts;
+    private long orphanedResponses;
+    private long rejectedCalls;
 
     MessageDispatcher() {
-        sentCalls = new LinkedHashMap<>();
-        receivedMessages = new HashMap<>();
+        this(TimeUnit.SECONDS.toNanos(NetworkCoreRoot.TIMEOUT),
+                MAX_SENT_CALLS, MAX_RECEIVED_MESSAGES);
     }
 
-    abstract void dispatchMessage(SocketAddress remote, Message msg) throws Exception;
+    MessageDispatcher(long timeout, int maxSentCalls, int maxReceivedMessages) {
+        this.timeout = timeout;
+        this.maxSentCalls = maxSentCalls;
+        this.maxReceivedMessages = maxReceivedMessages;
+        sentCalls = new IntObjectHashMap<>();
+        receivedMessages = new IntObjectHashMap<>();
+        batch = new MessageBatch();
+    }
+
+    abstract void dispatchMessages(SocketAddress remote, List<Message> msgs) throws Exception;
+
+    /**
+     * Request that {@link #flush()} is called soon, after any other pending
+     * work in the current cycle. Called when the first message is added to an
+     * empty batch.
+     */
+    abstract void requestFlush();
 
     abstract void dispatchCall(Call call);
 
@@ -90,12 +153,8 @@ abstract class MessageDispatcher {
             }
         } catch (Exception e) {
             if (msg instanceof Message.Send || msg instanceof Message.Service) {
-                try {
-                    dispatchMessage(sender, new Message.Error(msg.matchID(),
-                            List.of(PError.of(e))));
-                } catch (Exception ex) {
-                    LOG.log(Level.WARNING, "Unable to dispatch error message", ex);
-                }
+                dispatchMessage(sender, new Message.Error(msg.matchID(),
+                        List.of(PError.of(e))), false);
             } else {
                 LOG.log(Level.WARNING, "Unable to handle message", e);
             }
@@ -114,24 +173,119 @@ abstract class MessageDispatcher {
         handleServiceCallImpl(call, serviceName, serviceControl);
     }
 
-    void purge(long time, TimeUnit unit) {
-        long ago = unit.toNanos(time);
+    /**
+     * Write all pending outbound messages. Calls for which the messages cannot
+     * be written are completed with an error.
+     */
+    void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        var remote = batch.remote();
+        var msgs = batch.drain();
+        try {
+            dispatchMessages(remote, msgs);
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Unable to dispatch messages", ex);
+            for (var msg : msgs) {
+                if (msg instanceof Message.Send || msg instanceof Message.Service) {
+                    SentCallInfo info = sentCalls.remove(msg.matchID());
+                    if (info != null) {
+                        dispatchCall(info.localCall().error(PError.of(ex)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Complete sent calls that have not received a response within the timeout
+     * with an error, and stop tracking received messages that have not been
+     * responded to within the timeout.
+     */
+    void purge() {
+        long now = getTime();
+        long cutoff = now - timeout;
+        if (sentExpiry != null) {
+            sentExpiry.expire(cutoff, id -> {
+                SentCallInfo info = sentCalls.get(id);
+                if (info == null) {
+                    return true;
+                }
+                if ((now - info.localCallTime()) < timeout) {
+                    return false;
+                }
+                sentCalls.remove(id);
+                sentTimeouts++;
+                LOG.log(Level.TRACE, "Purging call\n{0}", info.localCall());
+                dispatchCall(info.localCall().error(PError.of("Timeout")));
+                return true;
+            });
+        }
+        if (receivedExpiry != null) {
+            receivedExpiry.expire(cutoff, id -> {
+                ReceivedMessageInfo info = receivedMessages.get(id);
+                if (info == null) {
+                    return true;
+                }
+                if ((now - info.receivedTime()) < timeout) {
+                    return false;
+                }
+                receivedMessages.remove(id);
+                receivedTimeouts++;
+                LOG.log(Level.TRACE, "Purging received message\n{0}", info.message());
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Complete all sent calls with an error, and stop tracking all received
+     * messages.
+     */
+    void purgeAll() {
         long now = getTime();
-        Iterator<SentCallInfo> itr = sentCalls.values().iterator();
-        while (itr.hasNext()) {
-            SentCallInfo info = itr.next();
-            if ((now - info.localCallTime()) < ago) {
-                LOG.log(Level.TRACE, "No calls to purge");
-                break;
+        if (!sentCalls.isEmpty()) {
+            List<SentCallInfo> infos = new ArrayList<>(sentCalls.values());
+            infos.sort(Comparator.comparingLong(SentCallInfo::localCallTime));
+            sentCalls.clear();
+            for (SentCallInfo info : infos) {
+                sentTimeouts++;
+                LOG.log(Level.TRACE, "Purging call\n{0}", info.localCall());
+                dispatchCall(info.localCall().error(PError.of("Timeout")));
             }
-            itr.remove();
-            LOG.log(Level.TRACE, "Purging call\n{0}", info.localCall());
-            Call err = info.localCall().error(PError.of("Timeout"));
-            dispatchCall(err);
+        }
+        receivedTimeouts += receivedMessages.size();
+        receivedMessages.clear();
+        if (sentExpiry != null) {
+            sentExpiry.clear(now);
+        }
+        if (receivedExpiry != null) {
+            receivedExpiry.clear(now);
         }
     }
 
+    /**
+     * Statistics of tracked calls and messages. Includes the number currently
+     * pending in each direction, the number of timeouts in each direction,
+     * the number of responses received for calls or messages no longer
+     * tracked, and the number of calls rejected because a limit was reached.
+     *
+     * @return statistics map
+     */
+    PMap statistics() {
+        return PMap.builder()
+                .put("sent-pending", sentCalls.size())
+                .put("sent-timeouts", (double) sentTimeouts)
+                .put("received-pending", receivedMessages.size())
+                .put("received-timeouts", (double) receivedTimeouts)
+                .put("orphaned-responses", (double) orphanedResponses)
+                .put("rejected-calls", (double) rejectedCalls)
+                .build();
+    }
+
     private void handleSendMessage(SocketAddress sender, Message.Send msg) throws Exception {
+        checkReceivedLimit();
         var to = msg.to();
         var from = msg.from();
         String fromString = from.toString();
@@ -140,11 +294,12 @@ abstract class MessageDispatcher {
             from = ControlAddress.parse(fromString);
         }
         Call call = Call.create(to, from, getTime(), msg.args());
+        trackReceived(call, msg, sender);
         dispatchCall(call);
-        receivedMessages.put(call.matchID(), new ReceivedMessageInfo(msg, sender));
     }
 
     private void handleServiceMessage(SocketAddress sender, Message.Service msg) throws Exception {
+        checkReceivedLimit();
         Class<? extends Service> service = Protocol.Type.fromName(msg.service())
                 .map(Protocol.Type::asClass)
                 .filter(Service.class::isAssignableFrom)
@@ -159,13 +314,14 @@ abstract class MessageDispatcher {
             from = ControlAddress.parse(fromString);
         }
         Call call = Call.create(to, from, getTime(), msg.args());
+        trackReceived(call, msg, sender);
         dispatchCall(call);
-        receivedMessages.put(call.matchID(), new ReceivedMessageInfo(msg, sender));
     }
 
     private void handleReplyMessage(SocketAddress sender, Message.Reply msg) throws Exception {
         SentCallInfo info = sentCalls.remove(msg.matchID());
         if (info == null) {
+            orphanedResponses++;
             LOG.log(Level.DEBUG, "Unexpected message response\n{0}", msg);
             return;
         }
@@ -176,6 +332,7 @@ abstract class MessageDispatcher {
     private void handleErrorMessage(SocketAddress sender, Message.Error msg) throws Exception {
         SentCallInfo info = sentCalls.remove(msg.matchID());
         if (info == null) {
+            orphanedResponses++;
             LOG.log(Level.DEBUG, "Unexpected message response\n{0}", msg);
             return;
         }
@@ -190,46 +347,89 @@ abstract class MessageDispatcher {
             toString = toString.substring(getRemoteSysPrefix().length());
             to = ControlAddress.of(toString);
         }
-        try {
-            dispatchMessage(getPrimaryRemoteAddress(), new Message.Send(
-                    call.matchID(),
-                    to,
-                    call.from(),
-                    call.args()
-            ));
-            sentCalls.put(call.matchID(), new SentCallInfo(call, getTime()));
-        } catch (Exception ex) {
-            dispatchCall(call.error(PError.of(ex)));
+        if (!trackSent(call)) {
+            return;
         }
+        dispatchMessage(getPrimaryRemoteAddress(), new Message.Send(
+                call.matchID(),
+                to,
+                call.from(),
+                call.args()
+        ), BATCH_COALESCE && !call.isReplyRequired() && !call.args().isEmpty());
     }
 
     private void handleServiceCallImpl(Call call, String serviceName, String serviceControl) {
-        try {
-            dispatchMessage(getPrimaryRemoteAddress(), new Message.Service(
-                    call.matchID(),
-                    serviceName,
-                    serviceControl,
-                    call.from(),
-                    call.args()
-            ));
-            sentCalls.put(call.matchID(), new SentCallInfo(call, getTime()));
-        } catch (Exception ex) {
-            dispatchCall(call.error(PError.of(ex)));
+        if (!trackSent(call)) {
+            return;
         }
+        dispatchMessage(getPrimaryRemoteAddress(), new Message.Service(
+                call.matchID(),
+                serviceName,
+                serviceControl,
+                call.from(),
+                call.args()
+        ), false);
     }
 
     private void handleResponseCall(Call call) {
         var info = receivedMessages.remove(call.matchID());
         if (info == null) {
+            orphanedResponses++;
             LOG.log(Level.DEBUG, "Unexpected call response\n{0}", call);
             return;
         }
         Message msg = call.isError() ? new Message.Error(info.message().matchID(), call.args())
                 : new Message.Reply(info.message().matchID(), call.args());
-        try {
-            dispatchMessage(info.sender(), msg);
-        } catch (Exception ex) {
-            LOG.log(Level.WARNING, "Unable to send response", ex);
+        dispatchMessage(info.sender(), msg, false);
+    }
+
+    private boolean trackSent(Call call) {
+        if (sentCalls.size() >= maxSentCalls) {
+            rejectedCalls++;
+            LOG.log(Level.WARNING, "Too many pending calls, rejecting\n{0}", call);
+            dispatchCall(call.error(PError.of("Too many pending calls")));
+            return false;
+        }
+        long now = getTime();
+        if (sentExpiry == null) {
+            sentExpiry = new ExpiryWheel(timeout, now);
+        }
+        sentCalls.put(call.matchID(), new SentCallInfo(call, now));
+        sentExpiry.add(call.matchID(), now);
+        return true;
+    }
+
+    private void checkReceivedLimit() {
+        if (receivedMessages.size() >= maxReceivedMessages) {
+            rejectedCalls++;
+            throw new IllegalStateException("Too many pending calls");
+        }
+    }
+
+    private void trackReceived(Call call, Message msg, SocketAddress sender) {
+        long now = getTime();
+        if (receivedExpiry == null) {
+            receivedExpiry = new ExpiryWheel(timeout, now);
+        }
+        receivedMessages.put(call.matchID(), new ReceivedMessageInfo(msg, sender, now));
+        receivedExpiry.add(call.matchID(), now);
+    }
+
+    private void dispatchMessage(SocketAddress remote, Message msg, boolean coalesce) {
+        if (!batch.isEmpty() && !Objects.equals(batch.remote(), remote)) {
+            flush();
+        }
+        boolean wasEmpty = batch.isEmpty();
+        long now = getTime();
+        var replaced = batch.add(remote, msg, coalesce, now);
+        if (replaced != null) {
+            // superseded quiet call - no reply will be received
+            sentCalls.remove(replaced.matchID());
+        }
+        if (batch.size() >= BATCH_SIZE || (now - batch.startTime()) >= BATCH_DELAY) {
+            flush();
+        } else if (wasEmpty) {
+            requestFlush();
         }
     }
 
@@ -21,14 +21,13 @@
  */
 package org.praxislive.hub.net;
 
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import org.praxislive.hub.net.internal.HubConfigurationService;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.praxislive.base.AbstractAsyncControl;
 import org.praxislive.core.Call;
 import org.praxislive.core.ComponentAddress;
@@ -62,7 +61,7 @@ class NetworkCoreRoot extends BasicCoreRoot {
     private final ChildLauncher childLauncher;
     private final Map<String, String> remotes;
 
-    private EventLoopGroup clientEventLoopGroup;
+    private NetworkTransport transport;
     private HubConfiguration configuration;
     private FileServer fileServer;
 
@@ -108,6 +107,49 @@ class NetworkCoreRoot extends BasicCoreRoot {
             fileServer.stop();
             fileServer = null;
         }
+        if (transport != null) {
+            // proxies share the transport - let them say goodbye, shutting
+            // them all down before waiting so they terminate in parallel
+            proxies.forEach(proxy -> proxy.controller().shutdown());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+            for (var proxy : proxies) {
+                try {
+                    proxy.controller().awaitTermination(
+                            Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (Exception ex) {
+                    System.getLogger(NetworkCoreRoot.class.getName())
+                            .log(System.Logger.Level.WARNING, "Proxy termination", ex);
+                }
+            }
+            closeConnections();
+            transport.shutdown();
+            transport = null;
+        }
+    }
+
+    /**
+     * Hook called during termination, after the hub has shut down and before
+     * the shared transport is shut down. Subclasses with their own channels
+     * should flush and close them here. The default implementation does
+     * nothing.
+     */
+    void closeConnections() {
+    }
+
+    /**
+     * Access the network transport shared by all connections of this hub,
+     * creating it if necessary. Transport options are taken from the hub
+     * configuration if available at the time of creation, otherwise defaults
+     * are used.
+     *
+     * @return shared transport
+     */
+    NetworkTransport transport() {
+        if (transport == null) {
+            transport = NetworkTransport.create(configuration != null ? configuration
+                    : HubConfiguration.fromMap(PMap.EMPTY));
+        }
+        return transport;
     }
 
     private void ensureConfigured() {
@@ -125,7 +167,7 @@ class NetworkCoreRoot extends BasicCoreRoot {
             return;
         }
 
-        clientEventLoopGroup = new NioEventLoopGroup();
+        var transport = transport();
 
         var requireServer = configuration.isFileServerEnabled()
                 && proxyInfo.stream().anyMatch(p -> !p.isLocal());
@@ -135,7 +177,7 @@ class NetworkCoreRoot extends BasicCoreRoot {
             var id = PROXY_PREFIX + (i + 1);
             var info = proxyInfo.get(i);
             try {
-                var ctrl = installRoot(id, new ProxyClientRoot(info, clientEventLoopGroup,
+                var ctrl = installRoot(id, new ProxyClientRoot(info, transport,
                         services, childLauncher, serverInfo));
                 info.services().forEach(cls -> {
                     var address = ComponentAddress.of("/" + id + "/services/"
@@ -153,7 +195,8 @@ class NetworkCoreRoot extends BasicCoreRoot {
 
     private FileServer.Info activateFileServer() {
         try {
-            fileServer = new FileServer(Utils.getUserDirectory().toPath(), Utils.getFileServerPort());
+            fileServer = new FileServer(Utils.getUserDirectory().toPath(),
+                    Utils.getFileServerPort(), transport());
             return fileServer.start();
         } catch (IOException ex) {
             System.getLogger(NetworkCoreRoot.class.getName())
@@ -0,0 +1,131 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub.net;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.IoHandlerFactory;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollIoHandler;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.System.Logger.Level;
+
+/**
+ * Event loop group and channel configuration shared by all network
+ * connections of a hub.
+ */
+final class NetworkTransport {
+
+    private final static System.Logger LOG = System.getLogger(NetworkTransport.class.getName());
+
+    private final EventLoopGroup group;
+    private final boolean epoll;
+    private final boolean tcpNoDelay;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+
+    private NetworkTransport(HubConfiguration configuration, boolean epoll) {
+        this.epoll = epoll;
+        this.tcpNoDelay = configuration.isTcpNoDelay();
+        this.sendBufferSize = configuration.sendBufferSize();
+        this.receiveBufferSize = configuration.receiveBufferSize();
+        IoHandlerFactory factory = epoll ? EpollIoHandler.newFactory()
+                : NioIoHandler.newFactory();
+        group = new MultiThreadIoEventLoopGroup(configuration.eventLoopThreads(), factory);
+    }
+
+    EventLoopGroup group() {
+        return group;
+    }
+
+    boolean isNative() {
+        return epoll;
+    }
+
+    Bootstrap clientBootstrap() {
+        var bootstrap = new Bootstrap()
+                .group(group)
+                .channel(epoll ? EpollSocketChannel.class : NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, tcpNoDelay);
+        if (sendBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+        }
+        if (receiveBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+        }
+        return bootstrap;
+    }
+
+    ServerBootstrap serverBootstrap() {
+        Class<? extends ServerChannel> channel = epoll
+                ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+        var bootstrap = new ServerBootstrap()
+                .group(group)
+                .channel(channel)
+                .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+        if (sendBufferSize > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, sendBufferSize);
+        }
+        if (receiveBufferSize > 0) {
+            // must be set on the server channel to apply to window scaling
+            bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, receiveBufferSize);
+        }
+        return bootstrap;
+    }
+
+    void shutdown() {
+        try {
+            group.shutdownGracefully(100, 100, TimeUnit.MILLISECONDS).sync();
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Error shutting down network transport", ex);
+        }
+    }
+
+    static NetworkTransport create(HubConfiguration configuration) {
+        boolean epoll = configuration.isNativeTransportEnabled() && isEpollAvailable();
+        if (configuration.isNativeTransportEnabled() && !epoll) {
+            LOG.log(Level.DEBUG, "Native transport unavailable, using NIO");
+        }
+        return new NetworkTransport(configuration, epoll);
+    }
+
+    private static boolean isEpollAvailable() {
+        try {
+            return io.netty.channel.epoll.Epoll.isAvailable();
+        } catch (LinkageError error) {
+            // epoll classes are a required module, but the native library
+            // may fail to link on an unsupported platform
+            return false;
+        }
+    }
+
+}
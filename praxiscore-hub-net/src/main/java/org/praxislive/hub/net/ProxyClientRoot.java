@@ -21,13 +21,10 @@
  */
 package org.praxislive.hub.net;
 
-import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import java.net.SocketAddress;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -46,6 +43,7 @@ import org.praxislive.core.types.PArray;
 import org.praxislive.core.types.PError;
 import org.praxislive.core.types.PMap;
 import org.praxislive.core.types.PString;
+import org.praxislive.hub.BasicCoreRoot;
 
 import static java.lang.System.Logger.Level;
 import java.util.stream.Stream;
@@ -58,7 +56,7 @@ class ProxyClientRoot extends AbstractRoot {
     private final static System.Logger LOG = System.getLogger(ProxyClientRoot.class.getName());
 
     private final ProxyInfo proxyInfo;
-    private final EventLoopGroup eventLoopGroup;
+    private final NetworkTransport transport;
     private final List<Class<? extends Service>> exposedServices;
     private final ChildLauncher childLauncher;
     private final FileServer.Info fileServerInfo;
@@ -73,12 +71,12 @@ class ProxyClientRoot extends AbstractRoot {
     private String remoteSysPrefix;
 
     ProxyClientRoot(ProxyInfo proxyInfo,
-            EventLoopGroup eventLoopGroup,
+            NetworkTransport transport,
             List<Class<? extends Service>> exposedServices,
             ChildLauncher childLauncher,
             FileServer.Info fileServerInfo) {
         this.proxyInfo = proxyInfo;
-        this.eventLoopGroup = eventLoopGroup;
+        this.transport = transport;
         this.exposedServices = exposedServices;
         this.childLauncher = childLauncher;
         this.fileServerInfo = fileServerInfo;
@@ -97,19 +95,19 @@ class ProxyClientRoot extends AbstractRoot {
     @Override
     protected void terminating() {
         super.terminating();
+        dispatcher.flush();
         if (clientChannel != null) {
-            clientChannel.writeAndFlush(List.of(new Message.System(
-                    0,
-                    Message.System.GOODBYE,
-                    PMap.EMPTY
-            )));
+            try {
+                clientChannel.writeAndFlush(List.of(new Message.System(
+                        0,
+                        Message.System.GOODBYE,
+                        PMap.EMPTY
+                ))).await(100, TimeUnit.MILLISECONDS);
+            } catch (Exception ex) {
+                LOG.log(Level.WARNING, "Error closing down proxy client", ex);
+            }
         }
         dispose();
-        try {
-            eventLoopGroup.shutdownGracefully(100, 100, TimeUnit.MILLISECONDS).sync();
-        } catch (Exception ex) {
-            LOG.log(Level.WARNING, "Error closing down proxy client", ex);
-        }
         destroyChild();
     }
 
@@ -132,6 +130,11 @@ class ProxyClientRoot extends AbstractRoot {
                     case RootManagerService.REMOVE_ROOT:
                         removeRootControl.call(call, router);
                         break;
+                    case BasicCoreRoot.DISPATCH_STATISTICS:
+                        if (call.isReplyRequired()) {
+                            router.route(call.reply(statistics()));
+                        }
+                        break;
                     default:
                         throw new UnsupportedOperationException();
                 }
@@ -159,10 +162,11 @@ class ProxyClientRoot extends AbstractRoot {
 
     @Override
     protected void update() {
+        dispatcher.flush();
         var source = getExecutionContext();
         if ((source.getTime() - lastPurgeTime) > TimeUnit.SECONDS.toNanos(1)) {
 //            LOG.fine("Triggering dispatcher purge");
-            dispatcher.purge(NetworkCoreRoot.TIMEOUT, TimeUnit.SECONDS);
+            dispatcher.purge();
             lastPurgeTime = source.getTime();
         }
     }
@@ -172,12 +176,11 @@ class ProxyClientRoot extends AbstractRoot {
             checkAndExecChild();
             var helloLatch = new CountDownLatch(1);
             var receiver = new Receiver(helloLatch);
-            var bootstrap = new Bootstrap();
-            bootstrap.group(eventLoopGroup)
-                    .channel(NioSocketChannel.class)
+            var bootstrap = transport.clientBootstrap()
                     .handler(new ChannelInitializer() {
                         @Override
                         protected void initChannel(Channel ch) throws Exception {
+                            ch.attr(ConnectionStatistics.KEY).set(new ConnectionStatistics());
                             ch.pipeline().addLast(
                                     new IonEncoder(),
                                     new IonDecoder(),
@@ -274,6 +277,7 @@ class ProxyClientRoot extends AbstractRoot {
     private PMap buildHLOParams() {
         PMap.Builder params = PMap.builder();
         params.put(Utils.KEY_REMOTE_SERVICES, buildServices());
+        params.put(Utils.KEY_ION_STREAM, true);
         if (!proxyInfo.isLocal()) {
             params.put(Utils.KEY_MASTER_USER_DIRECTORY, Utils.getUserDirectory().toURI().toString());
             if (fileServerInfo != null) {
@@ -291,12 +295,25 @@ class ProxyClientRoot extends AbstractRoot {
                 .collect(PArray.collector());
     }
 
+    private PMap statistics() {
+        var stats = dispatcher.statistics();
+        var connection = clientChannel == null ? null
+                : clientChannel.attr(ConnectionStatistics.KEY).get();
+        if (connection != null) {
+            stats = PMap.merge(stats,
+                    PMap.of("connection", connection.toPMap()),
+                    PMap.REPLACE);
+        }
+        return stats;
+    }
+
     private void dispose() {
+        dispatcher.flush();
         if (clientChannel != null) {
             clientChannel.close();
             clientChannel = null;
         }
-        dispatcher.purge(0, TimeUnit.NANOSECONDS);
+        dispatcher.purgeAll();
     }
 
     private void destroyChild() {
@@ -336,11 +353,16 @@ class ProxyClientRoot extends AbstractRoot {
         }
 
         @Override
-        void dispatchMessage(SocketAddress remote, Message msg) throws Exception {
+        void dispatchMessages(SocketAddress remote, List<Message> msgs) throws Exception {
             if (!remote.equals(socketAddress)) {
                 throw new IllegalArgumentException("Unknown remote address");
             }
-            clientChannel.writeAndFlush(List.of(msg));
+            clientChannel.writeAndFlush(msgs);
+        }
+
+        @Override
+        void requestFlush() {
+            invokeLater(this::flush);
         }
 
         @Override
@@ -382,6 +404,11 @@ class ProxyClientRoot extends AbstractRoot {
         @Override
         protected void channelRead0(ChannelHandlerContext ctx, List<Message> msg) throws Exception {
             if (hloLatch != null) {
+                if (!msg.isEmpty() && msg.get(0) instanceof Message.System sys
+                        && Message.System.HELLO_OK.equals(sys.type())
+                        && sys.data().getBoolean(Utils.KEY_ION_STREAM, false)) {
+                    ctx.pipeline().get(IonEncoder.class).enableStreaming();
+                }
                 hloLatch.countDown();
                 hloLatch = null;
             }
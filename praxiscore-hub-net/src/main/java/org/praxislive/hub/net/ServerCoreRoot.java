@@ -21,14 +21,10 @@
  */
 package org.praxislive.hub.net;
 
-import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.URI;
@@ -42,6 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import org.praxislive.core.Call;
 import org.praxislive.core.ComponentAddress;
+import org.praxislive.core.Control;
 import org.praxislive.core.PacketRouter;
 import org.praxislive.core.Protocol;
 import org.praxislive.core.Root;
@@ -68,7 +65,6 @@ class ServerCoreRoot extends NetworkCoreRoot {
     private final ResourceResolver resourceResolver;
     private final Map<SocketAddress, Channel> connections;
 
-    private EventLoopGroup eventLoopGroup;
     private Channel serverChannel;
     private SocketAddress parent;
     private long lastPurgeTime;
@@ -97,15 +93,13 @@ class ServerCoreRoot extends NetworkCoreRoot {
     @Override
     protected void starting() {
         remoteSysPrefix = getAddress().toString() + "/_remote";
-        eventLoopGroup = new NioEventLoopGroup();
         try {
-            var bootstrap = new ServerBootstrap();
-            bootstrap.group(eventLoopGroup)
-                    .channel(NioServerSocketChannel.class)
+            var bootstrap = transport().serverBootstrap()
                     .localAddress(localAddress)
                     .childHandler(new ChannelInitializer() {
                         @Override
                         protected void initChannel(Channel ch) throws Exception {
+                            ch.attr(ConnectionStatistics.KEY).set(new ConnectionStatistics());
                             ch.pipeline().addLast(
                                     new IonEncoder(),
                                     new IonDecoder(),
@@ -132,23 +126,53 @@ class ServerCoreRoot extends NetworkCoreRoot {
 
     @Override
     protected void terminating() {
-        super.terminating();
+        try {
+            super.terminating();
+        } finally {
+            parent = null;
+        }
+    }
+
+    @Override
+    void closeConnections() {
+        dispatcher.flush();
         try {
             if (serverChannel != null) {
-                serverChannel.close();
-            }
-            if (eventLoopGroup != null) {
-                eventLoopGroup.shutdownGracefully(100, 100, TimeUnit.MILLISECONDS).sync();
+                serverChannel.close().sync();
             }
         } catch (Exception ex) {
             LOG.log(Level.WARNING, "Error shutting down server", ex);
         } finally {
             serverChannel = null;
-            eventLoopGroup = null;
-            parent = null;
         }
     }
 
+    @Override
+    protected void buildControlMap(Map<String, Control> ctrls) {
+        ctrls.put(DISPATCH_STATISTICS, (call, router) -> {
+            if (call.isReplyRequired()) {
+                router.route(call.reply(PMap.merge(
+                        getHubAccessor().dispatchStatistics(),
+                        PMap.of("network", PMap.merge(dispatcher.statistics(),
+                                PMap.of("connections", connectionStatistics()),
+                                PMap.REPLACE)),
+                        PMap.REPLACE)));
+            }
+        });
+        super.buildControlMap(ctrls);
+    }
+
+    private PMap connectionStatistics() {
+        var builder = PMap.builder();
+        connections.forEach((remote, channel) -> {
+            var stats = channel.attr(ConnectionStatistics.KEY).get();
+            if (stats != null) {
+                builder.put(String.valueOf(remote), stats.toPMap());
+            }
+        });
+        return builder.build();
+    }
+
     @Override
     protected void processCall(Call call, PacketRouter router) {
         var address = getAddress();
@@ -171,10 +195,11 @@ class ServerCoreRoot extends NetworkCoreRoot {
     @Override
     protected void update() {
         super.update();
+        dispatcher.flush();
         long time = getExecutionContext().getTime();
         if ((time - lastPurgeTime) > TimeUnit.SECONDS.toNanos(1)) {
             LOG.log(Level.TRACE, "Triggering dispatcher purge");
-            dispatcher.purge(NetworkCoreRoot.TIMEOUT, TimeUnit.SECONDS);
+            dispatcher.purge();
             lastPurgeTime = time;
         }
     }
@@ -230,11 +255,18 @@ class ServerCoreRoot extends NetworkCoreRoot {
         }
         try {
             if (validate(sender) && handleHelloData(sender, helloMessage.data())) {
-                connections.get(sender).writeAndFlush(List.of(new Message.System(
+                var channel = connections.get(sender);
+                boolean stream = helloMessage.data().getBoolean(Utils.KEY_ION_STREAM, false);
+                channel.writeAndFlush(List.of(new Message.System(
                         helloMessage.matchID(),
                         Message.System.HELLO_OK,
-                        PMap.EMPTY
+                        stream ? PMap.of(Utils.KEY_ION_STREAM, true) : PMap.EMPTY
                 )));
+                if (stream) {
+                    // event loop tasks run in order, so after HELLO_OK is written
+                    channel.eventLoop().execute(() ->
+                            channel.pipeline().get(IonEncoder.class).enableStreaming());
+                }
                 parent = sender;
                 return true;
             }
@@ -316,8 +348,13 @@ class ServerCoreRoot extends NetworkCoreRoot {
         }
 
         @Override
-        void dispatchMessage(SocketAddress remote, Message msg) {
-            connections.get(remote).writeAndFlush(List.of(msg));
+        void dispatchMessages(SocketAddress remote, List<Message> msgs) {
+            connections.get(remote).writeAndFlush(msgs);
+        }
+
+        @Override
+        void requestFlush() {
+            invokeLater(this::flush);
         }
 
         @Override
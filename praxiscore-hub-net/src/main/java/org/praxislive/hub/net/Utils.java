@@ -18,6 +18,7 @@ class Utils {
     final static String KEY_MASTER_USER_DIRECTORY = "master-user-directory";
     final static String KEY_FILE_SERVER_PORT = "file-server-port";
     final static String KEY_REMOTE_SERVICES = "remote-services";
+    final static String KEY_ION_STREAM = "ion-stream";
         
     private final static File USER_DIRECTORY = new File(System.getProperty("user.home", "")).getAbsoluteFile();
     // @TODO make user configurable.
@@ -24,7 +24,10 @@ package org.praxislive.hub.net;
 import com.amazon.ion.IonWriter;
 import com.amazon.ion.system.IonSystemBuilder;
 import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -210,6 +213,64 @@ public class IonCodecTest {
         assertEquals(bytes, byteProp);
     }
 
+    @Test
+    public void testStreaming() throws Exception {
+        var codec = IonCodec.getDefault();
+        var writer = codec.createStreamWriter();
+        var reader = codec.createStreamReader();
+        var from = ControlAddress.of("/root2.process");
+        int[] sizes = new int[3];
+        for (int batch = 0; batch < 3; batch++) {
+            List<Message> messages = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                messages.add(new Message.Send(batch * 8 + i,
+                        ControlAddress.of("/root1/cmp" + i + ".value"),
+                        from,
+                        List.of(PNumber.of(batch), PMap.of("key", i))));
+            }
+            messages.add(new Message.Reply(batch, List.of(PString.of("OK"))));
+            var bos = new ByteArrayOutputStream();
+            writer.writeMessages(messages, bos);
+            byte[] data = bos.toByteArray();
+            sizes[batch] = data.length;
+            List<Message> decoded = new ArrayList<>();
+            reader.readMessages(new ByteArrayInputStream(data), decoded::add);
+            assertEquals(messages, decoded);
+        }
+        // symbols are written once and referenced by ID in later batches
+        assertTrue(sizes[1] < sizes[0]);
+        assertEquals(sizes[1], sizes[2]);
+
+        // a stream reader can also read independently written batches
+        var msg = new Message.System(1, "STATUS", PMap.of("active", true));
+        List<Message> decoded = new ArrayList<>();
+        reader.readMessages(new ByteArrayInputStream(
+                codec.writeMessages(List.of(msg))), decoded::add);
+        assertEquals(List.of(msg), decoded);
+    }
+
+    @Test
+    public void testStreamingSymbolReset() throws Exception {
+        var codec = IonCodec.getDefault();
+        var writer = codec.createStreamWriter();
+        var reader = codec.createStreamReader();
+        var from = ControlAddress.of("/root2.process");
+        for (int batch = 0; batch < 3; batch++) {
+            List<Message> messages = new ArrayList<>();
+            for (int i = 0; i < 2500; i++) {
+                messages.add(new Message.Send(i,
+                        ControlAddress.of("/root1/cmp" + batch + "-" + i + ".value"),
+                        from,
+                        List.of()));
+            }
+            var bos = new ByteArrayOutputStream();
+            writer.writeMessages(messages, bos);
+            List<Message> decoded = new ArrayList<>();
+            reader.readMessages(new ByteArrayInputStream(bos.toByteArray()), decoded::add);
+            assertEquals(messages, decoded);
+        }
+    }
+
     private List<Message> roundTrip(List<Message> messages) throws Exception {
         byte[] data = IonCodec.getDefault().writeMessages(messages);
         if (VERBOSE) {
@@ -27,6 +27,7 @@ import io.netty.channel.embedded.EmbeddedChannel;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.praxislive.core.types.PBytes;
 import org.praxislive.core.types.PMap;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,4 +56,63 @@ public class IonEncoderTest {
         assertEquals(msg, decoded.get(0));
     }
 
+    @Test
+    public void testStreaming() throws Exception {
+        Message.System msg1 = new Message.System(1, "TEST", PMap.of("key1", "value1"));
+        Message.System msg2 = new Message.System(2, "TEST", PMap.of("key1", "value2"));
+        Message.System msg3 = new Message.System(3, "TEST", PMap.of("key1", "value3"));
+
+        IonEncoder encoder = new IonEncoder();
+        EmbeddedChannel channel = new EmbeddedChannel(encoder, new IonDecoder());
+        ConnectionStatistics stats = new ConnectionStatistics();
+        channel.attr(ConnectionStatistics.KEY).set(stats);
+
+        channel.writeOutbound(List.of(msg1));
+        encoder.enableStreaming();
+        channel.writeOutbound(List.of(msg2));
+        channel.writeOutbound(List.of(msg3));
+
+        for (var msg : List.of(msg1, msg2, msg3)) {
+            ByteBuf bytes = channel.readOutbound();
+            channel.writeInbound(bytes);
+            List<Message> decoded = channel.readInbound();
+            assertEquals(List.of(msg), decoded);
+        }
+        assertEquals(3, stats.messagesOut());
+        assertEquals(3, stats.messagesIn());
+        assertEquals(stats.bytesOut(), stats.bytesIn());
+        assertTrue(stats.bytesOut() > 0);
+    }
+
+    @Test
+    public void testBlobFrames() throws Exception {
+        byte[] data = new byte[IonCodec.BLOB_THRESHOLD * 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        PBytes large = PBytes.valueOf(data);
+        PBytes small = PBytes.valueOf(new byte[]{1, 2, 3, 4});
+        Message.Reply msg = new Message.Reply(1, List.of(large, small,
+                PMap.of("large", large)));
+
+        IonEncoder encoder = new IonEncoder();
+        EmbeddedChannel channel = new EmbeddedChannel(encoder, new IonDecoder());
+
+        // large blobs written inline until streaming enabled
+        channel.writeOutbound(List.of(msg));
+        ByteBuf bytes = channel.readOutbound();
+        assertEquals(0, bytes.getInt(bytes.readerIndex()) & IonEncoder.BLOB_FRAME);
+        channel.writeInbound(bytes);
+        List<Message> decoded = channel.readInbound();
+        assertEquals(List.of(msg), decoded);
+
+        encoder.enableStreaming();
+        channel.writeOutbound(List.of(msg));
+        bytes = channel.readOutbound();
+        assertNotEquals(0, bytes.getInt(bytes.readerIndex()) & IonEncoder.BLOB_FRAME);
+        channel.writeInbound(bytes);
+        decoded = channel.readInbound();
+        assertEquals(List.of(msg), decoded);
+    }
+
 }
@@ -0,0 +1,92 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub.net;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.types.PNumber;
+import org.praxislive.core.types.PString;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class MessageBatchTest {
+
+    private static final InetSocketAddress REMOTE_1
+            = InetSocketAddress.createUnresolved("localhost", 10000);
+    private static final InetSocketAddress REMOTE_2
+            = InetSocketAddress.createUnresolved("localhost", 10001);
+    private static final ControlAddress FROM = ControlAddress.of("/hub.out");
+    private static final ControlAddress TO_1 = ControlAddress.of("/root/cmp.value");
+    private static final ControlAddress TO_2 = ControlAddress.of("/root/cmp.other");
+
+    public MessageBatchTest() {
+    }
+
+    @Test
+    public void testBatching() {
+        var batch = new MessageBatch();
+        assertTrue(batch.isEmpty());
+        var msg1 = new Message.Send(1, TO_1, FROM, List.of(PNumber.of(1)));
+        var msg2 = new Message.Reply(2, List.of(PString.of("OK")));
+        var msg3 = new Message.Send(3, TO_1, FROM, List.of(PNumber.of(3)));
+        assertNull(batch.add(REMOTE_1, msg1, false, 100));
+        assertNull(batch.add(REMOTE_1, msg2, false, 200));
+        assertNull(batch.add(REMOTE_1, msg3, false, 300));
+        assertEquals(3, batch.size());
+        assertEquals(100, batch.startTime());
+        assertEquals(REMOTE_1, batch.remote());
+        assertThrows(IllegalStateException.class,
+                () -> batch.add(REMOTE_2, msg2, false, 400));
+        assertEquals(List.of(msg1, msg2, msg3), batch.drain());
+        assertTrue(batch.isEmpty());
+        assertNull(batch.remote());
+        assertNull(batch.add(REMOTE_2, msg2, false, 500));
+        assertEquals(500, batch.startTime());
+        assertEquals(List.of(msg2), batch.drain());
+    }
+
+    @Test
+    public void testCoalescing() {
+        var batch = new MessageBatch();
+        var msg1 = new Message.Send(1, TO_1, FROM, List.of(PNumber.of(1)));
+        var msg2 = new Message.Send(2, TO_2, FROM, List.of(PNumber.of(2)));
+        var msg3 = new Message.Send(3, TO_1, FROM, List.of(PNumber.of(3)));
+        var msg4 = new Message.Send(4, TO_1, FROM, List.of());
+        var msg5 = new Message.Send(5, TO_1, FROM, List.of(PNumber.of(5)));
+        var msg6 = new Message.Send(6, TO_1, FROM, List.of(PNumber.of(6)));
+        assertNull(batch.add(REMOTE_1, msg1, true, 0));
+        assertNull(batch.add(REMOTE_1, msg2, true, 0));
+        assertEquals(msg1, batch.add(REMOTE_1, msg3, true, 0));
+        assertEquals(2, batch.size());
+        // non-coalescable send to same address acts as a barrier
+        assertNull(batch.add(REMOTE_1, msg4, false, 0));
+        assertNull(batch.add(REMOTE_1, msg5, true, 0));
+        assertEquals(msg5, batch.add(REMOTE_1, msg6, true, 0));
+        assertEquals(List.of(msg2, msg3, msg4, msg6), batch.drain());
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub.net;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.Call;
+import org.praxislive.core.ComponentAddress;
+import org.praxislive.core.ControlAddress;
+import org.praxislive.core.services.Service;
+import org.praxislive.core.services.ServiceUnavailableException;
+import org.praxislive.core.types.PNumber;
+import org.praxislive.core.types.PString;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class MessageDispatcherTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+    private static final SocketAddress REMOTE
+            = InetSocketAddress.createUnresolved("localhost", 10000);
+    private static final ControlAddress TO = ControlAddress.of("/remote/cmp.value");
+    private static final ControlAddress FROM = ControlAddress.of("/local/cmp.out");
+
+    public MessageDispatcherTest() {
+    }
+
+    @Test
+    public void testSentCallTimeout() {
+        var dispatcher = new TestDispatcher(4, 4);
+        var call1 = Call.create(TO, FROM, dispatcher.time, PNumber.ONE);
+        dispatcher.handleCall(call1);
+        dispatcher.time += TimeUnit.SECONDS.toNanos(5);
+        var call2 = Call.create(TO, FROM, dispatcher.time, PNumber.ONE);
+        dispatcher.handleCall(call2);
+        dispatcher.flush();
+        assertEquals(2, dispatcher.messages.size());
+
+        // reply to second call
+        dispatcher.handleMessage(REMOTE, new Message.Reply(call2.matchID(),
+                List.of(PString.of("OK"))));
+        assertEquals(1, dispatcher.calls.size());
+        assertTrue(dispatcher.calls.get(0).isReply());
+        dispatcher.calls.clear();
+
+        dispatcher.time += TimeUnit.SECONDS.toNanos(5);
+        dispatcher.purge();
+        assertTrue(dispatcher.calls.isEmpty());
+
+        dispatcher.time += TimeUnit.SECONDS.toNanos(3);
+        dispatcher.purge();
+        assertEquals(1, dispatcher.calls.size());
+        var error = dispatcher.calls.get(0);
+        assertTrue(error.isError());
+        assertEquals(call1.matchID(), error.matchID());
+
+        // late reply
+        dispatcher.handleMessage(REMOTE, new Message.Reply(call1.matchID(), List.of()));
+        var stats = dispatcher.statistics();
+        assertEquals(0, stats.getInt("sent-pending", -1));
+        assertEquals(1, stats.getInt("sent-timeouts", -1));
+        assertEquals(1, stats.getInt("orphaned-responses", -1));
+    }
+
+    @Test
+    public void testReceivedTimeout() {
+        var dispatcher = new TestDispatcher(4, 4);
+        dispatcher.handleMessage(REMOTE, new Message.Send(1, FROM, TO, List.of()));
+        dispatcher.handleMessage(REMOTE, new Message.Send(2, FROM, TO, List.of()));
+        assertEquals(2, dispatcher.calls.size());
+        var local1 = dispatcher.calls.get(0);
+        var local2 = dispatcher.calls.get(1);
+        assertEquals(2, dispatcher.statistics().getInt("received-pending", -1));
+
+        dispatcher.handleCall(local1.reply());
+        dispatcher.flush();
+        assertEquals(List.of(new Message.Reply(1, List.of())), dispatcher.messages);
+
+        dispatcher.time += TIMEOUT + TimeUnit.SECONDS.toNanos(3);
+        dispatcher.purge();
+        dispatcher.handleCall(local2.reply());
+        var stats = dispatcher.statistics();
+        assertEquals(0, stats.getInt("received-pending", -1));
+        assertEquals(1, stats.getInt("received-timeouts", -1));
+        assertEquals(1, stats.getInt("orphaned-responses", -1));
+    }
+
+    @Test
+    public void testLimits() {
+        var dispatcher = new TestDispatcher(2, 1);
+        dispatcher.handleCall(Call.create(TO, FROM, dispatcher.time, PNumber.ONE));
+        dispatcher.handleCall(Call.create(TO, FROM, dispatcher.time, PNumber.ONE));
+        assertTrue(dispatcher.calls.isEmpty());
+        var rejected = Call.create(TO, FROM, dispatcher.time, PNumber.ONE);
+        dispatcher.handleCall(rejected);
+        assertEquals(1, dispatcher.calls.size());
+        assertTrue(dispatcher.calls.get(0).isError());
+        assertEquals(rejected.matchID(), dispatcher.calls.get(0).matchID());
+        dispatcher.flush();
+        assertEquals(2, dispatcher.messages.size());
+        dispatcher.calls.clear();
+        dispatcher.messages.clear();
+
+        dispatcher.handleMessage(REMOTE, new Message.Send(1, FROM, TO, List.of()));
+        dispatcher.handleMessage(REMOTE, new Message.Send(2, FROM, TO, List.of()));
+        assertEquals(1, dispatcher.calls.size());
+        dispatcher.flush();
+        assertEquals(1, dispatcher.messages.size());
+        var error = dispatcher.messages.get(0);
+        assertInstanceOf(Message.Error.class, error);
+        assertEquals(2, error.matchID());
+        assertEquals(2, dispatcher.statistics().getInt("rejected-calls", -1));
+    }
+
+    @Test
+    public void testPurgeAll() {
+        var dispatcher = new TestDispatcher(4, 4);
+        var call1 = Call.create(TO, FROM, dispatcher.time, PNumber.ONE);
+        var call2 = Call.create(TO, FROM, dispatcher.time, PNumber.ONE);
+        dispatcher.handleCall(call1);
+        dispatcher.handleCall(call2);
+        dispatcher.handleMessage(REMOTE, new Message.Send(1, FROM, TO, List.of()));
+        dispatcher.calls.clear();
+        dispatcher.purgeAll();
+        assertEquals(2, dispatcher.calls.size());
+        assertEquals(call1.matchID(), dispatcher.calls.get(0).matchID());
+        assertEquals(call2.matchID(), dispatcher.calls.get(1).matchID());
+        var stats = dispatcher.statistics();
+        assertEquals(0, stats.getInt("sent-pending", -1));
+        assertEquals(0, stats.getInt("received-pending", -1));
+        assertEquals(2, stats.getInt("sent-timeouts", -1));
+        assertEquals(1, stats.getInt("received-timeouts", -1));
+    }
+
+    private static class TestDispatcher extends MessageDispatcher {
+
+        private final List<Message> messages;
+        private final List<Call> calls;
+
+        private long time;
+
+        private TestDispatcher(int maxSent, int maxReceived) {
+            super(TIMEOUT, maxSent, maxReceived);
+            messages = new ArrayList<>();
+            calls = new ArrayList<>();
+            time = System.nanoTime();
+        }
+
+        @Override
+        void dispatchMessages(SocketAddress remote, List<Message> msgs) throws Exception {
+            messages.addAll(msgs);
+        }
+
+        @Override
+        void requestFlush() {
+        }
+
+        @Override
+        void dispatchCall(Call call) {
+            calls.add(call);
+        }
+
+        @Override
+        String getRemoteSysPrefix() {
+            return "/hub/_remote";
+        }
+
+        @Override
+        SocketAddress getPrimaryRemoteAddress() {
+            return REMOTE;
+        }
+
+        @Override
+        long getTime() {
+            return time;
+        }
+
+        @Override
+        ComponentAddress findService(Class<? extends Service> service)
+                throws ServiceUnavailableException {
+            throw new ServiceUnavailableException();
+        }
+
+    }
+
+}
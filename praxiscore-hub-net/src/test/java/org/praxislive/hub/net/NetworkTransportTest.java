@@ -0,0 +1,67 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub.net;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ *
+ */
+public class NetworkTransportTest {
+
+    public NetworkTransportTest() {
+    }
+
+    @Test
+    public void testNativeTransport() {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        String arch = System.getProperty("os.arch", "");
+        assumeTrue(os.contains("linux"));
+        assumeTrue(arch.equals("amd64") || arch.equals("x86_64") || arch.equals("aarch64"));
+        var transport = NetworkTransport.create(HubConfiguration.builder()
+                .nativeTransport(true)
+                .eventLoopThreads(1)
+                .build());
+        try {
+            assertTrue(transport.isNative());
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    public void testNioTransport() {
+        var transport = NetworkTransport.create(HubConfiguration.builder()
+                .nativeTransport(false)
+                .eventLoopThreads(1)
+                .build());
+        try {
+            assertFalse(transport.isNative());
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+}
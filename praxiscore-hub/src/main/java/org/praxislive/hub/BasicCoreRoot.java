@@ -45,6 +45,7 @@ import org.praxislive.core.services.Service;
 import org.praxislive.core.services.SystemManagerService;
 import org.praxislive.core.types.PArray;
 import org.praxislive.core.types.PError;
+import org.praxislive.core.types.PMap;
 import org.praxislive.core.types.PNumber;
 import org.praxislive.core.types.PReference;
 import org.praxislive.core.types.PString;
@@ -64,10 +65,18 @@ public class BasicCoreRoot extends AbstractRoot {
 
     private static final Logger LOG = System.getLogger(BasicCoreRoot.class.getName());
 
+    /**
+     * Control ID of the control returning dispatch statistics from
+     * {@link Hub.Accessor#dispatchStatistics()}.
+     */
+    public static final String DISPATCH_STATISTICS = "dispatch-statistics";
+
     private static final ComponentInfo INFO = Info.component()
             .merge(RootManagerService.API_INFO)
             .control(SystemManagerService.SYSTEM_EXIT,
                     SystemManagerService.SYSTEM_EXIT_INFO)
+            .control(DISPATCH_STATISTICS, c -> c.function()
+                    .outputs(a -> a.type(PMap.class)))
             .build();
 
     private final Hub.Accessor hubAccess;
@@ -193,7 +202,8 @@ public class BasicCoreRoot extends AbstractRoot {
      * Build the controls on this root. Subclasses may override this method and
      * choose whether or not to call the super implementation. This
      * implementation adds all {@link RootManagerService} and
-     * {@link SystemManagerService} controls if they are absent from the map.
+     * {@link SystemManagerService} controls, and the
+     * {@link #DISPATCH_STATISTICS} control, if they are absent from the map.
      *
      * @param ctrls map of control id to control
      */
@@ -206,6 +216,11 @@ public class BasicCoreRoot extends AbstractRoot {
         ctrls.computeIfAbsent(RootManagerService.ADD_ROOT, k -> new AddRootControl());
         ctrls.computeIfAbsent(RootManagerService.REMOVE_ROOT, k -> new RemoveRootControl());
         ctrls.computeIfAbsent(RootManagerService.ROOTS, k -> new RootsControl());
+        ctrls.computeIfAbsent(DISPATCH_STATISTICS, k -> (call, router) -> {
+            if (call.isReplyRequired()) {
+                router.route(call.reply(hubAccess.dispatchStatistics()));
+            }
+        });
         ctrls.computeIfAbsent(SystemManagerService.SYSTEM_EXIT, k -> (call, router) -> {
             if (call.isRequest()) {
                 if (!call.args().isEmpty()) {
@@ -238,7 +253,7 @@ public class BasicCoreRoot extends AbstractRoot {
         if (!ComponentAddress.isValidID(id) || hubAccess.getRootController(id) != null) {
             throw new IllegalArgumentException();
         }
-        Root.Controller ctrl = root.initialize(id, hubAccess.getRootHub());
+        Root.Controller ctrl = root.initialize(id, hubAccess.getRootHub(id));
         if (hubAccess.registerRootController(id, ctrl)) {
             return ctrl;
         } else {
@@ -0,0 +1,91 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.hub;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.praxislive.core.types.PMap;
+
+/**
+ * Counters for packets dispatched from one root to another, along with a
+ * histogram of the time taken to submit each packet to the destination root.
+ * Histogram buckets are powers of two, starting at 64ns.
+ */
+final class DispatchStatistics {
+
+    static final int BUCKETS = 20;
+
+    private static final int MIN_SHIFT = 6;
+
+    private final LongAdder packets;
+    private final LongAdder failures;
+    private final AtomicLongArray latency;
+
+    DispatchStatistics() {
+        packets = new LongAdder();
+        failures = new LongAdder();
+        latency = new AtomicLongArray(BUCKETS);
+    }
+
+    void record(long nanos, boolean success) {
+        packets.increment();
+        if (!success) {
+            failures.increment();
+        }
+        latency.incrementAndGet(bucket(nanos));
+    }
+
+    long packets() {
+        return packets.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long latencyCount(int bucket) {
+        return latency.get(bucket);
+    }
+
+    PMap toPMap() {
+        PMap.Builder histogram = PMap.builder();
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = latency.get(i);
+            if (count > 0) {
+                histogram.put(i == BUCKETS - 1 ? "max" : "<" + (1L << (MIN_SHIFT + i)) + "ns",
+                        (double) count);
+            }
+        }
+        return PMap.of("packets", (double) packets.sum(),
+                "failures", (double) failures.sum(),
+                "latency", histogram.build());
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < 0) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos >>> MIN_SHIFT);
+        return bucket >= BUCKETS ? BUCKETS - 1 : bucket;
+    }
+
+}
@@ -34,6 +34,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.praxislive.core.Clock;
@@ -46,6 +47,7 @@ import org.praxislive.core.RootHub;
 import org.praxislive.core.Value;
 import org.praxislive.core.services.Service;
 import org.praxislive.core.services.Services;
+import org.praxislive.core.types.PMap;
 import org.praxislive.script.DefaultScriptService;
 
 /**
@@ -64,7 +66,11 @@ public final class Hub {
     public final static String CORE_PREFIX = SYS_PREFIX + "core_";
     public final static String EXT_PREFIX = SYS_PREFIX + "ext_";
 
+    private final static String UNROUTED = "*";
+
     private final ConcurrentMap<String, Root.Controller> roots;
+    private final ConcurrentMap<String, RootHubView> views;
+    private final AtomicInteger rootsVersion;
     private final ConcurrentMap<Class<? extends Service>, List<ComponentAddress>> services;
     private final Root core;
     private final Lookup lookup;
@@ -96,6 +102,8 @@ public final class Hub {
 
         lookup = lkp;
         roots = new ConcurrentHashMap<>();
+        views = new ConcurrentHashMap<>();
+        rootsVersion = new AtomicInteger();
         services = new ConcurrentHashMap<>();
         rootHub = new RootHubImpl();
         rootIDs = new CopyOnWriteArrayList<>();
@@ -114,8 +122,9 @@ public final class Hub {
         }
         startTime = System.nanoTime();
         String coreID = CORE_PREFIX + Integer.toHexString(core.hashCode());
-        coreController = core.initialize(coreID, rootHub);
+        coreController = core.initialize(coreID, getRootHub(coreID));
         roots.put(coreID, coreController);
+        rootsVersion.incrementAndGet();
         coreController.start(Lookup.EMPTY);
     }
 
@@ -207,6 +216,7 @@ public final class Hub {
         Root.Controller existing = roots.putIfAbsent(id, controller);
         if (existing == null) {
             rootIDs.add(id);
+            rootsVersion.incrementAndGet();
             return true;
         } else {
             return false;
@@ -215,7 +225,11 @@ public final class Hub {
 
     private Root.Controller unregisterRootController(String id) {
         rootIDs.remove(id);
-        return roots.remove(id);
+        Root.Controller controller = roots.remove(id);
+        views.remove(id);
+        rootsVersion.incrementAndGet();
+        views.values().forEach(view -> view.stats.remove(id));
+        return controller;
     }
 
     private Root.Controller getRootController(String id) {
@@ -230,6 +244,29 @@ public final class Hub {
         return rootHub;
     }
 
+    private RootHub getRootHub(String id) {
+        return views.computeIfAbsent(Objects.requireNonNull(id), RootHubView::new);
+    }
+
+    private PMap dispatchStatistics() {
+        PMap.Builder depths = PMap.builder();
+        roots.forEach((id, controller) -> {
+            int depth = controller.queueDepth();
+            if (depth >= 0) {
+                depths.put(id, depth);
+            }
+        });
+        PMap.Builder routes = PMap.builder();
+        views.forEach((id, view) -> {
+            PMap stats = view.statistics();
+            if (!stats.isEmpty()) {
+                routes.put(id, stats);
+            }
+        });
+        return PMap.of("queue-depth", depths.build(),
+                "routes", routes.build());
+    }
+
     private void registerService(Class<? extends Service> service,
             ComponentAddress provider) {
         Objects.requireNonNull(service);
@@ -287,6 +324,92 @@ public final class Hub {
 
     }
 
+    /**
+     * RootHub passed to each root. Dispatch records statistics per destination,
+     * and caches the last resolved destination controller to avoid the root
+     * map lookup when repeatedly dispatching to the same root. The cache is
+     * invalidated whenever a root is registered or unregistered.
+     */
+    private class RootHubView implements RootHub {
+
+        private final String id;
+        private final ConcurrentMap<String, DispatchStatistics> stats;
+
+        private Route cached;
+
+        private RootHubView(String id) {
+            this.id = id;
+            this.stats = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public boolean dispatch(Packet packet) {
+            String destination = packet.rootID();
+            Route route = cached;
+            if (route == null || route.version != rootsVersion.get()
+                    || (route.id != destination && !route.id.equals(destination))) {
+                route = resolve(destination);
+                cached = route;
+            }
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = route.controller.submitPacket(packet);
+            } catch (Exception e) {
+                success = false;
+            }
+            route.stats.record(System.nanoTime() - start, success);
+            return success;
+        }
+
+        @Override
+        public Lookup getLookup() {
+            return lookup;
+        }
+
+        @Override
+        public Clock getClock() {
+            return rootHub;
+        }
+
+        private Route resolve(String destination) {
+            int version = rootsVersion.get();
+            Root.Controller controller = roots.get(destination);
+            String key = destination;
+            if (controller == null) {
+                controller = coreController;
+                key = UNROUTED;
+            }
+            return new Route(destination, controller,
+                    stats.computeIfAbsent(key, k -> new DispatchStatistics()),
+                    version);
+        }
+
+        private PMap statistics() {
+            PMap.Builder builder = PMap.builder();
+            stats.forEach((destination, s) -> builder.put(destination, s.toPMap()));
+            return builder.build();
+        }
+
+    }
+
+    private static final class Route {
+
+        private final String id;
+        private final Root.Controller controller;
+        private final DispatchStatistics stats;
+        private final int version;
+
+        private Route(String id, Root.Controller controller,
+                DispatchStatistics stats, int version) {
+            this.id = id;
+            this.controller = controller;
+            this.stats = stats;
+            this.version = version;
+        }
+
+    }
+
     private class ServicesImpl implements Services {
 
         @Override
@@ -409,6 +532,37 @@ public final class Hub {
             return Hub.this.getRootHub();
         }
 
+        /**
+         * Get the {@link RootHub} implementation to pass to the root with the
+         * provided id. Packets dispatched through the returned hub are counted
+         * and timed per destination root - see
+         * {@link #dispatchStatistics()}. The last resolved destination is
+         * cached, making repeat dispatch to the same root cheaper.
+         *
+         * @param id root id
+         * @return root hub for root with id
+         */
+        public RootHub getRootHub(String id) {
+            return Hub.this.getRootHub(id);
+        }
+
+        /**
+         * Statistics of packet dispatch between roots. The returned map
+         * contains a {@code queue-depth} map of root id to the number of
+         * packets waiting for that root, where supported, and a
+         * {@code routes} map of sending root id to a map of destination root
+         * id to statistics. Packets to unknown roots, which are passed to the
+         * core root, are counted together under {@code *}. Entries are removed
+         * when a root is unregistered. Statistics contain {@code packets} and
+         * {@code failures} counts, and a {@code latency} histogram of time
+         * taken to submit each packet to the destination.
+         *
+         * @return dispatch statistics
+         */
+        public PMap dispatchStatistics() {
+            return Hub.this.dispatchStatistics();
+        }
+
     }
 
     /**
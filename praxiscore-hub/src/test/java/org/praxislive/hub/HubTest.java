@@ -34,6 +34,7 @@ import org.praxislive.base.AbstractRootContainer;
 import org.praxislive.core.Call;
 import org.praxislive.core.ComponentAddress;
 import org.praxislive.core.ComponentInfo;
+import org.praxislive.core.ControlAddress;
 import org.praxislive.core.HubProxy;
 import org.praxislive.core.Info;
 import org.praxislive.core.PacketRouter;
@@ -47,6 +48,7 @@ import org.praxislive.core.services.RootFactoryService;
 import org.praxislive.core.services.Service;
 import org.praxislive.core.types.PArray;
 import org.praxislive.core.types.PBoolean;
+import org.praxislive.core.types.PMap;
 import org.praxislive.core.types.PReference;
 import org.praxislive.core.types.PString;
 
@@ -79,6 +81,57 @@ public class HubTest extends AbstractTestBase {
         hub.await(TIMEOUT, TimeUnit.MILLISECONDS);
     }
 
+    @Test
+    public void testDispatchStatistics() throws Exception {
+        Hub.Accessor[] access = new Hub.Accessor[1];
+        Hub hub = Hub.builder()
+                .setCoreRootFactory((accessor, exts) -> {
+                    access[0] = accessor;
+                    return new BasicCoreRoot(accessor, exts) {
+                    };
+                })
+                .addExtension(new ComponentFactoryImpl())
+                .build();
+        hub.start();
+        hub.eval("""
+                @ /root root:test {
+                    @ ./cmp test:component {
+                        .value "FOO"
+                    }
+                }
+                /root.start
+                """).get(TIMEOUT, TimeUnit.MILLISECONDS);
+        PMap stats = access[0].dispatchStatistics();
+        log(stats);
+        PMap depths = PMap.from(stats.get("queue-depth")).orElseThrow();
+        assertTrue(depths.keys().contains("root"));
+        PMap routes = PMap.from(stats.get("routes")).orElseThrow();
+        PMap fromRoot = PMap.from(routes.get("root")).orElseThrow();
+        assertFalse(fromRoot.isEmpty());
+        for (String destination : fromRoot.keys()) {
+            PMap route = PMap.from(fromRoot.get(destination)).orElseThrow();
+            assertTrue(route.getInt("packets", 0) > 0);
+            assertEquals(0, route.getInt("failures", -1));
+        }
+        RootHub rootHub = access[0].getRootHub("root");
+        rootHub.dispatch(Call.createQuiet(ControlAddress.of("/missing1.foo"),
+                ControlAddress.of("/root.bar"), rootHub.getClock().getTime()));
+        rootHub.dispatch(Call.createQuiet(ControlAddress.of("/missing2.foo"),
+                ControlAddress.of("/root.bar"), rootHub.getClock().getTime()));
+        routes = PMap.from(access[0].dispatchStatistics().get("routes")).orElseThrow();
+        fromRoot = PMap.from(routes.get("root")).orElseThrow();
+        assertFalse(fromRoot.keys().contains("missing1"));
+        assertEquals(2, PMap.from(fromRoot.get("*")).orElseThrow().getInt("packets", 0));
+        hub.eval("!@ /root").get(TIMEOUT, TimeUnit.MILLISECONDS);
+        routes = PMap.from(access[0].dispatchStatistics().get("routes")).orElseThrow();
+        assertFalse(routes.keys().contains("root"));
+        for (String source : routes.keys()) {
+            assertFalse(PMap.from(routes.get(source)).orElseThrow().keys().contains("root"));
+        }
+        hub.shutdown();
+        hub.await(TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
     @Test
     public void testHubProxy() throws Exception {
         Hub hub = Hub.builder()
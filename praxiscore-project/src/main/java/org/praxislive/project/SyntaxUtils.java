@@ -524,11 +524,12 @@ public class SyntaxUtils {
             return;
         }
         out.append("[map");
-        for (var entry : map.asMap().entrySet()) {
+        Iterator<Value> values = map.asMap().values().iterator();
+        for (String key : map.keys()) {
             out.append(" ")
-                    .append(escape(entry.getKey()))
+                    .append(escape(key))
                     .append(" ");
-            writeValueImpl(context, entry.getValue(), out);
+            writeValueImpl(context, values.next(), out);
         }
         out.append("]");
     }
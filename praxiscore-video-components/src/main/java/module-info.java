@@ -19,6 +19,9 @@ module org.praxislive.video.components {
     opens org.praxislive.video.impl.components to
             org.praxislive.base;
     
+    provides org.praxislive.video.PlayerFactory.Provider with
+            org.praxislive.video.impl.components.OfflinePlayer.Provider;
+    
     uses org.praxislive.video.PlayerFactory.Provider;
     
 }
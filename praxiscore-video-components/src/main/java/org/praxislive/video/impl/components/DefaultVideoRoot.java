@@ -28,6 +28,7 @@ import org.praxislive.base.AbstractProperty;
 import org.praxislive.base.AbstractRoot;
 import org.praxislive.base.AbstractRootContainer;
 import org.praxislive.base.BindingContextControl;
+import org.praxislive.base.DefaultExecutionContext;
 import org.praxislive.code.SharedCodeProperty;
 import org.praxislive.code.SharedCodeProtocol;
 import org.praxislive.core.Call;
@@ -36,6 +37,7 @@ import org.praxislive.core.ComponentType;
 import org.praxislive.core.ControlAddress;
 import org.praxislive.core.Info;
 import org.praxislive.core.Lookup;
+import org.praxislive.core.PacketRouter;
 import org.praxislive.core.RootHub;
 import org.praxislive.core.TreeWriter;
 import org.praxislive.core.Value;
@@ -59,6 +61,7 @@ import org.praxislive.video.RenderingHints;
 import org.praxislive.video.VideoContext;
 import org.praxislive.video.pipes.FrameRateListener;
 import org.praxislive.video.pipes.FrameRateSource;
+import org.praxislive.video.render.utils.PixelArrayCache;
 
 /**
  *
@@ -106,6 +109,7 @@ public class DefaultVideoRoot extends AbstractRootContainer {
         registerControl("height", new HeightProperty());
         registerControl("fps", new FpsProperty());
         registerControl("smooth", new SmoothProperty());
+        registerControl("_pixel-cache", this::pixelCacheStatistics);
 
         info = Info.component(cmp -> cmp
                 .merge(ComponentProtocol.API_INFO)
@@ -167,9 +171,11 @@ public class DefaultVideoRoot extends AbstractRootContainer {
     @Override
     protected void starting() {
         try {
-            String lib = renderer;
-            var delegate = new VideoDelegate();
-            player = createPlayer(lib, delegate);
+            PlayerFactory factory = findPlayerFactory(renderer);
+            var delegate = factory.usesVirtualClock()
+                    ? new VideoDelegate(delegateConfig().allowClockDrift())
+                    : new VideoDelegate(null);
+            player = createPlayer(factory, delegate);
             lookup = Lookup.of(getLookup(),
                     player.getLookup().findAll(Object.class).toArray());
             if (outputClient != null && outputClient.getOutputCount() > 0) {
@@ -184,12 +190,11 @@ public class DefaultVideoRoot extends AbstractRootContainer {
         }
     }
 
-    private Player createPlayer(String library, VideoDelegate delegate) throws Exception {
+    private Player createPlayer(PlayerFactory factory, VideoDelegate delegate) throws Exception {
         Lookup clientLookup = Lookup.EMPTY;
         if (outputClient != null) {
             clientLookup = outputClient.getLookup();
         }
-        PlayerFactory factory = findPlayerFactory(library);
         RenderingHints renderHints = new RenderingHints();
         renderHints.setSmooth(smooth);
         Lookup plLkp = Lookup.of(getLookup(), renderHints, delegate);
@@ -249,6 +254,12 @@ public class DefaultVideoRoot extends AbstractRootContainer {
         }
     }
 
+    private void pixelCacheStatistics(Call call, PacketRouter router) {
+        if (call.isRequest()) {
+            router.route(call.reply(PixelArrayCache.statistics()));
+        }
+    }
+
     private void handleLog(LogBuilder log) {
         if (log.isEmpty()) {
             return;
@@ -258,9 +269,13 @@ public class DefaultVideoRoot extends AbstractRootContainer {
                 .ifPresent(logger -> {
                     var to = ControlAddress.of(logger, LogService.LOG);
                     var from = ControlAddress.of(getAddress(), "_log");
+                    var ctxt = getExecutionContext();
+                    long time = ctxt instanceof DefaultExecutionContext defaultCtxt
+                            ? defaultCtxt.toHubTime(ctxt.getTime())
+                            : ctxt.getTime();
                     var call = Call.createQuiet(to,
                             from,
-                            getExecutionContext().getTime(),
+                            time,
                             log.toList());
                     getRouter().route(call);
                 });
@@ -269,6 +284,10 @@ public class DefaultVideoRoot extends AbstractRootContainer {
     private class VideoDelegate extends Delegate
             implements FrameRateListener, QueueContext {
 
+        private VideoDelegate(DelegateConfiguration config) {
+            super(config);
+        }
+
         @Override
         public void nextFrame(FrameRateSource source) {
             boolean ok = doUpdate(source.getTime());
@@ -0,0 +1,682 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.video.impl.components;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.praxislive.core.Clock;
+import org.praxislive.core.Settings;
+import org.praxislive.video.ClientConfiguration;
+import org.praxislive.video.Player;
+import org.praxislive.video.PlayerConfiguration;
+import org.praxislive.video.PlayerFactory;
+import org.praxislive.video.QueueContext;
+import org.praxislive.video.pipes.FrameRateListener;
+import org.praxislive.video.pipes.SinkIsFullException;
+import org.praxislive.video.pipes.VideoPipe;
+import org.praxislive.video.render.PixelData;
+import org.praxislive.video.render.Surface;
+
+/**
+ * Headless software player driven by a virtual clock. Frame time advances by
+ * exactly one frame period per frame, from the clock time at start, and every
+ * frame is rendered. Rendering runs as fast as possible, or at a fixed multiple
+ * of real time.
+ * <p>
+ * Configured by settings read when the player is created :
+ * <ul>
+ * <li>video.offline.output : file to write frames to. If the path contains a
+ * format specifier (eg. frame-%05d.png) an image sequence is written, with the
+ * image format taken from the file extension. The ppm format is written
+ * directly, other formats use ImageIO. Otherwise, frames are written as a
+ * single raw stream of 24-bit RGB, which may also be a named pipe. If empty,
+ * frames are rendered but not written.</li>
+ * <li>video.offline.speed : multiple of real time to render at, or 0 (default)
+ * to render as fast as possible.</li>
+ * <li>video.offline.frames : number of frames to render before stopping, or 0
+ * (default) to render until terminated.</li>
+ * </ul>
+ * <p>
+ * Frames are written on a separate thread so that encoding overlaps rendering.
+ * The achieved frame rate is logged periodically and on completion.
+ */
+public class OfflinePlayer implements Player {
+
+    /**
+     * Library name of the offline player.
+     */
+    public final static String LIBRARY_NAME = "Offline";
+
+    private final static Factory FACTORY = new Factory();
+    private final static System.Logger LOG = System.getLogger(OfflinePlayer.class.getName());
+
+    private final static String KEY_OUTPUT = "video.offline.output";
+    private final static String KEY_SPEED = "video.offline.speed";
+    private final static String KEY_FRAMES = "video.offline.frames";
+    private final static long REPORT_PERIOD = TimeUnit.SECONDS.toNanos(5);
+    private final static int PENDING_FRAMES = 2;
+
+    private final Clock clock;
+    private final int width, height, outputRotation;
+    private final double fps;
+    private final double speed;
+    private final int maxFrames;
+    private final String output;
+    private final OutputSink sink;
+    private final QueueContext queueContext;
+    private final List<FrameRateListener> listeners;
+
+    private volatile boolean running;
+    private long time;
+    private SWSurface surface;
+    private SWSurface rotated;
+    private FrameOutput frameOutput;
+
+    private OfflinePlayer(Clock clock,
+            int width,
+            int height,
+            double fps,
+            int outputRotation,
+            String output,
+            double speed,
+            int maxFrames,
+            QueueContext queue) {
+        if (width <= 0 || height <= 0 || fps <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.clock = clock;
+        this.width = width;
+        this.height = height;
+        this.fps = fps;
+        this.outputRotation = outputRotation;
+        this.output = output;
+        this.speed = speed;
+        this.maxFrames = maxFrames;
+        this.queueContext = queue;
+        this.sink = new OutputSink();
+        this.listeners = new ArrayList<>();
+    }
+
+    @Override
+    public void run() {
+        LOG.log(System.Logger.Level.DEBUG, "Starting offline renderer.");
+        running = true;
+        try {
+            init();
+        } catch (Exception ex) {
+            LOG.log(System.Logger.Level.ERROR, "Couldn't open offline output " + output, ex);
+            running = false;
+            dispose();
+            return;
+        }
+
+        long startTime = clock.getTime();
+        long lastReportTime = startTime;
+        long lastReportFrame = 0;
+        long frame = 0;
+
+        while (running && (maxFrames <= 0 || frame < maxFrames)) {
+            // derive from frame count rather than accumulating period
+            time = startTime + (long) (frame * 1_000_000_000.0 / fps);
+            fireListeners();
+            try {
+                if (speed > 0) {
+                    long target = startTime + (long) ((time - startTime) / speed);
+                    long wait = target - clock.getTime();
+                    while (wait > 0 && running) {
+                        queueContext.process(Math.min(wait, 1_000_000L), TimeUnit.NANOSECONDS);
+                        wait = target - clock.getTime();
+                    }
+                } else {
+                    queueContext.process(0, TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException ex) {
+                running = false;
+            }
+            if (!running) {
+                break;
+            }
+            try {
+                render();
+            } catch (Exception ex) {
+                LOG.log(System.Logger.Level.ERROR, "Exception in offline render", ex);
+                running = false;
+                break;
+            }
+            frame++;
+            long now = clock.getTime();
+            if (now - lastReportTime >= REPORT_PERIOD) {
+                report(frame - lastReportFrame, now - lastReportTime, frame);
+                lastReportTime = now;
+                lastReportFrame = frame;
+            }
+        }
+
+        // include writing of pending frames in final report
+        dispose();
+        report(frame, clock.getTime() - startTime, frame);
+    }
+
+    private void init() throws IOException {
+        surface = new SWSurface(width, height, false);
+        switch (outputRotation) {
+            case 90:
+            case 270:
+                rotated = new SWSurface(height, width, false);
+                break;
+            case 180:
+                rotated = new SWSurface(width, height, false);
+                break;
+        }
+        if (!output.isBlank()) {
+            int w = rotated == null ? width : rotated.getWidth();
+            int h = rotated == null ? height : rotated.getHeight();
+            frameOutput = new FrameOutput(createWriter(output, w, h), w, h);
+        }
+    }
+
+    private void render() throws IOException {
+        sink.process(surface, time);
+        SWSurface out = surface;
+        switch (outputRotation) {
+            case 90:
+                rotated.process(SWTransform.ROTATE_90, surface);
+                out = rotated;
+                break;
+            case 180:
+                rotated.process(SWTransform.ROTATE_180, surface);
+                out = rotated;
+                break;
+            case 270:
+                rotated.process(SWTransform.ROTATE_270, surface);
+                out = rotated;
+                break;
+        }
+        if (frameOutput != null) {
+            frameOutput.submit(out.getReadableData());
+        }
+    }
+
+    private void report(long frames, long elapsed, long total) {
+        if (elapsed <= 0) {
+            return;
+        }
+        double achieved = frames * 1_000_000_000.0 / elapsed;
+        LOG.log(System.Logger.Level.INFO, String.format(
+                "Offline renderer : %d frames, %.2f fps (%.2fx real time)",
+                total, achieved, achieved / fps));
+    }
+
+    private void dispose() {
+        if (frameOutput != null) {
+            try {
+                frameOutput.close();
+            } catch (IOException ex) {
+                LOG.log(System.Logger.Level.ERROR, "Error writing offline output " + output, ex);
+            }
+            frameOutput = null;
+        }
+        if (surface != null) {
+            surface.release();
+            surface = null;
+        }
+        if (rotated != null) {
+            rotated.release();
+            rotated = null;
+        }
+        sink.removeSource(sink.source);
+    }
+
+    private void fireListeners() {
+        int count = listeners.size();
+        for (int i = 0; i < count; i++) {
+            listeners.get(i).nextFrame(this);
+        }
+    }
+
+    @Override
+    public VideoPipe getSource(int index) {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public int getSourceCount() {
+        return 0;
+    }
+
+    @Override
+    public VideoPipe getSink(int index) {
+        if (index == 0) {
+            return sink;
+        } else {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    @Override
+    public int getSinkCount() {
+        return 1;
+    }
+
+    @Override
+    public void terminate() {
+        running = false;
+    }
+
+    @Override
+    public void addFrameRateListener(FrameRateListener listener) {
+        if (listener == null) {
+            throw new NullPointerException();
+        }
+        if (listeners.contains(listener)) {
+            return;
+        }
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeFrameRateListener(FrameRateListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public boolean isRendering() {
+        return true;
+    }
+
+    static PlayerFactory getFactory() {
+        return FACTORY;
+    }
+
+    private static FrameWriter createWriter(String output, int width, int height)
+            throws IOException {
+        if (!output.contains("%")) {
+            return new RawWriter(Path.of(output), width, height);
+        }
+        int dot = output.lastIndexOf('.');
+        String format = dot < 0 ? "" : output.substring(dot + 1).toLowerCase();
+        if ("ppm".equals(format)) {
+            return new PPMWriter(output, width, height);
+        } else if (ImageIO.getImageWritersByFormatName(format).hasNext()) {
+            return new ImageWriter(output, format, width, height);
+        } else {
+            throw new IOException("Unsupported image format " + format);
+        }
+    }
+
+    private static byte[] toRGB(int[] pixels, byte[] rgb) {
+        for (int i = 0, j = 0; i < pixels.length; i++, j += 3) {
+            int pixel = pixels[i];
+            rgb[j] = (byte) (pixel >> 16);
+            rgb[j + 1] = (byte) (pixel >> 8);
+            rgb[j + 2] = (byte) pixel;
+        }
+        return rgb;
+    }
+
+    private static interface FrameWriter {
+
+        void write(int[] pixels, long frame) throws IOException;
+
+        default void close() throws IOException {
+        }
+
+    }
+
+    private static class RawWriter implements FrameWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final byte[] rgb;
+
+        private RawWriter(Path path, int width, int height) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.rgb = new byte[width * height * 3];
+            this.buffer = ByteBuffer.allocateDirect(rgb.length);
+        }
+
+        @Override
+        public void write(int[] pixels, long frame) throws IOException {
+            buffer.clear();
+            buffer.put(toRGB(pixels, rgb));
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+    }
+
+    private static class PPMWriter implements FrameWriter {
+
+        private final String pattern;
+        private final ByteBuffer buffer;
+        private final byte[] rgb;
+        private final int headerSize;
+
+        private PPMWriter(String pattern, int width, int height) {
+            this.pattern = pattern;
+            byte[] header = ("P6\n" + width + " " + height + "\n255\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            this.headerSize = header.length;
+            this.rgb = new byte[width * height * 3];
+            this.buffer = ByteBuffer.allocateDirect(headerSize + rgb.length);
+            buffer.put(header);
+        }
+
+        @Override
+        public void write(int[] pixels, long frame) throws IOException {
+            buffer.clear().position(headerSize);
+            buffer.put(toRGB(pixels, rgb));
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(
+                    Path.of(String.format(pattern, frame)), StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+
+    }
+
+    private static class ImageWriter implements FrameWriter {
+
+        private final String pattern;
+        private final String format;
+        private final BufferedImage image;
+        private final int[] imageData;
+
+        private ImageWriter(String pattern, String format, int width, int height) {
+            this.pattern = pattern;
+            this.format = format;
+            this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            this.imageData = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+
+        @Override
+        public void write(int[] pixels, long frame) throws IOException {
+            System.arraycopy(pixels, 0, imageData, 0, imageData.length);
+            try (FileChannel channel = FileChannel.open(
+                    Path.of(String.format(pattern, frame)), StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                if (!ImageIO.write(image, format, Channels.newOutputStream(channel))) {
+                    throw new IOException("No image writer for " + format);
+                }
+            }
+        }
+
+    }
+
+    private static class FrameOutput {
+
+        private final static int[] END = new int[0];
+
+        private final FrameWriter writer;
+        private final int width;
+        private final int height;
+        private final BlockingQueue<int[]> pending;
+        private final BlockingQueue<int[]> free;
+        private final Thread thread;
+
+        private long nextFrame;
+        private volatile IOException error;
+
+        private FrameOutput(FrameWriter writer, int width, int height) {
+            this.writer = writer;
+            this.width = width;
+            this.height = height;
+            this.pending = new ArrayBlockingQueue<>(PENDING_FRAMES + 1);
+            this.free = new ArrayBlockingQueue<>(PENDING_FRAMES + 1);
+            this.thread = new Thread(this::writeLoop, "Offline video writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void submit(PixelData data) throws IOException {
+            if (error != null) {
+                throw error;
+            }
+            int[] pixels = free.poll();
+            if (pixels == null) {
+                pixels = new int[width * height];
+            }
+            int[] src = data.getData();
+            int scanline = data.getScanline();
+            int offset = data.getOffset();
+            for (int y = 0; y < height; y++) {
+                System.arraycopy(src, offset + y * scanline, pixels, y * width, width);
+            }
+            try {
+                // blocks while writer is behind, pacing rendering to output
+                pending.put(pixels);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+        }
+
+        private void writeLoop() {
+            try {
+                while (true) {
+                    int[] pixels = pending.take();
+                    if (pixels == END) {
+                        break;
+                    }
+                    if (error == null) {
+                        writer.write(pixels, nextFrame++);
+                    }
+                    free.offer(pixels);
+                }
+            } catch (IOException ex) {
+                error = ex;
+                pending.clear();
+            } catch (InterruptedException ex) {
+                // closing
+            }
+        }
+
+        private void close() throws IOException {
+            try {
+                if (error == null) {
+                    pending.put(END);
+                    thread.join();
+                } else {
+                    thread.interrupt();
+                }
+            } catch (InterruptedException ex) {
+                thread.interrupt();
+                Thread.currentThread().interrupt();
+            } finally {
+                writer.close();
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+    }
+
+    private class OutputSink extends VideoPipe {
+
+        private VideoPipe source;
+        private long time;
+
+        @Override
+        public void registerSource(VideoPipe source) {
+            if (this.source == null) {
+                this.source = source;
+            } else {
+                throw new SinkIsFullException();
+            }
+        }
+
+        @Override
+        public void unregisterSource(VideoPipe source) {
+            if (this.source == source) {
+                this.source = null;
+            }
+        }
+
+        @Override
+        public boolean isRenderRequired(VideoPipe source, long time) {
+            return source == this.source && time == this.time;
+        }
+
+        private void process(Surface surface, long time) {
+            this.time = time;
+            if (this.source != null) {
+                callSource(source, surface, time);
+            } else {
+                surface.clear();
+            }
+        }
+
+        @Override
+        public int getSourceCount() {
+            return source == null ? 0 : 1;
+        }
+
+        @Override
+        public int getSourceCapacity() {
+            return 1;
+        }
+
+        @Override
+        public VideoPipe getSource(int idx) {
+            if (idx == 0 && source != null) {
+                return source;
+            } else {
+                throw new IndexOutOfBoundsException();
+            }
+        }
+
+        @Override
+        public int getSinkCount() {
+            return 0;
+        }
+
+        @Override
+        public int getSinkCapacity() {
+            return 0;
+        }
+
+        @Override
+        public VideoPipe getSink(int idx) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        @Override
+        protected void process(VideoPipe sink, Surface buffer, long time) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        protected void registerSink(VideoPipe sink) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        protected void unregisterSink(VideoPipe sink) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+    }
+
+    private static class Factory implements PlayerFactory {
+
+        @Override
+        public Player createPlayer(PlayerConfiguration config, ClientConfiguration[] clients)
+                throws Exception {
+            if (clients.length != 1 || clients[0].getSourceCount() != 0 || clients[0].getSinkCount() != 1) {
+                throw new IllegalArgumentException("Invalid client configuration");
+            }
+
+            int rotation = clients[0].getLookup().find(ClientConfiguration.Rotation.class)
+                    .map(ClientConfiguration.Rotation::getAngle)
+                    .filter(i -> i == 0 || i == 90 || i == 180 || i == 270)
+                    .orElse(0);
+
+            QueueContext queue = config.getLookup().find(QueueContext.class)
+                    .orElse((time, unit) -> unit.sleep(time));
+
+            return new OfflinePlayer(
+                    config.getClock(),
+                    config.getWidth(),
+                    config.getHeight(),
+                    config.getFPS(),
+                    rotation,
+                    Settings.get(KEY_OUTPUT, ""),
+                    Math.max(0, Settings.getDouble(KEY_SPEED, 0)),
+                    Math.max(0, Settings.getInt(KEY_FRAMES, 0)),
+                    queue);
+        }
+
+        @Override
+        public boolean usesVirtualClock() {
+            return true;
+        }
+
+    }
+
+    /**
+     * Provider of the offline player, registered for lookup as a
+     * {@link PlayerFactory.Provider}.
+     */
+    public static class Provider implements PlayerFactory.Provider {
+
+        @Override
+        public PlayerFactory getFactory() {
+            return FACTORY;
+        }
+
+        @Override
+        public String getLibraryName() {
+            return LIBRARY_NAME;
+        }
+
+    }
+
+}
@@ -30,6 +30,7 @@ import org.praxislive.video.render.SurfaceOp;
 import org.praxislive.video.render.ops.Blit;
 import org.praxislive.video.render.ops.Reverse;
 import org.praxislive.video.render.utils.ImageUtils;
+import org.praxislive.video.render.utils.ParallelBands;
 
 /**
  *
@@ -62,7 +63,7 @@ class SWSurface extends Surface {
         clear = false;
     }
 
-    private SWSurfaceData getReadableData() {
+    SWSurfaceData getReadableData() {
         if (sd == null) {
             sd = SWSurfaceData.createSurfaceData(this, getWidth(), getHeight(), hasAlpha(), clear);
         }
@@ -79,13 +80,13 @@ class SWSurface extends Surface {
     }
 
     private void processImpl(SurfaceOp op) {
-        op.process(getWritableData(), EMPTY_DATA);
+        processData(op, getWritableData(), EMPTY_DATA);
     }
 
     private void processImpl(SurfaceOp op, Surface input) {
         if (input instanceof SWSurface) {
             SWSurface in = (SWSurface) input;
-            op.process(getWritableData(), in.getReadableData());
+            processData(op, getWritableData(), in.getReadableData());
         } else {
             SurfaceOp rev = Reverse.op(op, getWritableData());
             input.process(rev);
@@ -101,7 +102,15 @@ class SWSurface extends Surface {
                 throw new UnsupportedOperationException("not yet implemented");
             }
         }
-        op.process(getWritableData(), pixelInputs);
+        processData(op, getWritableData(), pixelInputs);
+    }
+
+    private void processData(SurfaceOp op, PixelData output, PixelData... inputs) {
+        if (op instanceof SurfaceOp.Banded banded) {
+            ParallelBands.process(banded, output, inputs);
+        } else {
+            op.process(output, inputs);
+        }
     }
 
     @Override
@@ -0,0 +1,221 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.video.impl.components;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.praxislive.core.Clock;
+import org.praxislive.core.Settings;
+import org.praxislive.video.ClientConfiguration;
+import org.praxislive.video.Player;
+import org.praxislive.video.PlayerConfiguration;
+import org.praxislive.video.pipes.impl.SingleOut;
+import org.praxislive.video.render.Surface;
+import org.praxislive.video.render.ops.RectFill;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class OfflinePlayerTest {
+
+    private static final int WIDTH = 16;
+    private static final int HEIGHT = 8;
+    private static final double FPS = 30;
+    private static final int FRAMES = 10;
+    private static final long START = 1_000_000_000L;
+    private static final long CLOCK_STEP = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @TempDir
+    Path tempDir;
+
+    public OfflinePlayerTest() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Settings.put("video.offline.output", null, false);
+        Settings.put("video.offline.speed", null, false);
+        Settings.put("video.offline.frames", null, false);
+    }
+
+    @Test
+    public void testVirtualClock() {
+        assertTrue(OfflinePlayer.getFactory().usesVirtualClock());
+    }
+
+    @Test
+    @Timeout(10)
+    public void testRawOutput() throws Exception {
+        Path output = tempDir.resolve("out.raw");
+        FrameSource source = render(output.toString(), FRAMES);
+        assertEquals(FRAMES, source.times.size());
+        for (int i = 0; i < FRAMES; i++) {
+            assertEquals(START + (long) (i * 1_000_000_000.0 / FPS), source.times.get(i));
+        }
+        byte[] data = Files.readAllBytes(output);
+        int frameSize = WIDTH * HEIGHT * 3;
+        assertEquals(frameSize * FRAMES, data.length);
+        for (int i = 0; i < FRAMES; i++) {
+            assertRGB(color(i), data, i * frameSize, WIDTH * HEIGHT);
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    public void testPPMOutput() throws Exception {
+        FrameSource source = render(tempDir.resolve("frame-%03d.ppm").toString(), FRAMES);
+        assertEquals(FRAMES, source.times.size());
+        byte[] header = ("P6\n" + WIDTH + " " + HEIGHT + "\n255\n").getBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            byte[] data = Files.readAllBytes(tempDir.resolve(String.format("frame-%03d.ppm", i)));
+            assertEquals(header.length + WIDTH * HEIGHT * 3, data.length);
+            for (int b = 0; b < header.length; b++) {
+                assertEquals(header[b], data[b]);
+            }
+            assertRGB(color(i), data, header.length, WIDTH * HEIGHT);
+        }
+        assertFalse(Files.exists(tempDir.resolve(String.format("frame-%03d.ppm", FRAMES))));
+    }
+
+    @Test
+    @Timeout(10)
+    public void testImageOutput() throws Exception {
+        FrameSource source = render(tempDir.resolve("frame-%03d.png").toString(), FRAMES);
+        assertEquals(FRAMES, source.times.size());
+        for (int i = 0; i < FRAMES; i++) {
+            BufferedImage image = ImageIO.read(
+                    tempDir.resolve(String.format("frame-%03d.png", i)).toFile());
+            assertNotNull(image);
+            assertEquals(WIDTH, image.getWidth());
+            assertEquals(HEIGHT, image.getHeight());
+            assertEquals(color(i).getRGB() & 0xFFFFFF, image.getRGB(0, 0) & 0xFFFFFF);
+            assertEquals(color(i).getRGB() & 0xFFFFFF,
+                    image.getRGB(WIDTH - 1, HEIGHT - 1) & 0xFFFFFF);
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    public void testWriterError() throws Exception {
+        int frames = 100;
+        Path output = tempDir.resolve("missing").resolve("frame-%03d.ppm");
+        FrameSource source = render(output.toString(), frames);
+        assertTrue(source.times.size() < frames);
+        assertFalse(Files.exists(tempDir.resolve("missing")));
+    }
+
+    @Test
+    @Timeout(10)
+    public void testReport() throws Exception {
+        // System.Logger defaults to java.logging, which the module doesn't read
+        ModuleLayer.boot().findModule("java.logging")
+                .ifPresent(getClass().getModule()::addReads);
+        Logger logger = Logger.getLogger(OfflinePlayer.class.getName());
+        List<String> messages = new ArrayList<>();
+        logger.setFilter(record -> {
+            messages.add(record.getMessage());
+            return false;
+        });
+        try {
+            render("", FRAMES);
+        } finally {
+            logger.setFilter(null);
+        }
+        // clock is read once at start, once per frame and once on completion
+        double achieved = FRAMES * 1_000_000_000.0 / ((FRAMES + 1) * CLOCK_STEP);
+        String expected = String.format(
+                "Offline renderer : %d frames, %.2f fps (%.2fx real time)",
+                FRAMES, achieved, achieved / FPS);
+        assertEquals(List.of(expected), messages);
+    }
+
+    private FrameSource render(String output, int frames) throws Exception {
+        Settings.put("video.offline.output", output, false);
+        Settings.put("video.offline.frames", String.valueOf(frames), false);
+        Player player = OfflinePlayer.getFactory().createPlayer(
+                new PlayerConfiguration(new StepClock(), WIDTH, HEIGHT, FPS),
+                new ClientConfiguration[]{new ClientConfiguration(0, 1)});
+        FrameSource source = new FrameSource(player);
+        player.getSink(0).addSource(source);
+        player.run();
+        return source;
+    }
+
+    private static Color color(int frame) {
+        return new Color(frame * 20, 100, 255 - frame * 20);
+    }
+
+    private static void assertRGB(Color color, byte[] data, int offset, int pixels) {
+        for (int p = 0, i = offset; p < pixels; p++, i += 3) {
+            assertEquals(color.getRed(), data[i] & 0xFF);
+            assertEquals(color.getGreen(), data[i + 1] & 0xFF);
+            assertEquals(color.getBlue(), data[i + 2] & 0xFF);
+        }
+    }
+
+    private static class StepClock implements Clock {
+
+        private long time = START - CLOCK_STEP;
+
+        @Override
+        public long getTime() {
+            time += CLOCK_STEP;
+            return time;
+        }
+
+    }
+
+    private static class FrameSource extends SingleOut {
+
+        private final Player player;
+        private final List<Long> times;
+        private final RectFill fill;
+
+        private FrameSource(Player player) {
+            this.player = player;
+            this.times = new ArrayList<>();
+            this.fill = new RectFill().setBounds(0, 0, WIDTH, HEIGHT);
+        }
+
+        @Override
+        protected void process(Surface surface, boolean rendering) {
+            fill.setColor(color(times.size()));
+            surface.process(fill);
+            times.add(player.getTime());
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ module org.praxislive.video {
     
     requires java.desktop;
     requires java.logging;
+    requires static jdk.incubator.vector;
     
     requires org.praxislive.core;
     requires org.praxislive.base;
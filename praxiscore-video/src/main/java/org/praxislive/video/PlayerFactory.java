@@ -30,6 +30,18 @@ public interface PlayerFactory {
     public Player createPlayer(PlayerConfiguration config, ClientConfiguration[] clients)
             throws Exception;
     
+    /**
+     * Whether players created by this factory run on a virtual clock, rather
+     * than following the clock passed in the player configuration. A root
+     * hosting such a player must allow its clock to drift from the hub clock.
+     * The default implementation returns false.
+     *
+     * @return true if players run on a virtual clock
+     */
+    public default boolean usesVirtualClock() {
+        return false;
+    }
+    
     public static interface Provider {
         
         public PlayerFactory getFactory();
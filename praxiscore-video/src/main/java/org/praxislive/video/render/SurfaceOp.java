@@ -29,5 +29,37 @@ package org.praxislive.video.render;
 public interface SurfaceOp {
 
     public void process(PixelData output, PixelData ... inputs);
-    
+
+    /**
+     * Optional extension for ops whose output can be computed in independent
+     * horizontal bands of rows. A software surface may split processing of
+     * such an op into bands, and process bands concurrently on multiple
+     * threads.
+     * <p>
+     * Implementations must only write to output rows within the band, and
+     * must not read output rows outside of it. Inputs may be read freely, but
+     * not written. The op must not otherwise mutate shared state while
+     * processing.
+     */
+    public static interface Banded extends SurfaceOp {
+
+        /**
+         * Process the band of output rows from {@code y} (inclusive) to
+         * {@code y + height} (exclusive). Band coordinates are in the
+         * coordinate space of the output.
+         *
+         * @param output output pixel data
+         * @param y first row of band
+         * @param height number of rows in band
+         * @param inputs input pixel data
+         */
+        public void process(PixelData output, int y, int height, PixelData... inputs);
+
+        @Override
+        public default void process(PixelData output, PixelData... inputs) {
+            process(output, 0, output.getHeight(), inputs);
+        }
+
+    }
+
 }
@@ -31,7 +31,7 @@ import org.praxislive.video.render.utils.RGBMath;
 class BlendUtil {
     
     static void process(PixelData src, PixelData dst, BlendMode mode, double opacity) {
-        RGBComposite cmp = getComposite(mode);
+        RGBComposite cmp = RGBComposite.forMode(mode);
         int alpha = getExtraAlpha(opacity);
         int width = Math.min(src.getWidth(), dst.getWidth());
         int height = Math.min(src.getHeight(), dst.getHeight());
@@ -55,28 +55,6 @@ class BlendUtil {
         }
     }
     
-    private static RGBComposite getComposite(BlendMode mode) {
-        switch (mode) {
-            case Add:
-                return RGBComposite.ADD;
-            case BitXor:
-                return RGBComposite.BITXOR;
-            case Difference:
-                return RGBComposite.DIFFERENCE;
-            case Mask:
-                return RGBComposite.MASK;
-            case Multiply:
-                return RGBComposite.MULTIPLY;
-            case Normal:
-                return RGBComposite.NORMAL;
-            case Screen:
-                return RGBComposite.SCREEN;
-            case Sub:
-                return RGBComposite.SUB;
-        }
-        throw new IllegalArgumentException("Unknown blend mode");
-    }
-    
     private static int getExtraAlpha(double opacity) {
         if (opacity < 0.0 || opacity > 1.0) {
             throw new IllegalArgumentException("Opacity must be between 0 and 1");
@@ -29,7 +29,7 @@ import org.praxislive.video.render.SurfaceOp;
  *
  * 
  */
-public final class Blit implements SurfaceOp {
+public final class Blit implements SurfaceOp.Banded {
     
     private final Rectangle srcRegion = new Rectangle();
 
@@ -126,11 +126,19 @@ public final class Blit implements SurfaceOp {
         } else {
 //            PixelData dst = SubPixels.create(output, x, y, output.getWidth() - x, output.getHeight() - y);
 //            blend.process(inputs[0], dst);
-            processComplex(inputs[0], output);
+            processComplex(inputs[0], output, 0, output.getHeight());
         }
     }
 
-    private void processComplex(PixelData src, PixelData dst) {
+    @Override
+    public void process(PixelData output, int bandY, int bandHeight, PixelData... inputs) {
+        if (inputs.length < 1) {
+            return;
+        }
+        processComplex(inputs[0], output, bandY, bandHeight);
+    }
+
+    private void processComplex(PixelData src, PixelData dst, int bandY, int bandHeight) {
         Rectangle sRct = new Rectangle(0, 0, src.getWidth(), src.getHeight());
         int srcX = 0, srcY = 0;
         if (hasRegion) {
@@ -141,7 +149,8 @@ public final class Blit implements SurfaceOp {
             srcX = sRct.x;
             srcY = sRct.y;
         }
-        Rectangle dRct = new Rectangle(0, 0, dst.getWidth(), dst.getHeight());
+        Rectangle dRct = new Rectangle(0, 0, dst.getWidth(), dst.getHeight())
+                .intersection(new Rectangle(0, bandY, dst.getWidth(), bandHeight));
         sRct.translate(x - srcX, y - srcY);
         Rectangle intersection = dRct.intersection(sRct);
         if (intersection.isEmpty()) {
@@ -57,150 +57,379 @@
  *
  */
 
+
 package org.praxislive.video.render.ops;
 
-import java.util.logging.Logger;
+import java.util.Arrays;
 import org.praxislive.video.render.PixelData;
 import org.praxislive.video.render.SurfaceOp;
+import org.praxislive.video.render.utils.ParallelBands;
 import org.praxislive.video.render.utils.PixelArrayCache;
 
-
 /**
- *
- * 
+ * Box and Gaussian blur. Each box pass is a sliding window sum, so the cost
+ * per pixel is independent of radius. Passes are separable - a horizontal pass
+ * over rows into a temporary buffer, followed by a vertical pass back into the
+ * output over strips of columns, keeping a running sum per column so that
+ * memory access stays sequential. Rows, and strips of columns, are processed
+ * in parallel using {@link ParallelBands}.
+ * <p>
+ * Pixel data is premultiplied, so all channels are blurred independently,
+ * which keeps colour channels within alpha. Data without alpha skips the alpha
+ * channel, and the alpha bits of the result are zero.
+ * <p>
+ * A Gaussian blur is approximated by three successive box blurs with radii
+ * derived from the standard deviation.
  */
 public class Blur implements SurfaceOp {
 
-    // private final static Logger LOG = Logger.getLogger(Blur.class.getName());
-    
-    private int xRadius;
-    private int yRadius;
-    private TempData tmp;
+    private final static int MAX_RADIUS = 16384;
+    private final static int GAUSSIAN_PASSES = 3;
+    private final static int CACHED_KERNELS = 256;
+    // fixed point shift for reciprocal division, exact for all sums of
+    // window sizes below 2^16
+    private final static int SHIFT = 40;
+    private final static Kernel[] KERNELS = new Kernel[CACHED_KERNELS];
+
+    private final Kernel[] kernels;
 
-    private Blur(int radius) {
-        this.xRadius = radius;
-        this.yRadius = radius;
+    private Blur(int[] radii) {
+        this.kernels = Arrays.stream(radii)
+                .filter(r -> r > 0)
+                .mapToObj(Blur::kernel)
+                .toArray(Kernel[]::new);
     }
 
+    @Override
     public void process(PixelData output, PixelData... inputs) {
-        int dstH = output.getWidth();
-        int dstW = output.getHeight();
-        if (tmp == null || tmp.getWidth() != dstW || tmp.getHeight() != dstH) {
-            tmp = TempData.create(dstW, dstH, true);
-        }
-        blur(output, tmp, xRadius);
-        blur(tmp, output, yRadius);
-        tmp.release();
+        if (kernels.length == 0) {
+            return;
+        }
+        boolean alpha = output.hasAlpha();
+        TempData tmp = TempData.create(output.getWidth(), output.getHeight(), alpha);
+        try {
+            for (Kernel kernel : kernels) {
+                blurRows(output, tmp, kernel, alpha);
+                blurColumns(tmp, output, kernel, alpha);
+            }
+        } finally {
+            tmp.release();
+        }
     }
 
-    private void blur(PixelData src, PixelData dst, int radius) {
-
-	    final int windowSize = radius * 2 + 1;
-	    final int radiusPlusOne = radius + 1;
-
-	    int sumAlpha;
-	    int sumRed;
-	    int sumGreen;
-	    int sumBlue;
-
-	    int srcIndex = src.getOffset();
-            int srcSL = src.getScanline();
-            int dstSL = dst.getScanline();
-	    int dstIndex;
-	    int pixel;
-
-//	    int[] sumLookupTable = new int[256 * windowSize];
-//	    for (int i = 0; i < sumLookupTable.length; i++) {
-//	        sumLookupTable[i] = i / windowSize;
-//	    }
-            int lookupSize = 256 * windowSize;
-            int[] sumLookupTable = PixelArrayCache.acquire(lookupSize, false);
-            for (int i=0; i < lookupSize; i++) {
-                sumLookupTable[i] = i / windowSize;
+    private static void blurRows(PixelData src, PixelData dst, Kernel kernel, boolean alpha) {
+        int[] srcPixels = src.getData();
+        int srcOffset = src.getOffset();
+        int srcSL = src.getScanline();
+        int[] dstPixels = dst.getData();
+        int dstOffset = dst.getOffset();
+        int dstSL = dst.getScanline();
+        int width = src.getWidth();
+        ParallelBands.forEach(width, src.getHeight(), (y, height) -> {
+            for (int row = y, end = y + height; row < end; row++) {
+                int srcIndex = srcOffset + row * srcSL;
+                int dstIndex = dstOffset + row * dstSL;
+                if (alpha) {
+                    rowARGB(kernel, srcPixels, srcIndex, dstPixels, dstIndex, width);
+                } else {
+                    rowRGB(kernel, srcPixels, srcIndex, dstPixels, dstIndex, width);
+                }
             }
+        });
+    }
+
+    private static void blurColumns(PixelData src, PixelData dst, Kernel kernel, boolean alpha) {
+        int[] srcPixels = src.getData();
+        int srcOffset = src.getOffset();
+        int srcSL = src.getScanline();
+        int[] dstPixels = dst.getData();
+        int dstOffset = dst.getOffset();
+        int dstSL = dst.getScanline();
+        int height = src.getHeight();
+        // split into vertical strips, processed top to bottom with a running
+        // sum per column, so that reads and writes stay sequential. Sums are
+        // acquired here rather than on the worker threads, with each strip
+        // using its own range of the array.
+        int[] sums = PixelArrayCache.acquire(src.getWidth() * 4, true);
+        try {
+            ParallelBands.forEach(height, src.getWidth(), (x, width) -> {
+                if (alpha) {
+                    columnsARGB(kernel, srcPixels, srcOffset + x, srcSL,
+                            dstPixels, dstOffset + x, dstSL, width, height, sums, x * 4);
+                } else {
+                    columnsRGB(kernel, srcPixels, srcOffset + x, srcSL,
+                            dstPixels, dstOffset + x, dstSL, width, height, sums, x * 4);
+                }
+            });
+        } finally {
+            PixelArrayCache.release(sums);
+        }
+    }
+
+    private static void rowARGB(Kernel kernel,
+            int[] srcPixels, int srcIndex, int[] dstPixels, int dstIndex, int width) {
+        final int radius = kernel.radius;
+        final long reciprocal = kernel.reciprocal;
+        final int last = width - 1;
+
+        // leading edge is clamped to first pixel, trailing edge to last
+        int pixel = srcPixels[srcIndex];
+        int sumAlpha = (radius + 1) * (pixel >>> 24);
+        int sumRed = (radius + 1) * ((pixel >> 16) & 0xFF);
+        int sumGreen = (radius + 1) * ((pixel >> 8) & 0xFF);
+        int sumBlue = (radius + 1) * (pixel & 0xFF);
+        int inside = Math.min(radius, last);
+        for (int i = 1; i <= inside; i++) {
+            pixel = srcPixels[srcIndex + i];
+            sumAlpha += pixel >>> 24;
+            sumRed += (pixel >> 16) & 0xFF;
+            sumGreen += (pixel >> 8) & 0xFF;
+            sumBlue += pixel & 0xFF;
+        }
+        int outside = radius - inside;
+        if (outside > 0) {
+            pixel = srcPixels[srcIndex + last];
+            sumAlpha += outside * (pixel >>> 24);
+            sumRed += outside * ((pixel >> 16) & 0xFF);
+            sumGreen += outside * ((pixel >> 8) & 0xFF);
+            sumBlue += outside * (pixel & 0xFF);
+        }
+
+        for (int x = 0; x < width; x++) {
+            dstPixels[dstIndex] = divide(sumAlpha, reciprocal) << 24
+                    | divide(sumRed, reciprocal) << 16
+                    | divide(sumGreen, reciprocal) << 8
+                    | divide(sumBlue, reciprocal);
+            dstIndex++;
 
-	    int[] indexLookupTable = new int[radiusPlusOne];
-            int width = src.getWidth();
-	    if (radius < width) {
-	        for (int i = 0; i < indexLookupTable.length; i++) {
-	            indexLookupTable[i] = i;
-	        }
-	    } else {
-	        for (int i = 0; i < width; i++) {
-	            indexLookupTable[i] = i;
-	        }
-	        for (int i = width; i < indexLookupTable.length; i++) {
-	            indexLookupTable[i] = width - 1;
-	        }
-	    }
-
-            int height = src.getHeight();
-//            int dstSL = dst.getScanline();
-            int[] srcPixels = src.getData();
-            int[] dstPixels = dst.getData();
-
-	    for (int y = 0; y < height; y++) {
-	        sumAlpha = sumRed = sumGreen = sumBlue = 0;
-	        dstIndex = y + dst.getOffset();
-
-	        pixel = srcPixels[srcIndex];
-	        sumAlpha += radiusPlusOne * ((pixel >> 24) & 0xFF);
-	        sumRed   += radiusPlusOne * ((pixel >> 16) & 0xFF);
-	        sumGreen += radiusPlusOne * ((pixel >>  8) & 0xFF);
-	        sumBlue  += radiusPlusOne * ( pixel        & 0xFF);
-
-	        for (int i = 1; i <= radius; i++) {
-	        	 pixel = srcPixels[srcIndex + indexLookupTable[i]];
-	            sumAlpha += (pixel >> 24) & 0xFF;
-	            sumRed   += (pixel >> 16) & 0xFF;
-	            sumGreen += (pixel >>  8) & 0xFF;
-	            sumBlue  +=  pixel        & 0xFF;
-	        }
-
-	        for  (int x = 0; x < width; x++) {
-	            dstPixels[dstIndex] = sumLookupTable[sumAlpha] << 24 |
-                					  sumLookupTable[sumRed]   << 16 |
-                					  sumLookupTable[sumGreen] <<  8 |
-                					  sumLookupTable[sumBlue];
-	            dstIndex += dstSL;
-
-	            int nextPixelIndex = x + radiusPlusOne;
-	            if (nextPixelIndex >= width) {
-	                nextPixelIndex = width - 1;
-	            }
-
-	            int previousPixelIndex = x - radius;
-	            if (previousPixelIndex < 0) {
-	                previousPixelIndex = 0;
-	            }
-
-	            int nextPixel = srcPixels[srcIndex + nextPixelIndex];
-	            int previousPixel = srcPixels[srcIndex + previousPixelIndex];
-
-	            sumAlpha += (nextPixel     >> 24) & 0xFF;
-	            sumAlpha -= (previousPixel >> 24) & 0xFF;
-
-	            sumRed += (nextPixel     >> 16) & 0xFF;
-	            sumRed -= (previousPixel >> 16) & 0xFF;
-
-	            sumGreen += (nextPixel     >> 8) & 0xFF;
-	            sumGreen -= (previousPixel >> 8) & 0xFF;
-
-	            sumBlue += nextPixel & 0xFF;
-	            sumBlue -= previousPixel & 0xFF;
-	        }
-
-	        srcIndex += srcSL;
-	    }
-
-            PixelArrayCache.release(sumLookupTable);
-	}
+            int next = srcPixels[srcIndex + Math.min(x + radius + 1, last)];
+            int previous = srcPixels[srcIndex + Math.max(x - radius, 0)];
+            sumAlpha += (next >>> 24) - (previous >>> 24);
+            sumRed += ((next >> 16) & 0xFF) - ((previous >> 16) & 0xFF);
+            sumGreen += ((next >> 8) & 0xFF) - ((previous >> 8) & 0xFF);
+            sumBlue += (next & 0xFF) - (previous & 0xFF);
+        }
+    }
+
+    private static void rowRGB(Kernel kernel,
+            int[] srcPixels, int srcIndex, int[] dstPixels, int dstIndex, int width) {
+        final int radius = kernel.radius;
+        final long reciprocal = kernel.reciprocal;
+        final int last = width - 1;
 
+        int pixel = srcPixels[srcIndex];
+        int sumRed = (radius + 1) * ((pixel >> 16) & 0xFF);
+        int sumGreen = (radius + 1) * ((pixel >> 8) & 0xFF);
+        int sumBlue = (radius + 1) * (pixel & 0xFF);
+        int inside = Math.min(radius, last);
+        for (int i = 1; i <= inside; i++) {
+            pixel = srcPixels[srcIndex + i];
+            sumRed += (pixel >> 16) & 0xFF;
+            sumGreen += (pixel >> 8) & 0xFF;
+            sumBlue += pixel & 0xFF;
+        }
+        int outside = radius - inside;
+        if (outside > 0) {
+            pixel = srcPixels[srcIndex + last];
+            sumRed += outside * ((pixel >> 16) & 0xFF);
+            sumGreen += outside * ((pixel >> 8) & 0xFF);
+            sumBlue += outside * (pixel & 0xFF);
+        }
+
+        for (int x = 0; x < width; x++) {
+            dstPixels[dstIndex] = divide(sumRed, reciprocal) << 16
+                    | divide(sumGreen, reciprocal) << 8
+                    | divide(sumBlue, reciprocal);
+            dstIndex++;
+
+            int next = srcPixels[srcIndex + Math.min(x + radius + 1, last)];
+            int previous = srcPixels[srcIndex + Math.max(x - radius, 0)];
+            sumRed += ((next >> 16) & 0xFF) - ((previous >> 16) & 0xFF);
+            sumGreen += ((next >> 8) & 0xFF) - ((previous >> 8) & 0xFF);
+            sumBlue += (next & 0xFF) - (previous & 0xFF);
+        }
+    }
+
+    private static void columnsARGB(Kernel kernel,
+            int[] srcPixels, int srcIndex, int srcSL,
+            int[] dstPixels, int dstIndex, int dstSL,
+            int width, int height, int[] sums, int sumsOffset) {
+        final int radius = kernel.radius;
+        final long reciprocal = kernel.reciprocal;
+        final int last = height - 1;
+        final int alpha = sumsOffset;
+        final int red = sumsOffset + width;
+        final int green = sumsOffset + width * 2;
+        final int blue = sumsOffset + width * 3;
+
+        // leading edge is clamped to first row, trailing edge to last
+        accumulate(srcPixels, srcIndex, sums, sumsOffset, width, radius + 1, true);
+        int inside = Math.min(radius, last);
+        for (int i = 1; i <= inside; i++) {
+            accumulate(srcPixels, srcIndex + i * srcSL, sums, sumsOffset, width, 1, true);
+        }
+        int outside = radius - inside;
+        if (outside > 0) {
+            accumulate(srcPixels, srcIndex + last * srcSL, sums, sumsOffset, width, outside, true);
+        }
+
+        for (int y = 0; y < height; y++) {
+            int dst = dstIndex + y * dstSL;
+            int next = srcIndex + Math.min(y + radius + 1, last) * srcSL;
+            int previous = srcIndex + Math.max(y - radius, 0) * srcSL;
+            for (int x = 0; x < width; x++) {
+                int sumAlpha = sums[alpha + x];
+                int sumRed = sums[red + x];
+                int sumGreen = sums[green + x];
+                int sumBlue = sums[blue + x];
+                dstPixels[dst + x] = divide(sumAlpha, reciprocal) << 24
+                        | divide(sumRed, reciprocal) << 16
+                        | divide(sumGreen, reciprocal) << 8
+                        | divide(sumBlue, reciprocal);
+                int n = srcPixels[next + x];
+                int p = srcPixels[previous + x];
+                sums[alpha + x] = sumAlpha + (n >>> 24) - (p >>> 24);
+                sums[red + x] = sumRed + ((n >> 16) & 0xFF) - ((p >> 16) & 0xFF);
+                sums[green + x] = sumGreen + ((n >> 8) & 0xFF) - ((p >> 8) & 0xFF);
+                sums[blue + x] = sumBlue + (n & 0xFF) - (p & 0xFF);
+            }
+        }
+    }
+
+    private static void columnsRGB(Kernel kernel,
+            int[] srcPixels, int srcIndex, int srcSL,
+            int[] dstPixels, int dstIndex, int dstSL,
+            int width, int height, int[] sums, int sumsOffset) {
+        final int radius = kernel.radius;
+        final long reciprocal = kernel.reciprocal;
+        final int last = height - 1;
+        final int red = sumsOffset + width;
+        final int green = sumsOffset + width * 2;
+        final int blue = sumsOffset + width * 3;
+
+        accumulate(srcPixels, srcIndex, sums, sumsOffset, width, radius + 1, false);
+        int inside = Math.min(radius, last);
+        for (int i = 1; i <= inside; i++) {
+            accumulate(srcPixels, srcIndex + i * srcSL, sums, sumsOffset, width, 1, false);
+        }
+        int outside = radius - inside;
+        if (outside > 0) {
+            accumulate(srcPixels, srcIndex + last * srcSL, sums, sumsOffset, width, outside, false);
+        }
+
+        for (int y = 0; y < height; y++) {
+            int dst = dstIndex + y * dstSL;
+            int next = srcIndex + Math.min(y + radius + 1, last) * srcSL;
+            int previous = srcIndex + Math.max(y - radius, 0) * srcSL;
+            for (int x = 0; x < width; x++) {
+                int sumRed = sums[red + x];
+                int sumGreen = sums[green + x];
+                int sumBlue = sums[blue + x];
+                dstPixels[dst + x] = divide(sumRed, reciprocal) << 16
+                        | divide(sumGreen, reciprocal) << 8
+                        | divide(sumBlue, reciprocal);
+                int n = srcPixels[next + x];
+                int p = srcPixels[previous + x];
+                sums[red + x] = sumRed + ((n >> 16) & 0xFF) - ((p >> 16) & 0xFF);
+                sums[green + x] = sumGreen + ((n >> 8) & 0xFF) - ((p >> 8) & 0xFF);
+                sums[blue + x] = sumBlue + (n & 0xFF) - (p & 0xFF);
+            }
+        }
+    }
+
+    private static void accumulate(int[] pixels, int index, int[] sums, int offset,
+            int width, int factor, boolean alpha) {
+        for (int x = 0; x < width; x++) {
+            int pixel = pixels[index + x];
+            if (alpha) {
+                sums[offset + x] += factor * (pixel >>> 24);
+            }
+            sums[offset + width + x] += factor * ((pixel >> 16) & 0xFF);
+            sums[offset + width * 2 + x] += factor * ((pixel >> 8) & 0xFF);
+            sums[offset + width * 3 + x] += factor * (pixel & 0xFF);
+        }
+    }
+
+    private static int divide(int sum, long reciprocal) {
+        return (int) ((sum * reciprocal) >>> SHIFT);
+    }
+
+    private static Kernel kernel(int radius) {
+        if (radius < CACHED_KERNELS) {
+            // benign race - kernels are immutable and equivalent
+            Kernel kernel = KERNELS[radius];
+            if (kernel == null) {
+                kernel = new Kernel(radius);
+                KERNELS[radius] = kernel;
+            }
+            return kernel;
+        } else {
+            return new Kernel(radius);
+        }
+    }
+
+    static int[] gaussianRadii(double sigma) {
+        // box sizes for n passes approximating a Gaussian - see
+        // W. Jarosz, Fast Image Convolutions
+        double variance = 12 * sigma * sigma;
+        int lower = (int) Math.sqrt(variance / GAUSSIAN_PASSES + 1);
+        if (lower % 2 == 0) {
+            lower--;
+        }
+        int upper = lower + 2;
+        long lowerPasses = Math.round((variance
+                - GAUSSIAN_PASSES * ((double) lower * lower + 4.0 * lower + 3))
+                / (-4.0 * lower - 4));
+        int[] radii = new int[GAUSSIAN_PASSES];
+        for (int i = 0; i < GAUSSIAN_PASSES; i++) {
+            radii[i] = Math.min(((i < lowerPasses ? lower : upper) - 1) / 2, MAX_RADIUS);
+        }
+        return radii;
+    }
+
+    /**
+     * Create a box blur op with the given radius. The window size is
+     * {@code radius * 2 + 1} pixels in each direction. The radius is limited
+     * to 16384.
+     *
+     * @param radius blur radius, not negative
+     * @return blur op
+     * @throws IllegalArgumentException if radius is negative
+     */
     public static SurfaceOp op(int radius) {
         if (radius < 0) {
             throw new IllegalArgumentException();
         }
-        return new Blur(radius);
+        return new Blur(new int[]{Math.min(radius, MAX_RADIUS)});
+    }
+
+    /**
+     * Create a Gaussian blur op with the given standard deviation, approximated
+     * by three successive box blurs. The standard deviation is limited to
+     * 16384.
+     *
+     * @param sigma standard deviation in pixels, not negative
+     * @return blur op
+     * @throws IllegalArgumentException if sigma is negative or not finite
+     */
+    public static SurfaceOp gaussian(double sigma) {
+        if (!(sigma >= 0) || Double.isInfinite(sigma)) {
+            throw new IllegalArgumentException();
+        }
+        return new Blur(gaussianRadii(Math.min(sigma, MAX_RADIUS)));
+    }
+
+    private static final class Kernel {
+
+        private final int radius;
+        private final long reciprocal;
+
+        private Kernel(int radius) {
+            this.radius = radius;
+            long windowSize = radius * 2 + 1;
+            this.reciprocal = ((1L << SHIFT) + windowSize - 1) / windowSize;
+        }
+
     }
 
 }
@@ -30,7 +30,7 @@ import static org.praxislive.video.render.utils.RGBMath.*;
  *
  * 
  */
-public class DifferenceOp implements SurfaceOp {
+public class DifferenceOp implements SurfaceOp.Banded {
     
     public static enum Mode {Color, Mono, Threshold};
 
@@ -42,19 +42,20 @@ public class DifferenceOp implements SurfaceOp {
         this.mode = Mode.Color;
     }
 
-    public void process(PixelData output, PixelData... inputs) {
+    @Override
+    public void process(PixelData output, int bandY, int bandHeight, PixelData... inputs) {
         if (inputs.length < 1) {
             return;
         }
         switch (mode) {
             case Color :
-                processColor(output, inputs[0]);
+                processColor(output, inputs[0], bandY, bandHeight);
                 break;
             case Mono :
-                processMono(output, inputs[0]);
+                processMono(output, inputs[0], bandY, bandHeight);
                 break;
             case Threshold :
-                processThreshold(output, inputs[0]);
+                processThreshold(output, inputs[0], bandY, bandHeight);
                 break;
         }
 
@@ -83,22 +84,24 @@ public class DifferenceOp implements SurfaceOp {
         return mode;
     }
 
-    private void processColor(PixelData output, PixelData input) {
+    private void processColor(PixelData output, PixelData input, int bandY, int bandHeight) {
         int thres = (int) Math.round(threshold * 256);
         int width = Math.min(input.getWidth(), output.getWidth());
         int height = Math.min(input.getHeight(), output.getHeight());
+        int from = Math.max(0, bandY);
+        int to = Math.min(height, bandY + bandHeight);
         int bgDelta = input.getScanline() - width;
         int fgDelta = output.getScanline() - width;
         int[] bgData = input.getData();
         int[] fgData = output.getData();
-        int bgIdx = 0;
-        int fgIdx = 0;
+        int bgIdx = from * input.getScanline();
+        int fgIdx = from * output.getScanline();
 
         int fg, fgR, fgG, fgB;
         int bg, bgR, bgG, bgB;
         int maxDelta;
         
-        for (int y = 0; y < height; y++) {
+        for (int y = from; y < to; y++) {
                 for (int x = 0; x < width; x++) {
                     fg = fgData[fgIdx];
                     fgR = (fg & RED_MASK) >>> 16;
@@ -131,22 +134,24 @@ public class DifferenceOp implements SurfaceOp {
         
     }
 
-    private void processMono(PixelData output, PixelData input) {
+    private void processMono(PixelData output, PixelData input, int bandY, int bandHeight) {
         int thres = (int) Math.round(threshold * 256);
         int width = Math.min(input.getWidth(), output.getWidth());
         int height = Math.min(input.getHeight(), output.getHeight());
+        int from = Math.max(0, bandY);
+        int to = Math.min(height, bandY + bandHeight);
         int bgDelta = input.getScanline() - width;
         int fgDelta = output.getScanline() - width;
         int[] bgData = input.getData();
         int[] fgData = output.getData();
-        int bgIdx = 0;
-        int fgIdx = 0;
+        int bgIdx = from * input.getScanline();
+        int fgIdx = from * output.getScanline();
 
         int fg, fgR, fgG, fgB;
         int bg, bgR, bgG, bgB;
         int maxDelta;
         
-        for (int y = 0; y < height; y++) {
+        for (int y = from; y < to; y++) {
                 for (int x = 0; x < width; x++) {
                     fg = fgData[fgIdx];
                     fgR = (fg & RED_MASK) >>> 16;
@@ -179,16 +184,18 @@ public class DifferenceOp implements SurfaceOp {
         
     }
 
-    private void processThreshold(PixelData output, PixelData input) {
+    private void processThreshold(PixelData output, PixelData input, int bandY, int bandHeight) {
         int thres = (int) Math.round(threshold * 256);
         int width = Math.min(input.getWidth(), output.getWidth());
         int height = Math.min(input.getHeight(), output.getHeight());
+        int from = Math.max(0, bandY);
+        int to = Math.min(height, bandY + bandHeight);
         int bgDelta = input.getScanline() - width;
         int fgDelta = output.getScanline() - width;
         int[] bgData = input.getData();
         int[] fgData = output.getData();
-        int bgIdx = 0;
-        int fgIdx = 0;
+        int bgIdx = from * input.getScanline();
+        int fgIdx = from * output.getScanline();
 
         int fg, fgR, fgG, fgB;
         int bg, bgR, bgG, bgB;
@@ -196,7 +203,7 @@ public class DifferenceOp implements SurfaceOp {
         
         boolean alpha = output.hasAlpha();
         
-        for (int y = 0; y < height; y++) {
+        for (int y = from; y < to; y++) {
                 for (int x = 0; x < width; x++) {
                     fg = fgData[fgIdx];
                     fgR = (fg & RED_MASK) >>> 16;
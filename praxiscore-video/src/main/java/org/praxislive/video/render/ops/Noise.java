@@ -22,9 +22,9 @@
 
 package org.praxislive.video.render.ops;
 
+import java.util.concurrent.ThreadLocalRandom;
 import org.praxislive.video.render.PixelData;
 import org.praxislive.video.render.SurfaceOp;
-import org.praxislive.video.render.utils.RGBMath;
 
 
 
@@ -32,23 +32,29 @@ import org.praxislive.video.render.utils.RGBMath;
  *
  * 
  */
-public class Noise implements SurfaceOp {
+public class Noise implements SurfaceOp.Banded {
 
     private final static Noise op = new Noise();
 
     private Noise() {}
 
-    public void process(PixelData output, PixelData... inputs) {
-        int index = 0;
+    @Override
+    public void process(PixelData output, int bandY, int bandHeight, PixelData... inputs) {
         int width = output.getWidth();
-        int height = output.getHeight();
+        int from = Math.max(0, bandY);
+        int to = Math.min(output.getHeight(), bandY + bandHeight);
         int scanline = output.getScanline();
         int delta = scanline - width;
+        int index = output.getOffset() + from * scanline;
         int[] data = output.getData();
         boolean alpha = output.hasAlpha();
-        for (int y=0; y < height; y++) {
-            for (int x=0; x < width; x++) {
-                int value = RGBMath.random();
+        // bands may run concurrently so use a local generator rather than
+        // the shared RGBMath.random()
+        int seed = ThreadLocalRandom.current().nextInt();
+        for (int y = from; y < to; y++) {
+            for (int x = 0; x < width; x++) {
+                seed = seed * 1103515245 + 12345;
+                int value = (seed >> 16) & 0xFF;
                 data[index] = alpha ? value << 24 | value << 16 | value << 8 | value :
                     value << 16 | value << 8 | value;
                 index++;
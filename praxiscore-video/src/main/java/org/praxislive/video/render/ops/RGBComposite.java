@@ -14,6 +14,10 @@
  */
 package org.praxislive.video.render.ops;
 
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.praxislive.core.Settings;
+
 import static org.praxislive.video.render.utils.RGBMath.*;
 
 /**
@@ -30,10 +34,88 @@ abstract class RGBComposite {
     final static RGBComposite NORMAL = new RGBComposite.Normal();
     final static RGBComposite SCREEN = new RGBComposite.Screen();
     final static RGBComposite SUB = new RGBComposite.Sub();
-    
-    
 
-    private RGBComposite() {
+    private final static Logger LOG = Logger.getLogger(RGBComposite.class.getName());
+    private final static String KEY_VECTOR = "video.vector";
+    private final static String VECTOR_MODULE = "jdk.incubator.vector";
+    private final static RGBComposite[] COMPOSITES = initComposites();
+
+    RGBComposite() {
+    }
+
+    /**
+     * Get the composite for the given blend mode. This will be a Vector API
+     * implementation if the jdk.incubator.vector module is available (eg. by
+     * running with {@code --add-modules jdk.incubator.vector}) and the
+     * video.vector setting is not false. Otherwise the scalar implementation
+     * is returned.
+     *
+     * @param mode blend mode
+     * @return composite
+     */
+    static RGBComposite forMode(BlendMode mode) {
+        return COMPOSITES[mode.ordinal()];
+    }
+
+    /**
+     * Get the scalar composite for the given blend mode.
+     *
+     * @param mode blend mode
+     * @return scalar composite
+     */
+    static RGBComposite scalar(BlendMode mode) {
+        return switch (mode) {
+            case Add ->
+                ADD;
+            case BitXor ->
+                BITXOR;
+            case Difference ->
+                DIFFERENCE;
+            case Mask ->
+                MASK;
+            case Multiply ->
+                MULTIPLY;
+            case Normal ->
+                NORMAL;
+            case Screen ->
+                SCREEN;
+            case Sub ->
+                SUB;
+        };
+    }
+
+    /**
+     * Check whether the Vector API implementations can be used.
+     *
+     * @return true if vector module is available
+     */
+    static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE)
+                .filter(RGBComposite.class.getModule()::canRead)
+                .isPresent();
+    }
+
+    private static RGBComposite[] initComposites() {
+        BlendMode[] modes = BlendMode.values();
+        RGBComposite[] composites = new RGBComposite[modes.length];
+        for (BlendMode mode : modes) {
+            composites[mode.ordinal()] = scalar(mode);
+        }
+        if (Settings.getBoolean(KEY_VECTOR, true) && isVectorAvailable()) {
+            try {
+                for (BlendMode mode : modes) {
+                    composites[mode.ordinal()] = VectorRGBComposite.forMode(mode);
+                }
+                LOG.log(Level.FINE, "Using Vector API composites with {0} lanes",
+                        VectorRGBComposite.lanes());
+            } catch (LinkageError | RuntimeException ex) {
+                LOG.log(Level.WARNING, "Unable to use Vector API composites", ex);
+                for (BlendMode mode : modes) {
+                    composites[mode.ordinal()] = scalar(mode);
+                }
+            }
+        }
+        return composites;
     }
 
     abstract void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha);
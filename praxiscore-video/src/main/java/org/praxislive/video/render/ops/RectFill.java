@@ -33,7 +33,7 @@ import org.praxislive.video.render.utils.RGBMath;
  *
  * 
  */
-public class RectFill implements SurfaceOp {
+public class RectFill implements SurfaceOp.Banded {
 
     private final Rectangle bounds;
     private Color color;
@@ -105,8 +105,9 @@ public class RectFill implements SurfaceOp {
     }
 
     @Override
-    public void process(PixelData output, PixelData... inputs) {
-        Rectangle out = new Rectangle(output.getWidth(), output.getHeight());
+    public void process(PixelData output, int bandY, int bandHeight, PixelData... inputs) {
+        Rectangle out = new Rectangle(output.getWidth(), output.getHeight())
+                .intersection(new Rectangle(0, bandY, output.getWidth(), bandHeight));
         Rectangle intersection = out.intersection(bounds);
         if (intersection.isEmpty()) {
             return;
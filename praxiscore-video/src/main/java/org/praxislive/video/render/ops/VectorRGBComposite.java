@@ -0,0 +1,951 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.video.render.ops;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.*;
+
+/**
+ * Implementations of the RGBComposite blend modes using the incubating Vector
+ * API. Each implementation processes the largest multiple of the preferred
+ * species length using vector lanes of packed pixels, and passes the tail to
+ * the scalar implementation. The lane arithmetic mirrors the scalar
+ * implementations exactly, including any overflow between channels, so that
+ * results are bit-identical.
+ * <p>
+ * This class must only be loaded if the jdk.incubator.vector module is
+ * readable - see {@link RGBComposite#forMode(BlendMode)}.
+ */
+abstract class VectorRGBComposite extends RGBComposite {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final IntVector ZERO = IntVector.zero(SPECIES);
+    private static final IntVector ONE = IntVector.broadcast(SPECIES, 1);
+    private static final IntVector CHANNEL_MASK = IntVector.broadcast(SPECIES, 0xFF);
+
+    private VectorRGBComposite() {
+    }
+
+    static RGBComposite forMode(BlendMode mode) {
+        return switch (mode) {
+            case Add ->
+                new Add();
+            case BitXor ->
+                new BitXor();
+            case Difference ->
+                new Difference();
+            case Mask ->
+                new Mask();
+            case Multiply ->
+                new Multiply();
+            case Normal ->
+                new Normal();
+            case Screen ->
+                new Screen();
+            case Sub ->
+                new Sub();
+        };
+    }
+
+    static int lanes() {
+        return LANES;
+    }
+
+    private static int loopBound(int[] src, int srcPos, int[] dest, int destPos, int length) {
+        if (src == dest && srcPos != destPos) {
+            // overlapping regions must be processed pixel by pixel
+            return 0;
+        }
+        return SPECIES.loopBound(length);
+    }
+
+    // Helpers only call the Vector API directly, and not each other, to keep
+    // within the inlining depth required for the vector intrinsics. Constant
+    // and alpha operands are passed as vectors broadcast outside of the loops,
+    // and the colour channels are processed in an inner loop over the channel
+    // shift, to keep the parsed loop body under the JIT's inlining node limit.
+
+    private static IntVector channel(IntVector px, int shift) {
+        return px.lanewise(LSHR, shift).lanewise(AND, CHANNEL_MASK);
+    }
+
+    private static IntVector source(IntVector px, int shift, IntVector factor) {
+        // mult(channel, alpha) with a precomputed factor of alpha + 1
+        return px.lanewise(LSHR, shift).lanewise(AND, CHANNEL_MASK)
+                .mul(factor).lanewise(ASHR, 8);
+    }
+
+    private static IntVector min(IntVector a, IntVector b) {
+        return a.lanewise(MIN, b);
+    }
+
+    private static IntVector max(IntVector a, IntVector b) {
+        return a.lanewise(MAX, b);
+    }
+
+    private static IntVector diff(IntVector a, IntVector b) {
+        return a.sub(b).lanewise(ABS);
+    }
+
+    private static IntVector inverse(IntVector v) {
+        // 255 - v for channel values
+        return v.lanewise(XOR, CHANNEL_MASK);
+    }
+
+    private static IntVector mult(IntVector val, IntVector multiplier) {
+        return val.mul(multiplier.add(ONE)).lanewise(ASHR, 8);
+    }
+
+    private static IntVector scale(IntVector val, IntVector factor) {
+        // mult() with a precomputed factor of multiplier + 1
+        return val.mul(factor).lanewise(ASHR, 8);
+    }
+
+    private static IntVector blend(IntVector src, IntVector dest, IntVector alpha) {
+        return src.add(alpha.lanewise(XOR, CHANNEL_MASK).mul(dest).lanewise(ASHR, 8));
+    }
+
+    private static IntVector difference(IntVector src, IntVector dest,
+            IntVector a, IntVector b) {
+        return src.add(dest).sub(a.lanewise(MIN, b).lanewise(LSHL, 1));
+    }
+
+    private static IntVector screen(IntVector src, IntVector dest) {
+        // 255 - mult(255 - src, 255 - dest)
+        return src.lanewise(XOR, CHANNEL_MASK)
+                .mul(dest.lanewise(XOR, CHANNEL_MASK).add(ONE))
+                .lanewise(ASHR, 8)
+                .lanewise(XOR, CHANNEL_MASK);
+    }
+
+    private static IntVector multiply(IntVector src, IntVector dest, IntVector invFactor) {
+        return src.mul(dest.add(ONE)).lanewise(ASHR, 8)
+                .add(dest.mul(invFactor).lanewise(ASHR, 8));
+    }
+
+    private static IntVector multiply(IntVector src, IntVector dest,
+            IntVector srcInvFactor, IntVector destInvFactor) {
+        return src.mul(dest.add(ONE)).lanewise(ASHR, 8)
+                .add(dest.mul(srcInvFactor).lanewise(ASHR, 8))
+                .add(src.mul(destInvFactor).lanewise(ASHR, 8));
+    }
+
+    static final class Add extends VectorRGBComposite {
+
+        private static final RGBComposite SCALAR = RGBComposite.ADD;
+
+        private Add() {
+        }
+
+        @Override
+        void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                rgbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                rgbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.rgb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        @Override
+        void argb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                argbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                argbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.argb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        private static void rgbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = min(sC.add(dC), CHANNEL_MASK);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void rgbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = min(sC.add(dC), CHANNEL_MASK);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = channel(s, 24);
+                IntVector dA = channel(d, 24);
+                IntVector a = min(sA.add(dA), CHANNEL_MASK);
+                IntVector out = a.lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = min(sC.add(dC), a);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = source(s, 24, factor);
+                IntVector dA = channel(d, 24);
+                IntVector a = min(sA.add(dA), CHANNEL_MASK);
+                IntVector out = a.lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = min(sC.add(dC), a);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+    }
+
+    static final class Normal extends VectorRGBComposite {
+
+        private static final RGBComposite SCALAR = RGBComposite.NORMAL;
+
+        private Normal() {
+        }
+
+        @Override
+        void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                rgbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                rgbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.rgb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        @Override
+        void argb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                argbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                argbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.argb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        private static void rgbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector c = sC;
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void rgbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector alphas = IntVector.broadcast(SPECIES, alpha);
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = blend(sC, dC, alphas);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = channel(s, 24);
+                IntVector dA = channel(d, 24);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = blend(sC, dC, sA);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = source(s, 24, factor);
+                IntVector dA = channel(d, 24);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = blend(sC, dC, sA);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+    }
+
+    static final class Sub extends VectorRGBComposite {
+
+        private static final RGBComposite SCALAR = RGBComposite.SUB;
+
+        private Sub() {
+        }
+
+        @Override
+        void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                rgbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                rgbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.rgb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        @Override
+        void argb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                argbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                argbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.argb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        private static void rgbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = max(dC.sub(sC), ZERO);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void rgbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = max(dC.sub(sC), ZERO);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = channel(s, 24);
+                IntVector dA = channel(d, 24);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = max(dC.sub(sC), ZERO);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = source(s, 24, factor);
+                IntVector dA = channel(d, 24);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = max(dC.sub(sC), ZERO);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+    }
+
+    static final class Difference extends VectorRGBComposite {
+
+        private static final RGBComposite SCALAR = RGBComposite.DIFFERENCE;
+
+        private Difference() {
+        }
+
+        @Override
+        void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                rgbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                rgbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.rgb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        @Override
+        void argb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                argbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                argbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.argb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        private static void rgbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = diff(sC, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void rgbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = difference(sC, dC, sC, scale(dC, factor));
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = channel(s, 24);
+                IntVector dA = channel(d, 24);
+                IntVector srcFactor = sA.add(ONE);
+                IntVector destFactor = dA.add(ONE);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = difference(sC, dC, scale(sC, destFactor), scale(dC, srcFactor));
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = source(s, 24, factor);
+                IntVector dA = channel(d, 24);
+                IntVector srcFactor = sA.add(ONE);
+                IntVector destFactor = dA.add(ONE);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = difference(sC, dC, scale(sC, destFactor), scale(dC, srcFactor));
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+    }
+
+    static final class BitXor extends VectorRGBComposite {
+
+        private static final RGBComposite SCALAR = RGBComposite.BITXOR;
+
+        private BitXor() {
+        }
+
+        @Override
+        void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                rgbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                rgbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.rgb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        @Override
+        void argb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                argbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                argbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.argb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        private static void rgbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = sC.lanewise(XOR, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void rgbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = sC.lanewise(XOR, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = channel(s, 24);
+                IntVector dA = channel(d, 24);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = sC.lanewise(XOR, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = source(s, 24, factor);
+                IntVector dA = channel(d, 24);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = sC.lanewise(XOR, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+    }
+
+    static final class Screen extends VectorRGBComposite {
+
+        private static final RGBComposite SCALAR = RGBComposite.SCREEN;
+
+        private Screen() {
+        }
+
+        @Override
+        void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                rgbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                rgbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.rgb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        @Override
+        void argb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                argbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                argbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.argb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        private static void rgbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = screen(sC, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void rgbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = screen(sC, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = channel(s, 24);
+                IntVector dA = channel(d, 24);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = screen(sC, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = source(s, 24, factor);
+                IntVector dA = channel(d, 24);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = screen(sC, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+    }
+
+    static final class Multiply extends VectorRGBComposite {
+
+        private static final RGBComposite SCALAR = RGBComposite.MULTIPLY;
+
+        private Multiply() {
+        }
+
+        @Override
+        void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                rgbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                rgbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.rgb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        @Override
+        void argb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                argbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                argbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.argb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        private static void rgbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = mult(sC, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void rgbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            IntVector invFactor = IntVector.broadcast(SPECIES, 256 - alpha);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = multiply(sC, dC, invFactor);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = channel(s, 24);
+                IntVector dA = channel(d, 24);
+                IntVector srcInvFactor = inverse(sA).add(ONE);
+                IntVector destInvFactor = inverse(dA).add(ONE);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = multiply(sC, dC, srcInvFactor, destInvFactor);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = source(s, 24, factor);
+                IntVector dA = channel(d, 24);
+                IntVector srcInvFactor = inverse(sA).add(ONE);
+                IntVector destInvFactor = inverse(dA).add(ONE);
+                IntVector out = blend(sA, dA, sA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = multiply(sC, dC, srcInvFactor, destInvFactor);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+    }
+
+    static final class Mask extends VectorRGBComposite {
+
+        private static final RGBComposite SCALAR = RGBComposite.MASK;
+
+        private Mask() {
+        }
+
+        @Override
+        void rgb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                rgbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                rgbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.rgb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        @Override
+        void argb(int[] src, int srcPos, int[] dest, int destPos, int length, int alpha) {
+            int bound = loopBound(src, srcPos, dest, destPos, length);
+            if (alpha == 255) {
+                argbOpaque(src, srcPos, dest, destPos, bound);
+            } else {
+                argbAlpha(src, srcPos, dest, destPos, bound, alpha);
+            }
+            SCALAR.argb(src, srcPos + bound, dest, destPos + bound, length - bound, alpha);
+        }
+
+        private static void rgbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = mult(sC, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void rgbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            IntVector invFactor = IntVector.broadcast(SPECIES, 256 - alpha);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector out = IntVector.zero(SPECIES);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = multiply(sC, dC, invFactor);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbOpaque(int[] src, int srcPos, int[] dest, int destPos, int bound) {
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = channel(s, 24);
+                IntVector dA = channel(d, 24);
+                IntVector out = mult(sA, dA).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = channel(s, shift);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = mult(sC, dC);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+
+        private static void argbAlpha(int[] src, int srcPos, int[] dest, int destPos, int bound,
+                int alpha) {
+            IntVector factor = IntVector.broadcast(SPECIES, alpha + 1);
+            IntVector invFactor = IntVector.broadcast(SPECIES, 256 - alpha);
+            for (int i = 0; i < bound; i += LANES) {
+                IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+                IntVector d = IntVector.fromArray(SPECIES, dest, destPos + i);
+                IntVector sA = source(s, 24, factor);
+                IntVector dA = channel(d, 24);
+                IntVector out = multiply(sA, dA, invFactor).lanewise(LSHL, 24);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    IntVector sC = source(s, shift, factor);
+                    IntVector dC = channel(d, shift);
+                    IntVector c = multiply(sC, dC, invFactor);
+                    out = out.lanewise(OR, c.lanewise(LSHL, shift));
+                }
+                out.intoArray(dest, destPos + i);
+            }
+        }
+    }
+
+}
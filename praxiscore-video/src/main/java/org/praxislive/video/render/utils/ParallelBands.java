@@ -0,0 +1,176 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.video.render.utils;
+
+import java.util.concurrent.RecursiveAction;
+import org.praxislive.core.Settings;
+import org.praxislive.video.render.PixelData;
+import org.praxislive.video.render.SurfaceOp;
+
+/**
+ * Utility for splitting processing of pixel data into horizontal bands of
+ * rows, processed in parallel on the shared fork-join pool. The calling thread
+ * processes the last band itself, and returns when all bands are complete.
+ * <p>
+ * The number of bands is limited by the number of available processors, and
+ * by a minimum number of pixels per band (default 65536) so that small
+ * surfaces are processed directly on the calling thread. Parallel processing
+ * may be disabled with the video.parallel setting, and the minimum band size
+ * adjusted with the video.parallel.band-pixels setting.
+ */
+public final class ParallelBands {
+
+    private final static String KEY_PARALLEL = "video.parallel";
+    private final static String KEY_BAND_PIXELS = "video.parallel.band-pixels";
+    private final static boolean ENABLED = Settings.getBoolean(KEY_PARALLEL, true);
+    private final static int BAND_PIXELS
+            = Math.max(1, Settings.getInt(KEY_BAND_PIXELS, 256 * 256));
+
+    private ParallelBands() {
+    }
+
+    /**
+     * Process the given banded op, splitting the output into bands if the
+     * output is large enough and parallel processing is enabled. The data
+     * arrays of output and inputs are acquired on the calling thread before
+     * any band is processed. If any input shares its data array with the
+     * output, the op is processed on the calling thread in a single band.
+     *
+     * @param op banded op
+     * @param output output pixel data
+     * @param inputs input pixel data
+     */
+    public static void process(SurfaceOp.Banded op, PixelData output, PixelData... inputs) {
+        int[] data = output.getData();
+        for (PixelData input : inputs) {
+            if (input.getData() == data) {
+                // bands may read rows another band is writing
+                op.process(output, 0, output.getHeight(), inputs);
+                return;
+            }
+        }
+        forEach(output.getWidth(), output.getHeight(),
+                (y, height) -> op.process(output, y, height, inputs));
+    }
+
+    /**
+     * Split the given number of rows into bands and process them, in parallel
+     * if the area is large enough and parallel processing is enabled.
+     *
+     * @param width width of each row, used to calculate band count
+     * @param height total number of rows
+     * @param band band processor
+     */
+    public static void forEach(int width, int height, Band band) {
+        int count = bandCount(width, height);
+        if (count < 2) {
+            band.process(0, height);
+            return;
+        }
+        int rows = height / count;
+        int extra = height % count;
+        BandTask[] tasks = new BandTask[count - 1];
+        int y = 0;
+        for (int i = 0; i < tasks.length; i++) {
+            int h = i < extra ? rows + 1 : rows;
+            tasks[i] = new BandTask(band, y, h);
+            tasks[i].fork();
+            y += h;
+        }
+        RuntimeException exception = null;
+        try {
+            band.process(y, height - y);
+        } catch (RuntimeException ex) {
+            exception = ex;
+        }
+        // always wait for forked bands so that no band is still writing
+        // after return
+        for (BandTask task : tasks) {
+            try {
+                task.join();
+            } catch (RuntimeException ex) {
+                if (exception == null) {
+                    exception = ex;
+                } else {
+                    exception.addSuppressed(ex);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Calculate the number of bands that an area of the given size will be
+     * split into.
+     *
+     * @param width width of area
+     * @param height height of area
+     * @return number of bands, at least 1
+     */
+    public static int bandCount(int width, int height) {
+        if (!ENABLED || width <= 0 || height < 2) {
+            return 1;
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        long bands = ((long) width * height) / BAND_PIXELS;
+        return (int) Math.max(1, Math.min(bands, Math.min(processors, height)));
+    }
+
+    /**
+     * A processor for a band of rows.
+     */
+    @FunctionalInterface
+    public static interface Band {
+
+        /**
+         * Process the band of rows from {@code y} (inclusive) to
+         * {@code y + height} (exclusive).
+         *
+         * @param y first row
+         * @param height number of rows
+         */
+        public void process(int y, int height);
+
+    }
+
+    private static class BandTask extends RecursiveAction {
+
+        private final Band band;
+        private final int y;
+        private final int height;
+
+        private BandTask(Band band, int y, int height) {
+            this.band = band;
+            this.y = y;
+            this.height = height;
+        }
+
+        @Override
+        protected void compute() {
+            band.process(y, height);
+        }
+
+    }
+
+}
@@ -22,38 +22,73 @@
 
 package org.praxislive.video.render.utils;
 
-import java.lang.ref.SoftReference;
-import java.util.ArrayList;
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.praxislive.core.Settings;
+import org.praxislive.core.types.PMap;
 
 /**
- *
- * 
+ * A cache of pixel arrays for reuse.
+ * <p>
+ * Arrays are allocated in power-of-two size classes, and released arrays are
+ * kept in a bucket per size class, so that acquire and release are constant
+ * time. The total size of arrays held by all caches is limited by a byte
+ * budget, set by the video.pixelcache.budget setting in megabytes (default
+ * 256MB or a quarter of the maximum heap, whichever is smaller). When the
+ * budget is exceeded, the least recently released arrays across all caches
+ * are discarded.
+ * <p>
+ * By default each thread has its own cache. Setting video.pixelcache.shared
+ * to true uses a single cache shared by all threads, which may be useful
+ * where surfaces are created and released on different threads.
  */
 public class PixelArrayCache {
 
     private final static Logger LOG = Logger.getLogger(PixelArrayCache.class.getName());
     private final static int SMALL_THRESHOLD = 256;
-    private final static int TILE_SIZE = 256 * 256;
+    private final static int MIN_CLASS = 9; // SMALL_THRESHOLD * 2
+    private final static int MAX_CLASS = 30;
+    private final static long MB = 1024 * 1024;
+    private final static String KEY_BUDGET = "video.pixelcache.budget";
+    private final static String KEY_SHARED = "video.pixelcache.shared";
 
-    private static ThreadLocal<CacheImpl> cache = new ThreadLocal<CacheImpl>() {
+    private final static boolean SHARED = Settings.getBoolean(KEY_SHARED, false);
+    private final static AtomicLong HELD = new AtomicLong();
+    private final static LongAdder HITS = new LongAdder();
+    private final static LongAdder MISSES = new LongAdder();
+    private final static LongAdder EVICTIONS = new LongAdder();
+    private final static AtomicLong STAMP = new AtomicLong();
+    // weak so that the caches of terminated threads can be collected
+    private final static Set<CacheImpl> CACHES
+            = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 
-        @Override
-        protected CacheImpl initialValue() {
-            return new CacheImpl();
-        }
+    private static volatile long budget = Settings.getInt(KEY_BUDGET,
+            (int) Math.min(256, Runtime.getRuntime().maxMemory() / MB / 4)) * MB;
 
-    };
+    private static final CacheImpl sharedCache = SHARED ? createCache() : null;
+
+    private static final ThreadLocal<CacheImpl> cache = ThreadLocal.withInitial(() -> {
+        CacheImpl impl = createCache();
+        // account for arrays held by the cache of a terminated thread
+        AtomicLong held = impl.held;
+        CleanerHolder.CLEANER.register(impl, () -> HELD.addAndGet(-held.get()));
+        return impl;
+    });
 
     private PixelArrayCache() {}
 
     public static int[] acquire(int size, boolean clear) {
         if (size > SMALL_THRESHOLD) {
-            return cache.get().acquire(size, clear);
+            return cache().acquire(size, clear);
         } else {
             LOG.log(Level.FINEST, "Creating array below threshold of size : {0}", size);
             return new int[size];
@@ -63,80 +98,199 @@ public class PixelArrayCache {
 
     public static void release(int[] array) {
         if (array.length > SMALL_THRESHOLD) {
-            cache.get().release(array);
+            if (cache().release(array)) {
+                trim();
+            }
         } 
     }
 
-    private static class CacheImpl {
+    /**
+     * Set the maximum number of bytes that may be held in cached arrays
+     * across all threads. Caches are trimmed to the new budget immediately.
+     *
+     * @param bytes budget in bytes
+     */
+    public static void setBudget(long bytes) {
+        budget = Math.max(0, bytes);
+        trim();
+    }
 
-        private List<SoftReference<int[]>> arrays = new ArrayList<SoftReference<int[]>>();
-
-        private int[] acquire(int size, boolean clear) {
-            int[] array = null;
-            SoftReference<int[]> ref = null;
-            int minDiff = Integer.MAX_VALUE;
-            Iterator<SoftReference<int[]>> itr = arrays.iterator();
-            while (itr.hasNext()) {
-                SoftReference<int[]> entry = itr.next();
-                int[] ar = entry.get();
-                if (ar == null) {
-                    LOG.log(Level.FINEST,
-                            "Pixel array collected, removing SoftReference.\nList size : {0}",
-                            arrays.size());
-                    itr.remove();
-                    continue;
-                }
-                if (ar.length >= size) {
-                    int diff = ar.length - size;
-                    if (array == null || diff < minDiff) {
-                        array = ar;
-                        ref = entry;
-                        minDiff = diff;
-                    }
-                    if (diff == 0) {
-                        break;
-                    }
+    /**
+     * Get the maximum number of bytes that may be held in cached arrays
+     * across all threads.
+     *
+     * @return budget in bytes
+     */
+    public static long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Get cache statistics. The map contains acquire hits and misses, the
+     * number of arrays evicted to stay within the budget, and the bytes
+     * currently held and budget.
+     *
+     * @return statistics
+     */
+    public static PMap statistics() {
+        return PMap.builder()
+                .put("hits", (double) HITS.sum())
+                .put("misses", (double) MISSES.sum())
+                .put("evictions", (double) EVICTIONS.sum())
+                .put("bytes-held", (double) HELD.get())
+                .put("budget", (double) budget)
+                .put("shared", SHARED)
+                .build();
+    }
+
+    private static CacheImpl cache() {
+        return SHARED ? sharedCache : cache.get();
+    }
+
+    private static CacheImpl createCache() {
+        CacheImpl impl = new CacheImpl();
+        CACHES.add(impl);
+        return impl;
+    }
+
+    /*
+     * Evict the least recently released arrays across all caches until within
+     * budget. Only one cache lock is held at a time.
+     */
+    private static void trim() {
+        while (HELD.get() > budget) {
+            CacheImpl oldest = null;
+            long oldestStamp = Long.MAX_VALUE;
+            List<CacheImpl> caches;
+            synchronized (CACHES) {
+                caches = List.copyOf(CACHES);
+            }
+            for (CacheImpl impl : caches) {
+                long stamp = impl.oldestStamp();
+                if (stamp < oldestStamp) {
+                    oldest = impl;
+                    oldestStamp = stamp;
                 }
             }
-            if ( (array != null) && (minDiff < (calculateSize(size)) ) ) {
-                arrays.remove(ref);
+            if (oldest == null) {
+                break;
+            }
+            if (oldest.evictOldest() != null) {
+                EVICTIONS.increment();
+            }
+        }
+    }
+
+    private static int sizeClass(int minSize) {
+        return Math.max(MIN_CLASS, 32 - Integer.numberOfLeadingZeros(minSize - 1));
+    }
+
+    private static long bytes(int[] array) {
+        return (long) array.length * Integer.BYTES;
+    }
+
+    private static class CacheImpl {
+
+        // head of each bucket is most recently released
+        private final ArrayDeque<Entry>[] buckets;
+        private final AtomicLong held;
+
+        @SuppressWarnings("unchecked")
+        private CacheImpl() {
+            buckets = new ArrayDeque[MAX_CLASS + 1];
+            for (int i = MIN_CLASS; i <= MAX_CLASS; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+            held = new AtomicLong();
+        }
+
+        private synchronized int[] acquire(int size, boolean clear) {
+            int sizeClass = sizeClass(size);
+            if (sizeClass > MAX_CLASS) {
+                MISSES.increment();
+                return new int[size];
+            }
+            Entry entry = buckets[sizeClass].pollFirst();
+            if (entry != null) {
+                HITS.increment();
+                removed(entry.array);
                 if (clear) {
-                    Arrays.fill(array, 0);
+                    Arrays.fill(entry.array, 0);
                 }
-                return array;
+                return entry.array;
             } else {
-                array = new int[calculateSize(size)];
+                MISSES.increment();
+                int[] array = new int[1 << sizeClass];
                 if (LOG.isLoggable(Level.FINEST)) {
                     LOG.log(Level.FINEST,
                             "Creating new array of size : " + array.length +
                             "\n - Requested size : " + size +
-                            "\n - Cache list size : " + arrays.size() +
-                            "\n - Minimum Difference found : " + minDiff);
-
+                            "\n - Bytes held : " + HELD.get());
                 }
                 return array;
-            }      
+            }
+        }
+
+        // returns true if the budget is now exceeded
+        private synchronized boolean release(int[] array) {
+            // arrays not created by the cache go in the class below their
+            // length so that every array in a bucket satisfies the class
+            int sizeClass = 31 - Integer.numberOfLeadingZeros(array.length);
+            if (sizeClass < MIN_CLASS || sizeClass > MAX_CLASS) {
+                return false;
+            }
+            buckets[sizeClass].addFirst(new Entry(array, STAMP.getAndIncrement()));
+            long bytes = bytes(array);
+            held.addAndGet(bytes);
+            return HELD.addAndGet(bytes) > budget;
         }
 
-        private int calculateSize(int minSize) {
-//            if (minSize < TILE_SIZE) {
-                int size = SMALL_THRESHOLD * 2;
-                while (size < minSize) {
-                    size *= 2;
+        private synchronized long oldestStamp() {
+            long oldestStamp = Long.MAX_VALUE;
+            for (int i = MIN_CLASS; i <= MAX_CLASS; i++) {
+                Entry last = buckets[i].peekLast();
+                if (last != null && last.stamp < oldestStamp) {
+                    oldestStamp = last.stamp;
                 }
-                return size;
-//            } else {
-//                int size = minSize / TILE_SIZE;
-//                size += 1;
-//                size *= TILE_SIZE;
-//                return size;
-//            }
+            }
+            return oldestStamp;
         }
 
-        private void release(int[] array) {
-            arrays.add(new SoftReference<int[]>(array));
+        private synchronized int[] evictOldest() {
+            ArrayDeque<Entry> oldest = null;
+            long oldestStamp = Long.MAX_VALUE;
+            for (int i = MIN_CLASS; i <= MAX_CLASS; i++) {
+                Entry last = buckets[i].peekLast();
+                if (last != null && last.stamp < oldestStamp) {
+                    oldest = buckets[i];
+                    oldestStamp = last.stamp;
+                }
+            }
+            if (oldest == null) {
+                return null;
+            }
+            int[] array = oldest.pollLast().array;
+            removed(array);
+            LOG.log(Level.FINEST, "Evicting array of size : {0}", array.length);
+            return array;
         }
 
+        private void removed(int[] array) {
+            long bytes = bytes(array);
+            held.addAndGet(-bytes);
+            HELD.addAndGet(-bytes);
+        }
+
+    }
+
+    private record Entry(int[] array, long stamp) {
+
+    }
+
+    private static class CleanerHolder {
+
+        private final static Cleaner CLEANER = Cleaner.create();
+
     }
 
 }
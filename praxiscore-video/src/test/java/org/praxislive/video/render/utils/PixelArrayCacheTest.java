@@ -0,0 +1,156 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ * 
+ * Copyright 2026 Neil C Smith.
+ * 
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ * 
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License version 3
+ * along with this work; if not, see http://www.gnu.org/licenses/
+ * 
+ * 
+ * Please visit https://www.praxislive.org if you need additional information or
+ * have any questions.
+ */
+package org.praxislive.video.render.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.praxislive.core.types.PMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+public class PixelArrayCacheTest {
+
+    private long budget;
+
+    public PixelArrayCacheTest() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        budget = PixelArrayCache.getBudget();
+        // empty all caches
+        PixelArrayCache.setBudget(0);
+        PixelArrayCache.setBudget(budget);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PixelArrayCache.setBudget(budget);
+    }
+
+    @Test
+    public void testBucketing() {
+        int[] array = PixelArrayCache.acquire(1000, false);
+        assertEquals(1024, array.length);
+        PixelArrayCache.release(array);
+        assertSame(array, PixelArrayCache.acquire(600, false));
+
+        int[] small = PixelArrayCache.acquire(100, false);
+        assertEquals(100, small.length);
+        PixelArrayCache.release(small);
+        assertEquals(0, bytesHeld());
+
+        // arrays not created by the cache go in the class below their length
+        int[] external = new int[1500];
+        Arrays.fill(external, 1);
+        PixelArrayCache.release(external);
+        assertNotSame(external, PixelArrayCache.acquire(1025, false));
+        assertSame(external, PixelArrayCache.acquire(1024, true));
+        assertTrue(Arrays.stream(external).allMatch(i -> i == 0));
+    }
+
+    @Test
+    public void testStatistics() {
+        PMap before = PixelArrayCache.statistics();
+        int[] array = PixelArrayCache.acquire(1 << 16, false);
+        PixelArrayCache.release(array);
+        assertEquals(array.length * 4, bytesHeld());
+        assertSame(array, PixelArrayCache.acquire(1 << 16, false));
+        assertEquals(0, bytesHeld());
+        PMap after = PixelArrayCache.statistics();
+        assertEquals(1, delta(before, after, "hits"));
+        assertEquals(1, delta(before, after, "misses"));
+        assertEquals(0, delta(before, after, "evictions"));
+        assertEquals(budget, (long) after.getDouble("budget", 0));
+    }
+
+    @Test
+    public void testBudget() {
+        int size = 4096;
+        PixelArrayCache.setBudget(2 * size * 4);
+        PMap before = PixelArrayCache.statistics();
+        int[] first = PixelArrayCache.acquire(size, false);
+        int[] second = PixelArrayCache.acquire(size, false);
+        int[] third = PixelArrayCache.acquire(size, false);
+        PixelArrayCache.release(first);
+        PixelArrayCache.release(second);
+        PixelArrayCache.release(third);
+        assertEquals(2 * size * 4, bytesHeld());
+        assertEquals(1, delta(before, PixelArrayCache.statistics(), "evictions"));
+        // least recently released is evicted
+        assertSame(third, PixelArrayCache.acquire(size, false));
+        assertSame(second, PixelArrayCache.acquire(size, false));
+        assertNotSame(first, PixelArrayCache.acquire(size, false));
+
+        PixelArrayCache.release(second);
+        PixelArrayCache.setBudget(0);
+        assertEquals(0, bytesHeld());
+    }
+
+    @Test
+    public void testGlobalTrim() throws Exception {
+        int size = 1 << 16;
+        PixelArrayCache.setBudget(size * 5);
+        PMap before = PixelArrayCache.statistics();
+        CountDownLatch released = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread other = new Thread(() -> {
+            PixelArrayCache.release(new int[size]);
+            released.countDown();
+            try {
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        other.start();
+        try {
+            assertTrue(released.await(5, TimeUnit.SECONDS));
+            assertEquals(size * 4, bytesHeld());
+            int[] local = new int[size / 2];
+            PixelArrayCache.release(local);
+            // the other thread's array is older, so is evicted from its cache
+            assertEquals(size * 2, bytesHeld());
+            assertEquals(1, delta(before, PixelArrayCache.statistics(), "evictions"));
+            assertSame(local, PixelArrayCache.acquire(size / 2, false));
+        } finally {
+            done.countDown();
+            other.join();
+        }
+    }
+
+    private static long bytesHeld() {
+        return (long) PixelArrayCache.statistics().getDouble("bytes-held", -1);
+    }
+
+    private static long delta(PMap before, PMap after, String key) {
+        return (long) (after.getDouble(key, 0) - before.getDouble(key, 0));
+    }
+
+}